@@ -23,11 +23,13 @@
 
 package net.sourceforge.processdash.rest.controller;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 
+import net.sourceforge.processdash.rest.rs.AsyncResult;
 import net.sourceforge.processdash.rest.rs.GET;
 import net.sourceforge.processdash.rest.rs.ParamParser;
 import net.sourceforge.processdash.rest.rs.Path;
@@ -40,22 +42,66 @@ import net.sourceforge.processdash.util.HTMLUtils;
 public class EventApi {
 
     @GET
-    public Map getEvents(HttpServletRequest req) {
+    public Object getEvents(HttpServletRequest req) {
         // fetch parameters from the request
         long id = ParamParser.LONG.parse(req, "after", 0L);
         int wait = ParamParser.INTEGER.parse(req, "maxWait", 60) * 1000;
+        String maxWait = req.getParameter("maxWait");
 
         // retrieve the events that have occurred since the given time
-        List<RestEvent> events = RestEventService.get().eventsAfter(id, wait);
+        List<RestEvent> events = RestEventService.get().eventsAfter(id);
+        if (!events.isEmpty())
+            return buildResult(id, events, maxWait);
+
+        // if no events are available yet, wait for some to arrive
+        return new EventWait(id, wait, maxWait);
+    }
 
+    private static Map buildResult(long id, List<RestEvent> events,
+            String maxWait) {
         // construct a URL to retrieve the next batch of events
         if (!events.isEmpty())
             id = events.get(events.size() - 1).getId();
         String nextUri = HTMLUtils.appendQuery("/events/?after=" + id,
-            "maxWait", req.getParameter("maxWait"));
+            "maxWait", maxWait);
 
         // build and return the result
         return new JsonMap("events", events, "nextUri", nextUri, "stat", "ok");
     }
 
+
+    private static class EventWait extends AsyncResult
+            implements RestEventService.Subscriber {
+
+        private long id;
+
+        private String maxWait;
+
+        EventWait(long id, long timeout, String maxWait) {
+            super(timeout);
+            this.id = id;
+            this.maxWait = maxWait;
+        }
+
+        @Override
+        protected void start() {
+            RestEventService.get().subscribe(id, this);
+        }
+
+        public void eventsArrived(List<RestEvent> events) {
+            finish(buildResult(id, events, maxWait));
+        }
+
+        @Override
+        protected Map timedOut() {
+            return buildResult(id, Collections.<RestEvent> emptyList(), maxWait);
+        }
+
+        @Override
+        protected void stop() {
+            RestEventService.get().unsubscribe(this);
+        }
+
+    }
+
 }
@@ -0,0 +1,174 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// REST API Add-on for the Process Dashboard
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.rest.rs;
+
+import java.util.Map;
+
+/**
+ * A result that will become available at some point in the future.
+ * 
+ * REST endpoints can return an object of this type instead of a Map. When
+ * the servlet container supports asynchronous requests, the DispatchServlet
+ * will suspend the request without holding a thread, and will send the
+ * response when {@link #finish(Map)} is called or the timeout elapses. In
+ * older containers, the request thread will simply block until the result is
+ * ready.
+ */
+public abstract class AsyncResult {
+
+    public interface Listener {
+        public void resultReady(Map result);
+    }
+
+
+    private long timeout;
+
+    private Listener listener;
+
+    private Map result;
+
+    private boolean finished;
+
+
+    /**
+     * @param timeout
+     *            the number of milliseconds to wait for a result, or 0 to wait
+     *            forever
+     */
+    protected AsyncResult(long timeout) {
+        this.timeout = timeout;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Begin listening for the events that will produce a result. Subclasses
+     * can call {@link #finish(Map)} from any thread, including the current
+     * one.
+     */
+    protected abstract void start();
+
+    /**
+     * @return the result that should be sent if the timeout elapses before
+     *         {@link #finish(Map)} is called
+     */
+    protected abstract Map timedOut();
+
+    /**
+     * Stop listening for events. This is called once after the result has
+     * been produced, the timeout has elapsed, or the request has failed.
+     */
+    protected void stop() {}
+
+
+    /**
+     * Record the result of this operation, and alert the listener.
+     * 
+     * @return true if this call produced the result; false if a result was
+     *         already produced by an earlier call or by a timeout
+     */
+    protected final boolean finish(Map result) {
+        Listener l;
+        synchronized (this) {
+            if (finished)
+                return false;
+            this.finished = true;
+            this.result = result;
+            l = this.listener;
+            notifyAll();
+        }
+        stop();
+        if (l != null)
+            l.resultReady(result);
+        return true;
+    }
+
+    /**
+     * Start listening asynchronously. The listener will be notified when a
+     * result is produced by {@link #finish(Map)}.
+     */
+    void start(Listener l) {
+        synchronized (this) {
+            this.listener = l;
+        }
+        start();
+    }
+
+    /**
+     * Abort this operation because the timeout has elapsed.
+     * 
+     * @return the timeout result that should be sent to the client, or null if
+     *         a result was already delivered to the listener
+     */
+    Map expire() {
+        synchronized (this) {
+            if (finished)
+                return null;
+            finished = true;
+        }
+        stop();
+        return timedOut();
+    }
+
+    /**
+     * Abort this operation because the request has failed.
+     */
+    void cancel() {
+        synchronized (this) {
+            if (finished)
+                return;
+            finished = true;
+        }
+        stop();
+    }
+
+    /**
+     * Block the current thread until a result is available, or until the
+     * timeout elapses.
+     */
+    Map await() {
+        start();
+        synchronized (this) {
+            long end = System.currentTimeMillis() + timeout;
+            while (!finished) {
+                long wait = (timeout == 0 ? 0
+                        : end - System.currentTimeMillis());
+                if (timeout != 0 && wait <= 0)
+                    break;
+                try {
+                    wait(wait);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+            }
+            if (finished)
+                return result;
+        }
+        Map timeoutResult = expire();
+        return (timeoutResult != null ? timeoutResult : result);
+    }
+
+}
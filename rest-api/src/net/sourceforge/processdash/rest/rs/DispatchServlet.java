@@ -24,18 +24,12 @@
 package net.sourceforge.processdash.rest.rs;
 
 import java.io.IOException;
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
-import java.net.URLDecoder;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -59,6 +53,11 @@ import net.sourceforge.processdash.rest.service.RestDashContext;
  * In the interest of performance, this simplified replacement allows
  * registration of various REST endpoints (via an initParam), and dispatches
  * requests to those endpoints based on path-match rules.
+ * 
+ * Endpoints that may need to wait for a result (for example, long-polling
+ * requests) can return an {@link AsyncResult}. When the container supports
+ * it, those requests are suspended so they do not occupy a server thread
+ * while they wait.
  */
 public class DispatchServlet extends HttpServlet {
 
@@ -88,29 +87,14 @@ public class DispatchServlet extends HttpServlet {
 
 
 
-    private class Handler {
-
-        Method method;
-
-        boolean wantsRequest;
-
-        Object target;
-
-        Set<String> httpMethods;
-
-        Pattern path;
-
-    }
-
-
-    private List<Handler> handlers;
+    private RouteTable routes;
 
     private void initialize(HttpServletRequest req, HttpServletResponse resp)
             throws IOException {
-        if (handlers == null) {
+        if (routes == null) {
             try {
                 RestDashContext.init(req);
-                handlers = createHandlers();
+                routes = createRoutes();
             } catch (Exception e) {
                 e.printStackTrace();
                 resp.sendError(HttpStatus.INTERNAL_SERVER_ERROR_500);
@@ -118,104 +102,33 @@ public class DispatchServlet extends HttpServlet {
         }
     }
 
-    private List<Handler> createHandlers() throws Exception {
-        List<Handler> handlers = new ArrayList<Handler>();
+    private RouteTable createRoutes() throws Exception {
         String[] classNames = getInitParameter("handlers").trim().split("\\s+");
-        for (String oneClassName : classNames) {
-            Class clazz = Class.forName(oneClassName, true,
+        return new RouteTable(classNames,
                 DispatchServlet.class.getClassLoader());
-            createHandlersForClass(handlers, clazz);
-        }
-        return Collections.unmodifiableList(handlers);
-    }
-
-    private void createHandlersForClass(List<Handler> handlers,
-            Class<? extends Object> clazz) throws Exception {
-
-        // get information about the handler class itself
-        Object target = clazz.newInstance();
-        Path basePath = clazz.getAnnotation(Path.class);
-
-        // create a handler for each applicable method
-        for (Method m : clazz.getMethods()) {
-            Handler handler = new Handler();
-            handler.method = m;
-            handler.target = target;
-            handler.httpMethods = getHttpMethods(m);
-            if (handler.httpMethods == null)
-                // methods with no GET/POST/etc annotation are ignored
-                continue;
-            handler.wantsRequest = methodWantsServletRequest(m);
-
-            // build a string representing the desired path
-            StringBuilder path = new StringBuilder();
-            if (basePath != null)
-                path.append(basePath.value());
-            Path methodPath = m.getAnnotation(Path.class);
-            if (methodPath != null)
-                path.append(methodPath.value());
-            if (path.length() == 0)
-                continue;
-
-            // construct a regexp for matching the desired path. This simple
-            // implementation discards the names of path parameters, and just
-            // passes all parameters in by position
-            while (true) {
-                int beg = path.indexOf("{");
-                int end = path.indexOf("}");
-                if (beg == -1 || end == -1)
-                    break;
-                path.replace(beg, end + 1, "([^/]+)");
-            }
-            handler.path = Pattern.compile(path.toString());
-
-            // add this handler to the list
-            handlers.add(handler);
-        }
-    }
-
-    private Set<String> getHttpMethods(Method m) {
-        Set<String> httpMethods = new HashSet<String>();
-        for (Annotation a : m.getAnnotations()) {
-            HttpMethod hm = a.annotationType().getAnnotation(HttpMethod.class);
-            if (hm != null)
-                httpMethods.add(hm.value());
-        }
-        return httpMethods.isEmpty() ? null
-                : Collections.unmodifiableSet(httpMethods);
-    }
-
-    private boolean methodWantsServletRequest(Method m) {
-        Class<?>[] parameterTypes = m.getParameterTypes();
-        return parameterTypes.length > 0
-                && parameterTypes[0].equals(HttpServletRequest.class);
     }
 
 
     private void findAndRunHandler(HttpServletRequest req,
             HttpServletResponse resp) throws IOException {
         // if the handlers were not created successfully, abort
-        if (handlers == null)
+        if (routes == null)
             return;
 
         // look for an appropriate handler, and invoke it
         String httpMethod = getMethod(req).toUpperCase();
-        String pathInfo = req.getPathInfo();
-        boolean sawPathMatch = false;
-        for (Handler handler : handlers) {
-            Matcher matcher = handler.path.matcher(pathInfo);
-            if (matcher.matches()) {
-                sawPathMatch = true;
-                if (handler.httpMethods.contains(httpMethod)) {
-                    runHandler(req, resp, matcher, handler);
-                    return;
-                }
+        List<RouteTable.Match> matches = routes.findPathMatches(req
+                .getPathInfo());
+        for (RouteTable.Match match : matches) {
+            if (match.handler.httpMethods.contains(httpMethod)) {
+                runHandler(req, resp, match);
+                return;
             }
         }
 
         // if no handler was found, send an error response
-        resp.sendError(sawPathMatch ? HttpStatus.METHOD_NOT_ALLOWED_405
-                : HttpStatus.NOT_FOUND_404);
+        resp.sendError(matches.isEmpty() ? HttpStatus.NOT_FOUND_404
+                : HttpStatus.METHOD_NOT_ALLOWED_405);
     }
 
     private String getMethod(HttpServletRequest req) {
@@ -234,23 +147,20 @@ public class DispatchServlet extends HttpServlet {
     }
 
     private void runHandler(HttpServletRequest req, HttpServletResponse resp,
-            Matcher matcher, Handler handler) throws IOException {
-        // build a parameter list for the method. This is always the servlet
-        // request, followed by the path parameters in the order they appeared
-        int off = handler.wantsRequest ? 1 : 0;
-        Object[] args = new Object[matcher.groupCount() + off];
-        if (handler.wantsRequest)
-            args[0] = req;
-        for (int i = matcher.groupCount(); i > 0; i--)
-            args[i - 1 + off] = URLDecoder.decode(matcher.group(i), "UTF-8");
+            RouteTable.Match match) throws IOException {
+        // build a parameter list for the method
+        RouteTable.Handler handler = match.handler;
+        Object[] args = handler.bindArgs(req, match.pathParams);
 
         try {
             // invoke the handler and get the resulting object
-            Map result = (Map) handler.method.invoke(handler.target, args);
+            Object result = handler.method.invoke(handler.target, args);
 
             // send a response to the client
-            resp.setContentType("application/json");
-            JSONObject.writeJSONString(result, resp.getWriter());
+            if (result instanceof AsyncResult)
+                runAsync(req, resp, (AsyncResult) result);
+            else
+                writeResult(resp, (Map) result);
 
         } catch (Exception e) {
             if (e.getCause() instanceof HttpException) {
@@ -263,4 +173,64 @@ public class DispatchServlet extends HttpServlet {
         }
     }
 
+    private void runAsync(HttpServletRequest req, HttpServletResponse resp,
+            final AsyncResult result) throws IOException {
+        // if the container or filter chain doesn't support async requests,
+        // block this thread until the result is ready
+        if (!req.isAsyncSupported()) {
+            writeResult(resp, result.await());
+            return;
+        }
+
+        // suspend the request, and resume it when the result is ready
+        final AsyncContext ctx = req.startAsync(req, resp);
+        ctx.setTimeout(result.getTimeout());
+        ctx.addListener(new AsyncListener() {
+            public void onTimeout(AsyncEvent event) throws IOException {
+                Map timeoutResult = result.expire();
+                if (timeoutResult != null)
+                    completeAsync(ctx, timeoutResult);
+            }
+
+            public void onError(AsyncEvent event) {
+                result.cancel();
+            }
+
+            public void onComplete(AsyncEvent event) {}
+
+            public void onStartAsync(AsyncEvent event) {}
+        });
+        result.start(new AsyncResult.Listener() {
+            public void resultReady(final Map value) {
+                // results are often produced on the Swing event thread.
+                // Write them from a container thread instead.
+                ctx.start(new Runnable() {
+                    public void run() {
+                        completeAsync(ctx, value);
+                    }
+                });
+            }
+        });
+    }
+
+    private void completeAsync(AsyncContext ctx, Map result) {
+        try {
+            writeResult((HttpServletResponse) ctx.getResponse(), result);
+        } catch (IOException ioe) {
+            // the client has disconnected; nothing to do
+        } finally {
+            try {
+                ctx.complete();
+            } catch (IllegalStateException ise) {
+                // the request was already completed by the container
+            }
+        }
+    }
+
+    private void writeResult(HttpServletResponse resp, Map result)
+            throws IOException {
+        resp.setContentType("application/json");
+        JSONObject.writeJSONString(result, resp.getWriter());
+    }
+
 }
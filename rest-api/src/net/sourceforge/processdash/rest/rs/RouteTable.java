@@ -0,0 +1,303 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// REST API Add-on for the Process Dashboard
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.rest.rs;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * A precompiled table of the REST endpoints registered with the
+ * DispatchServlet.
+ * 
+ * Endpoint paths are indexed in a trie keyed on literal path segments, so a
+ * request only examines the handlers whose paths could possibly match. Paths
+ * that cannot be expressed as a sequence of literal and parameter segments
+ * fall back to regular expression matching.
+ * 
+ * When several handlers match a path, they are considered in the order they
+ * were registered, just as a linear scan of the handler list would.
+ */
+class RouteTable {
+
+    static class Handler {
+
+        /** The order in which this handler was registered */
+        int order;
+
+        Method method;
+
+        Object target;
+
+        Set<String> httpMethods;
+
+        Pattern path;
+
+        /** True if the servlet request should be passed as the first arg */
+        boolean wantsRequest;
+
+        /**
+         * Build an argument list for this handler's method. This is always
+         * the servlet request (if the method wants it), followed by the
+         * decoded path parameters in the order they appeared.
+         */
+        Object[] bindArgs(HttpServletRequest req, String[] pathParams)
+                throws UnsupportedEncodingException {
+            int off = wantsRequest ? 1 : 0;
+            Object[] args = new Object[pathParams.length + off];
+            if (wantsRequest)
+                args[0] = req;
+            for (int i = pathParams.length; i-- > 0;)
+                args[i + off] = URLDecoder.decode(pathParams[i], "UTF-8");
+            return args;
+        }
+
+    }
+
+
+    static class Match {
+
+        Handler handler;
+
+        String[] pathParams;
+
+        Match(Handler handler, String[] pathParams) {
+            this.handler = handler;
+            this.pathParams = pathParams;
+        }
+
+    }
+
+
+    private static class Node {
+
+        Map<String, Node> literals = new HashMap<String, Node>();
+
+        Node param;
+
+        List<Handler> handlers = new ArrayList<Handler>();
+
+    }
+
+
+    private List<Handler> handlers;
+
+    private Node root;
+
+    private List<Handler> regexHandlers;
+
+
+    RouteTable(String[] classNames, ClassLoader loader) throws Exception {
+        this.handlers = new ArrayList<Handler>();
+        this.root = new Node();
+        this.regexHandlers = new ArrayList<Handler>();
+        for (String oneClassName : classNames) {
+            Class clazz = Class.forName(oneClassName, true, loader);
+            addHandlersForClass(clazz);
+        }
+        this.handlers = Collections.unmodifiableList(handlers);
+    }
+
+    /**
+     * @return all of the handlers in this table, in registration order
+     */
+    List<Handler> getHandlers() {
+        return handlers;
+    }
+
+    /**
+     * Find the handlers whose path matches the given path, in the order they
+     * were registered.
+     */
+    List<Match> findPathMatches(String pathInfo) {
+        if (pathInfo == null)
+            return Collections.EMPTY_LIST;
+
+        List<Match> result = new ArrayList<Match>(2);
+        String[] segments = pathInfo.split("/", -1);
+        collectMatches(root, segments, 0, new ArrayList<String>(), result);
+
+        for (Handler h : regexHandlers) {
+            Matcher m = h.path.matcher(pathInfo);
+            if (m.matches()) {
+                String[] params = new String[m.groupCount()];
+                for (int i = params.length; i > 0; i--)
+                    params[i - 1] = m.group(i);
+                result.add(new Match(h, params));
+            }
+        }
+
+        if (result.size() > 1)
+            Collections.sort(result, MATCH_ORDER);
+        return result;
+    }
+
+    private void collectMatches(Node node, String[] segments, int pos,
+            List<String> params, List<Match> result) {
+        if (pos == segments.length) {
+            if (!node.handlers.isEmpty()) {
+                String[] p = params.toArray(new String[params.size()]);
+                for (Handler h : node.handlers)
+                    result.add(new Match(h, p));
+            }
+            return;
+        }
+
+        String seg = segments[pos];
+        Node literal = node.literals.get(seg);
+        if (literal != null)
+            collectMatches(literal, segments, pos + 1, params, result);
+
+        if (node.param != null && seg.length() > 0) {
+            params.add(seg);
+            collectMatches(node.param, segments, pos + 1, params, result);
+            params.remove(params.size() - 1);
+        }
+    }
+
+    private static final Comparator<Match> MATCH_ORDER = //
+    new Comparator<Match>() {
+        public int compare(Match a, Match b) {
+            return a.handler.order - b.handler.order;
+        }
+    };
+
+
+    private void addHandlersForClass(Class<? extends Object> clazz)
+            throws Exception {
+
+        // get information about the handler class itself
+        Object target = clazz.newInstance();
+        Path basePath = clazz.getAnnotation(Path.class);
+
+        // create a handler for each applicable method
+        for (Method m : clazz.getMethods()) {
+            Handler handler = new Handler();
+            handler.method = m;
+            handler.target = target;
+            handler.httpMethods = getHttpMethods(m);
+            if (handler.httpMethods == null)
+                // methods with no GET/POST/etc annotation are ignored
+                continue;
+            handler.wantsRequest = methodWantsServletRequest(m);
+
+            // build a string representing the desired path
+            StringBuilder path = new StringBuilder();
+            if (basePath != null)
+                path.append(basePath.value());
+            Path methodPath = m.getAnnotation(Path.class);
+            if (methodPath != null)
+                path.append(methodPath.value());
+            if (path.length() == 0)
+                continue;
+            String[] segments = path.toString().split("/", -1);
+
+            // construct a regexp for matching the desired path. This simple
+            // implementation discards the names of path parameters, and just
+            // passes all parameters in by position
+            while (true) {
+                int beg = path.indexOf("{");
+                int end = path.indexOf("}");
+                if (beg == -1 || end == -1)
+                    break;
+                path.replace(beg, end + 1, "([^/]+)");
+            }
+            handler.path = Pattern.compile(path.toString());
+
+            // skip the access checks that would otherwise be performed on
+            // every invocation
+            try {
+                m.setAccessible(true);
+            } catch (SecurityException se) {
+            }
+
+            // add this handler to the table
+            handler.order = handlers.size();
+            handlers.add(handler);
+            Node node = getTrieNode(segments);
+            if (node != null)
+                node.handlers.add(handler);
+            else
+                regexHandlers.add(handler);
+        }
+    }
+
+    private Node getTrieNode(String[] segments) {
+        Node node = root;
+        for (String seg : segments) {
+            if (PARAM_SEGMENT.matcher(seg).matches()) {
+                if (node.param == null)
+                    node.param = new Node();
+                node = node.param;
+            } else if (LITERAL_SEGMENT.matcher(seg).matches()) {
+                Node child = node.literals.get(seg);
+                if (child == null)
+                    node.literals.put(seg, child = new Node());
+                node = child;
+            } else {
+                // this segment mixes parameters and literal text, or
+                // contains regular expression characters
+                return null;
+            }
+        }
+        return node;
+    }
+
+    private static final Pattern PARAM_SEGMENT = Pattern
+            .compile("\\{[^{}]*\\}");
+
+    private static final Pattern LITERAL_SEGMENT = Pattern
+            .compile("[^{}\\\\.\\[\\]()*+?^$|]*");
+
+    private Set<String> getHttpMethods(Method m) {
+        Set<String> httpMethods = new HashSet<String>();
+        for (Annotation a : m.getAnnotations()) {
+            HttpMethod hm = a.annotationType().getAnnotation(HttpMethod.class);
+            if (hm != null)
+                httpMethods.add(hm.value());
+        }
+        return httpMethods.isEmpty() ? null
+                : Collections.unmodifiableSet(httpMethods);
+    }
+
+    private boolean methodWantsServletRequest(Method m) {
+        Class<?>[] parameterTypes = m.getParameterTypes();
+        return parameterTypes.length > 0
+                && parameterTypes[0].equals(HttpServletRequest.class);
+    }
+
+}
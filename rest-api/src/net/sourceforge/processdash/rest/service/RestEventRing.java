@@ -0,0 +1,152 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// REST API Add-on for the Process Dashboard
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.rest.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sourceforge.processdash.rest.to.RestEvent;
+
+/**
+ * A bounded buffer of events in ascending ID order.
+ * 
+ * Only the most recent event for a given key is reported to clients; earlier
+ * events for the same key are skipped when reading, and are discarded first
+ * when the buffer fills up. This class is not thread-safe; callers must
+ * synchronize on the ring.
+ */
+class RestEventRing {
+
+    /** The most recent event that was registered for each event key */
+    private Map<String, RestEvent> latestEvents;
+
+    private RestEvent[] ringEvents;
+
+    private String[] ringKeys;
+
+    private int ringStart, ringSize, staleCount;
+
+
+    RestEventRing(int capacity) {
+        latestEvents = new HashMap<String, RestEvent>();
+        ringEvents = new RestEvent[capacity];
+        ringKeys = new String[capacity];
+        ringStart = ringSize = staleCount = 0;
+    }
+
+    /** @return the number of events currently held in the ring */
+    int size() {
+        return ringSize;
+    }
+
+    /**
+     * Add the events whose ID is larger than the given value to the result
+     * list, in ascending ID order.
+     */
+    void getEventsAfter(long id, List<RestEvent> result) {
+        // binary search for the first event whose ID is larger than the
+        // given value. Then the cost of a poll is proportional to the
+        // number of new events, not the number of retained events.
+        int lo = 0, hi = ringSize;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ringEvents[ringPos(mid)].getId() > id)
+                hi = mid;
+            else
+                lo = mid + 1;
+        }
+
+        for (int i = lo; i < ringSize; i++) {
+            int pos = ringPos(i);
+            RestEvent e = ringEvents[pos];
+            if (latestEvents.get(ringKeys[pos]) == e)
+                result.add(e);
+        }
+    }
+
+    /**
+     * Record a new event, superseding any earlier event with the same key.
+     */
+    void add(String key, RestEvent event) {
+        RestEvent previous = latestEvents.put(key, event);
+        if (previous != null)
+            staleCount++;
+        if (ringSize == ringEvents.length)
+            makeRoomInRing();
+
+        // append the event to the ring. Event IDs are assigned before
+        // this method is called, so events from different threads can
+        // occasionally arrive out of order; keep the ring sorted.
+        int i = ringSize++;
+        while (i > 0 && ringEvents[ringPos(i - 1)].getId() > event.getId()) {
+            ringEvents[ringPos(i)] = ringEvents[ringPos(i - 1)];
+            ringKeys[ringPos(i)] = ringKeys[ringPos(i - 1)];
+            i--;
+        }
+        ringEvents[ringPos(i)] = event;
+        ringKeys[ringPos(i)] = key;
+    }
+
+    private void makeRoomInRing() {
+        if (staleCount > 0) {
+            // discard events that have been superseded by a newer event
+            // with the same key
+            int dest = 0;
+            for (int i = 0; i < ringSize; i++) {
+                int pos = ringPos(i);
+                RestEvent e = ringEvents[pos];
+                String key = ringKeys[pos];
+                if (latestEvents.get(key) == e) {
+                    int destPos = ringPos(dest++);
+                    ringEvents[destPos] = e;
+                    ringKeys[destPos] = key;
+                }
+            }
+            for (int i = dest; i < ringSize; i++) {
+                ringEvents[ringPos(i)] = null;
+                ringKeys[ringPos(i)] = null;
+            }
+            ringSize = dest;
+            staleCount = 0;
+        }
+
+        if (ringSize == ringEvents.length) {
+            // the ring contains only current events; drop the oldest one
+            RestEvent e = ringEvents[ringStart];
+            String key = ringKeys[ringStart];
+            if (latestEvents.get(key) == e)
+                latestEvents.remove(key);
+            ringEvents[ringStart] = null;
+            ringKeys[ringStart] = null;
+            ringStart = (ringStart + 1) % ringEvents.length;
+            ringSize--;
+        }
+    }
+
+    private int ringPos(int i) {
+        return (ringStart + i) % ringEvents.length;
+    }
+
+}
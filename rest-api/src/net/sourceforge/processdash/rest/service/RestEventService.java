@@ -30,10 +30,8 @@ import java.awt.event.ActionListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Vector;
 
@@ -65,13 +63,30 @@ public class RestEventService {
 
 
 
-    private Map<String, RestEvent> events;
+    /**
+     * An object that wishes to be notified when new events are available.
+     */
+    public interface Subscriber {
+        public void eventsArrived(List<RestEvent> events);
+    }
+
+
+    /** The maximum number of events to retain */
+    private static final int MAX_RETAINED_EVENTS = 1000;
+
+
+    /** The retained events, in ascending ID order */
+    private RestEventRing events;
+
+    /** Subscribers who are waiting for new events to arrive */
+    private List<Waiter> waiters;
 
     private Timer eventArrivedTimer;
 
 
     private RestEventService() {
-        events = new LinkedHashMap<String, RestEvent>();
+        events = new RestEventRing(MAX_RETAINED_EVENTS);
+        waiters = new ArrayList<Waiter>();
         eventArrivedTimer = new Timer(10, new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 eventArrived();
@@ -86,32 +101,61 @@ public class RestEventService {
         listenForUserNotificationEvents();
     }
 
-    public List<RestEvent> eventsAfter(long id, long maxWait) {
-        // retrieve the events whose ID is larger than the given value
+    /**
+     * Retrieve the events whose ID is larger than the given value, in
+     * ascending ID order, without waiting.
+     */
+    public List<RestEvent> eventsAfter(long id) {
+        List<RestEvent> result = new ArrayList<RestEvent>();
+        synchronized (events) {
+            events.getEventsAfter(id, result);
+        }
+        return result;
+    }
+
+    /**
+     * Arrange for a subscriber to be notified when events with an ID larger
+     * than the given value are available. If such events are already
+     * present, the subscriber will be notified immediately on the current
+     * thread. Otherwise, it will be notified once (on an arbitrary thread)
+     * when new events arrive.
+     */
+    public void subscribe(long afterId, Subscriber s) {
         List<RestEvent> result = new ArrayList<RestEvent>();
         synchronized (events) {
-            getEventsAfter(id, result);
+            events.getEventsAfter(afterId, result);
             if (result.isEmpty()) {
-                // if no events were found, wait for some to arrive
-                try {
-                    events.wait(maxWait);
-                } catch (Exception e) {
-                }
-                getEventsAfter(id, result);
+                waiters.add(new Waiter(afterId, s));
+                return;
             }
         }
+        s.eventsArrived(result);
+    }
 
-        // sort the events in numerical order and return them
-        if (result.size() > 1)
-            Collections.sort(result);
-        return result;
+    /**
+     * Stop waiting for events on behalf of the given subscriber.
+     */
+    public void unsubscribe(Subscriber s) {
+        synchronized (events) {
+            for (Iterator<Waiter> i = waiters.iterator(); i.hasNext();) {
+                if (i.next().subscriber == s)
+                    i.remove();
+            }
+        }
     }
 
-    private void getEventsAfter(long id, List<RestEvent> result) {
-        for (RestEvent e : events.values()) {
-            if (e.getId() > id)
-                result.add(e);
+
+    private static class Waiter {
+
+        long afterId;
+
+        Subscriber subscriber;
+
+        Waiter(long afterId, Subscriber subscriber) {
+            this.afterId = afterId;
+            this.subscriber = subscriber;
         }
+
     }
 
 
@@ -233,15 +277,35 @@ public class RestEventService {
 
     private void addEvent(String key, RestEvent event) {
         synchronized (events) {
-            events.remove(key);
-            events.put(key, event);
+            events.add(key, event);
             eventArrivedTimer.restart();
         }
     }
 
     private void eventArrived() {
+        // find the subscribers whose events have arrived
+        List<Waiter> ready = new ArrayList<Waiter>();
+        List<List<RestEvent>> readyEvents = new ArrayList<List<RestEvent>>();
         synchronized (events) {
-            events.notifyAll();
+            for (Iterator<Waiter> i = waiters.iterator(); i.hasNext();) {
+                Waiter w = i.next();
+                List<RestEvent> newEvents = new ArrayList<RestEvent>();
+                events.getEventsAfter(w.afterId, newEvents);
+                if (!newEvents.isEmpty()) {
+                    i.remove();
+                    ready.add(w);
+                    readyEvents.add(newEvents);
+                }
+            }
+        }
+
+        // notify those subscribers outside of the lock
+        for (int i = 0; i < ready.size(); i++) {
+            try {
+                ready.get(i).subscriber.eventsArrived(readyEvents.get(i));
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
         }
     }
 
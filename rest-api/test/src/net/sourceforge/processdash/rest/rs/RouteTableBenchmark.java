@@ -0,0 +1,119 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// REST API Add-on for the Process Dashboard
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.rest.rs;
+
+import java.util.List;
+import java.util.regex.Matcher;
+
+/**
+ * Times the routing of common REST requests through the precompiled
+ * {@link RouteTable}, compares it to a linear regular expression scan of the
+ * same handlers, and checks that both approaches select the same handler.
+ * 
+ * Usage: RouteTableBenchmark [iterations]
+ */
+public class RouteTableBenchmark {
+
+    private static final String[] HANDLERS = {
+            "net.sourceforge.processdash.rest.controller.ApiRoot",
+            "net.sourceforge.processdash.rest.controller.EventApi",
+            "net.sourceforge.processdash.rest.controller.ProjectApi",
+            "net.sourceforge.processdash.rest.controller.RecentTasksApi",
+            "net.sourceforge.processdash.rest.controller.TaskApi",
+            "net.sourceforge.processdash.rest.controller.TimerApi",
+            "net.sourceforge.processdash.rest.controller.UserNotificationApi" };
+
+    private static final String[][] REQUESTS = { //
+            { "GET", "/tasks/" }, //
+            { "GET", "/tasks/recent/" }, //
+            { "GET", "/tasks/123%3A456/" }, //
+            { "POST", "/tasks/123%3A456/" }, //
+            { "GET", "/timer/" }, //
+            { "POST", "/timer/" }, //
+            { "GET", "/events/" }, //
+            { "GET", "/no/such/path/" } };
+
+    public static void main(String[] args) throws Exception {
+        int iterations = (args.length > 0 ? Integer.parseInt(args[0])
+                : 1000000);
+        RouteTable routes = new RouteTable(HANDLERS,
+                RouteTableBenchmark.class.getClassLoader());
+
+        for (String[] req : REQUESTS) {
+            if (findByTrie(routes, req) != findByScan(routes, req))
+                throw new IllegalStateException("Routes differ for "
+                        + req[0] + " " + req[1]);
+        }
+        System.out.println("Routes match");
+
+        for (int pass = 0; pass < 5; pass++) {
+            long start = System.nanoTime();
+            int found = 0;
+            for (int i = iterations; i-- > 0;)
+                if (findByTrie(routes, REQUESTS[i % REQUESTS.length]) != null)
+                    found++;
+            long trieTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = iterations; i-- > 0;)
+                if (findByScan(routes, REQUESTS[i % REQUESTS.length]) != null)
+                    found++;
+            long scanTime = System.nanoTime() - start;
+
+            if (pass > 0)
+                System.out.println("route table: " + (trieTime / iterations)
+                        + " ns/request, linear scan: "
+                        + (scanTime / iterations) + " ns/request (" + found
+                        + ")");
+        }
+    }
+
+    private static RouteTable.Handler findByTrie(RouteTable routes,
+            String[] req) throws Exception {
+        List<RouteTable.Match> matches = routes.findPathMatches(req[1]);
+        for (RouteTable.Match match : matches) {
+            if (match.handler.httpMethods.contains(req[0])) {
+                match.handler.bindArgs(null, match.pathParams);
+                return match.handler;
+            }
+        }
+        return null;
+    }
+
+    private static RouteTable.Handler findByScan(RouteTable routes,
+            String[] req) throws Exception {
+        for (RouteTable.Handler handler : routes.getHandlers()) {
+            Matcher matcher = handler.path.matcher(req[1]);
+            if (matcher.matches() && handler.httpMethods.contains(req[0])) {
+                String[] params = new String[matcher.groupCount()];
+                for (int i = params.length; i > 0; i--)
+                    params[i - 1] = matcher.group(i);
+                handler.bindArgs(null, params);
+                return handler;
+            }
+        }
+        return null;
+    }
+
+}
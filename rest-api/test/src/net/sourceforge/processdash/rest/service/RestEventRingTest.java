@@ -0,0 +1,142 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// REST API Add-on for the Process Dashboard
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.rest.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sourceforge.processdash.rest.to.RestEvent;
+
+public class RestEventRingTest extends TestCase {
+
+    public void testEventsAfter() {
+        RestEventRing ring = new RestEventRing(10);
+        RestEvent a = new RestEvent("a");
+        RestEvent b = new RestEvent("b");
+        RestEvent c = new RestEvent("c");
+        ring.add("a", a);
+        ring.add("b", b);
+        ring.add("c", c);
+
+        assertEquals(Arrays.asList(a, b, c), after(ring, a.getId() - 1));
+        assertEquals(Arrays.asList(b, c), after(ring, a.getId()));
+        assertEquals(Arrays.asList(c), after(ring, b.getId()));
+        assertTrue(after(ring, c.getId()).isEmpty());
+    }
+
+    public void testSupersededEventsAreSkipped() {
+        RestEventRing ring = new RestEventRing(10);
+        RestEvent a1 = new RestEvent("a");
+        RestEvent b = new RestEvent("b");
+        RestEvent a2 = new RestEvent("a");
+        ring.add("a", a1);
+        ring.add("b", b);
+        ring.add("a", a2);
+
+        assertEquals(3, ring.size());
+        assertEquals(Arrays.asList(b, a2), after(ring, a1.getId() - 1));
+    }
+
+    public void testOutOfOrderInsertion() {
+        RestEventRing ring = new RestEventRing(10);
+        RestEvent a = new RestEvent("a");
+        RestEvent b = new RestEvent("b");
+        RestEvent c = new RestEvent("c");
+        ring.add("c", c);
+        ring.add("a", a);
+        ring.add("b", b);
+
+        assertEquals(Arrays.asList(a, b, c), after(ring, a.getId() - 1));
+        assertEquals(Arrays.asList(c), after(ring, b.getId()));
+    }
+
+    public void testStaleEventsAreCoalescedWhenFull() {
+        RestEventRing ring = new RestEventRing(4);
+        RestEvent a1 = new RestEvent("a");
+        RestEvent a2 = new RestEvent("a");
+        RestEvent a3 = new RestEvent("a");
+        RestEvent b = new RestEvent("b");
+        RestEvent c = new RestEvent("c");
+        ring.add("a", a1);
+        ring.add("a", a2);
+        ring.add("a", a3);
+        ring.add("b", b);
+        assertEquals(4, ring.size());
+
+        // adding to a full ring discards the superseded events, and no
+        // current events are lost
+        ring.add("c", c);
+        assertEquals(3, ring.size());
+        assertEquals(Arrays.asList(a3, b, c), after(ring, 0));
+    }
+
+    public void testOldestEventIsEvictedWhenFull() {
+        RestEventRing ring = new RestEventRing(3);
+        List<RestEvent> events = new ArrayList<RestEvent>();
+        for (int i = 0; i < 7; i++) {
+            RestEvent e = new RestEvent("e");
+            events.add(e);
+            ring.add("key" + i, e);
+            assertEquals(Math.min(i + 1, 3), ring.size());
+        }
+
+        // only the three most recent events remain, after the ring has
+        // wrapped around its storage more than once
+        assertEquals(events.subList(4, 7), after(ring, 0));
+        assertEquals(events.subList(5, 7), after(ring, events.get(4).getId()));
+
+        // an evicted key can be reused
+        RestEvent again = new RestEvent("e");
+        ring.add("key0", again);
+        assertEquals(Arrays.asList(events.get(5), events.get(6), again),
+            after(ring, 0));
+    }
+
+    public void testOutOfOrderInsertionAfterWrapping() {
+        RestEventRing ring = new RestEventRing(3);
+        RestEvent a = new RestEvent("a");
+        RestEvent b = new RestEvent("b");
+        RestEvent c = new RestEvent("c");
+        RestEvent d = new RestEvent("d");
+        RestEvent e = new RestEvent("e");
+        ring.add("a", a);
+        ring.add("b", b);
+        ring.add("c", c);
+        ring.add("e", e);
+        ring.add("d", d);
+
+        assertEquals(Arrays.asList(c, d, e), after(ring, 0));
+        assertEquals(Arrays.asList(d, e), after(ring, c.getId()));
+    }
+
+    private List<RestEvent> after(RestEventRing ring, long id) {
+        List<RestEvent> result = new ArrayList<RestEvent>();
+        ring.getEventsAfter(id, result);
+        return result;
+    }
+
+}
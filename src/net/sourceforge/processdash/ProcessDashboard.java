@@ -237,6 +237,8 @@ public class ProcessDashboard extends JFrame implements WindowListener,
         "net.sourceforge.processdash.dataDirLinkFile";
     private static final String DISABLE_AUTO_EXPORT_SETTING =
         "export.disableAutoExport";
+    private static final String DATAFILE_SNAPSHOT_FILENAME =
+        "datafiles.snapshot";
     public static final String NOTIFY_ON_OPEN_PORT_PROPERTY =
         ProcessDashboard.class.getName() + ".notifyOnOpen.port";
     public static final String NOTIFY_ON_OPEN_ID_PROPERTY =
@@ -565,6 +567,10 @@ public class ProcessDashboard extends JFrame implements WindowListener,
                     (serializedDefinitions));
             } catch (Exception e) {}
 
+        // use a snapshot of previously parsed datafiles, if possible
+        data.useDatafileSnapshot(new File(property_directory,
+                DATAFILE_SNAPSHOT_FILENAME));
+
         // open all the datafiles that were specified in the properties file.
         data.startInconsistency();
         try {
@@ -590,6 +596,8 @@ public class ProcessDashboard extends JFrame implements WindowListener,
         } catch (Exception exc) {
             logErr("when generating default datafile, caught exception", exc);
         }
+        if (Settings.isReadWrite())
+            data.saveDatafileSnapshot();
         registerEnvironmentalData();
         pt.click("Opened data files");
         data.fixMisparentedData();
@@ -2097,6 +2105,12 @@ public class ProcessDashboard extends JFrame implements WindowListener,
             webServer.quit();
             webServer = null;
         }
+        if (objectCache instanceof FileObjectCache) {
+            // the cache writes objects on a daemon thread, which would be
+            // killed at exit.  Wait for any pending writes to finish.
+            logger.fine("Flushing object cache");
+            ((FileObjectCache) objectCache).flush();
+        }
         if (data != null) {
             logger.fine("Finalizing data repository");
             data.shutDown();
@@ -2210,6 +2224,9 @@ public class ProcessDashboard extends JFrame implements WindowListener,
         if (savePermissionsData() == false)
             recordUnsavedItem(unsavedData, "Permissions_Data");
 
+        if (objectCache instanceof FileObjectCache)
+            ((FileObjectCache) objectCache).flush();
+
         if (unsavedData.isEmpty())
             scrubDataDirectory();
 
@@ -0,0 +1,96 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.data.compiler;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link Stack} backed by parallel arrays.
+ *
+ * Scripts rarely need more than a handful of stack slots, so this avoids
+ * the per-push node allocations made by a {@link ListStack}.
+ */
+public class ArrayStack implements Stack {
+    private Object[] values;
+    private Object[] descriptors;
+    private int size;
+
+    public ArrayStack() {
+        this(8);
+    }
+
+    public ArrayStack(int initialCapacity) {
+        values = new Object[initialCapacity];
+        descriptors = new Object[initialCapacity];
+        size = 0;
+    }
+
+    public Object pop() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        size--;
+        Object result = values[size];
+        values[size] = descriptors[size] = null;
+        return result;
+    }
+    public Object push(Object o) {
+        return push(o, null);
+    }
+    public Object push(Object o, Object d) {
+        if (size == values.length)
+            grow();
+        values[size] = o;
+        descriptors[size] = d;
+        size++;
+        return o;
+    }
+    public void clear() {
+        for (int i = 0; i < size; i++)
+            values[i] = descriptors[i] = null;
+        size = 0;
+    }
+    public boolean empty() {
+        return size == 0;
+    }
+    public Object peek() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return values[size - 1];
+    }
+    public Object peekDescriptor() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return descriptors[size - 1];
+    }
+
+    private void grow() {
+        int newLen = Math.max(4, values.length * 2);
+        Object[] newValues = new Object[newLen];
+        Object[] newDescriptors = new Object[newLen];
+        System.arraycopy(values, 0, newValues, 0, size);
+        System.arraycopy(descriptors, 0, newDescriptors, 0, size);
+        values = newValues;
+        descriptors = newDescriptors;
+    }
+}
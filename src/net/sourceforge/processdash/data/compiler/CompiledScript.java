@@ -29,6 +29,9 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import net.sourceforge.processdash.Settings;
+import net.sourceforge.processdash.data.ImmutableDoubleData;
+import net.sourceforge.processdash.data.ImmutableStringData;
 import net.sourceforge.processdash.data.SimpleData;
 import net.sourceforge.processdash.data.repository.CompiledFunction;
 
@@ -39,6 +42,16 @@ public class CompiledScript implements Serializable {
     private List instructions = new ArrayList();
     private boolean committed = false;
 
+    /** An optimized copy of the instruction list, built on first use.
+     * The field is volatile so other threads only ever see a fully built
+     * array. */
+    private transient volatile Instruction[] plan = null;
+
+    static final String OPTIMIZE_SETTING = "dataRepository.optimizeScripts";
+
+    private static final boolean OPTIMIZE = Settings.getBool(
+        OPTIMIZE_SETTING, true);
+
     CompiledScript() {}
 
     CompiledScript(CompiledScript s) {
@@ -50,6 +63,13 @@ public class CompiledScript implements Serializable {
         instructions.add(i);
     }
 
+    /** @return a new, empty stack suitable for running scripts.  When
+     * script optimization is disabled, this returns the original
+     * list-based stack implementation. */
+    public static Stack newStack() {
+        return (OPTIMIZE ? new ArrayStack() : new ListStack());
+    }
+
     void commit() {
         if (!committed)
             instructions = Collections.unmodifiableList(instructions);
@@ -58,6 +78,16 @@ public class CompiledScript implements Serializable {
 
     public void run(Stack stack, ExpressionContext context)
         throws ExecutionException, IllegalStateException
+    {
+        if (OPTIMIZE)
+            runOptimized(stack, context);
+        else
+            runInterpreted(stack, context);
+    }
+
+    /** Execute the instructions exactly as they were compiled. */
+    void runInterpreted(Stack stack, ExpressionContext context)
+        throws ExecutionException, IllegalStateException
     {
         if (!committed) throw new IllegalStateException();
 
@@ -73,6 +103,97 @@ public class CompiledScript implements Serializable {
         }
     }
 
+    /** Execute the optimized plan for this script. */
+    void runOptimized(Stack stack, ExpressionContext context)
+        throws ExecutionException, IllegalStateException
+    {
+        if (!committed) throw new IllegalStateException();
+
+        Instruction[] p = plan;
+        if (p == null)
+            // two threads might race to build the plan; that is harmless,
+            // since they will produce equivalent results, and the volatile
+            // write publishes the finished array safely.
+            plan = p = buildPlan(instructions);
+
+        synchronized (stack) {
+            synchronized (context) {
+                for (int i = 0; i < p.length; i++)
+                    p[i].execute(stack, context);
+            }
+        }
+    }
+
+    /** @return the number of instructions in the optimized plan */
+    int getPlanLength() {
+        Instruction[] p = plan;
+        if (p == null)
+            plan = p = buildPlan(instructions);
+        return p.length;
+    }
+
+    /**
+     * Copy a list of instructions into an array, folding operators whose
+     * operands are all constants into a single constant.
+     *
+     * Operators only see the values on the stack, so evaluating them early
+     * is safe as long as the result is immutable.  Function calls are never
+     * folded, since they can consult the expression context.
+     */
+    static Instruction[] buildPlan(List instructions) {
+        ArrayList<Instruction> result = new ArrayList<Instruction>(
+                instructions.size());
+        for (Iterator i = instructions.iterator(); i.hasNext();) {
+            Instruction instr = (Instruction) i.next();
+            int numArgs;
+            if (instr instanceof BinaryOperator)
+                numArgs = 2;
+            else if (instr instanceof UnaryOperator)
+                numArgs = 1;
+            else
+                numArgs = 0;
+
+            PushConstant folded = null;
+            if (numArgs > 0 && endsWithConstants(result, numArgs))
+                folded = fold(result.subList(result.size() - numArgs,
+                    result.size()), instr);
+
+            if (folded == null) {
+                result.add(instr);
+            } else {
+                for (int j = numArgs; j-- > 0;)
+                    result.remove(result.size() - 1);
+                result.add(folded);
+            }
+        }
+        return result.toArray(new Instruction[result.size()]);
+    }
+
+    private static boolean endsWithConstants(List<Instruction> plan, int num) {
+        if (plan.size() < num)
+            return false;
+        for (int i = plan.size() - num; i < plan.size(); i++)
+            if (!(plan.get(i) instanceof PushConstant))
+                return false;
+        return true;
+    }
+
+    private static PushConstant fold(List<Instruction> args, Instruction op) {
+        try {
+            ArrayStack stack = new ArrayStack(args.size());
+            for (Instruction arg : args)
+                arg.execute(stack, null);
+            op.execute(stack, null);
+            SimpleData result = (SimpleData) stack.pop();
+            if (result == null || result instanceof ImmutableDoubleData
+                    || result instanceof ImmutableStringData)
+                return new PushConstant(result);
+        } catch (Exception e) {
+            // the operator could not be evaluated early; leave it alone
+        }
+        return null;
+    }
+
     public SimpleData getConstant() throws IllegalStateException {
         if (!committed) throw new IllegalStateException();
 
@@ -32,9 +32,6 @@ package net.sourceforge.processdash.data.compiler;
 
 import java.io.PushbackReader;
 import java.io.StringReader;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 
 import net.sourceforge.processdash.data.DateData;
 import net.sourceforge.processdash.data.ImmutableDoubleData;
@@ -47,6 +44,7 @@ import net.sourceforge.processdash.data.compiler.node.*;
 import net.sourceforge.processdash.data.compiler.parser.Parser;
 import net.sourceforge.processdash.i18n.Resources;
 import net.sourceforge.processdash.util.EscapeString;
+import net.sourceforge.processdash.util.LRUCache;
 import net.sourceforge.processdash.util.ResourcePool;
 import net.sourceforge.processdash.util.StringMapper;
 import net.sourceforge.processdash.util.StringUtils;
@@ -92,8 +90,10 @@ public class Compiler extends DepthFirstAdapter {
         return result;
     }
 
-    private static Map scriptCache =
-        Collections.synchronizedMap(new HashMap());
+    private static final int MAX_CACHED_SCRIPTS = 20000;
+
+    private static LRUCache<String, Object> scriptCache =
+        new LRUCache<String, Object>(MAX_CACHED_SCRIPTS);
 
     public static CompiledScript compile(String expression)
         throws CompilationException
@@ -30,4 +30,5 @@ public interface Stack {
     public boolean empty();
     public Object peek();
     public Object peekDescriptor();
+    public void clear();
 }
@@ -30,7 +30,6 @@ import net.sourceforge.processdash.data.compiler.CompiledScript;
 import net.sourceforge.processdash.data.compiler.Compiler;
 import net.sourceforge.processdash.data.compiler.ExecutionException;
 import net.sourceforge.processdash.data.compiler.ExpressionContext;
-import net.sourceforge.processdash.data.compiler.ListStack;
 import net.sourceforge.processdash.data.compiler.RelativeExpressionContext;
 import net.sourceforge.processdash.data.compiler.Stack;
 
@@ -51,7 +50,7 @@ public class Eval extends AbstractFunction {
         CompiledScript script = Compiler.compile(expression);
 
         try {
-            Stack stack = new ListStack();
+            Stack stack = CompiledScript.newStack();
             if (prefix != null)
                 context = new RelativeExpressionContext(context, prefix);
             script.run(stack, context);
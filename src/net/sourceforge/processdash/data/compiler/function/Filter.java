@@ -31,8 +31,8 @@ import net.sourceforge.processdash.data.SimpleData;
 import net.sourceforge.processdash.data.compiler.AbstractFunction;
 import net.sourceforge.processdash.data.compiler.CompiledScript;
 import net.sourceforge.processdash.data.compiler.ExpressionContext;
-import net.sourceforge.processdash.data.compiler.ListStack;
 import net.sourceforge.processdash.data.compiler.LocalExpressionContext;
+import net.sourceforge.processdash.data.compiler.Stack;
 
 public class Filter extends AbstractFunction {
 
@@ -50,7 +50,7 @@ public class Filter extends AbstractFunction {
 
         ListData result = new ListData();
         LocalExpressionContext lContext = new LocalExpressionContext(context);
-        ListStack stack = new ListStack();
+        Stack stack = CompiledScript.newStack();
         Iterator i = collapseLists(arguments, 1).iterator();
         Object item;
         while (i.hasNext()) try {
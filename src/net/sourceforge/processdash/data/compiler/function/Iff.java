@@ -29,7 +29,7 @@ import net.sourceforge.processdash.data.SimpleData;
 import net.sourceforge.processdash.data.compiler.AbstractFunction;
 import net.sourceforge.processdash.data.compiler.CompiledScript;
 import net.sourceforge.processdash.data.compiler.ExpressionContext;
-import net.sourceforge.processdash.data.compiler.ListStack;
+import net.sourceforge.processdash.data.compiler.Stack;
 
 public class Iff extends AbstractFunction {
 
@@ -52,7 +52,7 @@ public class Iff extends AbstractFunction {
         if (result instanceof CompiledScript) {
             try {
                 CompiledScript script = (CompiledScript) result;
-                ListStack stack = new ListStack();
+                Stack stack = CompiledScript.newStack();
                 script.run(stack, context);
                 result = stack.pop();
             } catch (Exception e) {}
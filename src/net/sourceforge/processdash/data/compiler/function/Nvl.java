@@ -31,7 +31,7 @@ import net.sourceforge.processdash.data.SimpleData;
 import net.sourceforge.processdash.data.compiler.AbstractFunction;
 import net.sourceforge.processdash.data.compiler.CompiledScript;
 import net.sourceforge.processdash.data.compiler.ExpressionContext;
-import net.sourceforge.processdash.data.compiler.ListStack;
+import net.sourceforge.processdash.data.compiler.Stack;
 
 public class Nvl extends AbstractFunction {
 
@@ -41,7 +41,7 @@ public class Nvl extends AbstractFunction {
      */
     public Object call(List arguments, ExpressionContext context)
     {
-        ListStack stack = null;
+        Stack stack = null;
         for (Iterator iter = arguments.iterator(); iter.hasNext();) {
             Object arg = iter.next();
 
@@ -49,7 +49,7 @@ public class Nvl extends AbstractFunction {
                 try {
                     CompiledScript script = (CompiledScript) arg;
                     if (stack == null)
-                        stack = new ListStack();
+                        stack = CompiledScript.newStack();
                     else
                         stack.clear();
                     script.run(stack, context);
@@ -23,8 +23,10 @@
 
 package net.sourceforge.processdash.data.repository;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
 import java.util.logging.Logger;
@@ -36,7 +38,7 @@ import net.sourceforge.processdash.data.SimpleData;
 import net.sourceforge.processdash.data.compiler.CompiledScript;
 import net.sourceforge.processdash.data.compiler.Compiler;
 import net.sourceforge.processdash.data.compiler.ExecutionException;
-import net.sourceforge.processdash.data.compiler.ListStack;
+import net.sourceforge.processdash.data.compiler.Stack;
 import net.sourceforge.processdash.util.LightweightSet;
 import net.sourceforge.processdash.util.LightweightSynchronizedSet;
 
@@ -125,7 +127,7 @@ public class CompiledFunction implements SaveableData, AliasedData,
         while (retryCount-- > 0 && extChanges.isDirty()) {
             context = new SubscribingExpressionContext(data, prefix, this,
                     name, currentSubscriptions);
-            ListStack stack = new ListStack();
+            Stack stack = CompiledScript.newStack();
             int changeCount = -1;
 
             try {
@@ -161,8 +163,10 @@ public class CompiledFunction implements SaveableData, AliasedData,
         context.removeOldSubscriptions();
         currentSubscriptions.trimToSize();
 
+        // the change which made us dirty has already been reported to the
+        // dependency graph, so this notification is an anticipated one.
         if (oldValue != VALUE_NEVER_QUERIED && !eq(oldValue, value))
-            data.valueRecalculated(name, this);
+            data.valueRecalculated(name, this, true);
 
     }
 
@@ -177,17 +181,45 @@ public class CompiledFunction implements SaveableData, AliasedData,
     }
 
     public void dataValueChanged(DataEvent e) {
-        setDirty();
+        setDirty(isExpectedChange(e));
     }
 
     public void dataValuesChanged(Vector v) {
-        setDirty();
+        boolean allExpected = true;
+        for (int i = 0; i < v.size(); i++)
+            if (!isExpectedChange((DataEvent) v.get(i)))
+                allExpected = false;
+        setDirty(allExpected);
     }
 
-    private void setDirty() {
+    private boolean isExpectedChange(DataEvent e) {
+        DirtyTracker t = extChanges;
+        DataRepository r = data;
+        return (t != null && r != null
+                && t.consumeExpectedChange(e.getName(), r.dependencies));
+    }
+
+    /** Called by the {@link DataDependencyGraph} when some of our inputs are
+     * about to change, before the notifications for those inputs are sent.
+     * 
+     * @param inputNames the names of the inputs that will change
+     * @param version the sequence number the graph assigned to the change
+     */
+    void inputsChanged(Set<String> inputNames, long version) {
+        DirtyTracker t = extChanges;
+        if (t != null)
+            t.setDirty(inputNames, version);
+    }
+
+    private void setDirty(boolean alreadyDirty) {
         if (isDisposed() == false) {
-            extChanges.setDirty();
-            data.valueRecalculated(name, this);
+            // if the dependency graph has already marked us as dirty in
+            // anticipation of this change, don't mark us again; otherwise a
+            // calculation that was performed after the change would be
+            // needlessly discarded.
+            if (!alreadyDirty)
+                extChanges.setDirty();
+            data.valueRecalculated(name, this, alreadyDirty);
         }
     }
 
@@ -291,10 +323,43 @@ public class CompiledFunction implements SaveableData, AliasedData,
 
         private int unhandledChangeCount = 1;
 
+        /** The names of inputs whose change notifications are anticipated,
+         * because the change has already been counted.  The values are the
+         * sequence numbers the dependency graph assigned to those changes. */
+        private Map<String, Long> expectedChanges = null;
+
         public synchronized void setDirty() {
             unhandledChangeCount++;
         }
 
+        public synchronized void setDirty(Set<String> expectedInputs,
+                long version) {
+            unhandledChangeCount++;
+            if (expectedChanges == null)
+                expectedChanges = new HashMap<String, Long>();
+            for (String inputName : expectedInputs)
+                expectedChanges.put(inputName, version);
+        }
+
+        public synchronized boolean consumeExpectedChange(String inputName,
+                DataDependencyGraph graph) {
+            if (expectedChanges == null)
+                return false;
+            Long version = expectedChanges.get(inputName);
+            if (version == null)
+                return false;
+
+            // the expectation remains valid until the input changes again,
+            // so several notifications about one change are all absorbed.
+            if (graph != null && graph.isAnticipated(inputName, version))
+                return true;
+
+            expectedChanges.remove(inputName);
+            if (expectedChanges.isEmpty())
+                expectedChanges = null;
+            return false;
+        }
+
         public synchronized boolean isDirty() {
             return unhandledChangeCount > 0;
         }
@@ -0,0 +1,400 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.data.repository;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * An explicit graph of the dependencies between data elements and the
+ * active listeners that calculate values from them.
+ * <p>
+ * Without this graph, a change to a base value reaches dependent
+ * calculations one listener callback at a time, in no particular order.
+ * When dependencies are shaped like a diamond, a calculation can be
+ * recomputed after hearing from one of its inputs, and then again after
+ * hearing from the other.
+ * <p>
+ * When a value changes, this graph is used to find every
+ * {@link CompiledFunction} that depends upon it (directly or indirectly).
+ * Those functions are marked as out of date in topological order, before
+ * any notifications are delivered.  Since compiled functions recalculate
+ * lazily, the next read of any affected function will pull fresh values
+ * from its inputs, and each function is recomputed once per change.  The
+ * functions also remember which input notifications they should expect as
+ * a result, so the redundant callbacks that arrive later do not mark them
+ * out of date a second time.
+ * <p>
+ * Those expectations are recorded as sequence numbers rather than flags.
+ * Every change to an input is stamped with a new sequence number, and a
+ * notification is only treated as redundant if no change to that input has
+ * been stamped since the function was marked.  As a result, a notification
+ * which is coalesced with another, or dropped by the notifier altogether,
+ * can never cause a later change to be overlooked.
+ * <p>
+ * Other active listeners are recorded in the graph (so they appear in
+ * diagnostic dumps), but the traversal does not continue through them,
+ * since they calculate their values eagerly when notified.
+ */
+class DataDependencyGraph {
+
+    /** Information about one active listener in the graph */
+    private static class Calculation {
+
+        /** the name of the data element the listener calculates */
+        String name;
+
+        /** the names of the data elements the listener depends on */
+        Set<String> inputs = new HashSet<String>();
+
+        Calculation(String name) {
+            this.name = name;
+        }
+    }
+
+
+    /** The active listeners in this graph. Listeners are held weakly, to
+     * match the repository's record of active listeners. */
+    private Map<DataListener, Calculation> calculations =
+        new WeakHashMap<DataListener, Calculation>();
+
+    /** For each data name, the active listeners that depend on it */
+    private Map<String, Set<DataListener>> dependents =
+        new HashMap<String, Set<DataListener>>();
+
+    /** For each data name that has dependents, the sequence number of its
+     * most recent change.  This is read without locking the graph. */
+    private Map<String, Long> versions = new ConcurrentHashMap<String, Long>();
+
+    /** The source of change sequence numbers */
+    private AtomicLong sequence = new AtomicLong();
+
+
+    /** Record that an active listener depends on a data element. */
+    public synchronized void addDependency(String inputName,
+            DataListener listener, String listenerName) {
+        if (inputName == null || listener == null || listenerName == null)
+            return;
+
+        Calculation c = calculations.get(listener);
+        if (c == null)
+            calculations.put(listener, c = new Calculation(listenerName));
+        c.inputs.add(inputName);
+
+        Set<DataListener> deps = dependents.get(inputName);
+        if (deps == null) {
+            deps = Collections.newSetFromMap(
+                new WeakHashMap<DataListener, Boolean>(4));
+            dependents.put(inputName, deps);
+            versions.put(inputName, sequence.incrementAndGet());
+        }
+        deps.add(listener);
+    }
+
+
+    /** Record that a listener no longer depends on a data element. */
+    public synchronized void removeDependency(String inputName,
+            DataListener listener) {
+        Calculation c = calculations.get(listener);
+        if (c == null)
+            return;
+        c.inputs.remove(inputName);
+        discardDependent(inputName, listener);
+    }
+
+
+    /** Remove a listener and all of its dependencies from the graph. */
+    public synchronized void removeCalculation(DataListener listener) {
+        Calculation c = calculations.remove(listener);
+        if (c != null)
+            for (String inputName : c.inputs)
+                discardDependent(inputName, listener);
+    }
+
+    private void discardDependent(String inputName, DataListener listener) {
+        Set<DataListener> deps = dependents.get(inputName);
+        if (deps != null) {
+            deps.remove(listener);
+            if (deps.isEmpty()) {
+                dependents.remove(inputName);
+                versions.remove(inputName);
+            }
+        }
+    }
+
+
+    /**
+     * Mark every compiled function affected by a change to the named data
+     * element as out of date.
+     *
+     * @return the number of functions that were marked
+     */
+    public int invalidate(String changedName) {
+        // most data elements have no dependents; don't lock the graph for them
+        if (!versions.containsKey(changedName))
+            return 0;
+
+        long version = sequence.incrementAndGet();
+        Map<CompiledFunction, Set<String>> affected = getAffected(changedName);
+        Set<String> changedInputs = new HashSet<String>();
+        for (Map.Entry<CompiledFunction, Set<String>> e : affected.entrySet()) {
+            e.getKey().inputsChanged(e.getValue(), version);
+            changedInputs.addAll(e.getValue());
+        }
+        for (String inputName : changedInputs)
+            advanceVersion(inputName, version);
+        return affected.size();
+    }
+
+
+    /**
+     * Record a change to the named data element which was not anticipated by
+     * {@link #invalidate(String)}.  This must be called before the
+     * notifications for the change are queued.
+     */
+    public void changed(String name) {
+        if (versions.containsKey(name))
+            advanceVersion(name, sequence.incrementAndGet());
+    }
+
+    private void advanceVersion(String name, long version) {
+        while (true) {
+            Long current = versions.get(name);
+            if (current == null || current >= version
+                    || versions.replace(name, current, version))
+                return;
+        }
+    }
+
+
+    /**
+     * Determine whether a notification about the named input is redundant.
+     *
+     * @param inputName the name of an input that sent a notification
+     * @param expectedVersion the sequence number that was given to a
+     *     function when the graph marked it out of date for this input
+     * @return true if the input has not changed since that time
+     */
+    public boolean isAnticipated(String inputName, long expectedVersion) {
+        Long current = versions.get(inputName);
+        return (current != null && current <= expectedVersion);
+    }
+
+
+    /**
+     * Find the compiled functions that would be affected by a change to the
+     * named data element.
+     *
+     * @return a map whose keys are the affected functions in topological
+     *     order (each function appears after the functions it depends on),
+     *     and whose values are the names of the inputs of that function
+     *     which will change.  Functions that participate in a circular
+     *     definition are listed last, in the order they were discovered.
+     */
+    synchronized Map<CompiledFunction, Set<String>> getAffected(
+            String changedName) {
+        if (!dependents.containsKey(changedName))
+            return Collections.emptyMap();
+
+        // find the affected functions with a breadth-first search
+        Map<String, List<CompiledFunction>> byName =
+            new LinkedHashMap<String, List<CompiledFunction>>();
+        LinkedList<String> queue = new LinkedList<String>();
+        queue.add(changedName);
+        while (!queue.isEmpty()) {
+            Set<DataListener> deps = dependents.get(queue.removeFirst());
+            if (deps == null)
+                continue;
+            for (DataListener dl : deps) {
+                Calculation c = calculations.get(dl);
+                if (c == null || !(dl instanceof CompiledFunction))
+                    continue;
+                List<CompiledFunction> named = byName.get(c.name);
+                if (named == null) {
+                    byName.put(c.name, named = new ArrayList<CompiledFunction>(1));
+                    queue.add(c.name);
+                }
+                if (!named.contains(dl))
+                    named.add((CompiledFunction) dl);
+            }
+        }
+
+        // determine which inputs of each affected function will change, and
+        // count the affected functions that must be processed first.
+        Map<CompiledFunction, Set<String>> changedInputs =
+            new HashMap<CompiledFunction, Set<String>>();
+        Map<String, Integer> pendingInputs = new HashMap<String, Integer>();
+        for (Map.Entry<String, List<CompiledFunction>> e : byName.entrySet()) {
+            int pending = 0;
+            for (CompiledFunction f : e.getValue()) {
+                Set<String> inputs = new HashSet<String>();
+                for (String input : calculations.get(f).inputs) {
+                    if (input.equals(changedName))
+                        inputs.add(input);
+                    else if (byName.containsKey(input)) {
+                        inputs.add(input);
+                        pending++;
+                    }
+                }
+                changedInputs.put(f, inputs);
+            }
+            pendingInputs.put(e.getKey(), pending);
+        }
+
+        // order the functions with Kahn's algorithm
+        Map<CompiledFunction, Set<String>> result =
+            new LinkedHashMap<CompiledFunction, Set<String>>();
+        for (Map.Entry<String, Integer> e : pendingInputs.entrySet())
+            if (e.getValue() == 0)
+                queue.add(e.getKey());
+        while (!queue.isEmpty()) {
+            String name = queue.removeFirst();
+            for (CompiledFunction f : byName.get(name))
+                result.put(f, changedInputs.get(f));
+
+            Set<DataListener> deps = dependents.get(name);
+            if (deps == null)
+                continue;
+            for (DataListener dl : deps) {
+                Calculation c = calculations.get(dl);
+                if (c == null || !(dl instanceof CompiledFunction))
+                    continue;
+                Integer pending = pendingInputs.get(c.name);
+                if (pending != null && pending > 0) {
+                    pendingInputs.put(c.name, pending - 1);
+                    if (pending == 1)
+                        queue.add(c.name);
+                }
+            }
+        }
+
+        // any functions that remain are part of a cycle
+        if (result.size() < changedInputs.size())
+            for (List<CompiledFunction> named : byName.values())
+                for (CompiledFunction f : named)
+                    if (!result.containsKey(f))
+                        result.put(f, changedInputs.get(f));
+
+        return result;
+    }
+
+
+    /** @return the number of active listeners in this graph */
+    public synchronized int size() {
+        return calculations.size();
+    }
+
+
+    /**
+     * Write a textual description of this graph, suitable for debugging.
+     *
+     * Each active listener is listed with the names of its inputs and its
+     * depth (the length of the longest chain of calculations beneath it).
+     */
+    public void dump(Writer out) throws IOException {
+        Map<String, Set<String>> inputsByName = new TreeMap<String, Set<String>>();
+        Set<String> lazyNames = new HashSet<String>();
+        int edgeCount = 0;
+        synchronized (this) {
+            for (Map.Entry<DataListener, Calculation> e : calculations
+                    .entrySet()) {
+                Calculation c = e.getValue();
+                Set<String> inputs = inputsByName.get(c.name);
+                if (inputs == null)
+                    inputsByName.put(c.name, inputs = new HashSet<String>());
+                inputs.addAll(c.inputs);
+                edgeCount += c.inputs.size();
+                if (e.getKey() instanceof CompiledFunction)
+                    lazyNames.add(c.name);
+            }
+        }
+
+        Map<String, Integer> depths = new HashMap<String, Integer>();
+        int maxDepth = 0;
+        for (String name : inputsByName.keySet())
+            maxDepth = Math.max(maxDepth, getDepth(name, inputsByName,
+                depths));
+
+        out.write("# " + inputsByName.size() + " calculations, " + edgeCount
+                + " dependencies, maximum depth " + maxDepth + "\n");
+        for (Map.Entry<String, Set<String>> e : inputsByName.entrySet()) {
+            String name = e.getKey();
+            int depth = depths.get(name);
+            out.write(name);
+            out.write(" [depth=" + (depth < 0 ? "circular" : depth));
+            if (!lazyNames.contains(name))
+                out.write(", eager");
+            out.write("]\n");
+            List<String> inputs = new ArrayList<String>(e.getValue());
+            Collections.sort(inputs);
+            for (String input : inputs)
+                out.write("    <- " + input + "\n");
+        }
+        out.flush();
+    }
+
+    /** Compute the depth of a calculation, or -1 if it is circular. */
+    private int getDepth(String name, Map<String, Set<String>> inputsByName,
+            Map<String, Integer> depths) {
+        Set<String> inputs = inputsByName.get(name);
+        if (inputs == null)
+            return 0;
+
+        Integer known = depths.get(name);
+        if (known != null)
+            return known;
+        else if (depths.containsKey(name))
+            // a null entry marks a calculation whose depth is being computed,
+            // so we have followed a circular chain of dependencies.
+            return -1;
+
+        depths.put(name, null);
+        int depth = 1;
+        for (String input : inputs) {
+            int inputDepth = getDepth(input, inputsByName, depths);
+            if (inputDepth < 0) {
+                depth = -1;
+                break;
+            }
+            depth = Math.max(depth, inputDepth + 1);
+        }
+        depths.put(name, depth);
+        return depth;
+    }
+
+}
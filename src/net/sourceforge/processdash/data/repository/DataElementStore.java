@@ -0,0 +1,294 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.data.repository;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.sourceforge.processdash.Settings;
+
+/**
+ * Storage engine for the data elements held by a {@link DataRepository}.
+ *
+ * The repository performs a very large number of lookups from many threads
+ * (web report threads, the data notifier, the janitor), so the way elements
+ * are stored has a large effect on scalability. Two engines are available:
+ * <ul>
+ * <li><b>concurrent</b> (the default) stores elements in a striped
+ * {@link ConcurrentHashMap}. Lookups are lock-free, so concurrent readers
+ * scale across cores. Names are also indexed in a {@link DataNameIndex},
+ * so prefix queries only visit the matching subtree.</li>
+ * <li><b>hashtable</b> is the historical implementation, which serializes
+ * every access on a single monitor, and answers prefix queries by scanning
+ * every name. It is retained for comparison.</li>
+ * </ul>
+ * The engine is chosen with the "dataRepository.storage" setting, which
+ * can also be given as a system property.
+ *
+ * Neither engine permits null names or null values.
+ */
+abstract class DataElementStore<V> {
+
+    static final String STORAGE_SETTING = "dataRepository.storage";
+
+    static final String STORAGE_CONCURRENT = "concurrent";
+
+    static final String STORAGE_HASHTABLE = "hashtable";
+
+
+    /** @return the element with the given name, or null if none exists */
+    public abstract V get(String name);
+
+    /**
+     * Store an element if no element is currently registered with the given
+     * name.
+     *
+     * @return null if the element was stored; otherwise, the element that
+     *         was already present (which is left in place)
+     */
+    public abstract V putIfAbsent(String name, V value);
+
+    /**
+     * Remove the given element, but only if it is still registered under
+     * the given name.
+     *
+     * @return true if the element was removed
+     */
+    public abstract boolean remove(String name, V value);
+
+    /** @return true if an element is registered with the given name */
+    public abstract boolean containsKey(String name);
+
+    /** @return the number of elements in this store */
+    public abstract int size();
+
+    /** @return a snapshot of the names of the elements in this store */
+    public abstract List<String> getNames();
+
+    /** @return a snapshot of the elements in this store */
+    public abstract List<V> getValues();
+
+    /**
+     * @return a snapshot of the names in this store that start with the
+     *         given prefix
+     */
+    public abstract List<String> getNames(String prefix);
+
+    /**
+     * @return a snapshot of the elements in this store whose names start
+     *         with the given prefix
+     */
+    public abstract List<V> getValues(String prefix);
+
+    /** @return the name of this storage engine */
+    public abstract String getStorageType();
+
+
+
+    /**
+     * Create a store using the engine named by the storage setting.
+     */
+    static <V> DataElementStore<V> create(int initialCapacity) {
+        String type = Settings.getVal(STORAGE_SETTING, STORAGE_CONCURRENT);
+        return create(type, initialCapacity);
+    }
+
+    static <V> DataElementStore<V> create(String type, int initialCapacity) {
+        if (STORAGE_HASHTABLE.equalsIgnoreCase(type))
+            return new HashtableStore<V>(initialCapacity);
+        else
+            return new ConcurrentStore<V>(initialCapacity);
+    }
+
+
+
+    /** The historical storage engine, which synchronizes on one monitor. */
+    private static class HashtableStore<V> extends DataElementStore<V> {
+
+        private Hashtable<String, V> data;
+
+        HashtableStore(int initialCapacity) {
+            data = new Hashtable<String, V>(initialCapacity);
+        }
+
+        public V get(String name) {
+            return data.get(name);
+        }
+
+        public V putIfAbsent(String name, V value) {
+            synchronized (data) {
+                V existing = data.get(name);
+                if (existing == null)
+                    data.put(name, value);
+                return existing;
+            }
+        }
+
+        public boolean remove(String name, V value) {
+            synchronized (data) {
+                if (data.get(name) != value)
+                    return false;
+                data.remove(name);
+                return true;
+            }
+        }
+
+        public boolean containsKey(String name) {
+            return data.containsKey(name);
+        }
+
+        public int size() {
+            return data.size();
+        }
+
+        public List<String> getNames() {
+            synchronized (data) {
+                return new ArrayList<String>(data.keySet());
+            }
+        }
+
+        public List<V> getValues() {
+            synchronized (data) {
+                return new ArrayList<V>(data.values());
+            }
+        }
+
+        public List<String> getNames(String prefix) {
+            List<String> result = new ArrayList<String>();
+            synchronized (data) {
+                for (String name : data.keySet())
+                    if (name.startsWith(prefix))
+                        result.add(name);
+            }
+            return result;
+        }
+
+        public List<V> getValues(String prefix) {
+            List<V> result = new ArrayList<V>();
+            synchronized (data) {
+                for (Map.Entry<String, V> e : data.entrySet())
+                    if (e.getKey().startsWith(prefix))
+                        result.add(e.getValue());
+            }
+            return result;
+        }
+
+        public String getStorageType() {
+            return STORAGE_HASHTABLE;
+        }
+
+    }
+
+
+
+    /**
+     * A lock-striped storage engine with lock-free reads.
+     *
+     * Names are also recorded in a concurrent prefix index. Each
+     * modification updates the map and the index together while holding a
+     * lock stripe chosen by name, so changes to one name are applied to both
+     * structures in the same order; changes to different names rarely
+     * contend. Lookups and prefix queries never lock.
+     */
+    private static class ConcurrentStore<V> extends DataElementStore<V> {
+
+        private ConcurrentHashMap<String, V> data;
+
+        private DataNameIndex<V> index;
+
+        private Object[] locks;
+
+        ConcurrentStore(int initialCapacity) {
+            int stripes = Math.max(16,
+                Runtime.getRuntime().availableProcessors() * 4);
+            data = new ConcurrentHashMap<String, V>(initialCapacity, 0.75f,
+                    stripes);
+            index = new DataNameIndex<V>();
+            locks = new Object[stripes];
+            for (int i = 0; i < stripes; i++)
+                locks[i] = new Object();
+        }
+
+        private Object getLock(String name) {
+            int h = name.hashCode();
+            h ^= (h >>> 16);
+            return locks[(h & 0x7fffffff) % locks.length];
+        }
+
+        public V get(String name) {
+            return data.get(name);
+        }
+
+        public V putIfAbsent(String name, V value) {
+            synchronized (getLock(name)) {
+                V existing = data.putIfAbsent(name, value);
+                if (existing == null)
+                    index.put(name, value);
+                return existing;
+            }
+        }
+
+        public boolean remove(String name, V value) {
+            synchronized (getLock(name)) {
+                if (!data.remove(name, value))
+                    return false;
+                index.remove(name, value);
+                return true;
+            }
+        }
+
+        public boolean containsKey(String name) {
+            return data.containsKey(name);
+        }
+
+        public int size() {
+            return data.size();
+        }
+
+        public List<String> getNames() {
+            return new ArrayList<String>(data.keySet());
+        }
+
+        public List<V> getValues() {
+            return new ArrayList<V>(data.values());
+        }
+
+        public List<String> getNames(String prefix) {
+            return index.getNames(prefix);
+        }
+
+        public List<V> getValues(String prefix) {
+            return index.getValues(prefix);
+        }
+
+        public String getStorageType() {
+            return STORAGE_CONCURRENT;
+        }
+
+    }
+
+}
@@ -0,0 +1,365 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.data.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * A path trie that indexes data names by their "/"-separated segments.
+ * <p>
+ * Each node of the tree represents one segment of a data name, and holds
+ * the value registered for the name that ends at that node (if any).  This
+ * allows the names and values under a given prefix to be enumerated in time
+ * proportional to the size of the matching subtree, rather than to the
+ * total number of names in the index.
+ * <p>
+ * Nodes only record their own segment; full names are rebuilt from the
+ * path while a subtree is enumerated.  Segment strings are interned, so
+ * the many projects which share the same local names (e.g. "Design",
+ * "Time") share a single copy of each segment.
+ * <p>
+ * This class is thread-safe.  Lookups and prefix queries do not lock, and
+ * see a weakly consistent view of concurrent changes.  Modifications lock
+ * only the nodes they change, so changes to different names proceed in
+ * parallel; callers must coordinate changes to the same name.
+ */
+class DataNameIndex<V> {
+
+    private static class Node<V> {
+
+        /** the name segment this node represents */
+        final String segment;
+
+        /** the parent of this node, or null for the root */
+        final Node<V> parent;
+
+        /** children of this node: null if there are none, a single Node, or
+         * a Node[] sorted by segment.  Since most nodes have only a handful
+         * of children, this uses far less memory than a hash table.  A
+         * published array is never modified; changes replace it with a new
+         * copy while holding the lock on this node. */
+        volatile Object children;
+
+        /** the value registered for the data name ending here, or null */
+        volatile V value;
+
+        /** true once this node has been pruned from the tree.  This is only
+         * assigned while holding the lock on this node. */
+        boolean detached;
+
+        Node(String segment, Node<V> parent) {
+            this.segment = segment;
+            this.parent = parent;
+        }
+
+        Node<V> getChild(String segment) {
+            Object c = children;
+            if (c == null)
+                return null;
+            if (c instanceof Node) {
+                Node<V> child = (Node<V>) c;
+                return (child.segment.equals(segment) ? child : null);
+            }
+            Node<V>[] array = (Node<V>[]) c;
+            int pos = search(array, segment);
+            return (pos < 0 ? null : array[pos]);
+        }
+
+        /** @return a snapshot of the children of this node */
+        Node<V>[] getChildren() {
+            Object c = children;
+            if (c == null)
+                return NO_CHILDREN;
+            else if (c instanceof Node)
+                return new Node[] { (Node) c };
+            else
+                return (Node<V>[]) c;
+        }
+
+        /** @return the named child, or null if this node has been pruned */
+        Node<V> getOrCreateChild(String segment) {
+            Node<V> result = getChild(segment);
+            if (result != null)
+                return result;
+
+            synchronized (this) {
+                if (detached)
+                    return null;
+                result = getChild(segment);
+                if (result == null) {
+                    result = new Node<V>(segment.intern(), this);
+                    addChild(result);
+                }
+                return result;
+            }
+        }
+
+        /** Add a new child.  Must be called while holding the lock. */
+        private void addChild(Node<V> child) {
+            Object c = children;
+            if (c == null) {
+                children = child;
+                return;
+            }
+            Node<V>[] old = getChildren();
+            int pos = -search(old, child.segment) - 1;
+            Node<V>[] array = new Node[old.length + 1];
+            System.arraycopy(old, 0, array, 0, pos);
+            array[pos] = child;
+            System.arraycopy(old, pos, array, pos + 1, old.length - pos);
+            children = array;
+        }
+
+        /** Remove a child.  Must be called while holding the lock. */
+        void removeChild(Node<V> child) {
+            Object c = children;
+            if (c == child) {
+                children = null;
+                return;
+            } else if (c == null || c instanceof Node) {
+                return;
+            }
+            Node<V>[] old = (Node<V>[]) c;
+            int pos = search(old, child.segment);
+            if (pos < 0)
+                return;
+            if (old.length == 2) {
+                children = old[1 - pos];
+            } else {
+                Node<V>[] array = new Node[old.length - 1];
+                System.arraycopy(old, 0, array, 0, pos);
+                System.arraycopy(old, pos + 1, array, pos, array.length - pos);
+                children = array;
+            }
+        }
+
+        boolean isEmpty() {
+            return value == null && children == null;
+        }
+
+        private static int search(Node[] array, String segment) {
+            int low = 0, high = array.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = array[mid].segment.compareTo(segment);
+                if (cmp < 0)
+                    low = mid + 1;
+                else if (cmp > 0)
+                    high = mid - 1;
+                else
+                    return mid;
+            }
+            return -(low + 1);
+        }
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+    }
+
+
+    private Node<V> root = new Node<V>("", null);
+
+    private AtomicInteger size = new AtomicInteger();
+
+
+    /** Register a value for the given data name, replacing any old value. */
+    public void put(String name, V value) {
+        if (value == null)
+            throw new NullPointerException("value");
+
+        while (true) {
+            Node<V> node = findNode(name, true);
+            // if a concurrent removal pruned part of our path, try again
+            if (node == null)
+                continue;
+            synchronized (node) {
+                if (node.detached)
+                    continue;
+                if (node.value == null)
+                    size.incrementAndGet();
+                node.value = value;
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Remove the value registered for the given data name, but only if it is
+     * equal to the given value.
+     *
+     * @return true if the value was removed
+     */
+    public boolean remove(String name, V value) {
+        Node<V> node = findNode(name, false);
+        if (node == null)
+            return false;
+        synchronized (node) {
+            if (node.value == null || !node.value.equals(value))
+                return false;
+            node.value = null;
+        }
+        size.decrementAndGet();
+        prune(node);
+        return true;
+    }
+
+
+    /** @return the value registered for the given data name, or null */
+    public V get(String name) {
+        Node<V> node = findNode(name, false);
+        return (node == null ? null : node.value);
+    }
+
+
+    /** @return the number of names in this index */
+    public int size() {
+        return size.get();
+    }
+
+
+    /**
+     * Return the names in this index that start with the given prefix.
+     *
+     * @param prefix a string prefix; it need not end on a segment boundary.
+     *     If null, all names are returned.
+     */
+    public List<String> getNames(String prefix) {
+        List<String> result = new ArrayList<String>();
+        collect(prefix, result, true);
+        return result;
+    }
+
+
+    /**
+     * Return the values whose names start with the given prefix.
+     *
+     * @param prefix a string prefix; it need not end on a segment boundary.
+     *     If null, all values are returned.
+     */
+    public List<V> getValues(String prefix) {
+        List<V> result = new ArrayList<V>();
+        collect(prefix, result, false);
+        return result;
+    }
+
+
+    private void collect(String prefix, List dest, boolean names) {
+        if (prefix == null)
+            prefix = "";
+
+        // walk down the tree through the complete segments in the prefix
+        Node<V> node = root;
+        int pos = 0;
+        int slashPos;
+        while ((slashPos = prefix.indexOf('/', pos)) != -1) {
+            node = node.getChild(prefix.substring(pos, slashPos));
+            if (node == null)
+                return;
+            pos = slashPos + 1;
+        }
+
+        // the final (possibly partial) segment of the prefix can match any
+        // child whose segment starts with it.
+        String partial = prefix.substring(pos);
+        StringBuilder path = (names ? new StringBuilder(prefix.substring(0,
+            pos)) : null);
+        for (Node<V> child : node.getChildren()) {
+            if (child.segment.startsWith(partial)) {
+                int len = (names ? path.length() : 0);
+                if (names)
+                    path.append(child.segment);
+                collectSubtree(child, path, dest);
+                if (names)
+                    path.setLength(len);
+            }
+        }
+    }
+
+    /**
+     * Add the names or values in a subtree to a list.
+     *
+     * @param path the name of the given node, if names are being collected;
+     *     or null if values are being collected
+     */
+    private void collectSubtree(Node<V> node, StringBuilder path, List dest) {
+        V value = node.value;
+        if (value != null)
+            dest.add(path == null ? value : path.toString());
+
+        int len = (path == null ? 0 : path.length());
+        for (Node<V> child : node.getChildren()) {
+            if (path != null)
+                path.append('/').append(child.segment);
+            collectSubtree(child, path, dest);
+            if (path != null)
+                path.setLength(len);
+        }
+    }
+
+
+    /**
+     * Find the node for a data name.
+     *
+     * @param create true if missing nodes should be added
+     * @return the node, or null if it does not exist (or if it could not be
+     *     created because a concurrent removal pruned part of its path)
+     */
+    private Node<V> findNode(String name, boolean create) {
+        Node<V> node = root;
+        int pos = 0, len = name.length();
+        while (node != null) {
+            int slashPos = name.indexOf('/', pos);
+            int end = (slashPos == -1 ? len : slashPos);
+            String segment = name.substring(pos, end);
+            node = (create ? node.getOrCreateChild(segment)
+                    : node.getChild(segment));
+            if (slashPos == -1)
+                break;
+            pos = slashPos + 1;
+        }
+        return node;
+    }
+
+
+    /** Discard nodes that no longer hold any values. */
+    private void prune(Node<V> node) {
+        while (node.parent != null) {
+            Node<V> parent = node.parent;
+            // locks are always taken from parent to child
+            synchronized (parent) {
+                synchronized (node) {
+                    if (node.detached || !node.isEmpty())
+                        return;
+                    node.detached = true;
+                    parent.removeChild(node);
+                }
+            }
+            node = parent;
+        }
+    }
+
+}
@@ -33,6 +33,7 @@ package net.sourceforge.processdash.data.repository;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -59,6 +60,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.ConcurrentModificationException;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
@@ -72,6 +74,9 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.Vector;
 import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
@@ -95,7 +100,7 @@ import net.sourceforge.processdash.data.compiler.CompiledScript;
 import net.sourceforge.processdash.data.compiler.Compiler;
 import net.sourceforge.processdash.data.compiler.ExecutionException;
 import net.sourceforge.processdash.data.compiler.ExpressionContext;
-import net.sourceforge.processdash.data.compiler.ListStack;
+import net.sourceforge.processdash.data.compiler.Stack;
 import net.sourceforge.processdash.data.compiler.analysis.DepthFirstAdapter;
 import net.sourceforge.processdash.data.compiler.lexer.Lexer;
 import net.sourceforge.processdash.data.compiler.lexer.LexerException;
@@ -114,6 +119,7 @@ import net.sourceforge.processdash.data.compiler.parser.ParserException;
 import net.sourceforge.processdash.hier.Filter;
 import net.sourceforge.processdash.templates.DataVersionChecker;
 import net.sourceforge.processdash.templates.TemplateLoader;
+import net.sourceforge.processdash.util.BinaryFileUtils;
 import net.sourceforge.processdash.util.CppFilterReader;
 import net.sourceforge.processdash.util.EscapeString;
 import net.sourceforge.processdash.util.HashTree;
@@ -133,13 +139,22 @@ public class DataRepository implements Repository, DataContext,
     public static final String anonymousPrefix = "///Anonymous";
 
     /** a mapping of data names (Strings) to data values (DataElements) */
-    Hashtable<String, DataElement> data = new Hashtable(8000);
-//    HashTree data = new HashTree(8000);
+    DataElementStore<DataElement> data = DataElementStore.create(8000);
 
     /** a backwards mapping of the above hashtable for data values that happen
      *  to be DataListeners.  key is a DataListener, value is a String. */
     Map activeData = Collections.synchronizedMap(new WeakHashMap(2000));
 
+    /** A setting which enables the explicit dependency graph below. */
+    static final String DEPENDENCY_GRAPH_SETTING = "dataRepository.dependencyGraph";
+
+    /** an explicit graph of the data that active DataListeners depend on, used
+     *  to invalidate calculations in topological order.  This will be null if
+     *  the graph has been disabled. */
+    DataDependencyGraph dependencies =
+        (Settings.getBool(DEPENDENCY_GRAPH_SETTING, true)
+                ? new DataDependencyGraph() : null);
+
     Set dataListenersForDeferredRemoval =
         Collections.synchronizedSet(new HashSet());
     volatile boolean deferDeletions = false;
@@ -335,6 +350,8 @@ public class DataRepository implements Repository, DataContext,
                     value.dispose();
                 } catch (Exception e) {}
                 activeData.remove(value);
+                if (dependencies != null && value instanceof DataListener)
+                    dependencies.removeCalculation((DataListener) value);
             }
         }
 
@@ -422,6 +439,25 @@ public class DataRepository implements Repository, DataContext,
         /** a list of misbehaved data which appears to be circularly defined. */
         Set circularData;
 
+        /** The pool of threads that deliver events to listeners, or null if
+         * events are delivered serially by this thread. */
+        private ExecutorService workers;
+
+        /** The maximum number of listeners that can be notified at once. */
+        private int maxWorkers;
+
+        /** The listeners currently being notified by the worker pool.
+         * Access to this set is guarded by <code>idleLock</code>. */
+        private Set<DataListener> listenersInProgress;
+
+        /** A lock which is signalled whenever a listener has been notified,
+         * and whenever this notifier has no more work to do. */
+        private final Object idleLock = new Object();
+
+        /** A flag identifying the threads that deliver notifications. */
+        private final ThreadLocal<Boolean> isNotifierThread =
+                new ThreadLocal<Boolean>();
+
         private volatile boolean suspended = false;
 
         private volatile boolean running = true;
@@ -432,6 +468,12 @@ public class DataRepository implements Repository, DataContext,
             activeListeners = new Hashtable();
             patternedListeners = new ArrayList();
             circularData = Collections.synchronizedSet(new HashSet());
+            listenersInProgress = new HashSet<DataListener>();
+            maxWorkers = Math.max(1, Settings.getInt(NOTIFIER_THREADS_SETTING,
+                1));
+            if (maxWorkers > 1)
+                workers = Executors.newFixedThreadPool(maxWorkers,
+                    new NotifierThreadFactory());
             setPriority(MIN_PRIORITY);
             setDaemon(true);
             start();
@@ -660,8 +702,9 @@ public class DataRepository implements Repository, DataContext,
                         String name = (String) e.getKey();
                         DataElement d = (DataElement) e.getValue();
                         dataEvents.addElement(d.getDataChangedEvent(name));
-                        dl.dataValuesChanged(dataEvents);
                     }
+                    // deliver all of the coalesced changes in a single call
+                    dl.dataValuesChanged(dataEvents);
                 }
             } catch (RemoteException rem) {
                 logger.log(Level.WARNING,
@@ -679,20 +722,147 @@ public class DataRepository implements Repository, DataContext,
             }
         }
 
-        private boolean fireEvent() {
-            if (!notifications.isEmpty()) {
-                try {
-                    fireEvent((DataListener) notifications.keys().nextElement());
+        /** Hand pending notifications to the worker pool.
+         * 
+         * @return true if there was work to do, false if no notifications
+         *    are pending
+         */
+        private boolean dispatchEvents() {
+            if (notifications.isEmpty())
+                return false;
+
+            // find listeners with pending notifications that are not already
+            // being handled by a worker, up to the number of idle workers.
+            List<DataListener> batch = new ArrayList<DataListener>();
+            synchronized (idleLock) {
+                int capacity = maxWorkers - listenersInProgress.size();
+                synchronized (notifications) {
+                    for (Enumeration e = notifications.keys();
+                            capacity > 0 && e.hasMoreElements();) {
+                        DataListener dl = (DataListener) e.nextElement();
+                        if (listenersInProgress.add(dl)) {
+                            batch.add(dl);
+                            capacity--;
+                        }
+                    }
+                }
+
+                // if all workers are busy (or are busy with the only
+                // listeners that have pending events), wait for one of them
+                // to finish before looking again.
+                if (batch.isEmpty()) {
+                    try { idleLock.wait(IDLE_WAIT_MILLIS); }
+                    catch (InterruptedException ie) {}
                     return true;
-                } catch (java.util.NoSuchElementException e) {
                 }
             }
-            return false;
+
+            for (final DataListener dl : batch) {
+                workers.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            fireEvent(dl);
+                        } finally {
+                            synchronized (idleLock) {
+                                listenersInProgress.remove(dl);
+                                idleLock.notifyAll();
+                            }
+                        }
+                    }});
+            }
+            return true;
+        }
+
+        private boolean isIdle() {
+            synchronized (idleLock) {
+                return notifications.isEmpty() && listenersInProgress.isEmpty();
+            }
+        }
+
+        private void signalProgress() {
+            synchronized (idleLock) {
+                idleLock.notifyAll();
+            }
+        }
+
+        /** Deliver the notifications for one listener on this thread.
+         * 
+         * @return true if there was work to do, false if no notifications
+         *    are pending
+         */
+        private boolean deliverNextEvent() {
+            DataListener dl;
+            synchronized (notifications) {
+                if (notifications.isEmpty())
+                    return false;
+                dl = (DataListener) notifications.keys().nextElement();
+            }
+            synchronized (idleLock) {
+                listenersInProgress.add(dl);
+            }
+            try {
+                fireEvent(dl);
+            } finally {
+                synchronized (idleLock) {
+                    listenersInProgress.remove(dl);
+                }
+            }
+            return true;
+        }
+
+        /** Deliver pending notifications on the current notification thread.
+         * 
+         * Listeners that another thread is already notifying are skipped
+         * rather than waited for: that thread will deliver their pending
+         * events when it finishes, and waiting here could stall this worker
+         * (or deadlock, if the other thread is waiting on us).  Each
+         * listener is attempted at most once, so this method always returns
+         * promptly.
+         * 
+         * @return true if any notifications were delivered
+         */
+        private boolean deliverUnclaimedEvents() {
+            Set<DataListener> attempted = new HashSet<DataListener>();
+            while (true) {
+                DataListener dl = null;
+                synchronized (idleLock) {
+                    synchronized (notifications) {
+                        for (Enumeration e = notifications.keys();
+                                dl == null && e.hasMoreElements();) {
+                            DataListener oneListener =
+                                (DataListener) e.nextElement();
+                            Hashtable elements =
+                                (Hashtable) notifications.get(oneListener);
+                            if (elements != null
+                                    && !elements.containsKey(CIRCULARITY_TOKEN)
+                                    && !attempted.contains(oneListener)
+                                    && listenersInProgress.add(oneListener))
+                                dl = oneListener;
+                        }
+                    }
+                }
+                if (dl == null)
+                    return !attempted.isEmpty();
+
+                attempted.add(dl);
+                try {
+                    fireEvent(dl);
+                } finally {
+                    synchronized (idleLock) {
+                        listenersInProgress.remove(dl);
+                        idleLock.notifyAll();
+                    }
+                }
+            }
         }
 
         public void run() {
+            isNotifierThread.set(Boolean.TRUE);
             while (running) try {
-                if (fireEvent() == false)
+                boolean workWasFound = (workers == null ? deliverNextEvent()
+                        : dispatchEvents());
+                signalProgress();
+                if (workWasFound == false)
                     doWait();
             } catch (Exception e) {}
         }
@@ -703,35 +873,72 @@ public class DataRepository implements Repository, DataContext,
             suspended = false;
         }
 
+        private void wakeUp() {
+            synchronized (this) {
+                this.notifyAll();
+            }
+        }
+
+        /** Wait for all pending notifications to be delivered.
+         * 
+         * When called from a notification thread, only the notifications that
+         * no other thread is delivering are flushed.
+         * 
+         * @return true if any notifications were pending when this method
+         *    was called (or, on a notification thread, were delivered)
+         */
         public boolean flush() {
-            if (notifications.isEmpty())
+            if (isIdle())
                 return false;
 
-            boolean done = false;
-            do {
-                if (!done) {
-                    synchronized (this) {
-                        this.notifyAll();
-                    }
-                    try {
-                        Thread.sleep(20);
-                    } catch (InterruptedException ie) {}
-                }
-
-                done = notifications.isEmpty();
-
-            } while (!done);
+            if (isNotifierThread.get() != null) {
+                // a listener has asked us to flush notifications from within
+                // a notification thread.  We can't wait for ourselves to
+                // finish, so deliver the pending events directly instead.
+                return deliverUnclaimedEvents();
+            }
 
-            return true;
+            while (true) {
+                wakeUp();
+                synchronized (idleLock) {
+                    if (isIdle())
+                        return true;
+                    // the timeout guards against a missed wakeup of the
+                    // notifier thread; normally we are signalled long before
+                    try { idleLock.wait(IDLE_WAIT_MILLIS); }
+                    catch (InterruptedException ie) {}
+                }
+            }
         }
 
         public void quit() {
             running = false;
             interrupt();
+            if (workers != null)
+                workers.shutdownNow();
+        }
+
+        private class NotifierThreadFactory implements ThreadFactory {
+            private int threadNum = 0;
+            public synchronized Thread newThread(final Runnable r) {
+                Thread t = new Thread("DataNotifier-" + (++threadNum)) {
+                    public void run() {
+                        isNotifierThread.set(Boolean.TRUE);
+                        r.run();
+                    }};
+                t.setPriority(MIN_PRIORITY);
+                t.setDaemon(true);
+                return t;
+            }
         }
     }
     private static final String CIRCULARITY_TOKEN = "CIRCULARITY_TOKEN";
 
+    /** A setting for the number of threads used to deliver data change
+     * notifications.  A value of 1 delivers them serially. */
+    static final String NOTIFIER_THREADS_SETTING = "dataRepository.notifierThreads";
+    private static final int IDLE_WAIT_MILLIS = 100;
+
     DataNotifier dataNotifier;
 
 
@@ -1516,7 +1723,7 @@ public class DataRepository implements Repository, DataContext,
         private void cleanup(DataElement e) {
             synchronized (e) {
                 if (e.disposalLockCount == 0) {
-                    data.remove(e.name);
+                    data.remove(e.name, e);
                     e.disposeValue();
                 }
             }
@@ -1538,6 +1745,7 @@ public class DataRepository implements Repository, DataContext,
         dataNotifier = new DataNotifier();
         dataFreezer  = new DataFreezer();
         janitor = new DataJanitor();
+        logger.fine("Using " + data.getStorageType() + " data storage");
     }
 
     public void configureEditability() {
@@ -1630,6 +1838,8 @@ public class DataRepository implements Repository, DataContext,
         dataFreezer = null;
         janitor = null;
         dataNotifier = null;
+        dependencies = null;
+        datafileSnapshot = null;
     }
     private void purgeDataStructures(Object... fields) {
         for (Object f : fields) {
@@ -1709,11 +1919,9 @@ public class DataRepository implements Repository, DataContext,
         oldPrefix = oldPrefix + "/";
         newPrefix = newPrefix + "/";
         int oldPrefixLen = oldPrefix.length();
-        Iterator k = getInternalKeys();
+        Iterator k = data.getNames(oldPrefix).iterator();
         while (k.hasNext()) {
             name = (String) k.next();
-            if (!name.startsWith(oldPrefix))
-                continue;
 
             element = (DataElement) data.get(name);
             if (element == null ||
@@ -1924,6 +2132,16 @@ public class DataRepository implements Repository, DataContext,
         }
     }
 
+    /** Print a description of the dependencies between calculations, for
+     * debugging purposes.
+     */
+    public void dumpDependencyGraph(Writer out) throws IOException {
+        if (dependencies == null)
+            out.write("# The dependency graph is disabled\n");
+        else
+            dependencies.dump(out);
+    }
+
     public synchronized void closeDatafile(String prefix) {
         logger.log(Level.FINE, "Closing datafile for prefix {0}", prefix);
 
@@ -2046,15 +2264,11 @@ public class DataRepository implements Repository, DataContext,
                                 // Add the element to the table
         DataElement d = new DataElement(datafile, name, isDefaultName);
         d.setValue(value, isDefaultValue);
-        synchronized (data) {
-            DataElement displaced = (DataElement) data.put(name, d);
-            if (displaced != null) {
-                // restore the displaced data element. Then throw an exception
-                // to our caller indicating that they cannot add the element,
-                // because it already exists.
-                data.put(name, displaced);
-                throw new DataElementAlreadyExistsException(displaced);
-            }
+        DataElement displaced = data.putIfAbsent(name, d);
+        if (displaced != null) {
+            // another element is already present. Throw an exception to our
+            // caller indicating that they cannot add the element.
+            throw new DataElementAlreadyExistsException(displaced);
         }
 
         if (notify && !isDefaultName && !name.startsWith(anonymousPrefix))
@@ -2079,7 +2293,7 @@ public class DataRepository implements Repository, DataContext,
 
                                     // notify any data listeners
             removedElement.setValue(null, false);
-            dataNotifier.dataChanged(name, removedElement);
+            fireValueChanged(name, removedElement);
 
                                     // notify any repository listeners
             if (!name.startsWith(anonymousPrefix))
@@ -2428,7 +2642,7 @@ public class DataRepository implements Repository, DataContext,
                     } catch (Exception ex) {}
 
                                       // notify any listeners registed for the change
-                dataNotifier.dataChanged(name, d);
+                fireValueChanged(name, d);
 
                                       // check if this element is no longer needed.
                 maybeDelete(name, d, false);
@@ -2469,12 +2683,37 @@ public class DataRepository implements Repository, DataContext,
         }
     }
 
+    /** Notify listeners that a data element has been given a new value.
+     *
+     * Calculations that depend on the element are marked out of date first,
+     * so they will not be computed from a mix of old and new values.
+     */
+    private void fireValueChanged(String name, DataElement d) {
+        if (dependencies != null)
+            dependencies.invalidate(name);
+        dataNotifier.dataChanged(name, d);
+    }
+
     public void valueRecalculated(String name, SaveableData value) {
+        valueRecalculated(name, value, false);
+    }
+
+    /** Notify listeners that a calculated value has changed.
+     *
+     * @param anticipated true if the dependency graph has already marked
+     *     the dependents of this value as out of date for this change
+     */
+    void valueRecalculated(String name, SaveableData value,
+            boolean anticipated) {
 
         if (recursion_depth < MAX_RECURSION_DEPTH) {
             DataElement d = (DataElement)data.get(name);
             if (d == null || d.getValue() != value) return;
 
+            DataDependencyGraph graph = dependencies;
+            if (graph != null && !anticipated)
+                graph.changed(name);
+
             try {
                 recursion_depth++;
 
@@ -2570,7 +2809,7 @@ public class DataRepository implements Repository, DataContext,
     public SimpleData evaluate(CompiledScript script, String prefix)
         throws ExecutionException
     {
-        ListStack stack = new ListStack();
+        Stack stack = CompiledScript.newStack();
         ExpressionContext context = new SimpleExpressionContext(prefix);
         script.run(stack, context);
         SimpleData value = (SimpleData) stack.pop();
@@ -3179,9 +3418,8 @@ public class DataRepository implements Repository, DataContext,
         Hashtable values = new Hashtable();
 
         DataFile dataFile = new DataFile(dataPrefix, new File(datafilePath));
-        dataFile.inheritsFrom =
-            loadDatafile(null, new FileInputStream(dataFile.file),
-                         values, DO_NOT_FOLLOW_INCLUDES, DO_CLOSE, encoding);
+        dataFile.inheritsFrom = loadProjectDatafile(dataFile.file, values,
+            encoding);
         if (dataFile.inheritsFrom != null)
             dataFile.inheritedDefinitions =
                 loadIncludedFileDefinitions(dataFile.inheritsFrom);
@@ -3203,6 +3441,60 @@ public class DataRepository implements Repository, DataContext,
             datafileModified(dataFile);
     }
 
+    /** Read the values from a datafile, without following includes.
+     *
+     * If a datafile snapshot is in use and it holds a current copy of the
+     * file, the values are loaded from the snapshot instead of parsing the
+     * file.
+     *
+     * @return the name of the file this datafile inherits from, if any
+     */
+    private String loadProjectDatafile(File file, Map values, String encoding)
+            throws FileNotFoundException, IOException, InvalidDatafileFormat {
+        DatafileSnapshot snap = datafileSnapshot;
+        if (snap == null)
+            return loadDatafile(null, new FileInputStream(file), values,
+                DO_NOT_FOLLOW_INCLUDES, DO_CLOSE, encoding);
+
+        byte[] content = BinaryFileUtils.readFile(file);
+        String key = encoding + "\n" + prependGlobalDefineDeclarations(null);
+        DatafileSnapshot.Contents snapshot = snap.get(file, content, key);
+        if (snapshot != null) {
+            values.putAll(snapshot.values);
+            return snapshot.inheritsFrom;
+        }
+
+        String result = loadDatafile(null, new ByteArrayInputStream(content),
+            values, DO_NOT_FOLLOW_INCLUDES, DO_CLOSE, encoding);
+        snap.put(file, content, key, result, values);
+        return result;
+    }
+
+    /** Use a snapshot file to speed up the opening of datafiles.
+     *
+     * This should be called before any datafiles are opened.  It has no
+     * effect if snapshots have been disabled with the
+     * "dataRepository.snapshot" setting.
+     */
+    public void useDatafileSnapshot(File snapshotFile) {
+        if (Settings.getBool(SNAPSHOT_SETTING, true))
+            datafileSnapshot = new DatafileSnapshot(snapshotFile);
+    }
+
+    /** Save the datafile snapshot, if one is in use and it has changed. */
+    public void saveDatafileSnapshot() {
+        DatafileSnapshot snap = datafileSnapshot;
+        if (snap != null) try {
+            snap.save();
+        } catch (IOException ioe) {
+            logger.log(Level.WARNING, "Unable to save datafile snapshot", ioe);
+        }
+    }
+
+    private static final String SNAPSHOT_SETTING = "dataRepository.snapshot";
+
+    private volatile DatafileSnapshot datafileSnapshot = null;
+
     public static String getDatasetEncoding() {
         return Settings.getBool(USE_UTF8_SETTING, false) ?
             "UTF-8" : Charset.defaultCharset().name();
@@ -3469,7 +3761,7 @@ public class DataRepository implements Repository, DataContext,
 
             // send a dataChanged event for the null element, indicating that
             // the imported file has changed.
-            dataNotifier.dataChanged(e.name, e);
+            fireValueChanged(e.name, e);
         }
     }
 
@@ -3514,22 +3806,22 @@ public class DataRepository implements Repository, DataContext,
     }
 
     private List<DataElement> getElementsForDatafile(DataFile datafile) {
+        List<DataElement> candidates;
+        if (datafile.prefix == null || datafile.prefix.length() == 0)
+            candidates = data.getValues();
+        else
+            candidates = data.getValues(datafile.prefix + "/");
+
         List result = new ArrayList();
-        synchronized (data) {
-            for (DataElement elem : data.values()) {
-                if (elem != null && elem.datafile == datafile)
-                    result.add(elem);
-            }
+        for (DataElement elem : candidates) {
+            if (elem != null && elem.datafile == datafile)
+                result.add(elem);
         }
         return result;
     }
 
     private Iterator getInternalKeys() {
-        List l = new ArrayList();
-        synchronized (data) {
-            l.addAll(data.keySet());
-        }
-        return l.iterator();
+        return data.getNames().iterator();
     }
 
     public Iterator getKeys() {
@@ -3549,9 +3841,7 @@ public class DataRepository implements Repository, DataContext,
         private Iterator workingExplicitNames;
 
         public AllDataNamesIterator(Object prefix, Object hints) {
-            synchronized (data) {
-                explicitDataNames = new HashSet(data.keySet());
-            }
+            explicitDataNames = getExplicitNames(prefix);
             if (hints instanceof DataNameFilter.ExplicitOnly) {
                 files = Collections.EMPTY_LIST;
             } else {
@@ -3578,6 +3868,24 @@ public class DataRepository implements Repository, DataContext,
 
             loadNextWorkingFile();
         }
+        private Set getExplicitNames(Object prefixes) {
+            // only names starting with the requested prefix(es) could be of
+            // interest to our caller, so retrieve just those from the index.
+            if (prefixes instanceof String)
+                return new HashSet(data.getNames((String) prefixes));
+
+            if (prefixes instanceof Collection) {
+                Set result = new HashSet();
+                for (Object onePrefix : (Collection) prefixes) {
+                    if (!(onePrefix instanceof String))
+                        return new HashSet(data.getNames());
+                    result.addAll(data.getNames((String) onePrefix));
+                }
+                return result;
+            }
+
+            return new HashSet(data.getNames());
+        }
         private boolean prefixesMightMatch(Object prefixes, String prefixB) {
             if (prefixes instanceof String)
                 return prefixesMightMatch((String) prefixes, prefixB);
@@ -3916,6 +4224,8 @@ public class DataRepository implements Repository, DataContext,
         (String name, DataListener dl, String dataListenerName, boolean notify) {
         String result = addDataListener(name, dl, notify);
         activeData.put(dl, dataListenerName);
+        if (dependencies != null)
+            dependencies.addDependency(result, dl, dataListenerName);
         return result;
     }
 
@@ -3965,7 +4275,7 @@ public class DataRepository implements Repository, DataContext,
 
         if (d.dataListeners == null) {    // if no one cares about this element
             if (d.getValue() == null)         // and it has no value,
-                data.remove(name);            // throw it away.
+                data.remove(name, d);         // throw it away.
 
         } else if (d.dataListeners.isEmpty()) {
                            // if no one cares about this element any longer,
@@ -3984,9 +4294,13 @@ public class DataRepository implements Repository, DataContext,
             d.removeDataListener(dl);
             dataNotifier.removeDataListener(name, dl);
         }
+        if (dependencies != null)
+            dependencies.removeDependency(name, dl);
     }
     public void removeActiveDataListener(DataListener dl) {
         activeData.remove(dl);
+        if (dependencies != null)
+            dependencies.removeCalculation(dl);
     }
 
 
@@ -4007,6 +4321,8 @@ public class DataRepository implements Repository, DataContext,
         }
         dataNotifier.deleteDataListener(dl);
         activeData.remove(dl);
+        if (dependencies != null)
+            dependencies.removeCalculation(dl);
         // debug("deleteDataListener done");
     }
 
@@ -4029,6 +4345,8 @@ public class DataRepository implements Repository, DataContext,
             DataListener dl = (DataListener) i.next();
             dataNotifier.deleteDataListener(dl);
             activeData.remove(dl);
+            if (dependencies != null)
+                dependencies.removeCalculation(dl);
             dataListenersForDeferredRemoval.remove(dl);
         }
         // debug("deleteDataListener done");
@@ -4285,7 +4603,7 @@ public class DataRepository implements Repository, DataContext,
         }
         return s;
     }
-    private static Map INTERN_MAP = null;
+    private static DataElementStore INTERN_MAP = null;
 
     // the following boolean constants are declared to provide readability
     // in the code above.
@@ -0,0 +1,325 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.data.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import net.sourceforge.processdash.util.BinaryFileUtils;
+import net.sourceforge.processdash.util.RobustFileOutputStream;
+
+
+/**
+ * A binary snapshot of the parsed contents of project datafiles.
+ * <p>
+ * Parsing datafiles accounts for much of the time needed to open a large
+ * dataset, but most datafiles do not change from one session to the next.
+ * This class records the name/value pairs produced by the parser for each
+ * datafile, along with the file's timestamp, length, and checksum.  When a
+ * datafile has not changed, its values can be loaded from the snapshot
+ * without running the parser.
+ * <p>
+ * Entries are also keyed by the file encoding and the global define
+ * declarations in effect, since both affect the result of a parse.  Only
+ * datafiles whose values are all plain strings (which includes every file
+ * written by the dashboard) are recorded.
+ * <p>
+ * The snapshot file is read into memory with a single bulk read, and entries
+ * are decoded on demand.  (The file is deliberately not memory-mapped, since
+ * some platforms will not allow a mapped file to be replaced when the
+ * snapshot is saved.)  Entries which are not used during a session are
+ * discarded the next time the snapshot is saved.
+ * <p>
+ * The snapshot is a local cache.  It is deliberately excluded from backups
+ * and from bridged dataset synchronization, since it can always be rebuilt
+ * from the datafiles themselves.
+ */
+class DatafileSnapshot {
+
+    private static final int MAGIC = 0x50445346;
+
+    private static final int VERSION = 2;
+
+    /** Information about the snapshot of one datafile */
+    private static class Entry {
+        long modTime;
+        long length;
+        long checksum;
+
+        /** the parser settings in effect when this entry was recorded */
+        String key;
+
+        /** the encoded values of this entry */
+        byte[] block;
+        int blockOffset;
+        int blockLength;
+
+        /** true if this entry was used or created during this session */
+        boolean used;
+    }
+
+    /** The parsed contents of a datafile */
+    static class Contents {
+        String inheritsFrom;
+        Map<String, String> values;
+    }
+
+
+    private File file;
+
+    private Map<String, Entry> entries;
+
+    private boolean dirty;
+
+
+    DatafileSnapshot(File file) {
+        this.file = file;
+        this.entries = new HashMap<String, Entry>();
+        this.dirty = false;
+        try {
+            if (file.isFile())
+                load();
+        } catch (Exception e) {
+            logger.log(Level.FINE, "Discarding unreadable datafile snapshot "
+                    + file, e);
+            entries.clear();
+            dirty = true;
+        }
+    }
+
+
+    /**
+     * Retrieve the snapshot of a datafile, if it is still current.
+     *
+     * @param datafile the datafile in question
+     * @param content the current contents of the datafile
+     * @param key a string describing the parser settings in effect
+     * @return the parsed contents of the file, or null if the snapshot
+     *     does not hold a current copy
+     */
+    public synchronized Contents get(File datafile, byte[] content,
+            String key) {
+        String path = datafile.getAbsolutePath();
+        Entry e = entries.get(path);
+        if (e == null)
+            return null;
+
+        if (e.modTime != datafile.lastModified()
+                || e.length != content.length
+                || !e.key.equals(key)
+                || e.checksum != checksum(content)) {
+            entries.remove(path);
+            dirty = true;
+            return null;
+        }
+
+        try {
+            Contents result = decode(e);
+            e.used = true;
+            return result;
+        } catch (Exception ex) {
+            logger.log(Level.FINE, "Discarding corrupt snapshot for " + path,
+                ex);
+            entries.remove(path);
+            dirty = true;
+            return null;
+        }
+    }
+
+
+    /**
+     * Record the parsed contents of a datafile.
+     *
+     * If any of the values are not strings, the datafile cannot be recorded
+     * and this method does nothing.
+     */
+    public synchronized void put(File datafile, byte[] content, String key,
+            String inheritsFrom, Map values) {
+        String path = datafile.getAbsolutePath();
+        if (entries.remove(path) != null)
+            dirty = true;
+
+        try {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(buf);
+            BinaryFileUtils.writeString(out, inheritsFrom);
+            out.writeInt(values.size());
+            for (Iterator i = values.entrySet().iterator(); i.hasNext();) {
+                Map.Entry v = (Map.Entry) i.next();
+                if (!(v.getKey() instanceof String)
+                        || !(v.getValue() instanceof String))
+                    return;
+                BinaryFileUtils.writeString(out, (String) v.getKey());
+                BinaryFileUtils.writeString(out, (String) v.getValue());
+            }
+            out.flush();
+
+            Entry e = new Entry();
+            e.modTime = datafile.lastModified();
+            e.length = content.length;
+            e.checksum = checksum(content);
+            e.key = key;
+            e.block = buf.toByteArray();
+            e.blockOffset = 0;
+            e.blockLength = e.block.length;
+            e.used = true;
+            entries.put(path, e);
+            dirty = true;
+        } catch (IOException ioe) {
+            // not possible for a ByteArrayOutputStream
+        }
+    }
+
+
+    /** @return the number of datafiles recorded in this snapshot */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+
+    /**
+     * Write this snapshot to disk, if it has changed.  Entries that were not
+     * used during this session are discarded.
+     */
+    public synchronized void save() throws IOException {
+        for (Iterator<Entry> i = entries.values().iterator(); i.hasNext();) {
+            if (!i.next().used) {
+                i.remove();
+                dirty = true;
+            }
+        }
+        if (!dirty)
+            return;
+
+        RobustFileOutputStream rfos = new RobustFileOutputStream(file);
+        try {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(rfos));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            // most entries share the same parser settings, so each distinct
+            // key is written once, and entries refer to it by position
+            Map<String, Integer> keys = new HashMap<String, Integer>();
+            for (Entry e : entries.values())
+                if (!keys.containsKey(e.key))
+                    keys.put(e.key, keys.size());
+            String[] keyTable = new String[keys.size()];
+            for (Map.Entry<String, Integer> k : keys.entrySet())
+                keyTable[k.getValue()] = k.getKey();
+            out.writeInt(keyTable.length);
+            for (String key : keyTable)
+                BinaryFileUtils.writeString(out, key);
+
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> me : entries.entrySet()) {
+                Entry e = me.getValue();
+                BinaryFileUtils.writeString(out, me.getKey());
+                out.writeLong(e.modTime);
+                out.writeLong(e.length);
+                out.writeLong(e.checksum);
+                out.writeInt(keys.get(e.key));
+                out.writeInt(e.blockLength);
+                out.write(e.block, e.blockOffset, e.blockLength);
+            }
+            out.flush();
+            out.close();
+            dirty = false;
+        } catch (IOException ioe) {
+            rfos.abort();
+            throw ioe;
+        }
+    }
+
+
+    private void load() throws IOException {
+        byte[] bytes = BinaryFileUtils.readFile(file);
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        if (in.getInt() != MAGIC || in.getInt() != VERSION)
+            throw new IOException("Unrecognized snapshot format");
+
+        String[] keyTable = new String[in.getInt()];
+        for (int i = 0; i < keyTable.length; i++)
+            keyTable[i] = BinaryFileUtils.readString(in);
+
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            String path = BinaryFileUtils.readString(in);
+            Entry e = new Entry();
+            e.modTime = in.getLong();
+            e.length = in.getLong();
+            e.checksum = in.getLong();
+            int keyPos = in.getInt();
+            if (keyPos < 0 || keyPos >= keyTable.length
+                    || keyTable[keyPos] == null)
+                throw new IOException("Invalid snapshot key");
+            e.key = keyTable[keyPos];
+            e.blockLength = in.getInt();
+            e.blockOffset = in.position();
+            e.block = bytes;
+            if (e.blockLength < 0 || e.blockLength > in.remaining())
+                throw new IOException("Truncated snapshot");
+            in.position(e.blockOffset + e.blockLength);
+            entries.put(path, e);
+        }
+    }
+
+
+    private Contents decode(Entry e) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(e.block, e.blockOffset, e.blockLength);
+        Contents result = new Contents();
+        result.inheritsFrom = BinaryFileUtils.readString(in);
+        int count = in.getInt();
+        result.values = new Hashtable<String, String>(Math.max(11,
+            count * 2));
+        for (int i = 0; i < count; i++) {
+            String name = BinaryFileUtils.readString(in);
+            String value = BinaryFileUtils.readString(in);
+            result.values.put(name, value);
+        }
+        return result;
+    }
+
+
+    static long checksum(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    private static final Logger logger = Logger
+            .getLogger(DatafileSnapshot.class.getName());
+
+}
@@ -50,6 +50,9 @@ public class SubscribingExpressionContext implements ExpressionContext {
 
     private Set namesSeen;
 
+    /** The most recent name passed to resolveName, and its result */
+    private String lastName, lastResolvedName;
+
     public SubscribingExpressionContext(DataRepository data, String prefix,
             DataListener listener, String listenerName, Set currentSubscriptions) {
         this.data = data;
@@ -80,7 +83,13 @@ public class SubscribingExpressionContext implements ExpressionContext {
     }
 
     public String resolveName(String dataName) {
-        return DataRepository.createDataName(prefix, dataName);
+        // variables are resolved once by get() and again when their
+        // descriptor is pushed, so remember the most recent answer.
+        if (dataName != lastName) {
+            lastResolvedName = DataRepository.createDataName(prefix, dataName);
+            lastName = dataName;
+        }
+        return lastResolvedName;
     }
 
     public void removeOldSubscriptions() {
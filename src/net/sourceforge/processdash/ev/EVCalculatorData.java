@@ -26,7 +26,6 @@ package net.sourceforge.processdash.ev;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -549,10 +548,9 @@ Value to recalculate
 
             ConfidenceInterval completionDate = null;
             if (costInterval != null && timeErrInterval != null) {
-                EVScheduleRandom sr = new EVScheduleRandom(schedule);
                 EVScheduleConfidenceIntervals ci =
-                    new EVScheduleConfidenceIntervals
-                        (sr, Collections.singletonList(sr));
+                    new EVScheduleConfidenceIntervals(
+                        new EVScheduleRandom.ModelFactory(schedule), false);
                 completionDate = ci.getForecastDateInterval();
             }
 
@@ -33,15 +33,21 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import net.sourceforge.processdash.Settings;
 import net.sourceforge.processdash.ev.ci.ConfidenceInterval;
 import net.sourceforge.processdash.ev.ci.ConfidenceIntervalProvider;
 import net.sourceforge.processdash.ev.ci.ConfidenceIntervalSum;
 import net.sourceforge.processdash.ev.ci.EVScheduleConfidenceIntervals;
+import net.sourceforge.processdash.ev.ci.EVScheduleConfidenceIntervals.SimpleModel;
+import net.sourceforge.processdash.ev.ci.EVScheduleConfidenceIntervals.SimulationModel;
+import net.sourceforge.processdash.ev.ci.EVScheduleConfidenceIntervals.SimulationModelFactory;
 import net.sourceforge.processdash.ev.ci.EVTimeErrConfidenceInterval;
 import net.sourceforge.processdash.ev.ci.LinearRatioConfidenceInterval;
 import net.sourceforge.processdash.ev.ci.LogCenteredConfidenceInterval;
 import net.sourceforge.processdash.ev.ci.SingleValueConfidenceInterval;
+import net.sourceforge.processdash.util.WorkerPool;
 
 public class EVCalculatorRollup extends EVCalculator {
 
@@ -49,6 +55,7 @@ public class EVCalculatorRollup extends EVCalculator {
     private EVTask taskRoot;
     private Vector<EVTaskList> evTaskLists;
     private EVScheduleRollup schedule;
+    private int numThreads = -1;
 
     public EVCalculatorRollup(EVTaskListRollup rollupTaskList, EVTask root,
             Vector evTaskLists, EVScheduleRollup schedule, Properties metadata) {
@@ -64,24 +71,14 @@ public class EVCalculatorRollup extends EVCalculator {
         evLeaves = null;
 
         // Recalculate all the subschedules.
+        recalcTaskLists();
+
+        // Some types of task lists perform a recalc by completely
+        // replacing their root task and schedule. Give them the
+        // benefit of the doubt and make certain that we are using
+        // the correct root and schedule
         for (int i = evTaskLists.size();   i-- > 0; ) {
             EVTaskList taskList = (EVTaskList) evTaskLists.get(i);
-
-            // install rollup-level confidence interval providers, then ask
-            // the task list to recalculate.
-            tweakConfidenceIntervalProviders(taskList);
-            taskList.recalc();
-
-            // On rare occasions, some task lists might create a new calculator
-            // as a result of a recalc operation. If this has occurred,
-            // reinstall our interval providers and recalc again.
-            if (tweakConfidenceIntervalProviders(taskList))
-                taskList.recalc();
-
-            // Some types of task lists perform a recalc by completely
-            // replacing their root task and schedule. Give them the
-            // benefit of the doubt and make certain that we are using
-            // the correct root and schedule
             taskRoot.replace(i, (EVTask) taskList.getRoot());
             schedule.replaceSchedule(i, taskList);
         }
@@ -109,6 +106,78 @@ public class EVCalculatorRollup extends EVCalculator {
         writeOverspentFallbackDates();
     }
 
+    /** Use a specific number of threads to recalculate task lists, instead
+     * of the number configured in the user settings. */
+    void setThreadCount(int numThreads) {
+        this.numThreads = numThreads;
+    }
+
+    private void recalcTaskLists() {
+        boolean incremental = Settings.getBool("ev.incrementalRollupRecalc",
+            true);
+        int numThreads = (this.numThreads > 0 ? this.numThreads
+                : getDefaultThreadCount());
+        List<EVTaskList> concurrent = new ArrayList<EVTaskList>();
+
+        for (int i = evTaskLists.size();   i-- > 0; ) {
+            EVTaskList taskList = (EVTaskList) evTaskLists.get(i);
+
+            // install rollup-level confidence interval providers, then ask
+            // the task list to recalculate. Task lists which have not
+            // changed since their last recalc can be reused as-is.
+            boolean tweaked = tweakConfidenceIntervalProviders(taskList);
+            if (tweaked || !incremental || taskList.isRecalcNeeded()) {
+                if (numThreads > 1 && taskList
+                        .supportsConcurrentRecalc(rollupTaskList
+                                .getRecalcRepeater()))
+                    concurrent.add(taskList);
+                else
+                    recalcTaskList(taskList);
+            }
+        }
+
+        if (concurrent.size() == 1)
+            recalcTaskList(concurrent.get(0));
+        else if (!concurrent.isEmpty())
+            recalcConcurrently(concurrent, numThreads);
+    }
+
+    private void recalcTaskList(EVTaskList taskList) {
+        taskList.recalc();
+
+        // On rare occasions, some task lists might create a new calculator
+        // as a result of a recalc operation. If this has occurred,
+        // reinstall our interval providers and recalc again.
+        if (tweakConfidenceIntervalProviders(taskList))
+            taskList.recalc();
+    }
+
+    /**
+     * Recalculate a number of independent task lists on several threads.
+     * The calling thread takes part in the work, and does not return until
+     * every task list has been recalculated.
+     */
+    private void recalcConcurrently(final List<EVTaskList> taskLists,
+            int numThreads) {
+        final AtomicInteger nextPos = new AtomicInteger(0);
+        Runnable worker = new Runnable() {
+            public void run() {
+                int pos;
+                while ((pos = nextPos.getAndIncrement()) < taskLists.size())
+                    recalcTaskList(taskLists.get(pos));
+            }};
+
+        // each member's own forecast simulation runs serially on these
+        // threads, so the total thread count stays bounded.
+        WorkerPool.runAll(worker, Math.min(numThreads, taskLists.size()));
+    }
+
+    private static int getDefaultThreadCount() {
+        int result = Settings.getInt("ev.rollupRecalcThreads",
+            WorkerPool.getDefaultThreadCount(8));
+        return Math.max(1, result);
+    }
+
     @Override
     public void setBaselineDataSource(EVSnapshot baselineDataSource) {
         super.setBaselineDataSource(baselineDataSource);
@@ -461,14 +530,18 @@ public class EVCalculatorRollup extends EVCalculator {
         if (COST_ONLY) { createCostInterval(); return; }
 
         // System.out.println("Creating both intervals");
-        List subs = schedule.subSchedules;
-        EVScheduleRandom[] randSchedules = new EVScheduleRandom[subs.size()];
-        for (int i = 0;   i < randSchedules.length;   i++)
-            randSchedules[i] = new EVScheduleRandom((EVSchedule) subs.get(i));
-
-        EVScheduleRollup sr = new EVScheduleRollup(randSchedules);
-        EVScheduleConfidenceIntervals ci = new EVScheduleConfidenceIntervals
-            (sr, Arrays.asList(randSchedules));
+        final List subs = schedule.subSchedules;
+        EVScheduleConfidenceIntervals ci = new EVScheduleConfidenceIntervals(
+            new SimulationModelFactory() {
+                public SimulationModel createModel() {
+                    EVScheduleRandom[] randSchedules =
+                        new EVScheduleRandom[subs.size()];
+                    for (int i = 0;   i < randSchedules.length;   i++)
+                        randSchedules[i] = new EVScheduleRandom(
+                                (EVSchedule) subs.get(i));
+                    EVScheduleRollup sr = new EVScheduleRollup(randSchedules);
+                    return new SimpleModel(sr, Arrays.asList(randSchedules));
+                }}, false);
 
         EVMetricsRollup metrics = (EVMetricsRollup) schedule.getMetrics();
         metrics.setCostConfidenceInterval(ci.getCostInterval());
@@ -24,7 +24,6 @@
 package net.sourceforge.processdash.ev;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -166,7 +165,7 @@ public class EVCalculatorXML extends EVCalculator {
         private double viabilityProb;
 
         @Override
-        protected ConfidenceInterval getDelegate() {
+        protected synchronized ConfidenceInterval getDelegate() {
             if (!initialized) {
                 delegate = buildDelegate();
                 if (delegate != null && delegate.getViability() < ACCEPTABLE)
@@ -190,10 +189,9 @@ public class EVCalculatorXML extends EVCalculator {
 
                 ConfidenceInterval completionDate = null;
                 if (costInterval != null && timeErrInterval != null) {
-                    EVScheduleRandom sr = new EVScheduleRandom(schedule);
                     EVScheduleConfidenceIntervals ci =
-                        new EVScheduleConfidenceIntervals
-                            (sr, Collections.singletonList(sr));
+                        new EVScheduleConfidenceIntervals(
+                            new EVScheduleRandom.ModelFactory(schedule), false);
                     completionDate = ci.getForecastDateInterval();
                 }
 
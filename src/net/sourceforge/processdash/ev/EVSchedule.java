@@ -338,6 +338,7 @@ public class EVSchedule implements TableModel {
 
                     clearAutomaticFlag();
                 }
+                periodsChanged();
                 fireNeedsRecalc();
             }
         }
@@ -417,6 +418,7 @@ public class EVSchedule implements TableModel {
             synchronized (EVSchedule.this) {
                 automatic = false;
                 if (previous != null) previous.clearAutomaticFlag();
+                periodsChanged();
             }
         }
 
@@ -539,7 +541,7 @@ public class EVSchedule implements TableModel {
         public double earnedValue() { return earnedValue; }
     }
 
-    Vector periods = new Vector();
+    PeriodList periods = new PeriodList();
     boolean datesLocked = false;
     EVMetrics metrics = new EVMetrics();
     EVSnapshot baselineSnapshot = null;
@@ -677,6 +679,7 @@ public class EVSchedule implements TableModel {
         }
         defaultPlanDirectTime *= planMultiplier;
         defaultPlanTotalTime *= planMultiplier;
+        periodsChanged();
     }
 
     public EVSchedule(Element e) {
@@ -733,6 +736,7 @@ public class EVSchedule implements TableModel {
             p.endDate = new Date(newEndDate);
             p.note = NOTE_NEEDS_CALC;
         }
+        periodsChanged();
     }
 
     public TimeZone guessTimeZone() {
@@ -748,6 +752,7 @@ public class EVSchedule implements TableModel {
             p.endDate = newDate;
             p.note = NOTE_NEEDS_CALC;
         }
+        periodsChanged();
         effectiveDate = adj.adjust(effectiveDate);
         metrics.adjustDates(adj);
         adjustPeriodNoteTimestamps(adj);
@@ -779,6 +784,7 @@ public class EVSchedule implements TableModel {
             p.note = NOTE_NEEDS_CALC;
             result.add(origDate, newDate);
         }
+        periodsChanged();
 
         // we are returning a DateAdjuster that alters timestamps for various
         // calendar periods.  But the special date "NEVER" should not be
@@ -941,6 +947,13 @@ public class EVSchedule implements TableModel {
 
     public synchronized Period get(Date when) {
         long time = when.getTime();
+        PeriodIndex index = getPeriodIndex();
+        if (index.valid) {
+            // find the last period that begins before the given time
+            int pos = index.countBefore(index.beginTimes, time) - 1;
+            return (pos < 0 ? null : get(pos));
+        }
+
         Period p;
         for (int i = periods.size();  i-- > 0; ) {
             p = get(i);
@@ -1023,14 +1036,101 @@ public class EVSchedule implements TableModel {
      * current schedule.
      */
     public Date getHypotheticalDate(double cumPlanTime, boolean useDTPI) {
+        double multiplier = 1.0;
+        if (useDTPI) {
+            multiplier = 1 / metrics.directTimePerformanceIndexEff();
+            if (Double.isNaN(multiplier) || Double.isInfinite(multiplier))
+                multiplier = 1.0;
+        }
+
+        Date result = getHypotheticalDateFromIndex(cumPlanTime, multiplier);
+        if (result != null)
+            return result;
+        else
+            return getHypotheticalDateFromCopy(cumPlanTime, multiplier);
+    }
+
+    /**
+     * Calculate a hypothetical date by growing a cleaned-up copy of this
+     * schedule.
+     */
+    Date getHypotheticalDateFromCopy(double cumPlanTime, double multiplier) {
         EVSchedule s = new EVSchedule(this);
         s.cleanUp();
-        if (useDTPI) s.multiply(1 / metrics.directTimePerformanceIndexEff());
+        s.multiply(multiplier);
         double extra = cumPlanTime + s.defaultPlanDirectTime;
         s.getPlannedCompletionDate(extra, extra);
         return s.extrapolateWithinSchedule(cumPlanTime);
     }
 
+    /**
+     * Calculate a hypothetical date without copying the schedule.
+     *
+     * This produces the same result as cleaning up a copy of this schedule,
+     * multiplying it, growing it to hold the given time, and extrapolating.
+     * The manual periods are searched with the period index, and the periods
+     * that would be grown are generated on the fly.
+     *
+     * @return the hypothetical date, or null if this schedule is not in a
+     *         state where the shortcut applies
+     */
+    synchronized Date getHypotheticalDateFromIndex(double cumPlanTime,
+            double multiplier) {
+        PeriodIndex index = getPeriodIndex();
+        int numManual = index.firstAutomatic;
+        if (!index.valid || numManual < 2 || !(multiplier > 0))
+            return null;
+
+        double defaultTime = (directPercentage
+                * get(numManual - 1).planTotalTime) * multiplier;
+        if (Double.isNaN(defaultTime) || Double.isInfinite(defaultTime))
+            return null;
+
+        if (cumPlanTime < 0) return A_LONG_TIME_AGO;
+        if (Double.isNaN(cumPlanTime) || Double.isInfinite(cumPlanTime))
+            return NEVER;
+
+        // look for the target within the manual periods of the schedule.
+        int pos = index.firstReaching(index.maxLaterCumPlanTime, 1,
+            cumPlanTime, multiplier);
+        if (pos < numManual) {
+            Period p = get(pos);
+            return interpolate(get(pos - 1).cumPlanDirectTime * multiplier,
+                p.cumPlanDirectTime * multiplier, index.endTimes[pos - 1],
+                index.endTimes[pos], cumPlanTime);
+        }
+
+        // the schedule would be grown until it contains an extra period's
+        // worth of time beyond the target.  Emulate that growth.
+        double extra = cumPlanTime + defaultTime;
+        if (Double.isNaN(extra) || Double.isInfinite(extra)
+                || index.maxCumPlanTime[numManual - 1] * multiplier >= extra
+                || defaultTime <= 0.0)
+            return NEVER;
+
+        long xdate = index.endTimes[numManual - 2];
+        long ydate = index.endTimes[numManual - 1];
+        double yCum = get(numManual - 1).cumPlanDirectTime * multiplier;
+        for (int size = numManual;  size <= 300;  size++) {
+            long delta = ydate - xdate - dstDifference(xdate, ydate);
+            long zdate = ydate + delta;
+            zdate += dstDifference(ydate, zdate);
+
+            double cumDiff = extra - yCum;
+            if (cumDiff <= 0)
+                return NEVER;
+            double zCum = (defaultTime < cumDiff ? yCum + defaultTime : extra);
+
+            if (zCum >= cumPlanTime)
+                return interpolate(yCum, zCum, ydate, zdate, cumPlanTime);
+
+            xdate = ydate;
+            ydate = zdate;
+            yCum = zCum;
+        }
+        return NEVER;
+    }
+
     public synchronized Date getPlannedCompletionDate(double cumPlanTime,
                                                       double cumPlanValue) {
         //System.out.println("getPlannedCompletionDate("+cumPlanTime+","+cumPlanValue+")");
@@ -1043,7 +1143,10 @@ public class EVSchedule implements TableModel {
         // value into the appropriate blocks in the schedule.
         Period p;
         Date result = null;
-        for (int i = 0;  i < periods.size();  i++) {
+        PeriodIndex index = getPeriodIndex();
+        int start = (index.valid ? index.firstReaching(index.maxCumPlanTime, 0,
+            cumPlanTime, 1.0) : 0);
+        for (int i = start;  i < periods.size();  i++) {
             p = get(i);
             if (p.cumPlanDirectTime >= cumPlanTime) {
                 p.cumPlanValue = Math.max(p.cumPlanValue, cumPlanValue);
@@ -1079,26 +1182,230 @@ public class EVSchedule implements TableModel {
         if (Double.isNaN(cumPlanTime) || Double.isInfinite(cumPlanTime))
             return NEVER;
 
+        PeriodIndex index = getPeriodIndex();
+        if (index.valid) {
+            int pos = index.firstReaching(index.maxLaterCumPlanTime, 1,
+                cumPlanTime, 1.0);
+            if (pos == index.size)
+                return NEVER;
+            Period p = get(pos);
+            return interpolate(p.previous.cumPlanDirectTime,
+                p.cumPlanDirectTime, p.getBeginDate().getTime(),
+                p.endDate.getTime(), cumPlanTime);
+        }
+
         Iterator i = periods.iterator();
         while (i.hasNext()) {
             Period p = (Period) i.next();
             if (p.cumPlanDirectTime < cumPlanTime || p.previous == null)
                 continue;
 
-            double prevCumPlanTime = p.previous.cumPlanDirectTime;
-            double percent = (cumPlanTime - prevCumPlanTime) /
-                (p.cumPlanDirectTime - prevCumPlanTime);
+            return interpolate(p.previous.cumPlanDirectTime,
+                p.cumPlanDirectTime, p.getBeginDate().getTime(),
+                p.endDate.getTime(), cumPlanTime);
+        }
+
+        return NEVER;
+    }
+
+    private static Date interpolate(double prevCumPlanTime,
+            double cumPlanTimeAtEnd, long start, long end,
+            double cumPlanTime) {
+        double percent = (cumPlanTime - prevCumPlanTime) /
+            (cumPlanTimeAtEnd - prevCumPlanTime);
+
+        long duration = end - start;
+        long durationPercent = (long) (duration * percent);
+        return new Date(start + durationPercent);
+    }
+
+
+    /** Discard the cached period index.  This must be called after changing
+     * the dates, cumulative plan times, or automatic flags of periods in
+     * place; structural changes to the period list are detected
+     * automatically.
+     */
+    protected void periodsChanged() {
+        periodsVersion++;
+    }
+
+    private synchronized PeriodIndex getPeriodIndex() {
+        PeriodIndex index = periodIndex;
+        if (index == null)
+            index = periodIndex = new PeriodIndex();
+        if (index.modCount != periods.getModCount()
+                || index.version != periodsVersion) {
+            index.rebuild(this);
+            index.modCount = periods.getModCount();
+            index.version = periodsVersion;
+        }
+        return index;
+    }
+
+    /** @return true if the given index describes the current periods */
+    private boolean isIndexCurrent(PeriodIndex index) {
+        return index != null && index.valid
+                && index.modCount == periods.getModCount()
+                && index.version == periodsVersion
+                && index.size == periods.size();
+    }
+
+    /** A list of periods which exposes its modification count, so a
+     * {@link PeriodIndex} can tell when it is out of date. */
+    protected static class PeriodList extends Vector {
+        int getModCount() {
+            return modCount;
+        }
+    }
+
+    /**
+     * Arrays which allow the periods in a schedule to be found by date or by
+     * cumulative plan time with a binary search, rather than a linear scan.
+     *
+     * Period dates are kept in ascending order, so they can be searched
+     * directly.  Cumulative plan times are normally ascending too, but the
+     * index records their running maximum, so a search for the first period
+     * reaching a given time is exact even if they are not.  If the periods
+     * are not well formed (for example, if dates are out of order), the
+     * index is marked invalid and callers fall back to a linear scan.
+     */
+    private static class PeriodIndex {
+
+        int modCount = -1;
+
+        int version = -1;
+
+        boolean valid;
+
+        int size;
+
+        /** the index of the first automatic period, or size if none */
+        int firstAutomatic;
+
+        long[] beginTimes = new long[0];
+
+        long[] endTimes = new long[0];
+
+        /** the largest cumPlanDirectTime of any period up to each position */
+        double[] maxCumPlanTime = new double[0];
 
-            long start = p.getBeginDate().getTime();
+        /** the same, ignoring the first period */
+        double[] maxLaterCumPlanTime = new double[0];
+
+        void rebuild(EVSchedule s) {
+            int newSize = s.periods.size();
+            size = firstAutomatic = 0;
+            valid = true;
+            for (int i = 0;  i < newSize && valid;  i++)
+                append(s);
+        }
+
+        /**
+         * Add the next period of the schedule to this index.  If the period
+         * is not well formed, the index is marked invalid.
+         */
+        void append(EVSchedule s) {
+            int i = size;
+            if (beginTimes.length <= i) {
+                int len = Math.max(Math.max(i + 1, s.periods.size()),
+                    beginTimes.length * 2);
+                beginTimes = copyOf(beginTimes, len);
+                endTimes = copyOf(endTimes, len);
+                maxCumPlanTime = copyOf(maxCumPlanTime, len);
+                maxLaterCumPlanTime = copyOf(maxLaterCumPlanTime, len);
+            }
+
+            Period prev = (i == 0 ? null : s.get(i - 1));
+            Period p = s.get(i);
+            if (p == null || p.previous != prev || p.endDate == null
+                    || Double.isNaN(p.cumPlanDirectTime)) {
+                valid = false;
+                return;
+            }
+            long begin = (prev == null ? A_LONG_TIME_AGO.getTime()
+                    : prev.endDate.getTime());
             long end = p.endDate.getTime();
-            long duration = end - start;
-            long durationPercent = (long) (duration * percent);
-            return new Date(start + durationPercent);
+            if (i > 0 && (begin < beginTimes[i-1] || end < endTimes[i-1])) {
+                valid = false;
+                return;
+            }
+            beginTimes[i] = begin;
+            endTimes[i] = end;
+
+            if (i == 0) {
+                maxCumPlanTime[i] = p.cumPlanDirectTime;
+                maxLaterCumPlanTime[i] = Double.NEGATIVE_INFINITY;
+            } else {
+                maxCumPlanTime[i] = Math.max(maxCumPlanTime[i-1],
+                    p.cumPlanDirectTime);
+                maxLaterCumPlanTime[i] = Math.max(maxLaterCumPlanTime[i-1],
+                    p.cumPlanDirectTime);
+            }
+
+            if (firstAutomatic == i && !p.automatic)
+                firstAutomatic = i + 1;
+            size = i + 1;
         }
 
-        return NEVER;
+        /**
+         * Refresh the entry for the last period, after its cumulative plan
+         * time has changed.
+         */
+        void updateLast(EVSchedule s) {
+            size--;
+            if (firstAutomatic > size)
+                firstAutomatic = size;
+            append(s);
+        }
+
+        private static long[] copyOf(long[] a, int len) {
+            long[] result = new long[len];
+            System.arraycopy(a, 0, result, 0, a.length);
+            return result;
+        }
+
+        private static double[] copyOf(double[] a, int len) {
+            double[] result = new double[len];
+            System.arraycopy(a, 0, result, 0, a.length);
+            return result;
+        }
+
+        /** @return the number of entries in the array less than the time */
+        int countBefore(long[] times, long time) {
+            int low = 0, high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] < time)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low;
+        }
+
+        /**
+         * @return the first position, at or after <tt>from</tt>, where the
+         *         given maximum reaches the target cumulative time (after
+         *         scaling by a positive multiplier), or size if none does
+         */
+        int firstReaching(double[] maxCum, int from, double cumPlanTime,
+                double multiplier) {
+            int low = from, high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (maxCum[mid] * multiplier >= cumPlanTime)
+                    high = mid;
+                else
+                    low = mid + 1;
+            }
+            return low;
+        }
     }
 
+    private PeriodIndex periodIndex;
+
+    private int periodsVersion;
+
 
     public synchronized void saveCompletedTask(Date dateCompleted,
                                                double earnedValue) {
@@ -1205,6 +1512,12 @@ public class EVSchedule implements TableModel {
         effectivePeriod = 0;
         if (effectiveDate == null) return;
         long time = d.getTime();
+        PeriodIndex index = getPeriodIndex();
+        if (index.valid) {
+            effectivePeriod = index.countBefore(index.endTimes, time);
+            return;
+        }
+
         Period p;
         for (int i = periods.size();  i-- > 0; ) {
             p = get(i);
@@ -1267,6 +1580,12 @@ public class EVSchedule implements TableModel {
             z.planTotalTime = z.planDirectTime *
                 (defaultPlanTotalTime / defaultPlanDirectTime);
         }
+        // only the last period changed, so the index can be patched
+        PeriodIndex index = periodIndex;
+        if (isIndexCurrent(index))
+            index.updateLast(this);
+        else
+            periodsChanged();
         return true;
     }
 
@@ -1291,7 +1610,14 @@ public class EVSchedule implements TableModel {
         z.cumActualDirectTime = y.cumActualDirectTime;
         z.automatic = automatic;
 
+        PeriodIndex index = periodIndex;
+        boolean indexCurrent = isIndexCurrent(index);
         add(z);
+        if (indexCurrent) {
+            // extend the index with the new period, rather than rebuilding
+            index.append(this);
+            index.modCount = periods.getModCount();
+        }
         //System.out.println("growing schedule - new task ends: " + zdate);
         return true;
     }
@@ -1451,6 +1777,7 @@ public class EVSchedule implements TableModel {
         periods.setSize(i);
         defaultPlanTotalTime = get(i-1).planTotalTime;
         defaultPlanDirectTime = get(i-1).planDirectTime;
+        periodsChanged();
     }
 
     public synchronized void recalcCumPlanTimes() {
@@ -1461,6 +1788,7 @@ public class EVSchedule implements TableModel {
             cumPlanDirectTime += p.planDirectTime;
             p.cumPlanDirectTime = cumPlanDirectTime;
         }
+        periodsChanged();
     }
 
     public synchronized void recalcCumActualTimes() {
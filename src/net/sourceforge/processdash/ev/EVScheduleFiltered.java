@@ -141,6 +141,7 @@ public class EVScheduleFiltered extends EVSchedule {
             p.cumActualDirectTime = p.cumActualCost;
             p.planDirectTime = p.cumPlanValue - p.previous.cumPlanValue;
         }
+        periodsChanged();
     }
 
 
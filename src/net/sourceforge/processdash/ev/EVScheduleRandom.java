@@ -23,6 +23,8 @@
 
 package net.sourceforge.processdash.ev;
 
+import java.util.Collections;
+
 import net.sourceforge.processdash.ev.ci.EVScheduleConfidenceIntervals;
 
 import cern.jet.random.engine.RandomEngine;
@@ -42,4 +44,21 @@ public class EVScheduleRandom extends EVScheduleSplit
         ((EVMetricsRandom) metrics).randomize(this, random);
     }
 
+    /** Creates simulation models that randomize a single schedule. */
+    public static class ModelFactory implements
+            EVScheduleConfidenceIntervals.SimulationModelFactory {
+
+        private EVSchedule schedule;
+
+        public ModelFactory(EVSchedule schedule) {
+            this.schedule = schedule;
+        }
+
+        public EVScheduleConfidenceIntervals.SimulationModel createModel() {
+            EVScheduleRandom sr = new EVScheduleRandom(schedule);
+            return new EVScheduleConfidenceIntervals.SimpleModel(sr,
+                    Collections.singletonList(sr));
+        }
+    }
+
 }
@@ -290,6 +290,7 @@ public class EVScheduleRollup extends EVSchedule {
             p.cumEarnedValue      = (cumEarnedValue += p.earnedValue);
             p.cumActualCost       = (cumActualCost  += p.actualCost);
         }
+        periodsChanged();
     }
 
 
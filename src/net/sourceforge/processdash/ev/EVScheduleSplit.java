@@ -84,6 +84,7 @@ public class EVScheduleSplit extends EVSchedule {
         simplifyPeriods(effDate);
         clearAutomaticFlags();
         addAllPeriods(periods, origPeriods);
+        periodsChanged();
     }
 
     /** split the schedule at a given date.
@@ -140,6 +141,7 @@ public class EVScheduleSplit extends EVSchedule {
         l.cumActualDirectTime = r.cumActualDirectTime;
         l.cumEarnedValue = r.cumEarnedValue;
         l.cumActualCost = r.cumActualCost;
+        periodsChanged();
     }
 
     protected void rewriteHistory(Date effDate, List histPeriods) {
@@ -155,6 +157,7 @@ public class EVScheduleSplit extends EVSchedule {
                 p.automatic = false;
             }
         }
+        periodsChanged();
     }
 
     protected void rewriteHistoricalPeriod(Period p, Period h) {
@@ -239,6 +242,7 @@ public class EVScheduleSplit extends EVSchedule {
         lastPeriodEnd = endDate.getTime();
         defaultPlanDirectTime = origDefaultPlanDirectTime * timeErrRatio;
         defaultPlanTotalTime = origDefaultPlanTotalTime * timeErrRatio;
+        periodsChanged();
     }
 
 
@@ -285,6 +289,7 @@ public class EVScheduleSplit extends EVSchedule {
             periods.add(p);
             p.cumPlanDirectTime = lastPeriodCumPlanTime = cumPlanTime;
             lastPeriodEnd = result.getTime();
+            periodsChanged();
             return result;
         }
     }
@@ -127,6 +127,12 @@ public class EVTaskList extends AbstractTreeTableModel
     /** timer for triggering recalculations */
     protected Timer recalcTimer = null;
 
+    /** true if changes have occurred since the last recalculation */
+    private volatile boolean recalcNeeded = true;
+
+    /** the time of the last recalculation */
+    private volatile long lastRecalcTime = 0;
+
     protected double totalPlanValue;
     protected double totalActualTime;
     protected boolean showDirectTimeColumns;
@@ -640,8 +646,8 @@ public class EVTaskList extends AbstractTreeTableModel
         if (EVMetadata.Baseline.SNAPSHOT_ID.equals(key))
             setBaselineDataSource(getBaselineSnapshot());
 
-        if (RECALC_METDATADATA.contains(key) && recalcTimer != null)
-            recalcTimer.restart();
+        if (RECALC_METDATADATA.contains(key))
+            scheduleRecalc();
 
         return result;
     }
@@ -785,13 +791,43 @@ public class EVTaskList extends AbstractTreeTableModel
     public void setNodeListener(EVTask.Listener l) { evNodeListener = l; }
     public void evNodeChanged(EVTask node, boolean needsRecalc) {
         if (evNodeListener != null) evNodeListener.evNodeChanged(node, needsRecalc);
-        if (recalcTimer != null && needsRecalc) recalcTimer.restart();
+        if (needsRecalc) scheduleRecalc();
     }
 
     public void taskLabelsChanged() {
+        scheduleRecalc();
+    }
+
+    /** Note that the data in this task list has changed, and arrange for a
+     *  recalculation to occur soon.
+     */
+    protected void scheduleRecalc() {
+        recalcNeeded = true;
         if (recalcTimer != null) recalcTimer.restart();
     }
 
+    /** @return true if this task list has seen changes since its last
+     *  recalculation, or if it has no way of knowing whether it has.
+     *
+     * Rollups use this to avoid recalculating child task lists which are
+     * already up to date.
+     */
+    public boolean isRecalcNeeded() {
+        return recalcNeeded || !tracksOwnChanges()
+                || System.currentTimeMillis() - lastRecalcTime > MAX_RECALC_AGE;
+    }
+
+    /** Forecasts depend on the current date, so results older than this
+     *  are considered stale even if no changes have been reported. */
+    private static final long MAX_RECALC_AGE = DateUtils.HOUR;
+
+    /** @return true if every change that could affect the results of a
+     *  recalculation is reported via {@link #scheduleRecalc()}.
+     */
+    protected boolean tracksOwnChanges() {
+        return false;
+    }
+
 
     /** Defines the interface for an object that listens for recalculations
      *  that occur in an EVTaskList.
@@ -862,12 +898,12 @@ public class EVTaskList extends AbstractTreeTableModel
 
     public void recalc() {
         isCalculating = true;
+        recalcNeeded = false;
+        lastRecalcTime = System.currentTimeMillis();
         if (calculator != null)
             calculator.recalculate();
         if (dependencyCalculator != null)
             dependencyCalculator.recalculate(this);
-        if (taskLabeler != null)
-            taskLabeler.recalculate();
         totalPlanValue = schedule.getMetrics().totalPlan();
         EVTask taskRoot = (EVTask) root;
         totalActualTime = taskRoot.actualCurrentTime;
@@ -878,13 +914,64 @@ public class EVTaskList extends AbstractTreeTableModel
                 && calculator.getBaselineDataSource() != null);
         showNodeTypeColumn = taskRoot.isUsingNodeTypes();
         showMilestoneColumn = showLabelsColumn = false;
-        scanForLabelsAndMilestones(taskRoot);
+        TaskLabeler labeler = taskLabeler;
+        if (labeler == null) {
+            scanForLabelsAndMilestones(taskRoot);
+        } else {
+            // the labeler is often shared by the task lists in a rollup,
+            // which may be recalculating concurrently.
+            synchronized (labeler) {
+                labeler.recalculate();
+                scanForLabelsAndMilestones(taskRoot);
+            }
+        }
         nodeTypeSpecs = null;
         isCalculating = false;
 
         fireEvRecalculated();
     }
 
+    /**
+     * Determine whether this task list can be recalculated on a background
+     * thread, concurrently with the recalculation of other task lists.
+     * <p>
+     * This is only true if a recalc modifies nothing but the tasks and
+     * schedule owned by this task list, and if no one is listening for the
+     * events it fires.  A {@link TaskLabeler} may be shared with other task
+     * lists, so it is only consulted while holding its lock.
+     */
+    public boolean supportsConcurrentRecalc() {
+        return supportsConcurrentRecalc(null);
+    }
+
+    /**
+     * Determine whether this task list can be recalculated on a background
+     * thread, disregarding one recalc listener that is known to be safe to
+     * call from that thread.
+     */
+    public boolean supportsConcurrentRecalc(RecalcListener safeListener) {
+        return recalcIsSelfContained() && dependencyCalculator == null
+                && evNodeListener == null && !someoneCaresExcept(safeListener)
+                && listenerList.getListenerCount() == 0;
+    }
+
+    private boolean someoneCaresExcept(RecalcListener l) {
+        if (recalcListeners == null)
+            return false;
+        synchronized (recalcListeners) {
+            for (Object listener : recalcListeners)
+                if (listener != l)
+                    return true;
+        }
+        return false;
+    }
+
+    /** @return true if the {@link #recalc()} logic for this class only
+     *  touches objects owned by this task list. */
+    protected boolean recalcIsSelfContained() {
+        return false;
+    }
+
     public EVSchedule getSchedule() { return schedule; }
 
     public void setDependencyCalculator(EVDependencyCalculator d) {
@@ -1103,6 +1190,7 @@ public class EVTaskList extends AbstractTreeTableModel
         if (calculator != null)
             calculator.setBaselineDataSource(snapshot);
         schedule.setBaseline(snapshot);
+        recalcNeeded = true;
     }
 
     /** Possibly shift this task list from its original time zone into the
@@ -2313,7 +2401,7 @@ public class EVTaskList extends AbstractTreeTableModel
                     new int[] { lastTaskPos },
                     new Object[] { predecessor });
 
-            if (recalcTimer != null) recalcTimer.restart();
+            scheduleRecalc();
 
             return true;
         }
@@ -2338,7 +2426,7 @@ public class EVTaskList extends AbstractTreeTableModel
                     new int[] { firstTaskPos },
                     new Object[] { successor });
 
-            if (recalcTimer != null) recalcTimer.restart();
+            scheduleRecalc();
 
             return true;
         }
@@ -2372,8 +2460,7 @@ public class EVTaskList extends AbstractTreeTableModel
             fireTreeNodesChanged(this, ((EVTask) root).getPath(), changedNodes,
                 evLeaves.toArray());
 
-            if (recalcTimer != null)
-                recalcTimer.restart();
+            scheduleRecalc();
 
             return true;
         }
@@ -2521,7 +2608,7 @@ public class EVTaskList extends AbstractTreeTableModel
             fireTreeNodesChanged(this, ((EVTask) root).getPath(),
                     changedNodes, evLeaves.toArray());
 
-            if (recalcTimer != null) recalcTimer.restart();
+            scheduleRecalc();
 
             return new int[] { insertionPos,
                     insertionPos + tasksToInsert.size() - 1 };
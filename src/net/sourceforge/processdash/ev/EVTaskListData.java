@@ -350,6 +350,13 @@ public class EVTaskListData extends EVTaskList
         return true;
     }
 
+    @Override
+    protected boolean tracksOwnChanges() {
+        // data, hierarchy, and metadata changes all pass through the
+        // recalc timer, which only exists when notification was requested
+        return recalcTimer != null;
+    }
+
     public void recalcLeavesOnly() {
         this.calculator = new EVCalculatorLeavesOnly((EVTask) root);
         useFastRecalcInterval();
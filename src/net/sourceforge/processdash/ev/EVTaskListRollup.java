@@ -83,7 +83,7 @@ public class EVTaskListRollup extends EVTaskList {
             recalcRepeater = new RecalcListener() {
                 public void evRecalculated(EventObject e) {
                     if (!isCalculating)
-                        recalcTimer.restart();
+                        scheduleRecalc();
                 }};
         }
 
@@ -99,6 +99,13 @@ public class EVTaskListRollup extends EVTaskList {
     }
 
 
+    /** @return the listener this rollup registers with each of its task
+     *  lists, or null.  It does nothing while this rollup is calculating. */
+    RecalcListener getRecalcRepeater() {
+        return recalcRepeater;
+    }
+
+
     protected EVTaskListRollup(String taskListName, List taskLists) {
         super(taskListName, taskListName, false);
         evTaskLists = new Vector(taskLists);
@@ -79,6 +79,13 @@ public class EVTaskListXML extends EVTaskListXMLAbstract {
         super.recalc();
     }
 
+    @Override
+    protected boolean recalcIsSelfContained() {
+        // the ImportedEVManager is safe for use by multiple threads, and
+        // our XML is only read while holding the document lock.
+        return true;
+    }
+
     /** @since 2.4.4 */
     public File getImportSourceFile() {
         return importSourceFile;
@@ -91,7 +98,11 @@ public class EVTaskListXML extends EVTaskListXMLAbstract {
         if (xmlDoc == importedXml) return true;
 
         try{
-            openXML(xmlDoc, cleanupName(taskListName), null);
+            // DOM implementations are not thread-safe, even for reading.
+            // Lock the document, in case other task lists share it.
+            synchronized (xmlDoc.getOwnerDocument()) {
+                openXML(xmlDoc, cleanupName(taskListName), null);
+            }
             importedXml = xmlDoc;
             importSourceFile = ImportedEVManager.getInstance()
                     .getSrcFile(taskListID);
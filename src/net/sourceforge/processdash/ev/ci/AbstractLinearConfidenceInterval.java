@@ -44,8 +44,10 @@ public abstract class AbstractLinearConfidenceInterval
     protected double stddev;
     protected double projection = Double.NaN;
 
-    double lastRangeProb = Double.NaN;
-    double lastRange = Double.NaN;
+    /** the most recently calculated range.  This is replaced as a single
+     * object, so concurrent simulation threads never see a range that
+     * belongs to a different probability. */
+    volatile RangeMemo lastRange = null;
     double rangeRadical = Double.NaN;
 
 
@@ -129,7 +131,7 @@ public abstract class AbstractLinearConfidenceInterval
 
     public void setInput(double input) {
         super.setInput(input);
-        lastRange = lastRangeProb = Double.NaN;
+        lastRange = null;
 
         projection = beta0 + (beta1 * input);
         double term = input - x_avg;
@@ -141,9 +143,10 @@ public abstract class AbstractLinearConfidenceInterval
         double range;
 
         double rangeProb = 2 * Math.abs(0.5 - p);
+        RangeMemo memo = lastRange;
 
-        if (rangeProb == lastRangeProb)
-            range = lastRange;
+        if (memo != null && rangeProb == memo.rangeProb)
+            range = memo.range;
 
         else if (Double.isNaN(rangeProb) ||
                  rangeProb >= 1.0 ||
@@ -154,13 +157,21 @@ public abstract class AbstractLinearConfidenceInterval
             double stud_t = TDistribution.quantile(0.5 + rangeProb / 2.0,
                                                numSamples - 2);
             range = stud_t * stddev * rangeRadical;
-            lastRange = range;
-            lastRangeProb = rangeProb;
+            lastRange = new RangeMemo(rangeProb, range);
         }
 
         return (p > 0.5 ? projection + range : projection - range);
     }
 
+    private static class RangeMemo {
+        final double rangeProb;
+        final double range;
+        RangeMemo(double rangeProb, double range) {
+            this.rangeProb = rangeProb;
+            this.range = range;
+        }
+    }
+
 
 
     protected void saveXMLAttributes(StringBuffer result) {
@@ -70,9 +70,16 @@ public class DoubleList {
     /** Add all of the <code>double</code> values from the other list to
      * the end of this list
      */
-    public synchronized void addAll(DoubleList other) {
-        for (int i = 0;   i < other.size();   i++)
-            add(other.get(i));
+    public void addAll(DoubleList other) {
+        // take a snapshot of the other list first, so we never hold both
+        // locks at once.  (Two lists adding each other's values from
+        // different threads would otherwise deadlock.)
+        double[] values = other.getAsArray();
+        synchronized (this) {
+            ensureCapacity(length + values.length);
+            System.arraycopy(values, 0, contents, length, values.length);
+            length += values.length;
+        }
     }
 
 
@@ -139,7 +146,7 @@ public class DoubleList {
     /** Return an array containing the <code>double</code> values in this
      * list.  If this list has size 0, so will the resulting array.
      */
-    public double[] getAsArray() {
+    public synchronized double[] getAsArray() {
         double[] result = new double[length];
         System.arraycopy(contents, 0, result, 0, length);
         return result;
@@ -26,11 +26,14 @@ package net.sourceforge.processdash.ev.ci;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import net.sourceforge.processdash.Settings;
 import net.sourceforge.processdash.ev.EVMetrics;
 import net.sourceforge.processdash.ev.EVMetricsRollup;
 import net.sourceforge.processdash.ev.EVSchedule;
+import net.sourceforge.processdash.util.WorkerPool;
 import cern.jet.random.engine.MersenneTwister;
 import cern.jet.random.engine.RandomEngine;
 
@@ -41,8 +44,37 @@ public class EVScheduleConfidenceIntervals
         public void randomize(RandomEngine u);
     }
 
+    /** A schedule and the randomizable objects that drive it.  The
+     * simulation modifies these objects as it runs. */
+    public interface SimulationModel {
+        public EVSchedule getSchedule();
+        public List getRandomObjects();
+    }
+
+    /** Creates independent copies of a simulation model, so the simulation
+     * can be run on several threads at once. */
+    public interface SimulationModelFactory {
+        public SimulationModel createModel();
+    }
+
+    public static class SimpleModel implements SimulationModel {
+        private EVSchedule schedule;
+        private List randomObjects;
+        public SimpleModel(EVSchedule schedule, List randomObjects) {
+            this.schedule = schedule;
+            this.randomObjects = randomObjects;
+        }
+        public EVSchedule getSchedule() { return schedule; }
+        public List getRandomObjects() { return randomObjects; }
+    }
+
     private static final int BOOTSTRAP_SIZE = 1000;
 
+    /** the number of samples generated from each random stream */
+    private static final int CHUNK_SIZE = 25;
+
+    private static final int DEFAULT_SEED = 4357;
+
     EVSchedule schedule;
     List randomObjects;
     EVMetrics metrics;
@@ -72,6 +104,41 @@ public class EVScheduleConfidenceIntervals
         runSimulation();
     }
 
+    /**
+     * Run a simulation using models created by the given factory.
+     *
+     * The samples are divided into fixed-size chunks, each of which draws
+     * from its own random stream, and the chunks are distributed across
+     * several threads (as determined by the "ev.simulationThreads"
+     * setting).  Each thread works with its own model.  The chunk streams
+     * are seeded from a fixed sequence, so the results do not depend on the
+     * number of threads or the order in which chunks are completed.
+     */
+    public EVScheduleConfidenceIntervals(SimulationModelFactory factory,
+            boolean keepIndivDates) {
+        this(factory, keepIndivDates, getDefaultThreadCount(), DEFAULT_SEED);
+    }
+
+    EVScheduleConfidenceIntervals(SimulationModelFactory factory,
+            boolean keepIndivDates, int numThreads, int seed) {
+        SimulationModel model = factory.createModel();
+        this.schedule = model.getSchedule();
+        this.randomObjects = model.getRandomObjects();
+        this.metrics = schedule.getMetrics();
+        cost = new MonteCarloConfidenceInterval();
+        date = new MonteCarloConfidenceInterval();
+        if (metrics instanceof EVMetricsRollup)
+            optimizedDate = new MonteCarloConfidenceInterval();
+        if (keepIndivDates) {
+            indivDates = new MonteCarloConfidenceInterval[randomObjects.size()];
+            for (int i = 0; i < indivDates.length; i++) {
+                indivDates[i] = new MonteCarloConfidenceInterval();
+            }
+        }
+
+        runParallelSimulation(factory, model, numThreads, seed);
+    }
+
     public ConfidenceInterval getCostInterval() {
         return cost;
     }
@@ -93,15 +160,24 @@ public class EVScheduleConfidenceIntervals
         long start = System.currentTimeMillis();
         RandomEngine random = new MersenneTwister();
 
+        int sampleCount = getSampleCount();
+        for (int i = 0;   i < sampleCount;   i++)
+            runOneTest(random);
+
+        finishSimulation(start);
+    }
+
+    private int getSampleCount() {
         int sampleCount = Settings.getInt("ev.simulationSize", BOOTSTRAP_SIZE);
         if (USE_RATIO && indivDates == null) {
             double factor = Math.exp(0.75 * Math.log(randomObjects.size()));
             sampleCount = (int) (sampleCount / factor);
             if (sampleCount < 100) sampleCount = 100;
         }
-        for (int i = 0;   i < sampleCount;   i++)
-            runOneTest(random);
+        return sampleCount;
+    }
 
+    private void finishSimulation(long start) {
         cost.samplesDone();
         date.samplesDone();
         if (optimizedDate != null)
@@ -117,37 +193,159 @@ public class EVScheduleConfidenceIntervals
     }
 
     private void runOneTest(RandomEngine random) {
-        randomizeAll(random);
+        runOneTest(schedule, randomObjects, random, cost.samples,
+            date.samples, (optimizedDate == null ? null
+                    : optimizedDate.samples), getIndivSampleLists());
+    }
 
-        if (indivDates != null)
-            addIndivDateSamples();
+    private void runOneTest(EVSchedule schedule, List randomObjects,
+            RandomEngine random, DoubleList costSamples,
+            DoubleList dateSamples, DoubleList optimizedDateSamples,
+            DoubleList[] indivDateSamples) {
+        randomizeAll(randomObjects, random);
+
+        if (indivDateSamples != null)
+            addIndivDateSamples(randomObjects, indivDateSamples);
 
+        EVMetrics metrics = schedule.getMetrics();
         double forecastCost = metrics.independentForecastCost();
-        cost.addSample(forecastCost-metrics.actual());
-        date.addSample(getTime(metrics.independentForecastDate()));
-        if (optimizedDate != null) {
+        costSamples.add(forecastCost-metrics.actual());
+        dateSamples.add(getTime(metrics.independentForecastDate()));
+        if (optimizedDateSamples != null) {
             Date optDate = schedule.getHypotheticalDate(forecastCost, true);
-            optimizedDate.addSample(getTime(optDate));
+            optimizedDateSamples.add(getTime(optDate));
         }
     }
 
-    private void randomizeAll(RandomEngine random) {
+    private void randomizeAll(List randomObjects, RandomEngine random) {
         Iterator i = randomObjects.iterator();
         while (i.hasNext())
             ((Randomizable) i.next()).randomize(random);
     }
 
-    private void addIndivDateSamples() {
+    private void addIndivDateSamples(List randomObjects,
+            DoubleList[] indivDateSamples) {
         for (int i = 0;  i < randomObjects.size(); i++) {
             Object o = randomObjects.get(i);
             if (o instanceof EVSchedule) {
                 EVSchedule s = (EVSchedule) o;
                 Date forecast = s.getMetrics().independentForecastDate();
-                indivDates[i].addSample(getTime(forecast));
+                indivDateSamples[i].add(getTime(forecast));
+            }
+        }
+    }
+
+    private DoubleList[] getIndivSampleLists() {
+        if (indivDates == null)
+            return null;
+        DoubleList[] result = new DoubleList[indivDates.length];
+        for (int i = 0; i < result.length; i++)
+            result[i] = indivDates[i].samples;
+        return result;
+    }
+
+
+
+    private void runParallelSimulation(SimulationModelFactory factory,
+            SimulationModel firstModel, int numThreads, int seed) {
+        long start = System.currentTimeMillis();
+
+        // divide the samples into chunks, and choose a seed for each one
+        int sampleCount = getSampleCount();
+        int numChunks = (sampleCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        RandomEngine seeds = new MersenneTwister(seed);
+        Chunk[] chunks = new Chunk[numChunks];
+        for (int i = 0; i < numChunks; i++) {
+            int size = Math.min(CHUNK_SIZE, sampleCount - i * CHUNK_SIZE);
+            chunks[i] = new Chunk(seeds.nextInt(), size);
+        }
+
+        // create a model for each helper thread.  Models are created here,
+        // on the calling thread, because they read from the original
+        // schedules, which are not thread-safe.
+        if (numThreads > numChunks) numThreads = numChunks;
+        if (WorkerPool.isWorkerThread()) numThreads = 1;
+        ConcurrentLinkedQueue<SimulationModel> models =
+            new ConcurrentLinkedQueue<SimulationModel>();
+        models.add(firstModel);
+        for (int i = 1; i < numThreads; i++)
+            models.add(factory.createModel());
+
+        // generate the samples on this thread and the helpers.  This returns
+        // once every helper has stopped writing to the chunks.
+        WorkerPool.runAll(new Worker(models, chunks), numThreads);
+
+        // merge the samples from each chunk, in order.
+        for (Chunk c : chunks) {
+            cost.samples.addAll(c.cost);
+            date.samples.addAll(c.date);
+            if (optimizedDate != null)
+                optimizedDate.samples.addAll(c.optimizedDate);
+            if (indivDates != null)
+                for (int i = 0; i < indivDates.length; i++)
+                    indivDates[i].samples.addAll(c.indivDates[i]);
+        }
+
+        finishSimulation(start);
+    }
+
+    /** A group of samples generated from a single random stream */
+    private class Chunk {
+
+        int seed;
+        int size;
+        DoubleList cost, date, optimizedDate;
+        DoubleList[] indivDates;
+
+        Chunk(int seed, int size) {
+            this.seed = seed;
+            this.size = size;
+            cost = new DoubleList(size);
+            date = new DoubleList(size);
+            if (EVScheduleConfidenceIntervals.this.optimizedDate != null)
+                optimizedDate = new DoubleList(size);
+            if (EVScheduleConfidenceIntervals.this.indivDates != null) {
+                indivDates = new DoubleList[randomObjects.size()];
+                for (int i = 0; i < indivDates.length; i++)
+                    indivDates[i] = new DoubleList(size);
+            }
+        }
+    }
+
+    /** Generates the samples for chunks.  Each thread that runs this
+     * worker takes a private model from the queue. */
+    private class Worker implements Runnable {
+
+        ConcurrentLinkedQueue<SimulationModel> models;
+        Chunk[] chunks;
+        AtomicInteger nextChunk = new AtomicInteger();
+
+        Worker(ConcurrentLinkedQueue<SimulationModel> models, Chunk[] chunks) {
+            this.models = models;
+            this.chunks = chunks;
+        }
+
+        public void run() {
+            SimulationModel model = models.poll();
+            EVSchedule schedule = model.getSchedule();
+            List randomObjects = model.getRandomObjects();
+            int pos;
+            while ((pos = nextChunk.getAndIncrement()) < chunks.length) {
+                Chunk c = chunks[pos];
+                RandomEngine random = new MersenneTwister(c.seed);
+                for (int i = c.size; i-- > 0;)
+                    runOneTest(schedule, randomObjects, random, c.cost,
+                        c.date, c.optimizedDate, c.indivDates);
             }
         }
     }
 
+    private static int getDefaultThreadCount() {
+        int result = Settings.getInt("ev.simulationThreads",
+            WorkerPool.getDefaultThreadCount(8));
+        return Math.max(1, result);
+    }
+
     private double getTime(Date d) {
         return (d == null ? EVSchedule.NEVER.getTime() : d.getTime());
     }
@@ -60,6 +60,12 @@ public class MonteCarloConfidenceInterval
         double multiplier = getSampleMultiplier();
         double acceptableError = getAcceptableError();
 
+        // track the 70% LPI as samples are generated, so the samples only
+        // need to be sorted once, when the simulation is complete.
+        P2QuantileEstimator lpi = new P2QuantileEstimator(0.15);
+        for (int i = 0;  i < samples.size();  i++)
+            lpi.add(samples.get(i));
+
         double result;
         double lastResult = Double.NaN;
         double lastError = acceptableError * 2;
@@ -68,12 +74,14 @@ public class MonteCarloConfidenceInterval
             samples.ensureCapacity(numSamples);
 
             // generate the new samples
-            for (int i = numSamples - samples.size();  i-- > 0; )
-                samples.add(getSample());
+            for (int i = numSamples - samples.size();  i-- > 0; ) {
+                double sample = getSample();
+                samples.add(sample);
+                lpi.add(sample);
+            }
 
             // get the current 70% LPI
-            samples.sort();
-            result = getQuantile(0.15);
+            result = lpi.getQuantile();
 
             // if we're within an acceptable error, or we've reached the
             // maximum number of samples, return.
@@ -86,6 +94,8 @@ public class MonteCarloConfidenceInterval
             lastResult = result;
             lastError = error;
         }
+
+        samples.sort();
     }
 
     public void addSample(double sample) {
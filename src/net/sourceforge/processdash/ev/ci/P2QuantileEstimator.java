@@ -0,0 +1,161 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+
+package net.sourceforge.processdash.ev.ci;
+
+
+/** Estimate a single quantile of a stream of values, without storing the
+ * values.
+ *
+ * This uses the P&sup2; algorithm of Jain and Chlamtac (1985), which tracks
+ * five markers whose heights approximate the minimum, the maximum, the
+ * desired quantile, and the quantiles halfway between.  Each new value
+ * adjusts the markers in constant time, so the estimate can be checked as
+ * often as desired.  NaN values are ignored.
+ */
+public class P2QuantileEstimator {
+
+    private double p;
+
+    private int count;
+
+    /** the heights of the markers */
+    private double[] q = new double[5];
+
+    /** the actual positions of the markers (1-based) */
+    private int[] n = new int[5];
+
+    /** the desired positions of the markers */
+    private double[] np = new double[5];
+
+    /** the increments to the desired positions for each new value */
+    private double[] dn = new double[5];
+
+
+    public P2QuantileEstimator(double p) {
+        this.p = p;
+        dn[0] = 0;
+        dn[1] = p / 2;
+        dn[2] = p;
+        dn[3] = (1 + p) / 2;
+        dn[4] = 1;
+    }
+
+
+    /** Return the number of values that have been added */
+    public int getCount() {
+        return count;
+    }
+
+
+    public void add(double x) {
+        if (Double.isNaN(x))
+            return;
+
+        // collect the first five values to initialize the markers
+        if (count < 5) {
+            int i = count++;
+            while (i > 0 && q[i-1] > x) {
+                q[i] = q[i-1];
+                i--;
+            }
+            q[i] = x;
+            if (count == 5) {
+                for (i = 0; i < 5; i++)
+                    n[i] = i + 1;
+                np[0] = 1;
+                np[1] = 1 + 2 * p;
+                np[2] = 1 + 4 * p;
+                np[3] = 3 + 2 * p;
+                np[4] = 5;
+            }
+            return;
+        }
+        count++;
+
+        // find the cell containing the new value, adjusting the extremes
+        int k;
+        if (x < q[0]) {
+            q[0] = x;
+            k = 0;
+        } else if (x >= q[4]) {
+            if (x > q[4]) q[4] = x;
+            k = 3;
+        } else {
+            k = 0;
+            while (x >= q[k+1])
+                k++;
+        }
+
+        // increment the positions of the markers above the new value
+        for (int i = k + 1; i < 5; i++)
+            n[i]++;
+        for (int i = 0; i < 5; i++)
+            np[i] += dn[i];
+
+        // adjust the heights of the middle markers if necessary
+        for (int i = 1; i < 4; i++) {
+            double d = np[i] - n[i];
+            if ((d >= 1 && n[i+1] - n[i] > 1)
+                    || (d <= -1 && n[i-1] - n[i] < -1)) {
+                int s = (d > 0 ? 1 : -1);
+                double qp = parabolic(i, s);
+                if (q[i-1] < qp && qp < q[i+1])
+                    q[i] = qp;
+                else
+                    q[i] = linear(i, s);
+                n[i] += s;
+            }
+        }
+    }
+
+
+    /** Return the current estimate of the quantile, or NaN if no values
+     * have been added.
+     */
+    public double getQuantile() {
+        if (count == 0)
+            return Double.NaN;
+        if (count >= 5)
+            return q[2];
+
+        // with only a few values, interpolate between them directly
+        double pos = p * (count - 1);
+        int posL = (int) Math.floor(pos);
+        int posR = (int) Math.ceil(pos);
+        return q[posL] + (pos - posL) * (q[posR] - q[posL]);
+    }
+
+
+    private double parabolic(int i, int s) {
+        return q[i] + s / (double) (n[i+1] - n[i-1])
+                * ((n[i] - n[i-1] + s) * (q[i+1] - q[i]) / (n[i+1] - n[i])
+                 + (n[i+1] - n[i] - s) * (q[i] - q[i-1]) / (n[i] - n[i-1]));
+    }
+
+    private double linear(int i, int s) {
+        return q[i] + s * (q[i+s] - q[i]) / (n[i+s] - n[i]);
+    }
+
+}
@@ -26,22 +26,67 @@ package net.sourceforge.processdash.log.time;
 import java.io.File;
 import java.io.IOException;
 import java.util.Date;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import net.sourceforge.processdash.Settings;
 import net.sourceforge.processdash.util.EnumerIterator;
 
 public class BaseTimeLog implements TimeLog {
 
+    static final String INDEX_SETTING = "timelog.indexed";
+
     private File timeLogFile;
 
+    private File indexFile;
+
+    private TimeLogIndex index;
+
     public BaseTimeLog(File file) {
-        timeLogFile = file;
+        this(file, null);
+    }
+
+    /**
+     * Create a time log which reads entries from the given XML file.
+     *
+     * @param file the XML time log file
+     * @param indexFile a file where an indexed copy of the entries can be
+     *     saved to speed up future queries, or null if the index should only
+     *     be held in memory
+     */
+    public BaseTimeLog(File file, File indexFile) {
+        this.timeLogFile = file;
+        this.indexFile = indexFile;
     }
 
     public EnumerIterator filter(String path, Date from, Date to) throws IOException {
+        if (Settings.getBool(INDEX_SETTING, true)) {
+            TimeLogIndex idx = getIndex();
+            if (idx != null)
+                return idx.filter(path, from, to);
+        }
+
         EnumerIterator result = new TimeLogReader(timeLogFile);
         if (path != null || from != null || to != null)
             result = new TimeLogIteratorFilter(result, path, from, to);
         return result;
     }
 
+    private synchronized TimeLogIndex getIndex() {
+        if (index == null || !index.isCurrent()) {
+            try {
+                index = TimeLogIndex.open(timeLogFile, indexFile);
+            } catch (Exception e) {
+                // fall back to reading the XML file directly.
+                logger.log(Level.WARNING, "Could not index time log "
+                        + timeLogFile, e);
+                index = null;
+            }
+        }
+        return index;
+    }
+
+    private static final Logger logger = Logger.getLogger(BaseTimeLog.class
+            .getName());
+
 }
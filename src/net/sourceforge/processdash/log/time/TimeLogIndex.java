@@ -0,0 +1,500 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.log.time;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.sourceforge.processdash.util.BinaryFileUtils;
+import net.sourceforge.processdash.util.EnumerIterator;
+import net.sourceforge.processdash.util.RobustFileOutputStream;
+
+
+/**
+ * An in-memory, indexed copy of the entries in a time log XML file.
+ * <p>
+ * Parsing a large XML time log can take seconds, and reports filter the
+ * historical time log frequently.  This class reads the entries once,
+ * holds them in compact parallel arrays, and builds two indexes: one which
+ * maps each path to the entries logged against it, and one which orders
+ * entries by start time.  Filtered queries consult the indexes instead of
+ * testing every entry.
+ * <p>
+ * The entries are also saved in a binary sidecar file next to the XML file,
+ * recording the length and timestamp of the XML file they were read from.
+ * When the XML file has not changed, the sidecar is loaded instead of
+ * parsing the XML.  The sidecar is a header followed by a sequence of
+ * records, written in a single forward pass: each distinct path is defined
+ * by a record before the first entry that uses it, and a trailer record
+ * marks a complete file.  The XML file remains the authoritative copy; if
+ * the two disagree, the sidecar is rebuilt.  For the same reason, the
+ * sidecar is a local cache that is not included in backups or synchronized
+ * with bridged datasets.
+ * <p>
+ * Entries are returned in the order they appear in the XML file.
+ */
+class TimeLogIndex {
+
+    private static final int MAGIC = 0x50544C49;
+
+    private static final int VERSION = 1;
+
+    private static final byte PATH_RECORD = 'P';
+
+    private static final byte ENTRY_RECORD = 'E';
+
+    private static final byte END_RECORD = 'Z';
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+
+    /** the XML file these entries were read from, and its state */
+    private File sourceFile;
+    private long sourceLength;
+    private long sourceModTime;
+
+    /** the distinct paths in this time log */
+    private List<String> paths = new ArrayList<String>();
+
+    /** the attributes of each entry, stored in parallel arrays */
+    private int count;
+    private long[] ids;
+    private int[] pathNums;
+    private long[] startTimes;
+    private long[] elapsedTimes;
+    private long[] interruptTimes;
+    private byte[] flags;
+    private String[] comments;
+
+    /** for each path, the positions of the entries with that path */
+    private TreeMap<String, int[]> pathIndex;
+
+    /** the positions of entries with a start time, in date order */
+    private int[] dateIndex;
+
+    /** the positions of entries with no start time */
+    private int[] undatedEntries;
+
+
+    private TimeLogIndex(File sourceFile, long sourceLength,
+            long sourceModTime) {
+        this.sourceFile = sourceFile;
+        this.sourceLength = sourceLength;
+        this.sourceModTime = sourceModTime;
+        allocate(256);
+    }
+
+
+    /**
+     * Open an index for the given XML time log file.
+     *
+     * @param xmlFile the time log to read
+     * @param sidecarFile a file where the binary copy of the entries should
+     *     be stored, or null to keep the entries in memory only
+     * @throws IOException if the XML file could not be read
+     */
+    static TimeLogIndex open(File xmlFile, File sidecarFile)
+            throws IOException {
+        long length = xmlFile.length();
+        long modTime = xmlFile.lastModified();
+
+        if (sidecarFile != null && sidecarFile.isFile()) {
+            try {
+                TimeLogIndex result = new TimeLogIndex(xmlFile, length,
+                        modTime);
+                if (result.load(sidecarFile))
+                    return result;
+            } catch (Exception e) {
+                logger.log(Level.FINE, "Discarding unreadable time log index "
+                        + sidecarFile, e);
+            }
+        }
+
+        TimeLogIndex result = new TimeLogIndex(xmlFile, length, modTime);
+        try {
+            for (Iterator i = new TimeLogReader(xmlFile); i.hasNext();)
+                result.add((TimeLogEntry) i.next());
+        } catch (IONoSuchElementException ionsee) {
+            throw ionsee.getIOException();
+        }
+        result.buildIndexes();
+
+        if (sidecarFile != null) {
+            try {
+                result.save(sidecarFile);
+            } catch (IOException ioe) {
+                // the sidecar is only an optimization.  If we can't write it
+                // (for example, in a read-only directory), just go on.
+                logger.log(Level.FINE, "Could not save time log index", ioe);
+            }
+        }
+        return result;
+    }
+
+
+    /** @return true if the XML file has not changed since it was indexed */
+    boolean isCurrent() {
+        return sourceFile.length() == sourceLength
+                && sourceFile.lastModified() == sourceModTime;
+    }
+
+
+    /** @return the number of entries in this index */
+    int size() {
+        return count;
+    }
+
+
+    /**
+     * Find the entries that match the given criteria, using the same rules
+     * as {@link TimeLogIteratorFilter}.
+     */
+    EnumerIterator filter(String path, Date from, Date to) {
+        long fromTime = (from == null ? Long.MIN_VALUE : from.getTime());
+        long toTime = (to == null ? Long.MAX_VALUE : to.getTime());
+
+        int[] positions;
+        if (path != null) {
+            positions = getPositionsForPath(path);
+            if (from != null || to != null)
+                positions = filterByDate(positions, fromTime, toTime);
+
+        } else if (from != null || to != null) {
+            int start = lowerBound(fromTime);
+            int end = upperBound(toTime);
+            positions = new int[Math.max(0, end - start)
+                    + undatedEntries.length];
+            System.arraycopy(dateIndex, start, positions, 0, positions.length
+                    - undatedEntries.length);
+            System.arraycopy(undatedEntries, 0, positions,
+                positions.length - undatedEntries.length,
+                undatedEntries.length);
+            Arrays.sort(positions);
+
+        } else {
+            positions = null;
+        }
+
+        return new EntryIterator(positions);
+    }
+
+
+    private int[] getPositionsForPath(String prefix) {
+        // match the path itself, and any path beneath it.  ('0' is the
+        // character that immediately follows '/'.)
+        List<int[]> lists = new ArrayList<int[]>();
+        int[] exact = pathIndex.get(prefix);
+        if (exact != null)
+            lists.add(exact);
+        SortedMap<String, int[]> children = pathIndex.subMap(prefix + "/",
+            prefix + "0");
+        lists.addAll(children.values());
+
+        if (lists.size() == 1)
+            return lists.get(0);
+
+        int total = 0;
+        for (int[] l : lists)
+            total += l.length;
+        int[] result = new int[total];
+        int pos = 0;
+        for (int[] l : lists) {
+            System.arraycopy(l, 0, result, pos, l.length);
+            pos += l.length;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int[] filterByDate(int[] positions, long fromTime, long toTime) {
+        int[] result = new int[positions.length];
+        int len = 0;
+        for (int pos : positions) {
+            long start = startTimes[pos];
+            if (start == NO_DATE || (start >= fromTime && start <= toTime))
+                result[len++] = pos;
+        }
+        return (len == result.length ? result : Arrays.copyOf(result, len));
+    }
+
+    /** @return the first position in the date index on or after a time */
+    private int lowerBound(long time) {
+        int lo = 0, hi = dateIndex.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (startTimes[dateIndex[mid]] < time)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /** @return the first position in the date index after a time */
+    private int upperBound(long time) {
+        int lo = 0, hi = dateIndex.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (startTimes[dateIndex[mid]] <= time)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+
+    private TimeLogEntry getEntry(int pos) {
+        int pathNum = pathNums[pos];
+        long start = startTimes[pos];
+        return new TimeLogEntryVO(ids[pos], (pathNum < 0 ? null : paths
+                .get(pathNum)), (start == NO_DATE ? null : new Date(start)),
+                elapsedTimes[pos], interruptTimes[pos], comments[pos],
+                flags[pos]);
+    }
+
+    private class EntryIterator implements EnumerIterator {
+
+        private int[] positions;
+
+        private int next;
+
+        private int end;
+
+        EntryIterator(int[] positions) {
+            this.positions = positions;
+            this.next = 0;
+            this.end = (positions == null ? count : positions.length);
+        }
+
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        public Object next() {
+            if (next >= end)
+                throw new NoSuchElementException();
+            int pos = (positions == null ? next : positions[next]);
+            next++;
+            return getEntry(pos);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean hasMoreElements() {
+            return hasNext();
+        }
+
+        public Object nextElement() {
+            return next();
+        }
+    }
+
+
+    private Map<String, Integer> pathNumbers = new HashMap<String, Integer>();
+
+    private void add(TimeLogEntry tle) {
+        String path = tle.getPath();
+        int pathNum = -1;
+        if (path != null) {
+            Integer num = pathNumbers.get(path);
+            if (num == null) {
+                num = paths.size();
+                paths.add(path);
+                pathNumbers.put(path, num);
+            }
+            pathNum = num;
+        }
+        Date start = tle.getStartTime();
+        int flag = (tle instanceof ChangeFlaggedTimeLogEntry
+                ? ((ChangeFlaggedTimeLogEntry) tle).getChangeFlag() : 0);
+        add(tle.getID(), pathNum, (start == null ? NO_DATE : start.getTime()),
+            tle.getElapsedTime(), tle.getInterruptTime(), (byte) flag,
+            tle.getComment());
+    }
+
+    private void add(long id, int pathNum, long start, long elapsed,
+            long interrupt, byte flag, String comment) {
+        if (count == ids.length)
+            allocate(count * 2);
+        ids[count] = id;
+        pathNums[count] = pathNum;
+        startTimes[count] = start;
+        elapsedTimes[count] = elapsed;
+        interruptTimes[count] = interrupt;
+        flags[count] = flag;
+        comments[count] = comment;
+        count++;
+    }
+
+    private void allocate(int capacity) {
+        ids = grow(ids, capacity);
+        pathNums = (pathNums == null ? new int[capacity] : Arrays.copyOf(
+            pathNums, capacity));
+        startTimes = grow(startTimes, capacity);
+        elapsedTimes = grow(elapsedTimes, capacity);
+        interruptTimes = grow(interruptTimes, capacity);
+        flags = (flags == null ? new byte[capacity] : Arrays.copyOf(flags,
+            capacity));
+        comments = (comments == null ? new String[capacity] : Arrays.copyOf(
+            comments, capacity));
+    }
+
+    private static long[] grow(long[] a, int capacity) {
+        return (a == null ? new long[capacity] : Arrays.copyOf(a, capacity));
+    }
+
+    private void buildIndexes() {
+        pathNumbers = null;
+
+        // group entry positions by path
+        int[] pathCounts = new int[paths.size()];
+        for (int i = 0; i < count; i++)
+            if (pathNums[i] >= 0)
+                pathCounts[pathNums[i]]++;
+        int[][] byPath = new int[paths.size()][];
+        for (int p = 0; p < byPath.length; p++)
+            byPath[p] = new int[pathCounts[p]];
+        Arrays.fill(pathCounts, 0);
+        for (int i = 0; i < count; i++) {
+            int p = pathNums[i];
+            if (p >= 0)
+                byPath[p][pathCounts[p]++] = i;
+        }
+        pathIndex = new TreeMap<String, int[]>();
+        for (int p = 0; p < byPath.length; p++)
+            pathIndex.put(paths.get(p), byPath[p]);
+
+        // order dated entries by start time; keep the undated ones aside
+        List<Integer> undated = new ArrayList<Integer>();
+        Integer[] dated = new Integer[count];
+        int numDated = 0;
+        for (int i = 0; i < count; i++) {
+            if (startTimes[i] == NO_DATE)
+                undated.add(i);
+            else
+                dated[numDated++] = i;
+        }
+        Arrays.sort(dated, 0, numDated, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                long ta = startTimes[a], tb = startTimes[b];
+                return (ta < tb ? -1 : (ta == tb ? a - b : 1));
+            }});
+        dateIndex = new int[numDated];
+        for (int i = 0; i < numDated; i++)
+            dateIndex[i] = dated[i];
+        undatedEntries = new int[undated.size()];
+        for (int i = 0; i < undatedEntries.length; i++)
+            undatedEntries[i] = undated.get(i);
+    }
+
+
+    private void save(File sidecarFile) throws IOException {
+        RobustFileOutputStream rfos = new RobustFileOutputStream(sidecarFile);
+        try {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(rfos));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceLength);
+            out.writeLong(sourceModTime);
+
+            int pathsWritten = 0;
+            for (int i = 0; i < count; i++) {
+                int pathNum = pathNums[i];
+                while (pathNum >= pathsWritten) {
+                    out.writeByte(PATH_RECORD);
+                    BinaryFileUtils.writeString(out, paths.get(pathsWritten++));
+                }
+                out.writeByte(ENTRY_RECORD);
+                out.writeLong(ids[i]);
+                out.writeInt(pathNum);
+                out.writeLong(startTimes[i]);
+                out.writeLong(elapsedTimes[i]);
+                out.writeLong(interruptTimes[i]);
+                out.writeByte(flags[i]);
+                BinaryFileUtils.writeString(out, comments[i]);
+            }
+            out.writeByte(END_RECORD);
+            out.writeInt(count);
+            out.flush();
+            out.close();
+        } catch (IOException ioe) {
+            rfos.abort();
+            throw ioe;
+        }
+    }
+
+    private boolean load(File sidecarFile) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(BinaryFileUtils
+                .readFile(sidecarFile));
+        if (in.getInt() != MAGIC || in.getInt() != VERSION
+                || in.getLong() != sourceLength
+                || in.getLong() != sourceModTime)
+            return false;
+
+        while (true) {
+            byte type = in.get();
+            if (type == PATH_RECORD) {
+                paths.add(BinaryFileUtils.readString(in));
+            } else if (type == ENTRY_RECORD) {
+                long id = in.getLong();
+                int pathNum = in.getInt();
+                if (pathNum >= paths.size())
+                    return false;
+                add(id, pathNum, in.getLong(), in.getLong(), in.getLong(),
+                    in.get(), BinaryFileUtils.readString(in));
+            } else if (type == END_RECORD) {
+                if (in.getInt() != count)
+                    return false;
+                buildIndexes();
+                return true;
+            } else {
+                return false;
+            }
+        }
+    }
+
+    private static final Logger logger = Logger.getLogger(TimeLogIndex.class
+            .getName());
+
+}
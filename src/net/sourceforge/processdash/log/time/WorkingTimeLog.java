@@ -51,6 +51,8 @@ public class WorkingTimeLog implements ModifiableTimeLog, IDSource,
 
     public static final String TIME_LOG_MOD_FILENAME = "timelog2.xml";
 
+    public static final String TIME_LOG_INDEX_FILENAME = "timelog.idx";
+
     private static final String TIME_LOG_ENCODING = TimeLogIOConstants.ENCODING;
 
     private File directory;
@@ -65,7 +67,8 @@ public class WorkingTimeLog implements ModifiableTimeLog, IDSource,
         this.directory = directory;
 
         File histFile = ensureTimeLogFileExists(getFile(TIME_LOG_FILENAME));
-        this.historicalTimeLog = new BaseTimeLog(histFile);
+        this.historicalTimeLog = new BaseTimeLog(histFile,
+                getFile(TIME_LOG_INDEX_FILENAME));
 
         File modFile = ensureTimeLogFileExists(getFile(TIME_LOG_MOD_FILENAME));
         this.realTimeMods = new TimeLogModifications(historicalTimeLog,
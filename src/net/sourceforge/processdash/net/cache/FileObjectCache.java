@@ -23,12 +23,27 @@
 
 package net.sourceforge.processdash.net.cache;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import net.sourceforge.processdash.util.FileUtils;
 import net.sourceforge.processdash.util.RobustFileOutputStream;
@@ -37,16 +52,58 @@ import net.sourceforge.processdash.util.XMLUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
+/** An object cache which stores each object in an XML file.
+ *
+ * Summary information about each object (its type, refresh date, and size)
+ * is held in memory, so lookups by type and age do not need to read the
+ * object files.  This index is saved in a separate file when the cache
+ * changes; on startup, it is reconciled against the object files in the
+ * directory, and any file that has changed since the index was written is
+ * reread.
+ *
+ * Objects are written to disk by a background thread, so callers storing
+ * objects do not wait for file I/O.  Objects which are waiting to be written
+ * are served from memory; call {@link #flush()} to wait for all pending
+ * writes to complete.
+ */
 public class FileObjectCache implements ObjectCache,
                                         CachedObject.CachedDataProvider {
 
     protected static final String BACKUP_PREFIX =
         RobustFileOutputStream.BACKUP_PREFIX;
 
+    /** Summary information about an object in the cache */
+    protected static class IndexEntry {
+        String type;
+        long refreshDate;
+        long size;
+        long modTime;
+    }
+
+    /** The contents of an object that is waiting to be written to disk */
+    private static class PendingWrite {
+        String xml;
+        boolean writeData;
+        byte[] data;
+    }
+
+    /** A marker for an object that is waiting to be deleted from disk */
+    private static final PendingWrite PENDING_DELETE = new PendingWrite();
+
+    private static final String INDEX_HEADER = "FileObjectCache index v1";
+
     protected File directory;
     protected String extension;
     protected int nextAvaliableID;
 
+    private Map<Integer, IndexEntry> index;
+    private boolean indexDirty;
+    private Map<Integer, PendingWrite> pendingWrites;
+    private ExecutorService writer;
+
+    private static final Logger logger =
+        Logger.getLogger(FileObjectCache.class.getName());
+
     /** Create an cache which stores its objects into a directory as
      * files with the given extension.
      * @param directory the directory where the files should be placed.
@@ -67,10 +124,17 @@ public class FileObjectCache implements ObjectCache,
         if (!extension.startsWith("."))
             extension = "." + extension;
         this.extension = extension;
+        this.pendingWrites = new HashMap<Integer, PendingWrite>();
+        this.writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "FileObjectCache Writer");
+                t.setDaemon(true);
+                return t;
+            }});
 
         // figure out the next available ID.
         nextAvaliableID = 0;
-        int[] idList = getObjectIDs();
+        int[] idList = listObjectFileIDs();
         for (int i = idList.length;   i-- > 0; )
             if (idList[i] >= nextAvaliableID)
                 nextAvaliableID = idList[i] + 1;
@@ -88,14 +152,22 @@ public class FileObjectCache implements ObjectCache,
     /** Retrieve a cached object by its ID. */
     public synchronized CachedObject getCachedObject(int id, double maxAge) {
         if (id < 0) return null;
+        if (!getIndex().containsKey(id)) return null;
 
         FileInputStream fis = null;
         try {
-            File f = makeFile(id);
-            if (!f.isFile()) return null;
-
-            fis = new FileInputStream(f);
-            Document d = XMLUtils.parse(fis);
+            Document d;
+            PendingWrite pending = pendingWrites.get(id);
+            if (pending == PENDING_DELETE) {
+                return null;
+            } else if (pending != null) {
+                d = XMLUtils.parse(pending.xml);
+            } else {
+                File f = makeFile(id);
+                if (!f.isFile()) return null;
+                fis = new FileInputStream(f);
+                d = XMLUtils.parse(fis);
+            }
             Element docRoot = d.getDocumentElement();
 
             CachedObject result =
@@ -115,10 +187,10 @@ public class FileObjectCache implements ObjectCache,
 
     /** Delete an object from the cache. */
     public synchronized void deleteCachedObject(int id) {
-        File f = makeFile(id);
-        f.delete();
-        f = makeDataFile(id);
-        f.delete();
+        if (getIndex().remove(id) != null)
+            indexDirty = true;
+        pendingWrites.put(id, PENDING_DELETE);
+        writer.execute(new WriteTask(id, PENDING_DELETE));
     }
 
     /** Store an object in the cache. */
@@ -127,45 +199,48 @@ public class FileObjectCache implements ObjectCache,
         if (id < 0)
             throw new IllegalArgumentException("Invalid id.");
 
-        File f = null, backup = null;
-        FileOutputStream fos = null;
-        try {
-            f = makeFile(id);
-            backup = makeBackupFile(id);
-            f.renameTo(backup);
-
-            StringBuffer xml = new StringBuffer();
-            xml.append("<?xml version='1.0' encoding='UTF-8'?>\n");
-            obj.getAsXML(xml);
-
-            fos = new FileOutputStream(f);
-            OutputStreamWriter out = new OutputStreamWriter(fos, "UTF-8");
-            out.write(xml.toString());
-            out.close();
-            backup.delete();
-
-            if (obj.dataProvider == null) {
-                File df = makeDataFile(id);
-                df.delete();
-
-                byte[] data = obj.getBytes();
-                if (data != null) {
-                    fos = new FileOutputStream(df);
-                    fos.write(data);
-                    fos.close();
-                }
+        // take a snapshot of the object's current state
+        PendingWrite w = new PendingWrite();
+        StringBuffer xml = new StringBuffer();
+        xml.append("<?xml version='1.0' encoding='UTF-8'?>\n");
+        obj.getAsXML(xml);
+        w.xml = xml.toString();
+        if (obj.dataProvider == null) {
+            w.writeData = true;
+            w.data = obj.getBytes();
+        } else {
+            // the data is unchanged.  If it has not been written yet, carry
+            // the pending data forward to this write.
+            PendingWrite prev = pendingWrites.get(id);
+            if (prev != null && prev.writeData) {
+                w.writeData = true;
+                w.data = prev.data;
             }
+        }
 
-        } catch (IOException ioe) {
-            if (fos != null) try { fos.close(); } catch (Exception e) {}
-
-            if (backup.isFile()) {
-                f.delete();
-                backup.renameTo(f);
-            }
+        // record the object in the index
+        IndexEntry e = new IndexEntry();
+        e.type = obj.getType();
+        e.refreshDate = (obj.getDate() == null ? -1 : obj.getDate().getTime());
+        e.size = w.xml.length() + (w.writeData
+                ? (w.data == null ? 0 : w.data.length)
+                : makeDataFile(id).length());
+        getIndex().put(id, e);
+        indexDirty = true;
+
+        // queue the object to be written
+        pendingWrites.put(id, w);
+        writer.execute(new WriteTask(id, w));
+    }
 
-            System.err.println(ioe);
-            ioe.printStackTrace();
+    /** Wait for all pending writes to be saved to disk. */
+    public void flush() {
+        try {
+            writer.submit(new Runnable() {
+                public void run() {}
+            }).get();
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Unable to flush object cache", e);
         }
     }
 
@@ -173,6 +248,14 @@ public class FileObjectCache implements ObjectCache,
     /** Implementation of the CachedObject.CachedDataProvider interface.
      */
     public byte[] getData(CachedObject c) {
+        synchronized (this) {
+            PendingWrite pending = pendingWrites.get(c.getID());
+            if (pending == PENDING_DELETE)
+                return null;
+            else if (pending != null && pending.writeData)
+                return pending.data;
+        }
+
         FileInputStream fis = null;
         byte[] results = null;
         try {
@@ -193,32 +276,81 @@ public class FileObjectCache implements ObjectCache,
     /** get a list of all the objects in the cache of the specified
      * type. If type is null, all objects are returned. */
     public synchronized CachedObject[] getObjects(String type) {
-        int[] allIDs = getObjectIDs();
-
-        int len = allIDs.length;
-        CachedObject[] objects = new CachedObject[len];
-
-        for (int i = len;  i-- > 0; ) {
-            CachedObject co = getCachedObject(allIDs[i], -1);
-            if (co == null || (type != null && !type.equals(co.getType()))) {
-                len--;
-                objects[i] = null;
-            } else
-                objects[i] = co;
+        int[] ids = getObjectIDs(type);
+        List<CachedObject> results = new ArrayList<CachedObject>(ids.length);
+        for (int id : ids) {
+            CachedObject co = getCachedObject(id, -1);
+            if (co != null)
+                results.add(co);
         }
-
-        CachedObject[] results = new CachedObject[len];
-        if (len == 0) return results;
-
-        for (int i = objects.length;   i-- > 0; )
-            if (objects[i] != null)
-                results[--len] = objects[i];
-        return results;
+        return results.toArray(new CachedObject[results.size()]);
     }
 
 
     /** get a list of ids for all the objects in the cache. */
     public synchronized int[] getObjectIDs() {
+        return getObjectIDs(null);
+    }
+
+    /** get a list of ids for all the objects in the cache of the
+     * specified type. If type is null, all objects are returned. */
+    public synchronized int[] getObjectIDs(String type) {
+        return getObjectIDs(type, -1);
+    }
+
+    /** get a list of ids for the objects in the cache of the specified
+     * type which are older than the given age.
+     *
+     * @param type the type of object to find, or null for all types
+     * @param maxAge an age in days; only objects which have not been
+     *    refreshed within that many days are returned.  Use -1 to return
+     *    objects regardless of age.
+     */
+    public synchronized int[] getObjectIDs(String type, double maxAge) {
+        Map<Integer, IndexEntry> idx = getIndex();
+        int[] results = new int[idx.size()];
+        int len = 0;
+        for (Map.Entry<Integer, IndexEntry> e : idx.entrySet()) {
+            IndexEntry ie = e.getValue();
+            if (type != null && !type.equals(ie.type))
+                continue;
+            if (maxAge >= 0 && !CachedObject.olderThanAge(
+                    ie.refreshDate < 0 ? null : new Date(ie.refreshDate),
+                    maxAge))
+                continue;
+            results[len++] = e.getKey();
+        }
+        int[] trimmed = new int[len];
+        System.arraycopy(results, 0, trimmed, 0, len);
+        return trimmed;
+    }
+
+    /** @return the total size of the objects in the cache, in bytes */
+    public synchronized long getTotalSize() {
+        long result = 0;
+        for (IndexEntry e : getIndex().values())
+            result += e.size;
+        return result;
+    }
+
+
+    /** Encapsulate the file naming logic in one place. */
+    protected File makeFile(int id) {
+        return new File(directory, id + extension);
+    }
+    protected File makeDataFile(int id) {
+        return new File(directory, id + "d" + extension);
+    }
+    protected File makeBackupFile(int id) {
+        return new File(directory, BACKUP_PREFIX + id + extension);
+    }
+    protected File makeIndexFile() {
+        return new File(directory, "cacheIndex" + extension + "x");
+    }
+
+
+    /** get the ids of the object files in the directory. */
+    private int[] listObjectFileIDs() {
         String[] filenames = directory.list(new Filter());
         if (filenames == null)
             return new int[0];
@@ -233,29 +365,218 @@ public class FileObjectCache implements ObjectCache,
         return results;
     }
 
-    /** get a list of ids for all the objects in the cache of the
-     * specified type. If type is null, all objects are returned. */
-    public int[] getObjectIDs(String type) {
-        if (type == null) return getObjectIDs();
-
-        CachedObject[] objects = getObjects(type);
-        int len = objects.length;
-        int[] results = new int[len];
-        for (int i = objects.length;   i-- > 0; )
-            results[i] = objects[i].getID();
-        return results;
+
+    /** Return the in-memory index, building it if necessary. */
+    private Map<Integer, IndexEntry> getIndex() {
+        if (index == null)
+            index = buildIndex();
+        return index;
     }
 
+    private Map<Integer, IndexEntry> buildIndex() {
+        Map<Integer, IndexEntry> saved = readIndexFile();
+        Map<Integer, IndexEntry> result = new TreeMap<Integer, IndexEntry>();
 
-    /** Encapsulate the file naming logic in one place. */
-    protected File makeFile(int id) {
-        return new File(directory, id + extension);
+        for (int id : listObjectFileIDs()) {
+            if (id < 0)
+                continue;
+            PendingWrite pending = pendingWrites.get(id);
+            if (pending == PENDING_DELETE)
+                continue;
+
+            // reuse the saved entry if the file hasn't changed since the
+            // index was written.  Otherwise, read the object file.
+            IndexEntry e = saved.get(id);
+            File f = makeFile(id);
+            if (e == null || e.modTime != f.lastModified()) {
+                e = readIndexEntry(id);
+                if (e == null)
+                    continue;
+                indexDirty = true;
+            }
+            result.put(id, e);
+        }
+        if (result.size() != saved.size())
+            indexDirty = true;
+
+        return result;
     }
-    protected File makeDataFile(int id) {
-        return new File(directory, id + "d" + extension);
+
+    private IndexEntry readIndexEntry(int id) {
+        File f = makeFile(id);
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(f);
+            Element xml = XMLUtils.parse(fis).getDocumentElement();
+            IndexEntry e = new IndexEntry();
+            e.type = xml.getAttribute("type");
+            Date d = XMLUtils.getXMLDate(xml, "refreshDate");
+            e.refreshDate = (d == null ? -1 : d.getTime());
+            e.size = f.length() + makeDataFile(id).length();
+            e.modTime = f.lastModified();
+            return e;
+        } catch (Exception e) {
+            logger.log(Level.FINE, "Unable to read cached object " + f, e);
+            return null;
+        } finally {
+            FileUtils.safelyClose(fis);
+        }
     }
-    protected File makeBackupFile(int id) {
-        return new File(directory, BACKUP_PREFIX + id + extension);
+
+    private Map<Integer, IndexEntry> readIndexFile() {
+        Map<Integer, IndexEntry> result = new HashMap<Integer, IndexEntry>();
+        File f = makeIndexFile();
+        if (!f.isFile())
+            return result;
+
+        BufferedReader in = null;
+        try {
+            in = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(f), "UTF-8"));
+            if (!INDEX_HEADER.equals(in.readLine()))
+                return result;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split("\t", 5);
+                if (fields.length != 5)
+                    continue;
+                IndexEntry e = new IndexEntry();
+                e.refreshDate = Long.parseLong(fields[1]);
+                e.size = Long.parseLong(fields[2]);
+                e.modTime = Long.parseLong(fields[3]);
+                e.type = fields[4];
+                result.put(Integer.valueOf(fields[0]), e);
+            }
+        } catch (Exception e) {
+            logger.log(Level.FINE, "Unable to read object cache index", e);
+            result.clear();
+        } finally {
+            FileUtils.safelyClose(in);
+        }
+        return result;
+    }
+
+    private void saveIndexFile() {
+        List<String> lines;
+        synchronized (this) {
+            if (!indexDirty || index == null)
+                return;
+            lines = new ArrayList<String>(index.size());
+            for (Map.Entry<Integer, IndexEntry> e : index.entrySet()) {
+                IndexEntry ie = e.getValue();
+                if (ie.type.indexOf('\n') != -1)
+                    continue;
+                lines.add(e.getKey() + "\t" + ie.refreshDate + "\t"
+                        + ie.size + "\t" + ie.modTime + "\t" + ie.type);
+            }
+            indexDirty = false;
+        }
+
+        RobustFileOutputStream out = null;
+        try {
+            out = new RobustFileOutputStream(makeIndexFile());
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+            w.write(INDEX_HEADER);
+            w.write("\n");
+            for (String line : lines) {
+                w.write(line);
+                w.write("\n");
+            }
+            w.close();
+        } catch (IOException ioe) {
+            // the index is only an optimization; it will be rebuilt from
+            // the object files if necessary.
+            logger.log(Level.FINE, "Unable to save object cache index", ioe);
+            try {
+                if (out != null) out.abort();
+            } catch (Exception e) {}
+            synchronized (this) {
+                indexDirty = true;
+            }
+        }
+    }
+
+
+    /** A task which writes (or deletes) one object on the writer thread */
+    private class WriteTask implements Runnable {
+
+        private int id;
+
+        private PendingWrite write;
+
+        WriteTask(int id, PendingWrite write) {
+            this.id = id;
+            this.write = write;
+        }
+
+        public void run() {
+            // if a newer write for this object has been queued, this one
+            // does not need to be performed.
+            synchronized (FileObjectCache.this) {
+                if (pendingWrites.get(id) != write)
+                    return;
+            }
+
+            if (write == PENDING_DELETE) {
+                makeFile(id).delete();
+                makeDataFile(id).delete();
+            } else {
+                writeObject(id, write);
+            }
+
+            synchronized (FileObjectCache.this) {
+                if (pendingWrites.get(id) == write) {
+                    pendingWrites.remove(id);
+                    IndexEntry e = (index == null ? null : index.get(id));
+                    if (e != null)
+                        e.modTime = makeFile(id).lastModified();
+                }
+                if (pendingWrites.isEmpty() == false)
+                    return;
+            }
+
+            // when the queue is empty, save the index.
+            saveIndexFile();
+        }
+    }
+
+    private void writeObject(int id, PendingWrite w) {
+        File f = null, backup = null;
+        FileOutputStream fos = null;
+        try {
+            f = makeFile(id);
+            backup = makeBackupFile(id);
+            f.renameTo(backup);
+
+            fos = new FileOutputStream(f);
+            OutputStreamWriter out = new OutputStreamWriter(fos, "UTF-8");
+            out.write(w.xml);
+            out.close();
+            backup.delete();
+
+            if (w.writeData) {
+                File df = makeDataFile(id);
+                df.delete();
+
+                byte[] data = w.data;
+                if (data != null) {
+                    fos = new FileOutputStream(df);
+                    fos.write(data);
+                    fos.close();
+                }
+            }
+
+        } catch (IOException ioe) {
+            if (fos != null) try { fos.close(); } catch (Exception e) {}
+
+            if (backup.isFile()) {
+                f.delete();
+                backup.renameTo(f);
+            }
+
+            System.err.println(ioe);
+            ioe.printStackTrace();
+        }
     }
 
     /** FilenameFilter which locates files with the correct extension. */
@@ -24,8 +24,13 @@
 package net.sourceforge.processdash.net.http;
 
 import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+import static javax.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -47,14 +52,43 @@ import net.sourceforge.processdash.util.StringUtils;
  * path of the target resource.</li>
  * <li>It stores a <tt>pdash</tt> object in the HTTP request attributes, which
  * provides access to commonly used dashboard constructs</li>
+ * <li>It records the time taken by each request in a
+ * {@link WebServerStatistics} object, if one is provided</li>
+ * <li>It limits the number of network requests for dynamic content that can
+ * run at the same time, so slow reports cannot occupy every server thread
+ * and block requests for static content such as images and stylesheets.</li>
  * </ul>
  */
 public class DashboardHttpRequestInterceptor extends HandlerWrapper {
 
     private String startupTimestamp;
 
+    private WebServerStatistics statistics;
+
+    private Semaphore dynamicPermits;
+
+    private long dynamicWaitMillis;
+
     public DashboardHttpRequestInterceptor(String startupTimestamp) {
+        this(startupTimestamp, null, 0, 0);
+    }
+
+    /**
+     * @param startupTimestamp the dashboard startup timestamp
+     * @param statistics an object for recording request timings, or null
+     * @param maxDynamicRequests the maximum number of network requests for
+     *     dynamic content that can run at once, or 0 for no limit
+     * @param dynamicWaitMillis how long a dynamic content request should wait
+     *     for others to finish before it is rejected
+     */
+    public DashboardHttpRequestInterceptor(String startupTimestamp,
+            WebServerStatistics statistics, int maxDynamicRequests,
+            long dynamicWaitMillis) {
         this.startupTimestamp = startupTimestamp;
+        this.statistics = statistics;
+        if (maxDynamicRequests > 0)
+            this.dynamicPermits = new Semaphore(maxDynamicRequests, true);
+        this.dynamicWaitMillis = dynamicWaitMillis;
     }
 
     public void handle(String target, Request baseRequest,
@@ -105,9 +139,75 @@ public class DashboardHttpRequestInterceptor extends HandlerWrapper {
             new PdashContextImpl(baseRequest, prefix));
 
         // pass the request on to the rest of the processing chain
-        super.handle(path, baseRequest, request, response);
+        if (statistics == null && dynamicPermits == null)
+            super.handle(path, baseRequest, request, response);
+        else
+            handleMonitored(path, baseRequest, request, response);
+    }
+
+
+    private void handleMonitored(String path, Request baseRequest,
+            HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        boolean dynamic = !isStaticContent(path);
+
+        // requests made internally by the dashboard (including requests
+        // made by dynamic content that is already running) are not limited.
+        boolean limited = dynamic && dynamicPermits != null
+                && !(baseRequest.getConnection().getConnector()
+                        instanceof LocalConnector);
+        if (limited && !acquireDynamicPermit()) {
+            if (statistics != null)
+                statistics.requestRejected();
+            baseRequest.setHandled(true);
+            response.setHeader("Retry-After", "5");
+            response.sendError(SC_SERVICE_UNAVAILABLE, "Server busy.");
+            return;
+        }
+
+        WebServerStatistics.UriStatistics uriStats = null;
+        if (statistics != null)
+            uriStats = statistics.requestStarted(path, dynamic);
+        long start = System.currentTimeMillis();
+        int status = SC_INTERNAL_SERVER_ERROR;
+        try {
+            super.handle(path, baseRequest, request, response);
+            status = baseRequest.getResponse().getStatus();
+        } finally {
+            if (uriStats != null)
+                statistics.requestFinished(uriStats, dynamic,
+                    System.currentTimeMillis() - start, status);
+            if (limited)
+                dynamicPermits.release();
+        }
     }
 
+    private boolean acquireDynamicPermit() {
+        try {
+            return dynamicPermits.tryAcquire(dynamicWaitMillis,
+                TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+            return false;
+        }
+    }
+
+    /**
+     * @return true if the given path names a static file, such as an image,
+     *     that is served without running any dashboard logic
+     */
+    static boolean isStaticContent(String path) {
+        int dotPos = path.lastIndexOf('.');
+        if (dotPos == -1 || dotPos < path.lastIndexOf('/'))
+            return false;
+        String suffix = path.substring(dotPos).toLowerCase();
+        String type = (String) MIME_TYPES.get(suffix);
+        return type != null
+                && (type.startsWith("image/") || type.startsWith("audio/")
+                        || type.startsWith("video/") || type.equals("text/css"));
+    }
+
+    private static final Map MIME_TYPES = WebServer.getMimeTypeMap();
+
 
     /**
      * Canonicalize a path through the removal of directory changes made by
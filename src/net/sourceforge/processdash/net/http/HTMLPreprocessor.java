@@ -51,6 +51,7 @@ import net.sourceforge.processdash.templates.DashPackage;
 import net.sourceforge.processdash.util.EscapeString;
 import net.sourceforge.processdash.util.HTMLUtils;
 import net.sourceforge.processdash.util.HttpQueryParser;
+import net.sourceforge.processdash.util.LRUCache;
 import net.sourceforge.processdash.util.Perl5Util;
 import net.sourceforge.processdash.util.PerlPool;
 import net.sourceforge.processdash.util.StringUtils;
@@ -107,12 +108,59 @@ public class HTMLPreprocessor {
         StringBuffer text = new StringBuffer(content);
         cachedTestExpressions.clear();
         maybePerformEagerReplacements(text);
+        numberAllBlocks(text);
+        return evaluate(text);
+    }
+
+    /** preprocess a template that was compiled earlier, and return the
+     * result. */
+    public String preprocess(Template template) throws IOException {
+        // eager replacements are applied to the raw text before blocks are
+        // numbered, so the compiled form can't be used when they are present
+        if (env.get(REPLACEMENTS_PARAM) instanceof Map)
+            return preprocess(template.source);
+
+        cachedTestExpressions.clear();
+        return evaluate(new StringBuffer(template.numberedText));
+    }
+
+
+    /** A template whose block directives have already been located and
+     * numbered.  Templates are immutable, so a single compiled template can
+     * be cached and preprocessed for many requests.
+     */
+    public static class Template {
+        private final String source;
+        private final String numberedText;
+
+        private Template(String source, String numberedText) {
+            this.source = source;
+            this.numberedText = numberedText;
+        }
+
+        /** @return the number of characters held by this template */
+        public int length() {
+            return source.length() + numberedText.length();
+        }
+    }
+
+    /** compile the given content into a reusable template. */
+    public static Template compile(String content) {
+        StringBuffer text = new StringBuffer(content);
+        numberAllBlocks(text);
+        String numberedText = text.toString();
+        return new Template(content, numberedText.equals(content) ? content
+                : numberedText);
+    }
 
+    private static void numberAllBlocks(StringBuffer text) {
         numberBlocks(text, "foreach", "endfor", null, null);
         numberBlocks(text, "fortree", "endtree", null, null);
         numberBlocks(text, "if", "endif", "else", "elif");
         numberBlocks(text, "replace", "endreplace", null, null);
+    }
 
+    private String evaluate(StringBuffer text) throws IOException {
         DirectiveMatch dir;
         int pos = 0;
         while ((dir = new DirectiveMatch(text, "", pos, true)).matches()) {
@@ -263,27 +311,37 @@ public class HTMLPreprocessor {
     }
     private String cutHtml(String text, String cutToken) {
         if (cutToken != null) {
-            cutToken = cutToken.trim();
-            if ("none".equalsIgnoreCase(cutToken))
-                cutToken = "";
-            else if (cutToken.length() > 0)
-                cutToken = "\\Q:" + cutToken + "\\E";
-
-            Pattern begToken = Pattern.compile("<!--\\s*cutStart" + cutToken
-                    + "\\s*-->");
-            Matcher m = begToken.matcher(text);
+            Pattern[] tokens = getCutPatterns(cutToken);
+
+            Matcher m = tokens[0].matcher(text);
             if (m.find())
                 text = text.substring(m.end());
 
-            Pattern endToken = Pattern.compile("<!--\\s*cutEnd" + cutToken
-                    + "\\s*-->");
-            m = endToken.matcher(text);
+            m = tokens[1].matcher(text);
             if (m.find())
                 text = text.substring(0, m.start());
         }
 
         return text;
     }
+    private static Pattern[] getCutPatterns(String cutToken) {
+        Pattern[] result = CUT_PATTERNS.get(cutToken);
+        if (result == null) {
+            String token = cutToken.trim();
+            if ("none".equalsIgnoreCase(token))
+                token = "";
+            else if (token.length() > 0)
+                token = "\\Q:" + token + "\\E";
+
+            result = new Pattern[] {
+                    Pattern.compile("<!--\\s*cutStart" + token + "\\s*-->"),
+                    Pattern.compile("<!--\\s*cutEnd" + token + "\\s*-->") };
+            CUT_PATTERNS.put(cutToken, result);
+        }
+        return result;
+    }
+    private static final LRUCache<String, Pattern[]> CUT_PATTERNS =
+        new LRUCache<String, Pattern[]>(100);
 
 
 
@@ -1066,7 +1124,7 @@ public class HTMLPreprocessor {
      * which start directive goes with which end directive.  This handles
      * nested blocks correctly.
      */
-    private void numberBlocks(StringBuffer text,
+    private static void numberBlocks(StringBuffer text,
                               String blockStart, String blockFinish,
                               String blockMid1, String blockMid2) {
         DirectiveMatch start, finish;
@@ -1096,7 +1154,7 @@ public class HTMLPreprocessor {
      * position <code>from</code> and going to position <code>to</code>,
      * and rename them to newname.
      */
-    private int renameDirectives(StringBuffer text, int from, int to,
+    private static int renameDirectives(StringBuffer text, int from, int to,
                                  String name, String newName) {
         DirectiveMatch dir;
         int delta = newName.length() - name.length();
@@ -1334,7 +1392,7 @@ public class HTMLPreprocessor {
 
     /** Class which can locate and parse directives of the form <!--#foo -->
      */
-    private class DirectiveMatch {
+    private static class DirectiveMatch {
         StringBuffer buf;
         public int begin, end;
         public String directive, contents;
@@ -1427,7 +1485,7 @@ public class HTMLPreprocessor {
     }
 
     /** @return true if t is null or the empty string */
-    private boolean isNull(String t) {
+    private static boolean isNull(String t) {
         return (t == null || t.length() == 0);
     }
     private int whitespacePos(String t) {
@@ -40,6 +40,7 @@ import org.eclipse.jetty.util.StringUtil;
 import net.sourceforge.processdash.data.repository.DataRepository;
 import net.sourceforge.processdash.util.FileUtils;
 import net.sourceforge.processdash.util.HTTPUtils;
+import net.sourceforge.processdash.util.LRUCache;
 
 public class TextPreprocessingHandlerServlet extends HttpServlet {
 
@@ -47,6 +48,8 @@ public class TextPreprocessingHandlerServlet extends HttpServlet {
 
     private static final String SERVER_PARSE_OVERRIDE = "<!--#server-parsed";
 
+    private static final long MAX_CACHED_TEMPLATE_CHARS = 4000000;
+
     static final String[] FILENAME_PATTERNS = { "*.shtm", "*.shtml", "*.htm",
             "*.html", "*.txt", "*.js", "*.rpt" };
 
@@ -120,14 +123,9 @@ public class TextPreprocessingHandlerServlet extends HttpServlet {
         // build the environment we will use for handling the request
         Map env = PDashServletUtils.buildEnvironment(req);
 
-        // read the original resource as a string
-        ByteArrayOutputStream rawBytes = new ByteArrayOutputStream(Math.max(
-            numBytes, conn.getContentLength()));
-        rawBytes.write(buffer, 0, numBytes);
-        FileUtils.copyFile(in, rawBytes);
-        FileUtils.safelyClose(in);
-        String content = rawBytes.toString("utf-8");
-        rawBytes = null;
+        // retrieve the compiled template for this resource
+        HTMLPreprocessor.Template template = getTemplate(url, conn, in,
+            buffer, numBytes);
 
         // invoke the preprocessor on the content
         WebServer webServer = (WebServer) env.get(TinyCGI.TINY_WEB_SERVER);
@@ -140,7 +138,7 @@ public class TextPreprocessingHandlerServlet extends HttpServlet {
             p.setDefaultEchoEncoding("html");
         else
             p.setEchoBareParams(false);
-        content = p.preprocess(content);
+        String content = p.preprocess(template);
         byte[] resultBytes = content.getBytes("utf-8");
 
         if (contentType != null)
@@ -149,6 +147,62 @@ public class TextPreprocessingHandlerServlet extends HttpServlet {
         resp.getOutputStream().write(resultBytes);
     }
 
+    /**
+     * Return the compiled template for a resource. Templates are cached by URL
+     * and reused as long as the resource's modification time and length are
+     * unchanged, so the text is only read and compiled once.
+     */
+    private HTMLPreprocessor.Template getTemplate(URL url, URLConnection conn,
+            InputStream in, byte[] buffer, int numBytes) throws IOException {
+        String key = url.toString();
+        long mod = conn.getLastModified();
+        int len = conn.getContentLength();
+
+        CachedTemplate cached = TEMPLATES.get(key);
+        if (cached != null && mod > 0 && cached.lastModified == mod
+                && cached.length == len) {
+            FileUtils.safelyClose(in);
+            return cached.template;
+        }
+
+        // read the original resource as a string
+        ByteArrayOutputStream rawBytes = new ByteArrayOutputStream(Math.max(
+            numBytes, len));
+        rawBytes.write(buffer, 0, numBytes);
+        FileUtils.copyFile(in, rawBytes);
+        FileUtils.safelyClose(in);
+        String content = rawBytes.toString("utf-8");
+        rawBytes = null;
+
+        HTMLPreprocessor.Template result = HTMLPreprocessor.compile(content);
+        if (mod > 0)
+            TEMPLATES.put(key, new CachedTemplate(mod, len, result));
+        else
+            TEMPLATES.remove(key);
+        return result;
+    }
+
+    private static class CachedTemplate {
+        long lastModified;
+        int length;
+        HTMLPreprocessor.Template template;
+
+        CachedTemplate(long lastModified, int length,
+                HTMLPreprocessor.Template template) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.template = template;
+        }
+    }
+
+    private static final LRUCache<String, CachedTemplate> TEMPLATES =
+        new LRUCache<String, CachedTemplate>(MAX_CACHED_TEMPLATE_CHARS,
+            new LRUCache.Weigher<String, CachedTemplate>() {
+                public int weigh(String key, CachedTemplate value) {
+                    return Math.max(1, value.template.length());
+                }
+            }, 0);
+
     private boolean containsServerParsedOverride(byte[] buf, int numBytes)
             throws IOException {
         String bufStr = new String(buf, 0, numBytes, "utf-8");
@@ -93,6 +93,7 @@ class WebAppContextDashboard extends WebAppContext {
 
         // install a filter which can inject hierarchy prefixes back into URIs
         FilterHolder filt = new FilterHolder(new DashboardUriPrefixFilter());
+        filt.setAsyncSupported(true);
         addFilter(filt, "/*", EnumSet.allOf(DispatcherType.class));
 
         // on Java 9, Jasper needs extra help finding system taglib files
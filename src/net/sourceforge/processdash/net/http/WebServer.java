@@ -36,6 +36,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -64,6 +67,7 @@ public class WebServer implements ContentSource {
     private Server server;
     private LocalConnector localConnector;
     private ContextHandlerCollection webApps;
+    private WebServerStatistics statistics;
 
     private static final int ALLOW_REMOTE_NEVER = 0;
     // private static final int ALLOW_REMOTE_MAYBE = 1; // No longer supported
@@ -97,6 +101,11 @@ public class WebServer implements ContentSource {
     static final String HEADER_CHARSET = DASH_CHARSET;
     private static String OUTPUT_CHARSET = DASH_CHARSET;
 
+    private static final int DEFAULT_MIN_THREADS = 8;
+    private static final int DEFAULT_MAX_THREADS = 254;
+    private static final int DEFAULT_THREAD_IDLE_TIMEOUT = 60000;
+    private static final int DEFAULT_DYNAMIC_MAX_WAIT = 30000;
+
     private static final Logger logger =
         Logger.getLogger(WebServer.class.getName());
 
@@ -355,11 +364,33 @@ public class WebServer implements ContentSource {
             Collections.unmodifiableMap(DEFAULT_ENV));
 
         // the server thread pool should use daemon threads
-        QueuedThreadPool threadPool = new QueuedThreadPool();
+        int maxQueued = Settings.getInt("http.threads.maxQueued", 0);
+        BlockingQueue<Runnable> queue = (maxQueued > 0
+                ? new ArrayBlockingQueue<Runnable>(maxQueued)
+                : new LinkedBlockingQueue<Runnable>());
+        QueuedThreadPool threadPool = new QueuedThreadPool(queue);
         threadPool.setName("WebServer");
         threadPool.setDaemon(true);
+        int maxThreads = Math.max(2,
+            Settings.getInt("http.threads.max", DEFAULT_MAX_THREADS));
+        threadPool.setMaxThreads(maxThreads);
+        threadPool.setMinThreads(Math.min(maxThreads,
+            Settings.getInt("http.threads.min", DEFAULT_MIN_THREADS)));
+        threadPool.setMaxIdleTimeMs(Settings.getInt("http.threads.idleTimeout",
+            DEFAULT_THREAD_IDLE_TIMEOUT));
         server.setThreadPool(threadPool);
 
+        // keep statistics about the requests we serve
+        statistics = new WebServerStatistics();
+        statistics.setThreadPool(threadPool, queue);
+
+        // limit the number of threads that can be serving dynamic content, so
+        // some threads are always available for static content.
+        int maxDynamic = Settings.getInt("http.dynamic.maxThreads",
+            maxThreads - Math.max(1, maxThreads / 4));
+        int dynamicWait = Settings.getInt("http.dynamic.maxWait",
+            DEFAULT_DYNAMIC_MAX_WAIT);
+
         // create a local connector which can be used for internal requests
         localConnector = new LocalConnector();
         server.addConnector(localConnector);
@@ -368,7 +399,7 @@ public class WebServer implements ContentSource {
         webApps = new ContextHandlerCollection();
         webApps.setHandlers(new Handler[0]);
         HandlerWrapper interceptor = new DashboardHttpRequestInterceptor(
-                startupTimestamp);
+                startupTimestamp, statistics, maxDynamic, dynamicWait);
         interceptor.setHandler(webApps);
         server.setHandler(interceptor);
 
@@ -404,6 +435,8 @@ public class WebServer implements ContentSource {
                     c.setHost("127.0.0.1");
                 c.setPort(port);
                 c.setServer(server);
+                c.setAcceptQueueSize(Settings.getInt("http.acceptQueueSize",
+                    0));
 
                 // attempt to start listening. This will throw an exception if
                 // the given port is already in use.
@@ -492,6 +525,12 @@ public class WebServer implements ContentSource {
     }
 
 
+    /** @return statistics about the requests served by this web server */
+    public WebServerStatistics getStatistics() {
+        return statistics;
+    }
+
+
     /** Stop the web server. */
     public void quit() {
         QUIT_PERMISSION.checkPermission();
@@ -0,0 +1,319 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.net.http;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+
+/**
+ * Collects timing statistics about the requests handled by the dashboard
+ * web server.
+ * <p>
+ * For each URI, this records the number of requests currently in progress,
+ * the number of completed requests and errors, and a histogram of request
+ * latencies.  Statistics are tracked for a limited number of distinct URIs;
+ * once that limit is reached, requests for new URIs are counted together
+ * under {@link #OTHER_URIS}.
+ * <p>
+ * All methods are thread-safe.
+ */
+public class WebServerStatistics {
+
+    /** The upper bounds of the latency histogram buckets, in milliseconds */
+    public static final long[] BUCKET_LIMITS = { 1, 2, 5, 10, 20, 50, 100,
+            200, 500, 1000, 2000, 5000, 10000, 30000 };
+
+    /** The name used to record requests for URIs beyond the tracking limit */
+    public static final String OTHER_URIS = "(other)";
+
+    private static final int MAX_TRACKED_URIS = 1000;
+
+
+    public static class UriStatistics {
+
+        private String uri;
+
+        private boolean dynamic;
+
+        private AtomicInteger inFlight = new AtomicInteger();
+
+        private AtomicLong count = new AtomicLong();
+
+        private AtomicLong errorCount = new AtomicLong();
+
+        private AtomicLong totalTime = new AtomicLong();
+
+        private AtomicLong maxTime = new AtomicLong();
+
+        private AtomicLongArray histogram = new AtomicLongArray(
+                BUCKET_LIMITS.length + 1);
+
+        private UriStatistics(String uri, boolean dynamic) {
+            this.uri = uri;
+            this.dynamic = dynamic;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        /** @return true if this URI is served by dynamic content */
+        public boolean isDynamic() {
+            return dynamic;
+        }
+
+        /** @return the number of requests currently in progress */
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        /** @return the number of completed requests */
+        public long getCount() {
+            return count.get();
+        }
+
+        /** @return the number of requests which resulted in an error */
+        public long getErrorCount() {
+            return errorCount.get();
+        }
+
+        /** @return the total time spent on completed requests, in millis */
+        public long getTotalTime() {
+            return totalTime.get();
+        }
+
+        /** @return the longest time spent on a single request, in millis */
+        public long getMaxTime() {
+            return maxTime.get();
+        }
+
+        /** @return the average time spent per request, in millis */
+        public double getMeanTime() {
+            long n = count.get();
+            return (n == 0 ? 0 : (double) totalTime.get() / n);
+        }
+
+        /**
+         * @return the number of requests which fell into each latency
+         *     bucket. The entry at position i counts requests which took
+         *     less than {@link WebServerStatistics#BUCKET_LIMITS}[i]
+         *     milliseconds (but not less than the previous limit); the
+         *     final entry counts requests which took longer than every limit.
+         */
+        public long[] getHistogram() {
+            long[] result = new long[histogram.length()];
+            for (int i = 0; i < result.length; i++)
+                result[i] = histogram.get(i);
+            return result;
+        }
+
+        /**
+         * Estimate a latency percentile from the histogram.
+         *
+         * @param fraction a number between 0 and 1
+         * @return the upper bound of the bucket containing the given
+         *     percentile, or -1 if it fell beyond the last bucket
+         */
+        public long getPercentile(double fraction) {
+            long[] hist = getHistogram();
+            long total = 0;
+            for (long n : hist)
+                total += n;
+            long target = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_LIMITS.length; i++) {
+                seen += hist[i];
+                if (seen >= target)
+                    return BUCKET_LIMITS[i];
+            }
+            return -1;
+        }
+
+        private void finished(long elapsed, boolean error) {
+            inFlight.decrementAndGet();
+            count.incrementAndGet();
+            if (error)
+                errorCount.incrementAndGet();
+            totalTime.addAndGet(elapsed);
+
+            long max;
+            while (elapsed > (max = maxTime.get()))
+                if (maxTime.compareAndSet(max, elapsed))
+                    break;
+
+            int bucket = 0;
+            while (bucket < BUCKET_LIMITS.length
+                    && elapsed >= BUCKET_LIMITS[bucket])
+                bucket++;
+            histogram.incrementAndGet(bucket);
+        }
+    }
+
+
+    private ConcurrentHashMap<String, UriStatistics> uris;
+
+    private AtomicInteger inFlight = new AtomicInteger();
+
+    private AtomicInteger dynamicInFlight = new AtomicInteger();
+
+    private AtomicLong rejectedCount = new AtomicLong();
+
+    private long startTime;
+
+    private QueuedThreadPool threadPool;
+
+    private BlockingQueue<Runnable> threadPoolQueue;
+
+
+    public WebServerStatistics() {
+        uris = new ConcurrentHashMap<String, UriStatistics>();
+        startTime = System.currentTimeMillis();
+    }
+
+
+    /**
+     * Record the start of a request.
+     *
+     * @param uri the URI being requested, without any query string
+     * @param dynamic true if the URI is served by dynamic content
+     * @return an object which should be passed to {@link #requestFinished}
+     *     when the request is complete
+     */
+    public UriStatistics requestStarted(String uri, boolean dynamic) {
+        UriStatistics result = uris.get(uri);
+        if (result == null) {
+            if (uris.size() >= MAX_TRACKED_URIS)
+                uri = OTHER_URIS;
+            UriStatistics newStats = new UriStatistics(uri, dynamic);
+            result = uris.putIfAbsent(uri, newStats);
+            if (result == null)
+                result = newStats;
+        }
+
+        result.inFlight.incrementAndGet();
+        inFlight.incrementAndGet();
+        if (dynamic)
+            dynamicInFlight.incrementAndGet();
+        return result;
+    }
+
+    /**
+     * Record the completion of a request.
+     *
+     * @param stats the object returned by {@link #requestStarted}
+     * @param dynamic the value that was passed to {@link #requestStarted}
+     * @param elapsed the time taken by the request, in milliseconds
+     * @param status the HTTP status code of the response
+     */
+    public void requestFinished(UriStatistics stats, boolean dynamic,
+            long elapsed, int status) {
+        stats.finished(elapsed, status >= 500);
+        inFlight.decrementAndGet();
+        if (dynamic)
+            dynamicInFlight.decrementAndGet();
+    }
+
+    /** Record a request that was rejected because the server was busy. */
+    public void requestRejected() {
+        rejectedCount.incrementAndGet();
+    }
+
+
+    /** @return statistics for each URI, ordered by total time (descending) */
+    public List<UriStatistics> getUriStatistics() {
+        List<UriStatistics> result = new ArrayList<UriStatistics>(
+                uris.values());
+        Collections.sort(result, new Comparator<UriStatistics>() {
+            public int compare(UriStatistics a, UriStatistics b) {
+                long ta = a.getTotalTime(), tb = b.getTotalTime();
+                return (ta > tb ? -1 : (ta == tb ? 0 : 1));
+            }});
+        return result;
+    }
+
+    /** @return the number of requests currently in progress */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /** @return the number of dynamic content requests in progress */
+    public int getDynamicInFlight() {
+        return dynamicInFlight.get();
+    }
+
+    /** @return the number of requests rejected because the server was busy */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /** @return the time these statistics began to be collected */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /** Discard the statistics collected so far. */
+    public void reset() {
+        uris.clear();
+        rejectedCount.set(0);
+        startTime = System.currentTimeMillis();
+    }
+
+
+    void setThreadPool(QueuedThreadPool threadPool,
+            BlockingQueue<Runnable> queue) {
+        this.threadPool = threadPool;
+        this.threadPoolQueue = queue;
+    }
+
+    /** @return the number of threads in the server thread pool */
+    public int getPoolThreads() {
+        return (threadPool == null ? 0 : threadPool.getThreads());
+    }
+
+    /** @return the number of idle threads in the server thread pool */
+    public int getPoolIdleThreads() {
+        return (threadPool == null ? 0 : threadPool.getIdleThreads());
+    }
+
+    /** @return the maximum size of the server thread pool */
+    public int getPoolMaxThreads() {
+        return (threadPool == null ? 0 : threadPool.getMaxThreads());
+    }
+
+    /** @return the number of jobs waiting for a server thread */
+    public int getPoolQueueSize() {
+        return (threadPoolQueue == null ? 0 : threadPoolQueue.size());
+    }
+
+}
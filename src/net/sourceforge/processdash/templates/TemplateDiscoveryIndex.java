@@ -0,0 +1,187 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.templates;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import net.sourceforge.processdash.tool.bridge.client.DirectoryPreferences;
+import net.sourceforge.processdash.util.RobustFileOutputStream;
+
+/**
+ * Remembers facts that the {@link TemplateLoader} discovered about JAR and ZIP
+ * files on the template search path, so unchanged files don't need to be
+ * opened again on the next startup.
+ * <p>
+ * Each fact is recorded with the size and modification time of the file it
+ * describes, and is disregarded once the file changes. Only facts that
+ * exclude a file from further processing are worth recording; files that
+ * contribute templates or packages are always read in full, so signature and
+ * security checks still run against their current contents.
+ */
+class TemplateDiscoveryIndex {
+
+    /** True if the file contains the dashboard application itself */
+    static final String DASHBOARD_JAR = "dashboardJar";
+
+    /** False if the file does not describe a dashboard package */
+    static final String DASH_PACKAGE = "package";
+
+    /** False if the file contains no template or web content, and no
+     * executable entries that the add-on security policy would check.
+     * (The key changed when the second condition was added, so facts
+     * recorded without it are disregarded.) */
+    static final String TEMPLATE_CONTENT = "inertContent";
+
+    private static final List<String> KNOWN_FACTS = Arrays.asList(
+        DASHBOARD_JAR, DASH_PACKAGE, TEMPLATE_CONTENT);
+
+
+    private File file;
+
+    private Properties entries;
+
+    private boolean changed;
+
+    TemplateDiscoveryIndex(File file) {
+        this.file = file;
+        this.entries = new Properties();
+        this.changed = false;
+
+        if (file != null) {
+            try {
+                InputStream in = new FileInputStream(file);
+                try {
+                    entries.load(in);
+                } finally {
+                    in.close();
+                }
+            } catch (IOException ioe) {
+                // the index does not exist yet, or could not be read. Start
+                // over with an empty index.
+            }
+        }
+    }
+
+    /**
+     * @return the recorded value of a fact about the given file, or null if
+     *         the fact is unknown or the file has changed since the fact was
+     *         recorded
+     */
+    synchronized Boolean get(File f, String fact) {
+        if (f == null)
+            return null;
+        String value = entries.getProperty(getKey(f, fact));
+        String stamp = getStamp(f);
+        if (value != null && value.startsWith(stamp))
+            return Boolean.valueOf(value.substring(stamp.length()));
+        else
+            return null;
+    }
+
+    /** Record a fact about the given file */
+    synchronized void put(File f, String fact, boolean value) {
+        if (f == null)
+            return;
+        String newValue = getStamp(f) + value;
+        Object oldValue = entries.setProperty(getKey(f, fact), newValue);
+        if (!newValue.equals(oldValue))
+            changed = true;
+    }
+
+    private String getKey(File f, String fact) {
+        return fact + ":" + f.getAbsolutePath();
+    }
+
+    private String getStamp(File f) {
+        return f.length() + "," + f.lastModified() + ",";
+    }
+
+    /** Discard entries for deleted files or obsolete facts, and save any
+     * changes */
+    synchronized void save() {
+        for (Iterator i = entries.keySet().iterator(); i.hasNext();) {
+            String key = (String) i.next();
+            int colonPos = key.indexOf(':');
+            String path = key.substring(colonPos + 1);
+            if (colonPos == -1
+                    || !KNOWN_FACTS.contains(key.substring(0, colonPos))
+                    || !new File(path).isFile()) {
+                i.remove();
+                changed = true;
+            }
+        }
+        if (!changed || file == null)
+            return;
+
+        try {
+            OutputStream out = new RobustFileOutputStream(file);
+            entries.store(out, null);
+            out.close();
+            changed = false;
+        } catch (IOException ioe) {
+            // the application directory might not be writable. The index is
+            // only an optimization, so keep the entries in memory and carry on.
+        }
+    }
+
+
+    /**
+     * @return the local file named by a "jar:file:" URL or a "file:" URL, or
+     *         null if the URL does not point to a local file
+     */
+    static File getLocalFile(String url) {
+        try {
+            if (url.startsWith("jar:"))
+                url = url.substring(4, url.indexOf('!'));
+            if (!url.startsWith("file:"))
+                return null;
+            return new File(new URL(url).toURI());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /** @return the index stored in the workstation-local application dir */
+    static TemplateDiscoveryIndex getDefault() {
+        File appDir = null;
+        try {
+            appDir = DirectoryPreferences.getApplicationDirectory(true);
+        } catch (Throwable t) {
+        }
+        return new TemplateDiscoveryIndex(appDir == null ? null //
+                : new File(appDir, INDEX_FILENAME));
+    }
+
+    private static final String INDEX_FILENAME = "templateIndex.ini";
+
+}
@@ -51,8 +51,16 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -190,6 +198,7 @@ public class TemplateLoader {
 
         createProcessRoot(templates);
 
+        getDiscoveryIndex().save();
         pt.click("done loading templates");
         return templates;
     }
@@ -370,8 +379,19 @@ public class TemplateLoader {
         if (jarURL.toLowerCase().contains("teamtools.jar"))
             return JarSearchResult.ContentOnly;
 
+        // skip files that contained no template content the last time we
+        // looked, if they haven't changed since then.  (This is only
+        // recorded for files without executable content, so a file that
+        // the security policy might reject is always examined.)
+        TemplateDiscoveryIndex index = getDiscoveryIndex();
+        if (Boolean.FALSE.equals(index.get(jarFile,
+            TemplateDiscoveryIndex.TEMPLATE_CONTENT)))
+            return JarSearchResult.Ignore;
+
         boolean foundTemplates = false;
         boolean foundContent = false;
+        boolean isMcf = false;
+        boolean isExecutable = false;
         JarFile jar = null;
         try {
             debug("searching for templates in " + jarURL);
@@ -382,6 +402,7 @@ public class TemplateLoader {
             // if this is an MCF ZIP file, register it with the MCF manager and
             // skip further processing
             JarEntry file = jar.getJarEntry(MCF_PROCESS_XML);
+            isMcf = (file != null);
             if (file != null) {
                 String baseURL = "jar:" + jarURL + "!/";
                 InputStream in = jar.getInputStream(file);
@@ -398,7 +419,8 @@ public class TemplateLoader {
 
             // if jar verification is active and this is an executable JAR that
             // was not signed with a valid certificate, reject it
-            if (isUntrustedExecutableAddon(jarFile, jar)) {
+            isExecutable = hasExecutableEntry(jar);
+            if (isExecutable && isUntrustedAddon(jarFile, jar)) {
                 logger.warning("Rejecting unsigned file: " + jarFile);
                 rejectDashPackageForFile(jarFile);
                 return JarSearchResult.Ignore;
@@ -453,6 +475,10 @@ public class TemplateLoader {
         } finally {
             FileUtils.safelyClose(jar);
         }
+        // remember files with no content, so they can be skipped next time
+        if (!foundContent && !isMcf && !isExecutable)
+            index.put(jarFile, TemplateDiscoveryIndex.TEMPLATE_CONTENT, false);
+
         // let our caller know what type of content we found in this JAR
         if (foundTemplates)
             // we found template definitions
@@ -465,10 +491,9 @@ public class TemplateLoader {
             return JarSearchResult.Ignore;
     }
 
-    private static boolean isUntrustedExecutableAddon(File jarFile, JarFile jar)
+    private static boolean isUntrustedAddon(File jarFile, JarFile jar)
             throws IOException {
-        return hasExecutableEntry(jar) //
-                && !isInExplicitExtraDir(jarFile) //
+        return !isInExplicitExtraDir(jarFile) //
                 && !DashboardSecurity.checkJar(jar);
     }
 
@@ -725,6 +750,7 @@ public class TemplateLoader {
 
         template_url_list = urlListToArray(result);
         mcf_url_list = new ArrayList<URL>();
+        getDiscoveryIndex().save();
         pt.click("Calculated template URL list");
         return template_url_list;
     }
@@ -882,14 +908,23 @@ public class TemplateLoader {
     }
 
     private static boolean isDashboardJarfile(File f) {
+        TemplateDiscoveryIndex index = getDiscoveryIndex();
+        Boolean cached = index.get(f, TemplateDiscoveryIndex.DASHBOARD_JAR);
+        if (cached != null)
+            return cached;
+
         Object entry1 = null, entry2 = null;
         try {
             ZipFile zipFile = new ZipFile(f);
             entry1 = zipFile.getEntry("pspdash/PSPDashboard.class"); // legacy
             entry2 = zipFile.getEntry("net/sourceforge/processdash/ProcessDashboard.class");
             zipFile.close();
-        } catch (Throwable t) { }
-        return (entry1 != null || entry2 != null);
+        } catch (Throwable t) {
+            return false;
+        }
+        boolean result = (entry1 != null || entry2 != null);
+        index.put(f, TemplateDiscoveryIndex.DASHBOARD_JAR, result);
+        return result;
     }
 
     private static void filterURLList(Vector urls) {
@@ -915,11 +950,20 @@ public class TemplateLoader {
 
     private static Map makePackages(Vector urls) {
         HashMap result = new HashMap();
-        Iterator i = urls.iterator();
-        while (i.hasNext()) try {
-            URL url = (URL) i.next();
-            result.put(new DashPackage(url), url);
-        } catch (DashPackage.InvalidDashPackage idp) {}
+        List<Future<DashPackage>> packages = new ArrayList();
+        ExecutorService exec = createPackageReaderService();
+        try {
+            for (Iterator i = urls.iterator(); i.hasNext();)
+                packages.add(exec.submit(new PackageReader((URL) i.next())));
+            for (int i = 0; i < packages.size(); i++) {
+                URL url = (URL) urls.get(i);
+                DashPackage pkg = getPackage(packages.get(i), url);
+                if (pkg != null)
+                    result.put(pkg, url);
+            }
+        } finally {
+            exec.shutdown();
+        }
 
         if (unpackagedBinaryBaseDir != null) {
             try {
@@ -937,6 +981,92 @@ public class TemplateLoader {
         return result;
     }
 
+    /**
+     * Retrieve the package read by a background task.  If the task could not
+     * produce a result, read the package in this thread instead, so a
+     * failure doesn't silently drop packages from the list.
+     */
+    private static DashPackage getPackage(Future<DashPackage> f, URL url) {
+        try {
+            return f.get();
+        } catch (InterruptedException ie) {
+            logger.warning("Interrupted while reading dashboard package "
+                    + url + "; reading it directly");
+            f.cancel(false);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ee) {
+            logger.log(Level.SEVERE, "Unexpected error reading dashboard "
+                    + "package " + url + "; reading it directly",
+                ee.getCause());
+        }
+
+        try {
+            return new PackageReader(url).call();
+        } catch (RuntimeException re) {
+            logger.log(Level.SEVERE, "Could not read dashboard package " + url,
+                re);
+            return null;
+        }
+    }
+
+    private static ExecutorService createPackageReaderService() {
+        int numThreads = Math.max(1, Math.min(MAX_PACKAGE_READER_THREADS,
+            Runtime.getRuntime().availableProcessors()));
+        return Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+            private AtomicInteger threadNum = new AtomicInteger();
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "PackageReader-"
+                        + threadNum.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+    private static final int MAX_PACKAGE_READER_THREADS = 4;
+
+    /** Reads the package manifest of a single template URL */
+    private static class PackageReader implements Callable<DashPackage> {
+        private URL url;
+
+        PackageReader(URL url) {
+            this.url = url;
+        }
+
+        public DashPackage call() {
+            // skip files that weren't dashboard packages the last time we
+            // looked, if they haven't changed since then
+            TemplateDiscoveryIndex index = getDiscoveryIndex();
+            File file = TemplateDiscoveryIndex.getLocalFile(url.toString());
+            if (Boolean.FALSE.equals(index.get(file,
+                TemplateDiscoveryIndex.DASH_PACKAGE)))
+                return null;
+
+            try {
+                return new DashPackage(url);
+            } catch (DashPackage.InvalidDashPackage idp) {
+                if (file != null && isReadableZip(file))
+                    index.put(file, TemplateDiscoveryIndex.DASH_PACKAGE, false);
+                return null;
+            }
+        }
+
+        private boolean isReadableZip(File f) {
+            try {
+                new ZipFile(f).close();
+                return true;
+            } catch (IOException ioe) {
+                return false;
+            }
+        }
+    }
+
+    private static synchronized TemplateDiscoveryIndex getDiscoveryIndex() {
+        if (discoveryIndex == null)
+            discoveryIndex = TemplateDiscoveryIndex.getDefault();
+        return discoveryIndex;
+    }
+    private static TemplateDiscoveryIndex discoveryIndex = null;
+
     /** Remove add-ons that are incompatible with this version of the
      * dashboard. */
     private static void removeIncompatiblePackages(Map packages, Vector urls) {
@@ -83,6 +83,11 @@ public class CachingLocalImportDirectory implements ImportDirectory {
         return srcDirectory;
     }
 
+    /** @return the network directory that is being cached */
+    public File getTargetDirectory() {
+        return targetDirectory;
+    }
+
     public String getRemoteLocation() {
         return null;
     }
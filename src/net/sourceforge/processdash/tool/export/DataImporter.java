@@ -31,6 +31,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -39,7 +40,14 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -53,8 +61,12 @@ import net.sourceforge.processdash.log.defects.ImportedDefectManager;
 import net.sourceforge.processdash.log.time.ImportedTimeLogManager;
 import net.sourceforge.processdash.security.DashboardPermission;
 import net.sourceforge.processdash.team.group.UserGroupManagerDash;
+import net.sourceforge.processdash.tool.bridge.bundle.FileBundleConstants;
+import net.sourceforge.processdash.tool.bridge.client.CachingLocalImportDirectory;
 import net.sourceforge.processdash.tool.bridge.client.DynamicImportDirectory;
 import net.sourceforge.processdash.tool.bridge.client.ImportDirectory;
+import net.sourceforge.processdash.tool.bridge.client.LocalImportDirectory;
+import net.sourceforge.processdash.tool.bridge.impl.TeamServerPointerFile;
 import net.sourceforge.processdash.tool.export.impl.ArchiveMetricsFileImporter;
 import net.sourceforge.processdash.tool.export.impl.MessageImporterXMLv1;
 import net.sourceforge.processdash.tool.export.impl.TextMetricsFileImporter;
@@ -65,8 +77,14 @@ import net.sourceforge.processdash.util.XMLUtils;
 
 
 
-/* This class imports data files into the repository */
-public class DataImporter extends Thread {
+/* This class imports data files into the repository.
+ *
+ * Importers do not own threads; their periodic checks run on a small shared
+ * executor.  When a directory is on a local filesystem that supports change
+ * notification, a DirectoryWatcher triggers a check shortly after a file
+ * changes, and the periodic check becomes an infrequent safety net.  Other
+ * directories are polled every TIME_DELAY milliseconds. */
+public class DataImporter {
 
     public static final String EXPORT_FILE_OLD_SUFFIX = ".txt";
     public static final String EXPORT_FILE_SUFFIX = ".pdash";
@@ -75,6 +93,8 @@ public class DataImporter extends Thread {
     public static final String EXPORT_DATANAME = "EXPORT_FILE";
 
     private static final long TIME_DELAY = 10 * 60 * 1000; // 10 minutes
+    private static final long WATCHED_TIME_DELAY = 60 * 60 * 1000; // 1 hour
+    private static final long WATCH_EVENT_DELAY = 1000; // 1 second
     private static Hashtable<String, DataImporter> importers = new Hashtable();
     private static List initializingImporters = Collections
             .synchronizedList(new ArrayList());
@@ -94,6 +114,13 @@ public class DataImporter extends Thread {
     private Element instructionSpec;
     private ActionListener listener;
     private volatile boolean isRunning = true;
+    private volatile long lastCheckTime;
+    private ScheduledFuture<?> periodicCheck;
+    private AtomicBoolean eventCheckPending = new AtomicBoolean();
+    private Object watchLock = new Object();
+    private File watchTarget;
+    private volatile boolean isWatched;
+    private DirectoryChangeListener watchListener;
     private Map<String, Long> modTimes = new HashMap<String, Long>();
     private Map<String, String> prefixes = new HashMap<String, String>();
 
@@ -208,9 +235,23 @@ public class DataImporter extends Thread {
         else
             checkFiles(null);
 
-        this.setDaemon(true);
         if (DYNAMIC_IMPORT)
-            this.start();
+            start();
+    }
+
+    private void start() {
+        if (PARALLEL_INIT) {
+            EXECUTOR.execute(new Runnable() {
+                public void run() {
+                    initialCheck();
+                }});
+        } else {
+            updateWatch();
+        }
+        periodicCheck = EXECUTOR.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                periodicCheck();
+            }}, TIME_DELAY, TIME_DELAY, TimeUnit.MILLISECONDS);
     }
 
     public void refreshIfCached() {
@@ -221,26 +262,147 @@ public class DataImporter extends Thread {
 
     public void quit() {
         isRunning = false;
-        this.interrupt();
+        if (periodicCheck != null)
+            periodicCheck.cancel(false);
+        unwatch();
     }
 
 
-    public void run() {
-        if (PARALLEL_INIT) {
-            checkFiles(null);
+    private void initialCheck() {
+        try {
+            scheduledCheck();
+        } finally {
             synchronized (initializingImporters) {
                 initializingImporters.remove(this);
                 if (initializingImporters.isEmpty())
                     initializingImporters.notifyAll();
             }
         }
-        while (isRunning) try {
-            sleep(TIME_DELAY);
-            if (isRunning)
-                checkFiles(null);
-        } catch (InterruptedException e) {}
     }
 
+    private void periodicCheck() {
+        // directories that are being watched only need an occasional recheck,
+        // in case the operating system failed to report some change.
+        long age = System.currentTimeMillis() - lastCheckTime;
+        if (!isWatched || age < 0 || age >= WATCHED_TIME_DELAY - TIME_DELAY / 2) {
+            try {
+                scheduledCheck();
+            } catch (Throwable t) {
+                // an exception would cancel all future runs of this task
+                logger.log(Level.SEVERE, "Error in DataImporter", t);
+            }
+        }
+    }
+
+    private void scheduledCheck() {
+        if (isRunning) {
+            checkFiles(null);
+            // a dynamic import directory may have switched to a different
+            // delegate; see if we should watch a different directory now.
+            updateWatch();
+        }
+    }
+
+
+    /** Start or stop watching, based on the current state of the directory */
+    private void updateWatch() {
+        File target = isRunning ? getWatchTarget() : null;
+        synchronized (watchLock) {
+            // check again, in case quit() was called while the target was
+            // computed.  quit() clears the flag before it takes this lock,
+            // so a watch registered past this point is always removed.
+            if (!isRunning)
+                target = null;
+            if (isWatched && target != null && target.equals(watchTarget))
+                return;
+
+            unwatch();
+            DirectoryWatcher watcher = (target == null ? null : getWatcher());
+            if (watcher != null && watcher.watch(target, watchListener)) {
+                watchTarget = target;
+                isWatched = true;
+                logger.fine("watching " + target);
+            }
+        }
+    }
+
+    private void unwatch() {
+        synchronized (watchLock) {
+            if (isWatched)
+                WATCHER.unwatch(watchTarget, watchListener);
+            watchTarget = null;
+            isWatched = false;
+        }
+    }
+
+    /** @return the directory on the local filesystem where changes to import
+     *  files will first appear, or null if changes arrive via some other
+     *  channel and must be discovered by polling. */
+    private File getWatchTarget() {
+        ImportDirectory dir = directory;
+        if (dir instanceof DynamicImportDirectory)
+            dir = ((DynamicImportDirectory) dir).getDelegate();
+
+        if (dir instanceof LocalImportDirectory)
+            return dir.getDirectory();
+        else if (dir instanceof CachingLocalImportDirectory)
+            return ((CachingLocalImportDirectory) dir).getTargetDirectory();
+        else
+            return null;
+    }
+
+    private DirectoryWatcher getWatcher() {
+        if (watchListener == null) {
+            if (!WATCH_DIRECTORIES || getSharedWatcher() == null)
+                return null;
+            watchListener = new WatchListener();
+        }
+        return WATCHER;
+    }
+
+    private class WatchListener implements DirectoryChangeListener {
+
+        public void directoryChanged(File dir, List<String> filenames) {
+            if (filenames != null && !containsRelevantFile(filenames))
+                return;
+            if (isRunning && eventCheckPending.compareAndSet(false, true)) {
+                // wait a moment, so a burst of changes results in one check
+                EXECUTOR.schedule(new Runnable() {
+                    public void run() {
+                        eventCheckPending.set(false);
+                        scheduledCheck();
+                    }}, WATCH_EVENT_DELAY, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        public void watchCancelled(File dir) {
+            synchronized (watchLock) {
+                if (dir.equals(watchTarget)) {
+                    watchTarget = null;
+                    isWatched = false;
+                }
+            }
+        }
+    }
+
+    /** @return true if a change to one of the given files could affect
+     *  the data we import, or the way we reach the directory */
+    static boolean containsRelevantFile(List<String> filenames) {
+        for (String filename : filenames)
+            if (getBaseImportName(filename) != null
+                    || DELEGATE_MARKER_FILES.contains(filename.toLowerCase()))
+                return true;
+        return false;
+    }
+
+    /** Files whose appearance means the directory has been migrated to a
+     *  team server or to bundled storage.  Checking the directory will
+     *  prompt a DynamicImportDirectory to choose a new delegate. */
+    private static final Set<String> DELEGATE_MARKER_FILES =
+        new HashSet<String>(Arrays.asList(
+            TeamServerPointerFile.FILE_NAME.toLowerCase(),
+            FileBundleConstants.BUNDLE_SUBDIR, FileBundleConstants.HEADS_SUBDIR));
+
     private void loadInstructionSpec(ImportInstructionSpecProvider provider) {
         try {
             // ask the spec provider for the instructions we should use
@@ -309,6 +471,8 @@ public class DataImporter extends Thread {
             for (String filename : currentFilenames)
                 closeFile(filename);
 
+            lastCheckTime = System.currentTimeMillis();
+
         } catch (IOException ioe) {
             logger.log(Level.FINE, "IOException in DataImporter", ioe);
         } finally {
@@ -354,7 +518,7 @@ public class DataImporter extends Thread {
     /** If the file is one that could be imported, return its filename, in
      * lowercase, without the suffix. Otherwise, return null.
      */
-    private String getBaseImportName(String filename) {
+    private static String getBaseImportName(String filename) {
         filename = filename.toLowerCase();
 
         if (filename.startsWith(RobustFileOutputStream.OUT_PREFIX))
@@ -433,7 +597,7 @@ public class DataImporter extends Thread {
     }
 
     public synchronized void dispose() {
-        isRunning = false;
+        quit();
         for (String filename : new ArrayList<String>(modTimes.keySet())) {
             closeFile(filename);
         }
@@ -512,11 +676,43 @@ public class DataImporter extends Thread {
         return Integer.toString(Math.abs(f.getCanonicalFile().hashCode()));
     }
 
-    private static final Semaphore FILE_IO_LOCK = makeFileIOLock();
-    private static Semaphore makeFileIOLock() {
-        int maxOperations = Settings.getInt("slowNetwork.numParallelReads", 10);
-        return new Semaphore(maxOperations);
-    }
+    private static final int MAX_PARALLEL_READS = Settings.getInt(
+        "slowNetwork.numParallelReads", 10);
+    private static final Semaphore FILE_IO_LOCK = new Semaphore(
+            MAX_PARALLEL_READS);
     private static final boolean PARALLEL_INIT = Settings.getBool(
         "dataImporter.parallelInit", false);
+
+    private static final ScheduledExecutorService EXECUTOR = makeExecutor();
+    private static ScheduledExecutorService makeExecutor() {
+        // by default, use enough threads to reach the parallel read limit
+        int numThreads = Math.max(1, Settings.getInt(
+            "dataImporter.numThreads", MAX_PARALLEL_READS));
+        return new ScheduledThreadPoolExecutor(numThreads, new ThreadFactory() {
+            private AtomicInteger threadNum = new AtomicInteger();
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "DataImporter-"
+                        + threadNum.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }});
+    }
+
+    private static final boolean WATCH_DIRECTORIES = Settings.getBool(
+        "dataImporter.watchDirectories", true);
+    private static volatile DirectoryWatcher WATCHER;
+    private static volatile boolean WATCHER_FAILED = false;
+    private static synchronized DirectoryWatcher getSharedWatcher() {
+        if (WATCHER == null && !WATCHER_FAILED) {
+            try {
+                WATCHER = new DirectoryWatcher("DataImporter-Watcher");
+            } catch (Throwable t) {
+                // the WatchService API requires Java 7, and is not supported
+                // on every platform. Fall back to polling.
+                logger.log(Level.FINE, "Directory watching not available", t);
+                WATCHER_FAILED = true;
+            }
+        }
+        return WATCHER;
+    }
 }
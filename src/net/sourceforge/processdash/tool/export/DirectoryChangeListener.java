@@ -0,0 +1,56 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.tool.export;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Receives notifications from a {@link DirectoryWatcher}.
+ * 
+ * This interface is kept separate from the watcher itself so it can be loaded
+ * on JREs that do not provide the <tt>java.nio.file</tt> APIs.
+ */
+interface DirectoryChangeListener {
+
+    /**
+     * Called when entries in a watched directory have been created, modified,
+     * or deleted.
+     * 
+     * @param dir
+     *            the directory that changed
+     * @param filenames
+     *            the names of the entries that changed, or null if the
+     *            operating system discarded events and the list is unknown
+     */
+    void directoryChanged(File dir, List<String> filenames);
+
+    /**
+     * Called when a directory can no longer be watched (for example, because
+     * it was deleted or its volume was unmounted). The listener has been
+     * unregistered, and will receive no further events for this directory.
+     */
+    void watchCancelled(File dir);
+
+}
@@ -0,0 +1,198 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.tool.export;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches a set of directories for changes, using a single
+ * {@link WatchService} and a single background thread.
+ * 
+ * Directories that live on network filesystems are refused, because most
+ * operating systems only report changes made by the local machine on those
+ * volumes. Callers should poll such directories instead.
+ * 
+ * This class requires Java 7.
+ */
+class DirectoryWatcher implements Runnable {
+
+    private static final Set<String> NETWORK_FILESYSTEMS = new HashSet<String>(
+            Arrays.asList("nfs", "nfs4", "cifs", "smb", "smb2", "smb3",
+                "smbfs", "afpfs", "afs", "ncpfs", "9p", "webdav", "davfs",
+                "fuse.sshfs", "fuse.davfs2"));
+
+    private static final Logger logger = Logger
+            .getLogger(DirectoryWatcher.class.getName());
+
+    private WatchService watchService;
+
+    private Map<File, Registration> registrationsByDir;
+
+    private Map<WatchKey, Registration> registrationsByKey;
+
+
+    DirectoryWatcher(String threadName) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.registrationsByDir = new HashMap<File, Registration>();
+        this.registrationsByKey = new HashMap<WatchKey, Registration>();
+
+        Thread t = new Thread(this, threadName);
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Begin watching a directory.
+     * 
+     * @return true if the directory is being watched, false if it cannot be
+     *         watched and the caller should fall back to polling
+     */
+    synchronized boolean watch(File dir, DirectoryChangeListener l) {
+        Registration reg = registrationsByDir.get(dir);
+        if (reg == null) {
+            WatchKey key;
+            try {
+                Path path = dir.toPath();
+                if (!isWatchable(path))
+                    return false;
+                key = path.register(watchService, ENTRY_CREATE,
+                    ENTRY_DELETE, ENTRY_MODIFY);
+            } catch (Exception e) {
+                logger.log(Level.FINE, "Unable to watch " + dir, e);
+                return false;
+            }
+            reg = new Registration(dir, key);
+            registrationsByDir.put(dir, reg);
+            registrationsByKey.put(key, reg);
+        }
+        reg.listeners.addIfAbsent(l);
+        return true;
+    }
+
+    /** Stop delivering events for a directory to the given listener. */
+    synchronized void unwatch(File dir, DirectoryChangeListener l) {
+        Registration reg = registrationsByDir.get(dir);
+        if (reg != null && reg.listeners.remove(l) && reg.listeners.isEmpty()) {
+            reg.key.cancel();
+            registrationsByDir.remove(dir);
+            registrationsByKey.remove(reg.key);
+        }
+    }
+
+    private boolean isWatchable(Path path) throws IOException {
+        if (!Files.isDirectory(path))
+            return false;
+        String type = Files.getFileStore(path).type();
+        return type == null
+                || !NETWORK_FILESYSTEMS.contains(type.toLowerCase());
+    }
+
+    public void run() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException ie) {
+                continue;
+            } catch (ClosedWatchServiceException cwse) {
+                return;
+            }
+
+            List<String> filenames = new ArrayList<String>();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    filenames = null;
+                    break;
+                } else if (event.context() instanceof Path) {
+                    filenames.add(((Path) event.context()).toString());
+                }
+            }
+            boolean valid = key.reset();
+
+            Registration reg;
+            synchronized (this) {
+                reg = registrationsByKey.get(key);
+                if (reg != null && !valid) {
+                    registrationsByDir.remove(reg.dir);
+                    registrationsByKey.remove(key);
+                }
+            }
+            if (reg != null)
+                reg.notifyListeners(filenames, valid);
+        }
+    }
+
+    private static class Registration {
+
+        private File dir;
+
+        private WatchKey key;
+
+        private CopyOnWriteArrayList<DirectoryChangeListener> listeners;
+
+        Registration(File dir, WatchKey key) {
+            this.dir = dir;
+            this.key = key;
+            this.listeners = new CopyOnWriteArrayList<DirectoryChangeListener>();
+        }
+
+        void notifyListeners(List<String> filenames, boolean valid) {
+            for (DirectoryChangeListener l : listeners) {
+                try {
+                    if (valid)
+                        l.directoryChanged(dir, filenames);
+                    else
+                        l.watchCancelled(dir);
+                } catch (Throwable t) {
+                    logger.log(Level.WARNING,
+                        "Error notifying directory listener", t);
+                }
+            }
+        }
+    }
+
+}
@@ -134,6 +134,7 @@ public class MacDataCleanup {
 
     private static final Set DASH_FILE_NAMES = new HashSet<String>( //
             Arrays.asList(new String[] { ".pspdash", "pspdash.ini", "state",
-                    "time.log", "timelog.xml", "timelog2.xml",
-                    "cms", "backup", "log.txt", "defns.ser" }));
+                    "time.log", "timelog.xml", "timelog2.xml", "timelog.idx",
+                    "cms", "backup", "log.txt", "defns.ser",
+                    "datafiles.snapshot" }));
 }
@@ -0,0 +1,102 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.ui.web.dash;
+
+import java.io.IOException;
+import java.util.Date;
+
+import net.sourceforge.processdash.DashController;
+import net.sourceforge.processdash.net.http.WebServerStatistics;
+import net.sourceforge.processdash.net.http.WebServerStatistics.UriStatistics;
+import net.sourceforge.processdash.ui.web.TinyCGIBase;
+
+/**
+ * Display the thread pool usage and per-URI request timings collected by
+ * the dashboard web server.  Add the "reset" parameter to discard the
+ * statistics collected so far.
+ */
+public class DisplayWebServerStatistics extends TinyCGIBase {
+
+    @Override
+    protected void writeHeader() {
+        out.print("Content-type: text/plain; charset=" + charset + "\r\n\r\n");
+        out.flush();
+    }
+
+    @Override
+    protected void writeContents() throws IOException {
+        DashController.checkIP(env.get("REMOTE_ADDR"));
+        WebServerStatistics stats = getTinyWebServer().getStatistics();
+        if (parameters.containsKey("reset"))
+            stats.reset();
+
+        out.write("Process Dashboard Web Server Statistics:\n\n");
+        out.write("Collected since: " + new Date(stats.getStartTime()) + "\n");
+        out.write("Thread pool: " + stats.getPoolThreads() + " threads ("
+                + stats.getPoolIdleThreads() + " idle, "
+                + stats.getPoolMaxThreads() + " max), "
+                + stats.getPoolQueueSize() + " queued\n");
+        out.write("Requests in progress: " + stats.getInFlight() + " ("
+                + stats.getDynamicInFlight() + " dynamic)\n");
+        out.write("Requests rejected while busy: " + stats.getRejectedCount()
+                + "\n\n");
+
+        out.write(pad("In", 4) + pad("Count", 9) + pad("Errors", 7)
+                + pad("Mean", 9) + pad("p50", 7) + pad("p90", 7)
+                + pad("p99", 7) + pad("Max", 8) + "  URI\n");
+        for (UriStatistics u : stats.getUriStatistics()) {
+            out.write(pad(Integer.toString(u.getInFlight()), 4)
+                    + pad(Long.toString(u.getCount()), 9)
+                    + pad(Long.toString(u.getErrorCount()), 7)
+                    + pad(String.format("%.1f", u.getMeanTime()), 9)
+                    + pad(percentile(u, 0.5), 7) + pad(percentile(u, 0.9), 7)
+                    + pad(percentile(u, 0.99), 7)
+                    + pad(Long.toString(u.getMaxTime()), 8) + "  "
+                    + u.getUri() + (u.isDynamic() ? "" : " (static)") + "\n");
+        }
+
+        out.write("\nTimes are in milliseconds.  Percentiles are the upper "
+                + "bound of the\nhistogram bucket containing them.  Histogram "
+                + "buckets (ms):\n   ");
+        for (long limit : WebServerStatistics.BUCKET_LIMITS)
+            out.write(" <" + limit);
+        out.write("\n");
+    }
+
+    private String percentile(UriStatistics u, double fraction) {
+        if (u.getCount() == 0)
+            return "-";
+        long p = u.getPercentile(fraction);
+        return (p < 0 ? ">" + WebServerStatistics.BUCKET_LIMITS[
+                WebServerStatistics.BUCKET_LIMITS.length - 1] : "<" + p);
+    }
+
+    private static String pad(String s, int width) {
+        StringBuilder result = new StringBuilder();
+        for (int i = s.length(); i < width; i++)
+            result.append(' ');
+        return result.append(s).toString();
+    }
+
+}
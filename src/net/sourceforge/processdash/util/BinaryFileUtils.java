@@ -0,0 +1,101 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+
+package net.sourceforge.processdash.util;
+
+import java.io.DataOutput;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Helpers for the compact binary files that cache the results of parsing
+ * other files.
+ */
+public class BinaryFileUtils {
+
+    /**
+     * Read the entire contents of a file with a single bulk read.
+     * 
+     * @return the contents of the file. If the file shrinks while it is being
+     *         read, the bytes that could be read are returned.
+     */
+    public static byte[] readFile(File f) throws IOException {
+        FileInputStream in = new FileInputStream(f);
+        try {
+            FileChannel channel = in.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("File too large: " + f);
+            ByteBuffer buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining())
+                if (channel.read(buf) < 0)
+                    break;
+            if (buf.hasRemaining()) {
+                // the file shrank while we were reading it
+                byte[] result = new byte[buf.position()];
+                System.arraycopy(buf.array(), 0, result, 0, result.length);
+                return result;
+            }
+            return buf.array();
+        } finally {
+            FileUtils.safelyClose(in);
+        }
+    }
+
+    /**
+     * Write a string, which may be null, as a length-prefixed UTF-8 value.
+     */
+    public static void writeString(DataOutput out, String s)
+            throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes("UTF-8");
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Read a string that was written by {@link #writeString}.
+     * 
+     * @param in a buffer backed by an accessible array
+     * @throws IOException if the buffer ends before the string does
+     */
+    public static String readString(ByteBuffer in) throws IOException {
+        int len = in.getInt();
+        if (len == -1)
+            return null;
+        if (len < 0 || len > in.remaining())
+            throw new IOException("Truncated string data");
+        String result = new String(in.array(), in.arrayOffset()
+                + in.position(), len, "UTF-8");
+        in.position(in.position() + len);
+        return result;
+    }
+
+}
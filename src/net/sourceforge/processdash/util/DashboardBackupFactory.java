@@ -127,7 +127,10 @@ public class DashboardBackupFactory {
                 name.endsWith(".ico"))  // backup icon preferences
                 return true;
 
-            // don't back up any other files.
+            // don't back up any other files.  This deliberately includes
+            // caches like datafiles.snapshot and timelog.idx, which are
+            // rebuilt from the files above when they are missing or stale,
+            // and the local object cache (*.obj, *.objx).
             return false;
         }
 
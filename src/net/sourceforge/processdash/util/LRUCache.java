@@ -0,0 +1,407 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * A thread-safe cache which discards the least recently used entries when
+ * it grows too large.
+ * <p>
+ * The entries are divided among several independently locked segments, so
+ * threads working with different keys rarely contend with each other.  Each
+ * segment keeps its entries in access order, so lookups, insertions and
+ * evictions all take constant time.
+ * <p>
+ * By default, each entry counts as one unit against the maximum size of the
+ * cache.  A {@link Weigher} can be supplied to measure entries differently
+ * (for example, by their approximate size in bytes).  Entries can also be
+ * configured to expire if they have not been accessed for a period of time.
+ * <p>
+ * Each segment holds an equal share of the maximum weight, so an entry
+ * heavier than that share cannot be cached.  Weighted caches are divided
+ * into fewer segments than unweighted ones, so each segment can hold at
+ * least a quarter of the maximum weight.  The number of entries turned away
+ * for this reason is reported by {@link #getRejectionCount()}.
+ * <p>
+ * Null keys and values are not permitted.
+ */
+public class LRUCache<K, V> {
+
+    /** Measures the cost of holding an entry in a cache. */
+    public interface Weigher<K, V> {
+
+        /** @return the weight of the given entry; must be positive */
+        public int weigh(K key, V value);
+
+    }
+
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private static final int MAX_WEIGHTED_SEGMENTS = 4;
+
+    private static final int MIN_SEGMENT_WEIGHT = 32;
+
+    private Segment[] segments;
+
+    private int segmentMask;
+
+    private Weigher<? super K, ? super V> weigher;
+
+    private long expireAfterAccess;
+
+    private AtomicLong hitCount = new AtomicLong();
+
+    private AtomicLong missCount = new AtomicLong();
+
+    private AtomicLong evictionCount = new AtomicLong();
+
+    private AtomicLong expirationCount = new AtomicLong();
+
+    private AtomicLong rejectionCount = new AtomicLong();
+
+
+    /**
+     * Create a cache which holds up to a fixed number of entries.
+     */
+    public LRUCache(int maxEntries) {
+        this(maxEntries, null, 0);
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param maxWeight the maximum total weight of the entries in the cache
+     * @param weigher an object to measure the weight of each entry, or null
+     *     if each entry should have a weight of one
+     * @param expireAfterAccess the number of milliseconds an entry may go
+     *     unused before it is discarded, or zero if entries should not expire
+     */
+    public LRUCache(long maxWeight, Weigher<? super K, ? super V> weigher,
+            long expireAfterAccess) {
+        if (maxWeight <= 0)
+            throw new IllegalArgumentException("maxWeight must be positive");
+        if (expireAfterAccess < 0)
+            throw new IllegalArgumentException("expireAfterAccess < 0");
+
+        this.weigher = weigher;
+        this.expireAfterAccess = expireAfterAccess;
+
+        // small caches use fewer segments, so each segment has enough room
+        // to make good decisions about which entries to evict.  Weighted
+        // caches are limited further, so a segment can hold heavy entries.
+        int maxSegments = (weigher == null ? MAX_SEGMENTS
+                : MAX_WEIGHTED_SEGMENTS);
+        int numSegments = 1;
+        while (numSegments < maxSegments
+                && maxWeight / (numSegments * 2) >= MIN_SEGMENT_WEIGHT)
+            numSegments *= 2;
+
+        segments = new LRUCache.Segment[numSegments];
+        segmentMask = numSegments - 1;
+        long remaining = maxWeight;
+        for (int i = 0; i < numSegments; i++) {
+            long segmentWeight = remaining / (numSegments - i);
+            segments[i] = new Segment(segmentWeight);
+            remaining -= segmentWeight;
+        }
+    }
+
+
+    /**
+     * @return the value cached for the given key, or null if the cache does
+     *         not contain the key
+     */
+    public V get(K key) {
+        V result = segmentFor(key).get(key);
+        (result == null ? missCount : hitCount).incrementAndGet();
+        return result;
+    }
+
+    /**
+     * Store a value in the cache, replacing any value previously cached for
+     * the same key.  If the entry is heavier than its segment of the cache
+     * can hold, it will not be stored (and any previous value for the key is
+     * discarded).
+     *
+     * @return the value previously cached for the key, or null
+     */
+    public V put(K key, V value) {
+        if (value == null)
+            throw new NullPointerException("value");
+        return segmentFor(key).put(key, value, false);
+    }
+
+    /**
+     * Store a value in the cache unless a value is already cached for the
+     * given key.
+     *
+     * @return the value already cached for the key (which is left in place),
+     *         or null if the new value was stored
+     */
+    public V putIfAbsent(K key, V value) {
+        if (value == null)
+            throw new NullPointerException("value");
+        return segmentFor(key).put(key, value, true);
+    }
+
+    /**
+     * Remove the value cached for the given key.
+     *
+     * @return the value that was removed, or null if none was cached
+     */
+    public V remove(K key) {
+        return segmentFor(key).remove(key);
+    }
+
+    /** Discard all of the entries in this cache. */
+    public void clear() {
+        for (Segment s : segments)
+            s.clear();
+    }
+
+    /** @return the number of entries in this cache */
+    public int size() {
+        int result = 0;
+        for (Segment s : segments)
+            result += s.size();
+        return result;
+    }
+
+    /** @return the total weight of the entries in this cache */
+    public long getWeightedSize() {
+        long result = 0;
+        for (Segment s : segments)
+            result += s.getWeight();
+        return result;
+    }
+
+    /** @return the number of lookups which found a cached value */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /** @return the number of lookups which did not find a cached value */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /** @return the fraction of lookups which found a cached value */
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return (total == 0 ? 1.0 : (double) hits / total);
+    }
+
+    /** @return the number of entries discarded to make room for others */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /** @return the number of entries discarded because they expired */
+    public long getExpirationCount() {
+        return expirationCount.get();
+    }
+
+    /**
+     * @return the number of entries which were not stored because they were
+     *         heavier than their segment of the cache could hold
+     */
+    public long getRejectionCount() {
+        return rejectionCount.get();
+    }
+
+    /**
+     * Reset the hit, miss, eviction, expiration and rejection counts to
+     * zero.
+     */
+    public void resetStatistics() {
+        hitCount.set(0);
+        missCount.set(0);
+        evictionCount.set(0);
+        expirationCount.set(0);
+        rejectionCount.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "LRUCache[size=" + size() + ", weight=" + getWeightedSize()
+                + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + ", expirations="
+                + getExpirationCount() + ", rejections="
+                + getRejectionCount() + "]";
+    }
+
+
+    private Segment segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        h ^= (h >>> 7);
+        return segments[h & segmentMask];
+    }
+
+    private int weigh(K key, V value) {
+        if (weigher == null)
+            return 1;
+        int result = weigher.weigh(key, value);
+        if (result <= 0)
+            throw new IllegalArgumentException("Invalid weight " + result
+                    + " for cache entry " + key);
+        return result;
+    }
+
+
+    private static class Entry<V> {
+
+        V value;
+
+        int weight;
+
+        long accessTime;
+
+        Entry(V value, int weight, long accessTime) {
+            this.value = value;
+            this.weight = weight;
+            this.accessTime = accessTime;
+        }
+    }
+
+
+    private class Segment {
+
+        private LinkedHashMap<K, Entry<V>> entries;
+
+        private long maxWeight;
+
+        private long weight;
+
+        Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+            this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true);
+        }
+
+        synchronized V get(K key) {
+            Entry<V> e = entries.get(key);
+            if (e == null)
+                return null;
+            long now = now();
+            if (isExpired(e, now)) {
+                discard(key, e);
+                expirationCount.incrementAndGet();
+                return null;
+            }
+            e.accessTime = now;
+            return e.value;
+        }
+
+        synchronized V put(K key, V value, boolean onlyIfAbsent) {
+            long now = now();
+            Entry<V> old = entries.get(key);
+            if (old != null && isExpired(old, now)) {
+                discard(key, old);
+                expirationCount.incrementAndGet();
+                old = null;
+            }
+            if (old != null && onlyIfAbsent) {
+                old.accessTime = now;
+                return old.value;
+            }
+
+            int w = weigh(key, value);
+            if (old != null)
+                discard(key, old);
+            if (w <= maxWeight) {
+                entries.put(key, new Entry<V>(value, w, now));
+                weight += w;
+                evict(now);
+            } else {
+                rejectionCount.incrementAndGet();
+            }
+            return (old == null ? null : old.value);
+        }
+
+        synchronized V remove(K key) {
+            Entry<V> e = entries.get(key);
+            if (e == null)
+                return null;
+            discard(key, e);
+            return e.value;
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            weight = 0;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized long getWeight() {
+            return weight;
+        }
+
+        private void discard(K key, Entry<V> e) {
+            entries.remove(key);
+            weight -= e.weight;
+        }
+
+        /**
+         * Discard expired entries, and the least recently used entries
+         * beyond the maximum weight.  Since the entries are in access order,
+         * both are found at the head of the map.
+         */
+        private void evict(long now) {
+            Iterator<Map.Entry<K, Entry<V>>> i = entries.entrySet()
+                    .iterator();
+            while (i.hasNext()) {
+                Entry<V> e = i.next().getValue();
+                if (isExpired(e, now)) {
+                    expirationCount.incrementAndGet();
+                } else if (weight > maxWeight) {
+                    evictionCount.incrementAndGet();
+                } else {
+                    break;
+                }
+                i.remove();
+                weight -= e.weight;
+            }
+        }
+
+        private boolean isExpired(Entry<V> e, long now) {
+            return expireAfterAccess > 0
+                    && now - e.accessTime >= expireAfterAccess;
+        }
+
+        private long now() {
+            return (expireAfterAccess > 0 ? System.currentTimeMillis() : 0);
+        }
+    }
+
+}
@@ -32,60 +32,26 @@ import java.util.*;
  * mappings. When too many key-value pairs are added, the least
  * recently used pairs are flushed to remain under the user-set
  * maximum capacity.
+ *
+ * @deprecated this class is not thread-safe; use {@link LRUCache} instead.
  */
-public class MRUCache implements Map {
+@Deprecated
+public class MRUCache extends LinkedHashMap {
 
-    private Map cache = new HashMap();
-    private LinkedList mruList = new LinkedList();
     private int maxCacheItems = 50;
 
-    public MRUCache() {}
-    public MRUCache(int maxCapacity) { maxCacheItems = maxCapacity; }
-
-
-    private void touchItem(Object key) {
-        mruList.remove(key);
-        mruList.addFirst(key);
-
-        if (cache.size() > maxCacheItems)
-            cache.remove(mruList.removeLast());
+    public MRUCache() {
+        super(16, 0.75f, true);
     }
 
-    // implementation of java.util.Map interface
-
-    public int hashCode() { return cache.hashCode(); }
-    public boolean equals(Object obj) { return cache.equals(obj); }
-    public int size() { return cache.size(); }
-    public Collection values() { return cache.values(); }
-    public Set keySet() { return cache.keySet(); }
-    public Set entrySet() { return cache.entrySet(); }
-    public boolean isEmpty() { return cache.isEmpty(); }
-    public boolean containsValue(Object v) { return cache.containsValue(v); }
-    public boolean containsKey(Object k) { return cache.containsKey(k); }
-
-
-    public Object put(Object key, Object value) {
-        touchItem(key);
-        return cache.put(key, value);
-    }
-    public Object get(Object key) {
-        touchItem(key);
-        return cache.get(key);
-    }
-    public Object remove(Object key) {
-        mruList.remove(key);
-        return cache.remove(key);
+    public MRUCache(int maxCapacity) {
+        this();
+        maxCacheItems = maxCapacity;
     }
-    public void clear() {
-        mruList.clear();
-        cache.clear();
-    }
-    public void putAll(Map m) {
-        Iterator i = m.entrySet().iterator();
-        Map.Entry e;
-        while (i.hasNext()) {
-            e = (Map.Entry) i.next();
-            put(e.getKey(), e.getValue());
-        }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry eldest) {
+        return size() > maxCacheItems;
     }
+
 }
@@ -24,8 +24,6 @@
 
 package net.sourceforge.processdash.util;
 
-import java.util.Collections;
-import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,8 +42,8 @@ public class Perl5Util {
 
     private static int MAX_CACHED_PATTERNS = 100;
 
-    private static Map cachedPatterns =
-        Collections.synchronizedMap(new MRUCache(MAX_CACHED_PATTERNS));
+    private static LRUCache<String, Pattern> cachedPatterns =
+        new LRUCache<String, Pattern>(MAX_CACHED_PATTERNS);
 
     /** Determine which character was used in lieu of the slashes */
     private static char getSlashChar(String expression) {
@@ -106,7 +104,7 @@ public class Perl5Util {
     /** Get or create a new Pattern object for the given perl 5
      * regular expression */
     private static Pattern getPattern(String expression) {
-        Pattern result = (Pattern) cachedPatterns.get(expression);
+        Pattern result = cachedPatterns.get(expression);
 
         if (result == null) try {
             result = makePattern(expression);
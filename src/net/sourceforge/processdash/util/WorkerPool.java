@@ -0,0 +1,229 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A small, bounded pool of daemon threads that is shared by calculations
+ * which split their work across several processors.
+ * 
+ * Callers always take part in the work themselves, and any task that a pool
+ * thread has not started by the time the caller needs it is run on the
+ * calling thread instead.  As a result, a calculation never waits for a pool
+ * thread to become free, and calculations can safely be nested.  Work that
+ * is started from a pool thread (or from a caller that is currently taking
+ * part in a parallel calculation) runs serially, so nested calculations do
+ * not multiply the number of busy threads.
+ */
+public class WorkerPool {
+
+    /**
+     * Run a worker on the calling thread and on up to
+     * <tt>numThreads - 1</tt> pool threads at the same time.
+     * 
+     * The worker should repeatedly claim and process items from some shared
+     * collection of work, and return when no work remains.  This method
+     * returns when every copy of the worker has returned.  Copies that had
+     * not started by the time the caller's own copy finished are cancelled,
+     * since no work remains for them.
+     * 
+     * @throws RuntimeException
+     *             if any copy of the worker throws an exception.  Copies
+     *             running on other threads will still have finished.
+     */
+    public static void runAll(Runnable worker, int numThreads) {
+        if (isWorkerThread())
+            numThreads = 1;
+
+        List<WorkerTask> helpers = new ArrayList<WorkerTask>();
+        for (int i = 1; i < numThreads; i++)
+            helpers.add((WorkerTask) submit(worker, null));
+
+        Throwable error = null;
+        try {
+            runAsWorker(worker);
+        } catch (Throwable t) {
+            error = t;
+        }
+
+        // wait for the helpers to finish.  Besides ensuring completion, this
+        // makes their changes visible to the calling thread.  The wait is not
+        // abandoned if this thread is interrupted, because helpers may still
+        // be writing to data structures the caller is about to read.
+        boolean interrupted = false;
+        for (WorkerTask f : helpers) {
+            // a helper that no pool thread has started is claimed and
+            // discarded.  Helpers that already started must be waited for;
+            // FutureTask.cancel() cannot tell us which ones those are.
+            if (f.claim()) {
+                f.cancel(false);
+                continue;
+            }
+            while (true) {
+                try {
+                    f.get();
+                    break;
+                } catch (InterruptedException ie) {
+                    interrupted = true;
+                } catch (ExecutionException ee) {
+                    if (error == null)
+                        error = ee.getCause();
+                    break;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+
+        if (error instanceof RuntimeException)
+            throw (RuntimeException) error;
+        else if (error instanceof Error)
+            throw (Error) error;
+        else if (error != null)
+            throw new RuntimeException(error);
+    }
+
+    /**
+     * Queue a task for execution on a pool thread.  The result should be
+     * retrieved with {@link #get(Future)}, which runs the task on the calling
+     * thread if no pool thread has started it yet.
+     */
+    public static <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> result = new WorkerTask<T>(task);
+        getExecutor().execute(result);
+        return result;
+    }
+
+    private static <T> Future<T> submit(Runnable task, T value) {
+        FutureTask<T> result = new WorkerTask<T>(task, value);
+        getExecutor().execute(result);
+        return result;
+    }
+
+    /**
+     * Wait for a task created by {@link #submit(Callable)} to complete, and
+     * return its result.  If the task has not started yet, it is run on the
+     * calling thread.
+     */
+    public static <T> T get(Future<T> f) throws InterruptedException,
+            ExecutionException {
+        if (f instanceof WorkerTask)
+            ((WorkerTask) f).run();
+        return f.get();
+    }
+
+    /**
+     * @return true if the current thread is already taking part in a
+     *         parallel calculation.
+     */
+    public static boolean isWorkerThread() {
+        return Boolean.TRUE.equals(IS_WORKER.get());
+    }
+
+    /**
+     * @return the number of threads a calculation should use by default: one
+     *         per processor, but no more than <tt>max</tt>.
+     */
+    public static int getDefaultThreadCount(int max) {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(cpus, max));
+    }
+
+    private static void runAsWorker(Runnable r) {
+        Object wasWorker = IS_WORKER.get();
+        IS_WORKER.set(Boolean.TRUE);
+        try {
+            r.run();
+        } finally {
+            IS_WORKER.set(wasWorker);
+        }
+    }
+
+    private static class WorkerTask<T> extends FutureTask<T> {
+
+        WorkerTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        WorkerTask(Runnable runnable, T result) {
+            super(runnable, result);
+        }
+
+        private AtomicBoolean claimed = new AtomicBoolean(false);
+
+        /** @return true if the caller is the first to claim this task */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public void run() {
+            // only the first thread to claim the task runs it.  Others return
+            // immediately, and can wait for the result with get().
+            if (!claim())
+                return;
+            runAsWorker(new Runnable() {
+                public void run() {
+                    WorkerTask.super.run();
+                }});
+        }
+    }
+
+    private static final ThreadLocal IS_WORKER = new ThreadLocal();
+
+    private static ThreadPoolExecutor EXECUTOR = null;
+
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        if (EXECUTOR == null) {
+            int numThreads = getDefaultThreadCount(MAX_POOL_THREADS);
+            EXECUTOR = new ThreadPoolExecutor(numThreads, numThreads, 60,
+                    TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactory() {
+                        private AtomicInteger num = new AtomicInteger();
+                        public Thread newThread(Runnable r) {
+                            Thread t = new Thread(r, "WorkerPool-"
+                                    + num.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        }});
+            EXECUTOR.allowCoreThreadTimeOut(true);
+        }
+        return EXECUTOR;
+    }
+
+    private static final int MAX_POOL_THREADS = 8;
+
+}
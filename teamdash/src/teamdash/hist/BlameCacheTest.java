@@ -0,0 +1,120 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Team Functionality Add-ons for the Process Dashboard
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package teamdash.hist;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import teamdash.hist.BlameDataFactory.BlameCache;
+
+public class BlameCacheTest extends TestCase {
+
+    private static final Date DATE = new Date(1767225600000L);
+
+    public void testMatchingRequestResumes() {
+        StubHistory hist = new StubHistory("a", "b", "c");
+        BlameCache cache = new BlameCache();
+        assertNull(cache.get(hist, hist.versions, DATE, null));
+
+        cache.put(hist, hist.versions, DATE, null, new BlameData(), null);
+        assertNotNull(cache.get(hist, hist.versions, DATE, null));
+
+        // new versions appended to the history can be resumed from the
+        // last version that was analyzed
+        hist.versions.add("d");
+        assertNotNull(cache.get(hist, hist.versions, DATE, null));
+    }
+
+    public void testMismatchedRequestsAreNotServed() {
+        StubHistory hist = new StubHistory("a", "b", "c");
+        BlameCache cache = new BlameCache();
+        cache.put(hist, hist.versions, DATE, null, new BlameData(), null);
+
+        StubHistory other = new StubHistory("a", "b", "c");
+        assertNull(cache.get(other, other.versions, DATE, null));
+        assertNull(cache.get(hist, hist.versions, null, null));
+        assertNull(cache.get(hist, hist.versions, new Date(), null));
+
+        // a history that was rewritten must be analyzed from scratch
+        hist.versions.set(0, "z");
+        assertNull(cache.get(hist, hist.versions, DATE, null));
+        hist.versions.set(0, "a");
+        hist.versions.set(2, "z");
+        assertNull(cache.get(hist, hist.versions, DATE, null));
+        hist.versions.remove(2);
+        assertNull(cache.get(hist, hist.versions, DATE, null));
+    }
+
+    public void testClear() {
+        StubHistory hist = new StubHistory("a", "b");
+        BlameCache cache = new BlameCache();
+        cache.put(hist, hist.versions, DATE, null, new BlameData(), null);
+        cache.clear();
+        assertNull(cache.get(hist, hist.versions, DATE, null));
+    }
+
+    public void testSingleVersionIsNotCached() {
+        StubHistory hist = new StubHistory("a");
+        BlameCache cache = new BlameCache();
+        cache.put(hist, hist.versions, DATE, null, new BlameData(), null);
+        assertNull(cache.get(hist, hist.versions, DATE, null));
+    }
+
+    private static class StubHistory implements ProjectHistory<String> {
+
+        List<String> versions;
+
+        StubHistory(String... versions) {
+            this.versions = new ArrayList<String>(Arrays.asList(versions));
+        }
+
+        public void refresh() {}
+
+        public List<String> getVersions() {
+            return versions;
+        }
+
+        public Date getVersionDate(String version) {
+            return DATE;
+        }
+
+        public String getVersionAuthor(String version) {
+            return "author";
+        }
+
+        public InputStream getVersionFile(String version, String filename) {
+            return null;
+        }
+
+        public ProjectHistoryException wrapException(Throwable e) {
+            return null;
+        }
+    }
+
+}
@@ -48,6 +48,14 @@ public class BlameData extends HashMap<ModelType, BlameModelData> {
         return true;
     }
 
+    /** Return a deep copy of the blame annotations in this object */
+    public BlameData copy() {
+        BlameData result = new BlameData();
+        for (Entry<ModelType, BlameModelData> e : entrySet())
+            result.put(e.getKey(), e.getValue().copy());
+        return result;
+    }
+
     public BlameModelData getOrCreate(ModelType type) {
         BlameModelData result = get(type);
         if (result == null) {
@@ -31,18 +31,24 @@ import static teamdash.wbs.columns.TopDownBottomUpColumn.TOP_DOWN_ATTR_SUFFIX;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
 import net.sourceforge.processdash.util.NullSafeObjectUtils;
 import net.sourceforge.processdash.util.StringUtils;
+import net.sourceforge.processdash.util.WorkerPool;
 
 import teamdash.merge.ModelType;
 import teamdash.merge.TreeDiff;
@@ -50,6 +56,7 @@ import teamdash.merge.TreeNode;
 import teamdash.merge.TreeNodeChange;
 import teamdash.merge.TreeNodeChange.Type;
 import teamdash.wbs.AbstractWBSModelMerger.WBSNodeContent;
+import teamdash.wbs.ChangeHistory;
 import teamdash.wbs.ConflictCapableDataColumn;
 import teamdash.wbs.DataTableModel;
 import teamdash.wbs.NumericDataValue;
@@ -473,40 +480,304 @@ public class BlameDataFactory extends ProjectDiff {
     public static BlameData getBlameData(ProjectHistory hist,
             Date onOrAfterDate, DataTableModel dataTableModel, Future f)
             throws IOException {
-        if (hist instanceof ProjectHistoryBridged)
-            ((ProjectHistoryBridged) hist).cacheFileRevisions(onOrAfterDate,
-                null);
+        return getBlameData(hist, onOrAfterDate, dataTableModel, f, null);
+    }
 
-        BlameData result = new BlameData();
+    /**
+     * Calculate blame data for a project history.
+     * 
+     * @param cache
+     *            an object that remembers the previous calculation, so a
+     *            repeated request only needs to diff the versions that were
+     *            added since. Can be null.
+     */
+    public static BlameData getBlameData(ProjectHistory hist,
+            Date onOrAfterDate, DataTableModel dataTableModel, Future f,
+            BlameCache cache) throws IOException {
         List versions = hist.getVersions();
-        ProjectDiff prevDiff = null;
-        for (int i = 1; i < versions.size(); i++) {
+
+        // if we calculated blame for this history before, resume from the
+        // last version we saw.
+        CachedBlame cached = (cache == null ? null : cache.get(hist,
+            versions, onOrAfterDate, dataTableModel));
+        BlameData result;
+        ProjectDiff prevDiff;
+        int start;
+        if (cached == null) {
+            result = new BlameData();
+            prevDiff = null;
+            start = 1;
+        } else {
+            result = cached.snapshot.copy();
+            prevDiff = cached.lastDiff;
+            start = cached.lastPos + 1;
+        }
+
+        // skip over versions that precede the requested date
+        while (start < versions.size() && onOrAfterDate != null
+                && hist.getVersionDate(versions.get(start)).before(
+                    onOrAfterDate))
+            start++;
+
+        if (hist instanceof ProjectHistoryBridged && start < versions.size())
+            ((ProjectHistoryBridged) hist).cacheFileRevisions(
+                cached == null ? onOrAfterDate
+                        : hist.getVersionDate(versions.get(start - 1)), null);
+
+        int numThreads = Math.min(getThreadCount(),
+            (versions.size() - start + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        if (numThreads > 1)
+            prevDiff = addChangesConcurrently(hist, versions, start,
+                prevDiff, result, dataTableModel, f, numThreads);
+        else
+            prevDiff = addChanges(hist, versions, start, versions.size(),
+                prevDiff, result, dataTableModel, f);
+        if (f != null && f.isDone())
+            return null;
+
+        if (cache != null && (cached == null || start < versions.size()))
+            cache.put(hist, versions, onOrAfterDate, dataTableModel, result,
+                prevDiff);
+        return result;
+    }
+
+    /**
+     * Diff the versions in a range, and add their changes to a blame data
+     * object.
+     * 
+     * @return the last diff that was calculated
+     */
+    private static ProjectDiff addChanges(ProjectHistory hist, List versions,
+            int start, int end, ProjectDiff prevDiff, BlameData result,
+            DataTableModel dataTableModel, Future f) throws IOException {
+        for (int i = start; i < end; i++) {
             if (f != null && f.isDone())
                 return null;
 
-            Object oneVersion = versions.get(i);
-            Date versionDate = hist.getVersionDate(oneVersion);
-            if (onOrAfterDate != null && versionDate.before(onOrAfterDate))
-                continue;
-
-            try {
-                Object prevVersion = versions.get(i - 1);
-                BlameDataFactory diff = new BlameDataFactory(hist, prevVersion,
-                        oneVersion, prevDiff);
+            BlameDataFactory diff = calcDiff(hist, versions, i, prevDiff);
+            if (diff != null) {
                 diff.addChanges(result, dataTableModel);
                 prevDiff = diff;
-            } catch (FileNotFoundException fnfe) {
-                // the change history file can sometimes contain more history
-                // than is actually stored in the PDES (for example, when a
-                // legacy project has been migrated into the PDES). In these
-                // cases, starting the analysis too far back will generate a
-                // "file not found" exception. Catch this exception and skip
-                // forward to the next historical change.
-                continue;
             }
         }
+        return prevDiff;
+    }
 
+    /**
+     * Diff the versions in a range on several threads, and add their changes
+     * to a blame data object in version order.
+     * 
+     * The range is split into chunks of consecutive versions.  Each chunk is
+     * diffed by a single thread, so the WBS models loaded for one diff can be
+     * reused by the next.  Chunks are only consumed once they are complete, so
+     * a model is never used by two threads at once.
+     * 
+     * @return the last diff that was calculated
+     */
+    private static ProjectDiff addChangesConcurrently(final ProjectHistory hist,
+            final List versions, int start, ProjectDiff prevDiff,
+            BlameData result, DataTableModel dataTableModel, final Future f,
+            int numThreads) throws IOException {
+        LinkedList<Future<List<BlameDataFactory>>> chunks =
+            new LinkedList<Future<List<BlameDataFactory>>>();
+        int nextChunkStart = start;
+        try {
+            while (true) {
+                // keep one chunk queued for each thread
+                while (chunks.size() < numThreads
+                        && nextChunkStart < versions.size()) {
+                    final int chunkStart = nextChunkStart;
+                    final int chunkEnd = Math.min(versions.size(),
+                        chunkStart + CHUNK_SIZE);
+                    final ProjectDiff chunkPrev = (chunkStart == start
+                            ? prevDiff : null);
+                    chunks.add(WorkerPool.submit(
+                        new Callable<List<BlameDataFactory>>() {
+                            public List<BlameDataFactory> call()
+                                    throws IOException {
+                                return calcDiffs(hist, versions, chunkStart,
+                                    chunkEnd, chunkPrev, f);
+                            }}));
+                    nextChunkStart = chunkEnd;
+                }
+                if (chunks.isEmpty())
+                    return prevDiff;
+
+                // add the changes from the oldest chunk
+                List<BlameDataFactory> diffs = getChunk(chunks.removeFirst());
+                for (BlameDataFactory diff : diffs) {
+                    if (f != null && f.isDone())
+                        return null;
+                    if (diff != null) {
+                        diff.addChanges(result, dataTableModel);
+                        prevDiff = diff;
+                    }
+                }
+            }
+        } finally {
+            for (Future chunk : chunks)
+                chunk.cancel(true);
+        }
+    }
+
+    private static List<BlameDataFactory> getChunk(
+            Future<List<BlameDataFactory>> chunk) throws IOException {
+        try {
+            return WorkerPool.get(chunk);
+        } catch (InterruptedException ie) {
+            // the blame calculation was cancelled
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException ee) {
+            Throwable t = ee.getCause();
+            if (t instanceof IOException)
+                throw (IOException) t;
+            else if (t instanceof RuntimeException)
+                throw (RuntimeException) t;
+            else if (t instanceof Error)
+                throw (Error) t;
+            else
+                throw new IOException(t);
+        }
+    }
+
+    private static List<BlameDataFactory> calcDiffs(ProjectHistory hist,
+            List versions, int start, int end, ProjectDiff prevDiff, Future f)
+            throws IOException {
+        List<BlameDataFactory> result = new ArrayList<BlameDataFactory>();
+        for (int i = start; i < end; i++) {
+            if (f != null && f.isDone())
+                break;
+            BlameDataFactory diff = calcDiff(hist, versions, i, prevDiff);
+            result.add(diff);
+            if (diff != null)
+                prevDiff = diff;
+        }
         return result;
     }
 
+    /**
+     * Diff a version against the version that precedes it.
+     * 
+     * @return the diff, or null if the files for one of the versions could
+     *         not be found
+     */
+    private static BlameDataFactory calcDiff(ProjectHistory hist,
+            List versions, int i, ProjectDiff prevDiff) throws IOException {
+        try {
+            Object prevVersion = versions.get(i - 1);
+            Object oneVersion = versions.get(i);
+            return new BlameDataFactory(hist, prevVersion, oneVersion,
+                    prevDiff);
+        } catch (FileNotFoundException fnfe) {
+            // the change history file can sometimes contain more history
+            // than is actually stored in the PDES (for example, when a
+            // legacy project has been migrated into the PDES). In these
+            // cases, starting the analysis too far back will generate a
+            // "file not found" exception. Catch this exception and skip
+            // forward to the next historical change.
+            return null;
+        }
+    }
+
+    private static final int CHUNK_SIZE = 4;
+
+    private static int getThreadCount() {
+        // each thread holds several WBS models in memory, so use a modest
+        // number of threads by default
+        int result = Integer.getInteger("teamdash.hist.blameThreads",
+            WorkerPool.getDefaultThreadCount(4));
+        return Math.max(1, result);
+    }
+
+
+    /**
+     * Remembers the blame data calculated most recently by one client.  If
+     * the same calculation is requested again, only the versions added since
+     * that time need to be diffed.
+     * 
+     * A cache holds the data model and the WBS models of the last version it
+     * analyzed, so it should be owned by the window that displays the blame
+     * data, and discarded along with it.
+     */
+    public static class BlameCache {
+
+        private CachedBlame entry;
+
+        synchronized CachedBlame get(ProjectHistory hist,
+                List versions, Date onOrAfterDate,
+                DataTableModel dataTableModel) {
+            if (entry != null && versions.size() >= 2
+                    && entry.matches(hist, versions, onOrAfterDate,
+                        dataTableModel))
+                return entry;
+            else
+                return null;
+        }
+
+        void put(ProjectHistory hist, List versions,
+                Date onOrAfterDate, DataTableModel dataTableModel,
+                BlameData blameData, ProjectDiff lastDiff) {
+            if (versions.size() < 2)
+                return;
+            CachedBlame c = new CachedBlame();
+            c.hist = hist;
+            c.firstVersionID = getVersionID(versions.get(0));
+            c.lastPos = versions.size() - 1;
+            c.lastVersionID = getVersionID(versions.get(c.lastPos));
+            c.onOrAfterDate = onOrAfterDate;
+            c.dataTableModel = dataTableModel;
+            c.snapshot = blameData.copy();
+            c.lastDiff = lastDiff;
+            synchronized (this) {
+                entry = c;
+            }
+        }
+
+        public synchronized void clear() {
+            entry = null;
+        }
+    }
+
+    /** The state of a blame calculation after its last version. */
+    private static class CachedBlame {
+
+        ProjectHistory hist;
+
+        /** the unique ID of the first version in the history */
+        Object firstVersionID;
+
+        /** the position and unique ID of the last version analyzed */
+        int lastPos;
+
+        Object lastVersionID;
+
+        Date onOrAfterDate;
+
+        DataTableModel dataTableModel;
+
+        /** a private copy of the blame data after the last version */
+        BlameData snapshot;
+
+        /** the diff for the last version, whose WBS can be reused */
+        ProjectDiff lastDiff;
+
+        boolean matches(ProjectHistory hist, List versions,
+                Date onOrAfterDate, DataTableModel dataTableModel) {
+            return this.hist == hist
+                    && this.dataTableModel == dataTableModel
+                    && NullSafeObjectUtils.EQ(this.onOrAfterDate, onOrAfterDate)
+                    && lastPos < versions.size()
+                    && firstVersionID.equals(getVersionID(versions.get(0)))
+                    && lastVersionID.equals(getVersionID(versions.get(lastPos)));
+        }
+    }
+
+    private static Object getVersionID(Object version) {
+        if (version instanceof ChangeHistory.Entry)
+            return ((ChangeHistory.Entry) version).getUid();
+        else
+            return version;
+    }
+
 }
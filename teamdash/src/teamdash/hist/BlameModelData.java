@@ -28,6 +28,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map.Entry;
 
 import teamdash.merge.ModelType;
 import teamdash.wbs.WBSNode;
@@ -38,6 +39,14 @@ public class BlameModelData extends HashMap<Integer, BlameNodeData> {
 
     public BlameModelData() {}
 
+    /** Return a deep copy of the node data in this object */
+    public BlameModelData copy() {
+        BlameModelData result = new BlameModelData();
+        for (Entry<Integer, BlameNodeData> e : entrySet())
+            result.put(e.getKey(), e.getValue().copy());
+        return result;
+    }
+
     public BlameNodeData getNodeData(Integer nodeID) {
         BlameNodeData result = get(nodeID);
         if (result == null) {
@@ -45,6 +45,25 @@ public class BlameNodeData {
 
     private Map<String, BlameValueList> attributes;
 
+    /** Return a deep copy of the annotations on this node */
+    public BlameNodeData copy() {
+        BlameNodeData result = new BlameNodeData();
+        result.addedBy = addedBy;
+        if (deletedChildren != null)
+            result.deletedChildren = new LinkedHashMap<WBSNode, BlamePoint>(
+                    deletedChildren);
+        if (nodeName != null)
+            result.nodeName = nodeName.copy();
+        if (parentPath != null)
+            result.parentPath = parentPath.copy();
+        if (attributes != null) {
+            result.attributes = new HashMap<String, BlameValueList>();
+            for (Entry<String, BlameValueList> e : attributes.entrySet())
+                result.attributes.put(e.getKey(), e.getValue().copy());
+        }
+        return result;
+    }
+
     public boolean isEmpty() {
         return !hasStructuralChange() && attributes == null;
     }
@@ -36,6 +36,15 @@ public class BlameValueList extends TreeMap<BlamePoint, String> {
         put(BlamePoint.INITIAL, initialValue);
     }
 
+    private BlameValueList(BlameValueList other) {
+        super(other);
+        this.columnID = other.columnID;
+    }
+
+    public BlameValueList copy() {
+        return new BlameValueList(this);
+    }
+
     public String getColumnID() {
         return columnID;
     }
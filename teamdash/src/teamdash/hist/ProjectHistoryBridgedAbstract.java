@@ -202,7 +202,8 @@ public abstract class ProjectHistoryBridgedAbstract implements
         return (e == null ? null : e.getStream());
     }
 
-    private ManifestEntry getCachedManifestEntry(String filename, long ts)
+    private synchronized ManifestEntry getCachedManifestEntry(String filename,
+            long ts)
             throws IOException {
         maybeCacheTimePeriod(ts);
 
@@ -24,21 +24,27 @@
 package teamdash.hist;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.net.URLConnection;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.ZipFile;
 
 import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
@@ -51,6 +57,7 @@ import net.sourceforge.processdash.tool.bridge.bundle.FileBundleUtils;
 import net.sourceforge.processdash.tool.bridge.client.ImportDirectoryFactory;
 import net.sourceforge.processdash.util.DateUtils;
 import net.sourceforge.processdash.util.FileUtils;
+import net.sourceforge.processdash.util.RobustFileOutputStream;
 import net.sourceforge.processdash.util.XMLUtils;
 
 import teamdash.wbs.ChangeHistory;
@@ -67,6 +74,8 @@ public class ProjectHistoryLocal implements ProjectHistory<Entry> {
 
     private FileBundleDirectory bundleDir;
 
+    private BackupIndex backupIndex;
+
     public ProjectHistoryLocal(File dir) throws IOException {
         if (!dir.isDirectory())
             throw new FileNotFoundException("No such directory " + dir);
@@ -110,11 +119,17 @@ public class ProjectHistoryLocal implements ProjectHistory<Entry> {
         if (backupFiles == null || backupFiles.length == 0)
             return;
 
+        if (backupIndex == null)
+            backupIndex = new BackupIndex(backupDir);
+        backupIndex.load();
+
         for (File oneFile : backupFiles) {
             String zipVersionUid = getZipFileVersionUid(oneFile);
             if (zipVersionUid != null)
                 zipFiles.put(zipVersionUid, oneFile);
         }
+
+        backupIndex.save(backupFiles);
     }
 
     private String getZipFileVersionUid(File oneFile) throws IOException {
@@ -124,7 +139,7 @@ public class ProjectHistoryLocal implements ProjectHistory<Entry> {
             return null;
 
         // if the backup contained a changeHistory.xml file, read its UID
-        String changeHistUid = getZipFileChangeHistoryUid(oneFile);
+        String changeHistUid = backupIndex.getChangeHistoryUid(oneFile);
         if (changeHistUid != null)
             return changeHistUid;
 
@@ -192,24 +207,138 @@ public class ProjectHistoryLocal implements ProjectHistory<Entry> {
     }
 
     private String getZipFileChangeHistoryUid(Object src) throws IOException {
+        return readChangeHistoryUid(getFileStream(src,
+            WBSFilenameConstants.CHANGE_HISTORY_FILE));
+    }
+
+    private static String readChangeHistoryUid(InputStream changeHist)
+            throws IOException {
         // see if the backup contained a changeHistory.xml file. If so, the last
         // entry in that file identifies its version.
+        if (changeHist == null)
+            return null;
         try {
-            InputStream changeHist = getFileStream(src,
-                WBSFilenameConstants.CHANGE_HISTORY_FILE);
-            if (changeHist != null) {
-                Element xml = XMLUtils.parse(changeHist).getDocumentElement();
-                ChangeHistory zipHist = new ChangeHistory(xml);
-                Entry zipHistEntry = zipHist.getLastEntry();
-                if (zipHistEntry != null)
-                    return zipHistEntry.getUid();
-            }
+            Element xml = XMLUtils.parse(changeHist).getDocumentElement();
+            ChangeHistory zipHist = new ChangeHistory(xml);
+            Entry zipHistEntry = zipHist.getLastEntry();
+            if (zipHistEntry != null)
+                return zipHistEntry.getUid();
         } catch (SAXException se) {
+        } finally {
+            FileUtils.safelyClose(changeHist);
         }
 
         return null;
     }
 
+    /**
+     * A sidecar file in the backup directory which records the change history
+     * UID found in each backup ZIP, along with the size and modification time
+     * of that ZIP. On a refresh, only ZIP files that are new or have changed
+     * need to be opened.
+     */
+    static class BackupIndex {
+
+        private File file;
+
+        private long fileTimestamp;
+
+        private Properties entries;
+
+        private boolean changed;
+
+        BackupIndex(File backupDir) {
+            file = new File(backupDir, BACKUP_INDEX_FILENAME);
+            fileTimestamp = -1;
+            entries = new Properties();
+        }
+
+        /** Reload the index if another process has updated it */
+        void load() {
+            long timestamp = file.lastModified();
+            if (timestamp == fileTimestamp)
+                return;
+
+            Properties newEntries = new Properties();
+            try {
+                InputStream in = new FileInputStream(file);
+                try {
+                    newEntries.load(in);
+                } finally {
+                    in.close();
+                }
+            } catch (IOException ioe) {
+                // the index does not exist yet, or could not be read. Keep
+                // the entries we already have.
+                return;
+            }
+            entries = newEntries;
+            fileTimestamp = timestamp;
+        }
+
+        String getChangeHistoryUid(File zip) throws IOException {
+            String key = zip.getName();
+            String stamp = zip.length() + "," + zip.lastModified() + ",";
+            String value = entries.getProperty(key);
+            if (value != null && value.startsWith(stamp)) {
+                String uid = value.substring(stamp.length());
+                return (uid.length() == 0 ? null : uid);
+            }
+
+            String uid = readChangeHistoryUid(getFileFromZip(zip,
+                WBSFilenameConstants.CHANGE_HISTORY_FILE));
+            if (uid != null || isReadableZip(zip)) {
+                entries.setProperty(key, stamp + (uid == null ? "" : uid));
+                changed = true;
+            }
+            return uid;
+        }
+
+        private boolean isReadableZip(File zip) {
+            try {
+                new ZipFile(zip).close();
+                return true;
+            } catch (IOException ioe) {
+                return false;
+            }
+        }
+
+        /** Discard entries for deleted ZIPs, and save any changes */
+        void save(File[] backupFiles) {
+            Set<String> filenames = new HashSet<String>();
+            for (File f : backupFiles)
+                filenames.add(f.getName());
+            if (entries.keySet().retainAll(filenames))
+                changed = true;
+            if (!changed)
+                return;
+
+            try {
+                RobustFileOutputStream out = new RobustFileOutputStream(file);
+                boolean stored = false;
+                try {
+                    entries.store(out, null);
+                    stored = true;
+                } finally {
+                    // commit the new index, or discard a partial one and
+                    // leave the previous version in place
+                    if (stored)
+                        out.close();
+                    else
+                        out.abort();
+                }
+                fileTimestamp = file.lastModified();
+                changed = false;
+            } catch (IOException ioe) {
+                // the backup directory might be read-only for this user. The
+                // index is only an optimization, so keep the entries in
+                // memory and carry on.
+            }
+        }
+    }
+
+    private static final String BACKUP_INDEX_FILENAME = "backupIndex.ini";
+
     private static final Pattern SAVED_ZIP_FILENAME_PAT = Pattern.compile(
         "backup-(\\d{14})-saved_by_(.*)\\.zip", Pattern.CASE_INSENSITIVE);
 
@@ -243,10 +372,14 @@ public class ProjectHistoryLocal implements ProjectHistory<Entry> {
             return null;
     }
 
-    private InputStream getFileFromZip(File srcZip, String filename) {
+    private static InputStream getFileFromZip(File srcZip, String filename) {
         try {
+            // don't use the shared JarFile cache, which would return stale
+            // data if a ZIP file was replaced after it was first read
             String url = "jar:" + srcZip.toURI().toURL() + "!/" + filename;
-            return new URL(url).openStream();
+            URLConnection conn = new URL(url).openConnection();
+            conn.setUseCaches(false);
+            return conn.getInputStream();
         } catch (Exception e) {
             return null;
         }
@@ -0,0 +1,176 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Team Functionality Add-ons for the Process Dashboard
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package teamdash.hist;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+import net.sourceforge.processdash.util.FileUtils;
+
+import teamdash.hist.ProjectHistoryLocal.BackupIndex;
+import teamdash.wbs.ChangeHistory;
+import teamdash.wbs.WBSFilenameConstants;
+
+public class ProjectHistoryLocalTest extends TestCase {
+
+    private static final long TIME = 1767225600000L;
+
+    private File backupDir;
+
+    protected void setUp() throws Exception {
+        backupDir = File.createTempFile("backupIndexTest", "");
+        backupDir.delete();
+        backupDir.mkdir();
+    }
+
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(backupDir, true);
+    }
+
+    public void testIndexIsWrittenAndRead() throws Exception {
+        File zip1 = writeZip("a.zip", "uid-1", TIME);
+        File zip2 = writeZip("b.zip", null, TIME);
+        File bad = new File(backupDir, "c.zip");
+        FileUtils.copyFile(new ByteArrayInputStream(new byte[10]), bad);
+
+        BackupIndex index = new BackupIndex(backupDir);
+        index.load();
+        assertEquals("uid-1", index.getChangeHistoryUid(zip1));
+        assertNull(index.getChangeHistoryUid(zip2));
+        assertNull(index.getChangeHistoryUid(bad));
+        index.save(backupDir.listFiles());
+
+        // readable ZIPs are recorded, with or without a change history.
+        // Unreadable ones are not, so they will be examined again.
+        Properties saved = readIndexFile();
+        assertEquals(2, saved.size());
+        assertTrue(saved.getProperty("a.zip").endsWith(",uid-1"));
+        assertTrue(saved.getProperty("b.zip").endsWith(","));
+
+        // replace the contents of a ZIP without changing its size or
+        // timestamp. A new index must serve the recorded UID from the file,
+        // rather than opening the ZIP.
+        writeZip("a.zip", "uid-2", TIME);
+        assertEquals(saved.getProperty("a.zip").split(",")[0],
+            Long.toString(zip1.length()));
+        BackupIndex reloaded = new BackupIndex(backupDir);
+        reloaded.load();
+        assertEquals("uid-1", reloaded.getChangeHistoryUid(zip1));
+        assertNull(reloaded.getChangeHistoryUid(zip2));
+    }
+
+    public void testModifiedTimeInvalidatesEntry() throws Exception {
+        File zip = writeZip("a.zip", "uid-1", TIME);
+        BackupIndex index = new BackupIndex(backupDir);
+        index.load();
+        assertEquals("uid-1", index.getChangeHistoryUid(zip));
+        index.save(backupDir.listFiles());
+
+        long size = zip.length();
+        writeZip("a.zip", "uid-2", TIME + 5000);
+        assertEquals(size, zip.length());
+
+        BackupIndex reloaded = new BackupIndex(backupDir);
+        reloaded.load();
+        assertEquals("uid-2", reloaded.getChangeHistoryUid(zip));
+    }
+
+    public void testSizeInvalidatesEntry() throws Exception {
+        File zip = writeZip("a.zip", "uid-1", TIME);
+        BackupIndex index = new BackupIndex(backupDir);
+        index.load();
+        assertEquals("uid-1", index.getChangeHistoryUid(zip));
+        index.save(backupDir.listFiles());
+
+        writeZip("a.zip", "a-much-longer-uid", TIME);
+        BackupIndex reloaded = new BackupIndex(backupDir);
+        reloaded.load();
+        assertEquals("a-much-longer-uid", reloaded.getChangeHistoryUid(zip));
+
+        // the in-memory index is updated as well
+        assertEquals("a-much-longer-uid", index.getChangeHistoryUid(zip));
+    }
+
+    public void testDeletedZipsAreDiscarded() throws Exception {
+        File zip1 = writeZip("a.zip", "uid-1", TIME);
+        File zip2 = writeZip("b.zip", "uid-2", TIME);
+        BackupIndex index = new BackupIndex(backupDir);
+        index.load();
+        index.getChangeHistoryUid(zip1);
+        index.getChangeHistoryUid(zip2);
+        index.save(backupDir.listFiles());
+        assertEquals(2, readIndexFile().size());
+
+        zip2.delete();
+        index.save(backupDir.listFiles());
+        Properties saved = readIndexFile();
+        assertEquals(1, saved.size());
+        assertTrue(saved.containsKey("a.zip"));
+    }
+
+    private File writeZip(String name, String uid, long timestamp)
+            throws IOException {
+        File result = new File(backupDir, name);
+        ZipOutputStream zipOut = new ZipOutputStream(new FileOutputStream(
+                result));
+        ZipEntry e = new ZipEntry(uid == null ? "other.txt"
+                : WBSFilenameConstants.CHANGE_HISTORY_FILE);
+        e.setTime(TIME);
+        zipOut.putNextEntry(e);
+        if (uid != null) {
+            ChangeHistory hist = new ChangeHistory();
+            hist.addEntry(uid, "user");
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            hist.write(buf);
+            zipOut.write(buf.toByteArray());
+        }
+        zipOut.closeEntry();
+        zipOut.close();
+        result.setLastModified(timestamp);
+        return result;
+    }
+
+    private Properties readIndexFile() throws IOException {
+        Properties result = new Properties();
+        InputStream in = new FileInputStream(new File(backupDir,
+                "backupIndex.ini"));
+        try {
+            result.load(in);
+        } finally {
+            in.close();
+        }
+        return result;
+    }
+
+}
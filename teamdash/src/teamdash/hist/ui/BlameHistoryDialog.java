@@ -104,6 +104,9 @@ public class BlameHistoryDialog extends JDialog implements
 
     private ProjectHistory projectHistory;
 
+    private BlameDataFactory.BlameCache blameCache =
+        new BlameDataFactory.BlameCache();
+
     private Date historyDate;
 
     private BlameData blameData;
@@ -398,7 +401,7 @@ public class BlameHistoryDialog extends JDialog implements
                 projectHistory.refresh();
 
             BlameData blameData = BlameDataFactory.getBlameData(projectHistory,
-                calcDate, wbsDataModel, this);
+                calcDate, wbsDataModel, this, blameCache);
             return blameData;
         }
 
@@ -0,0 +1,126 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Team Functionality Add-ons for the Process Dashboard
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+
+package teamdash.wbs;
+
+import java.awt.Color;
+import java.util.Date;
+import java.util.Map;
+
+import teamdash.team.TeamMember;
+import teamdash.wbs.columns.TeamMemberTimeColumn;
+
+/**
+ * Times the recalculation of the team member time columns over a generated
+ * WBS, first on a single thread and then concurrently, and checks that both
+ * approaches produce the same node attributes.
+ *
+ * Usage: ColumnRecalcBenchmark [numNodes [numMembers [threads]]]
+ */
+public class ColumnRecalcBenchmark {
+
+    public static void main(String[] args) {
+        int numNodes = (args.length > 0 ? Integer.parseInt(args[0]) : 30000);
+        int numMembers = (args.length > 1 ? Integer.parseInt(args[1]) : 20);
+        int threads = (args.length > 2 ? Integer.parseInt(args[2])
+                : Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+        BenchmarkModel serial = new BenchmarkModel(numNodes, numMembers);
+        BenchmarkModel concurrent = new BenchmarkModel(numNodes, numMembers);
+        serial.setRecalcThreadCount(1);
+        concurrent.setRecalcThreadCount(threads);
+
+        System.out.println("Recalculating " + numMembers + " columns over "
+                + numNodes + " nodes");
+        for (int pass = 0; pass < 5; pass++) {
+            long serialTime = serial.recalcAll();
+            long concurrentTime = concurrent.recalcAll();
+            if (pass > 0)
+                System.out.println("serial: " + (serialTime / 1000000)
+                        + " ms, " + threads + " threads: "
+                        + (concurrentTime / 1000000) + " ms");
+        }
+
+        Map<String, Long> times = concurrent.getLastRecalcTimes();
+        System.out.println("Slowest column: "
+                + (times.isEmpty() ? 0 : max(times)) / 1000 + " us");
+
+        for (int i = 0; i < numNodes; i++) {
+            WBSNode a = serial.getWBSModel().getNodeForRow(i);
+            WBSNode b = concurrent.getWBSModel().getNodeForRow(i);
+            if (!a.getAttributeMap(false, false).equals(
+                    b.getAttributeMap(false, false)))
+                throw new IllegalStateException("Results differ on row " + i);
+        }
+        System.out.println("Results match");
+    }
+
+    private static long max(Map<String, Long> times) {
+        long result = 0;
+        for (Long t : times.values())
+            result = Math.max(result, t);
+        return result;
+    }
+
+    private static class BenchmarkModel extends DataTableModel<WBSModel> {
+
+        BenchmarkModel(int numNodes, int numMembers) {
+            super(buildModel(numNodes, numMembers));
+            Date zeroDay = new Date();
+            for (int m = 0; m < numMembers; m++) {
+                TeamMember t = new TeamMember("Member " + m, "m" + m,
+                        Color.gray, 0, zeroDay);
+                addDataColumn(new TeamMemberTimeColumn(this, t));
+            }
+            initializeColumnDependencies();
+        }
+
+        long recalcAll() {
+            // reinitializing the dependencies marks every column as dirty
+            long start = System.nanoTime();
+            initializeColumnDependencies();
+            return System.nanoTime() - start;
+        }
+
+        private static WBSModel buildModel(int numNodes, int numMembers) {
+            WBSModel model = new WBSModel("Benchmark", false);
+            for (int i = 1; i < numNodes; i++) {
+                int indent = 1 + (i % 4);
+                String type = (indent < 4 ? TeamProcess.COMPONENT_TYPE
+                        : "Task");
+                WBSNode node = new WBSNode(model, "Node " + i, type, indent,
+                        true);
+                node.setUniqueID(i);
+                for (int m = 0; m < numMembers; m++)
+                    if (indent == 4 && (i + m) % 3 == 0)
+                        node.setNumericAttribute(
+                            "m" + m + "-Time (Top Down)", (i * m) % 40);
+                model.addImpl(node);
+            }
+            model.recalcRows(false);
+            return model;
+        }
+    }
+
+}
@@ -0,0 +1,361 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Team Functionality Add-ons for the Process Dashboard
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+
+package teamdash.wbs;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** A memory-efficient map holding the data attributes of a WBSNode.
+ *
+ * Large team projects can contain tens of thousands of WBS nodes, each
+ * carrying dozens of attributes.  In a HashMap, every attribute costs an
+ * entry object, and every numeric value costs a boxed Double.  This class
+ * instead maps each attribute name to a slot that is shared by all nodes,
+ * and stores the attributes of a node in parallel arrays sorted by slot.
+ * Numeric values stored with {@link #putDouble(String, double)} are held in
+ * a primitive double array, and boxed only if they are read with
+ * {@link #get(Object)}; other values are held as objects.  Only the
+ * attributes actually present on a node take up space, so rarely used
+ * attributes cost nothing elsewhere.
+ *
+ * Slots are only weakly registered, so the name of an attribute that is no
+ * longer present on any node (for example, one belonging to a project that
+ * has been closed) can be garbage collected.
+ *
+ * Like HashMap, this class is not synchronized.  Concurrent reads are safe.
+ */
+class CompactAttributeMap extends AbstractMap<String, Object> {
+
+    /** the slots of the attributes in this map, in ascending ID order */
+    private Slot[] slots;
+
+    /** the values of numeric attributes, parallel to the slots array */
+    private double[] numbers;
+
+    /** the values of attributes, parallel to the slots array. A null entry
+     * indicates a numeric value that has not been boxed yet; a Double entry
+     * holds the same value as the numbers array. */
+    private Object[] values;
+
+    /** the number of attributes in this map */
+    private int size;
+
+    /** a count of structural modifications, for fail-fast iteration */
+    private int modCount;
+
+
+    public CompactAttributeMap() {
+        slots = EMPTY_SLOTS;
+        numbers = EMPTY_NUMBERS;
+        values = EMPTY_VALUES;
+        size = 0;
+    }
+
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object attrName) {
+        return indexOf(attrName) >= 0;
+    }
+
+    @Override
+    public Object get(Object attrName) {
+        int pos = indexOf(attrName);
+        return (pos < 0 ? null : valueAt(pos));
+    }
+
+    /** @return the value of a numeric attribute, or NaN if the attribute is
+     *     not present or is not stored as a number */
+    public double getDouble(String attrName) {
+        int pos = indexOf(attrName);
+        if (pos < 0 || !isNumberAt(pos))
+            return Double.NaN;
+        else
+            return numbers[pos];
+    }
+
+    @Override
+    public Object put(String attrName, Object value) {
+        if (value == null)
+            return remove(attrName);
+
+        int pos = indexOf(attrName);
+        Object result = null;
+        if (pos < 0)
+            pos = insert(-pos - 1, getSlot(attrName));
+        else
+            result = valueAt(pos);
+
+        // numeric values keep the caller's Double, so later reads do not
+        // have to box the value again
+        if (value instanceof Double)
+            numbers[pos] = ((Double) value).doubleValue();
+        values[pos] = value;
+        return result;
+    }
+
+    /** Store a numeric attribute without boxing its value */
+    public void putDouble(String attrName, double value) {
+        int pos = indexOf(attrName);
+        if (pos < 0)
+            pos = insert(-pos - 1, getSlot(attrName));
+        numbers[pos] = value;
+        values[pos] = null;
+    }
+
+    @Override
+    public Object remove(Object attrName) {
+        int pos = indexOf(attrName);
+        if (pos < 0)
+            return null;
+
+        Object result = valueAt(pos);
+        removeAt(pos);
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            slots = EMPTY_SLOTS;
+            numbers = EMPTY_NUMBERS;
+            values = EMPTY_VALUES;
+            size = 0;
+            modCount++;
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Object>>() {
+            public int size() {
+                return size;
+            }
+
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+        };
+    }
+
+
+    /** @return the position of the given attribute in our arrays if it is
+     *     present; otherwise, (-(insertion point) - 1). */
+    private int indexOf(Object attrName) {
+        // if a name has no live slot, no map can contain that attribute
+        SlotRef ref = (attrName == null ? null : SLOTS.get(attrName));
+        Slot slot = (ref == null ? null : ref.get());
+        if (slot == null)
+            return -(size + 1);
+
+        // binary search for the slot
+        int target = slot.id;
+        int low = 0, high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midSlot = slots[mid].id;
+            if (midSlot < target)
+                low = mid + 1;
+            else if (midSlot > target)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
+
+    private boolean isNumberAt(int pos) {
+        Object value = values[pos];
+        return (value == null || value instanceof Double);
+    }
+
+    private Object valueAt(int pos) {
+        Object result = values[pos];
+        if (result == null) {
+            // box the number once, and keep it for later reads.  Racing
+            // readers would store equal values, so this is safe without
+            // synchronization.
+            result = Double.valueOf(numbers[pos]);
+            values[pos] = result;
+        }
+        return result;
+    }
+
+    private int insert(int pos, Slot slot) {
+        if (size == slots.length) {
+            // grow in small steps, since most nodes hold a modest number
+            // of attributes and every unused element is wasted space.
+            int newLen = size + (size >> 2) + 4;
+            Slot[] newSlots = new Slot[newLen];
+            double[] newNumbers = new double[newLen];
+            Object[] newValues = new Object[newLen];
+            System.arraycopy(slots, 0, newSlots, 0, pos);
+            System.arraycopy(numbers, 0, newNumbers, 0, pos);
+            System.arraycopy(values, 0, newValues, 0, pos);
+            System.arraycopy(slots, pos, newSlots, pos + 1, size - pos);
+            System.arraycopy(numbers, pos, newNumbers, pos + 1, size - pos);
+            System.arraycopy(values, pos, newValues, pos + 1, size - pos);
+            slots = newSlots;
+            numbers = newNumbers;
+            values = newValues;
+        } else {
+            System.arraycopy(slots, pos, slots, pos + 1, size - pos);
+            System.arraycopy(numbers, pos, numbers, pos + 1, size - pos);
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+        }
+        slots[pos] = slot;
+        size++;
+        modCount++;
+        return pos;
+    }
+
+    private void removeAt(int pos) {
+        int numToMove = size - pos - 1;
+        System.arraycopy(slots, pos + 1, slots, pos, numToMove);
+        System.arraycopy(numbers, pos + 1, numbers, pos, numToMove);
+        System.arraycopy(values, pos + 1, values, pos, numToMove);
+        size--;
+        slots[size] = null;
+        values[size] = null;
+        modCount++;
+    }
+
+
+    private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        private int next = 0;
+
+        private int last = -1;
+
+        private int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        public Map.Entry<String, Object> next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (next >= size)
+                throw new NoSuchElementException();
+            last = next++;
+            return new SimpleImmutableEntry<String, Object>(
+                    slots[last].name, valueAt(last));
+        }
+
+        public void remove() {
+            if (last < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+
+    // Registry of attribute name slots, shared by all maps
+
+    /** An attribute name, and the ID that orders it within a map */
+    private static final class Slot {
+        final String name;
+        final int id;
+        Slot(String name, int id) {
+            this.name = name;
+            this.id = id;
+        }
+    }
+
+    /** A registry entry, which is cleared when no map holds the slot */
+    private static final class SlotRef extends WeakReference<Slot> {
+        final String name;
+        SlotRef(Slot slot) {
+            super(slot, STALE_SLOTS);
+            this.name = slot.name;
+        }
+    }
+
+    private static final ConcurrentHashMap<String, SlotRef> SLOTS =
+        new ConcurrentHashMap<String, SlotRef>(1000);
+
+    private static final ReferenceQueue<Slot> STALE_SLOTS =
+        new ReferenceQueue<Slot>();
+
+    private static int nextSlotID = 0;
+
+    private static Slot getSlot(String attrName) {
+        SlotRef ref = SLOTS.get(attrName);
+        Slot slot = (ref == null ? null : ref.get());
+        if (slot != null)
+            return slot;
+
+        synchronized (SLOTS) {
+            purgeStaleSlots();
+            ref = SLOTS.get(attrName);
+            slot = (ref == null ? null : ref.get());
+            if (slot == null) {
+                // IDs are not reused, so slots that are still held by a map
+                // never collide with new ones
+                slot = new Slot(attrName, nextSlotID++);
+                SLOTS.put(attrName, new SlotRef(slot));
+            }
+            return slot;
+        }
+    }
+
+    /** Remove registry entries for slots that are no longer in use */
+    private static void purgeStaleSlots() {
+        SlotRef ref;
+        while ((ref = (SlotRef) STALE_SLOTS.poll()) != null)
+            SLOTS.remove(ref.name, ref);
+    }
+
+    /** @return the number of attribute names currently registered */
+    static int getRegisteredSlotCount() {
+        synchronized (SLOTS) {
+            purgeStaleSlots();
+            return SLOTS.size();
+        }
+    }
+
+    private static final Slot[] EMPTY_SLOTS = new Slot[0];
+    private static final double[] EMPTY_NUMBERS = new double[0];
+    private static final Object[] EMPTY_VALUES = new Object[0];
+
+}
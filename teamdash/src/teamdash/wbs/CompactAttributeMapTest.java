@@ -0,0 +1,188 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Team Functionality Add-ons for the Process Dashboard
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package teamdash.wbs;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+public class CompactAttributeMapTest extends TestCase {
+
+    public void testPutGetRemove() {
+        CompactAttributeMap m = new CompactAttributeMap();
+        assertTrue(m.isEmpty());
+        assertNull(m.put("b", "two"));
+        assertNull(m.put("a", 1.5));
+        assertNull(m.put("c", Boolean.TRUE));
+        assertEquals(3, m.size());
+
+        assertEquals("two", m.get("b"));
+        assertEquals(1.5, m.get("a"));
+        assertEquals(Boolean.TRUE, m.get("c"));
+        assertNull(m.get("missing"));
+        assertNull(m.get(null));
+        assertTrue(m.containsKey("a"));
+        assertFalse(m.containsKey("missing"));
+
+        assertEquals("two", m.put("b", "deux"));
+        assertEquals("deux", m.get("b"));
+        assertEquals(1.5, m.put("a", "text"));
+        assertTrue(Double.isNaN(m.getDouble("a")));
+
+        assertEquals("deux", m.remove("b"));
+        assertNull(m.remove("b"));
+        assertFalse(m.containsKey("b"));
+        assertEquals(2, m.size());
+
+        // storing null removes the attribute
+        m.put("c", null);
+        assertFalse(m.containsKey("c"));
+        assertEquals(1, m.size());
+
+        m.clear();
+        assertTrue(m.isEmpty());
+        assertNull(m.get("a"));
+    }
+
+    public void testNumericValues() {
+        CompactAttributeMap m = new CompactAttributeMap();
+        m.putDouble("x", 3.0);
+        assertEquals(3.0, m.getDouble("x"), 0);
+        assertEquals(3.0, m.get("x"));
+        assertTrue(Double.isNaN(m.getDouble("missing")));
+
+        // once a number has been boxed, later reads return the same object
+        Object boxed = m.get("x");
+        assertSame(boxed, m.get("x"));
+        assertSame(boxed, m.entrySet().iterator().next().getValue());
+
+        // a Double stored with put() is returned as is
+        Double d = new Double(4.0);
+        m.put("y", d);
+        assertSame(d, m.get("y"));
+        assertEquals(4.0, m.getDouble("y"), 0);
+
+        // replacing a number discards the stale boxed value
+        m.putDouble("x", 5.0);
+        assertEquals(5.0, m.get("x"));
+        assertEquals(5.0, m.getDouble("x"), 0);
+        m.putDouble("y", 6.0);
+        assertEquals(6.0, m.get("y"));
+    }
+
+    public void testIteration() {
+        CompactAttributeMap m = new CompactAttributeMap();
+        Map<String, Object> expected = new HashMap<String, Object>();
+        for (int i = 0; i < 50; i++) {
+            String name = "attr" + ((i * 37) % 50);
+            if (i % 2 == 0) {
+                m.putDouble(name, i);
+                expected.put(name, (double) i);
+            } else {
+                m.put(name, "v" + i);
+                expected.put(name, "v" + i);
+            }
+        }
+
+        Map<String, Object> seen = new HashMap<String, Object>();
+        for (Map.Entry<String, Object> e : m.entrySet())
+            assertNull(seen.put(e.getKey(), e.getValue()));
+        assertEquals(expected, seen);
+
+        // remove through the iterator
+        for (Iterator<String> i = m.keySet().iterator(); i.hasNext();) {
+            if (i.next().endsWith("0"))
+                i.remove();
+        }
+        assertEquals(45, m.size());
+        assertFalse(m.containsKey("attr10"));
+        assertTrue(m.containsKey("attr11"));
+
+        // iterators fail fast after a structural change
+        Iterator<String> i = m.keySet().iterator();
+        i.next();
+        m.put("new attribute", "x");
+        try {
+            i.next();
+            fail("expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException cme) {
+        }
+    }
+
+    public void testEquals() {
+        CompactAttributeMap a = new CompactAttributeMap();
+        CompactAttributeMap b = new CompactAttributeMap();
+        Map<String, Object> h = new HashMap<String, Object>();
+        a.putDouble("num", 2.0);
+        a.put("str", "s");
+        b.put("str", "s");
+        b.put("num", 2.0);
+        h.put("num", 2.0);
+        h.put("str", "s");
+
+        assertEquals(a, b);
+        assertEquals(a, h);
+        assertEquals(h, a);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(h.hashCode(), a.hashCode());
+
+        b.putDouble("num", 3.0);
+        assertFalse(a.equals(b));
+        b.putDouble("num", 2.0);
+        b.put("extra", "e");
+        assertFalse(a.equals(b));
+        assertFalse(b.equals(a));
+    }
+
+    public void testUnusedSlotsAreReleased() throws Exception {
+        int before = CompactAttributeMap.getRegisteredSlotCount();
+        CompactAttributeMap m = new CompactAttributeMap();
+        for (int i = 0; i < 1000; i++)
+            m.put("CompactAttributeMapTest-" + i, "x");
+        assertTrue(CompactAttributeMap.getRegisteredSlotCount()
+                >= before + 1000);
+
+        // once no map holds the attributes, their names can be collected
+        m = null;
+        for (int tries = 0; tries < 50; tries++) {
+            System.gc();
+            if (CompactAttributeMap.getRegisteredSlotCount() < before + 1000)
+                break;
+            Thread.sleep(20);
+        }
+        assertTrue(CompactAttributeMap.getRegisteredSlotCount()
+                < before + 1000);
+
+        // names that were released can be registered again
+        CompactAttributeMap m2 = new CompactAttributeMap();
+        m2.put("CompactAttributeMapTest-1", "y");
+        m2.put("CompactAttributeMapTest-0", "z");
+        assertEquals("y", m2.get("CompactAttributeMapTest-1"));
+        assertEquals("z", m2.get("CompactAttributeMapTest-0"));
+    }
+
+}
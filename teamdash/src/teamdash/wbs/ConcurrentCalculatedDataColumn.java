@@ -0,0 +1,38 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Team Functionality Add-ons for the Process Dashboard
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+
+package teamdash.wbs;
+
+/** A calculated column whose recalculation can safely run on a background
+ * thread, at the same time as other columns of this type.
+ * 
+ * To qualify, the {@link #recalculate()} method must only read the structure
+ * of the WBS, must only read and write node attributes through the
+ * get/set/remove methods in {@link WBSNode}, and must not modify any other
+ * shared state, such as the data model or the children arrays returned by
+ * {@link WBSModel#getReorderableChildren(Object)}.
+ */
+public interface ConcurrentCalculatedDataColumn extends CalculatedDataColumn {
+
+}
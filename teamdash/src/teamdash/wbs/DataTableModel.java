@@ -27,12 +27,18 @@ package teamdash.wbs;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.swing.JTable;
 import javax.swing.Timer;
@@ -41,6 +47,8 @@ import javax.swing.event.TableModelListener;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.TableColumn;
 
+import net.sourceforge.processdash.util.WorkerPool;
+
 import teamdash.wbs.columns.NullDataColumn;
 
 
@@ -61,6 +69,11 @@ public class DataTableModel<WbsT extends WBSModel> extends AbstractTableModel {
     private Set dirtyColumns;
     /** A timer for triggering recalculations */
     private Timer recalcJanitorTimer;
+    /** The number of threads to use for concurrent column recalculation */
+    private int numRecalcThreads = getDefaultThreadCount();
+    /** The time in nanoseconds spent recalculating each column during the
+     * most recent call to recalcColumns() */
+    private Map<String, Long> lastRecalcTimes = Collections.emptyMap();
 
     /** Should editing be disabled? */
     private boolean disableEditing = false;
@@ -469,6 +482,11 @@ public class DataTableModel<WbsT extends WBSModel> extends AbstractTableModel {
 
 
     /** Recalculate data in all dirty columns.
+     *
+     * Columns are recalculated in dependency order.  On each pass, the dirty
+     * columns whose dependencies are all up to date are recalculated; if
+     * several of them are {@link ConcurrentCalculatedDataColumn}s, those are
+     * recalculated concurrently.
      */
     private void recalcColumns() {
         recalcJanitorTimer.stop();
@@ -477,6 +495,8 @@ public class DataTableModel<WbsT extends WBSModel> extends AbstractTableModel {
             if (dirtyColumns.isEmpty()) return;
 
             HashSet waitingColumns = new HashSet();
+            Map<String, Long> times = new LinkedHashMap<String, Long>();
+            long start = System.nanoTime();
 
             try {
                 // start a pseudo-change; this way, if recalculating
@@ -486,11 +506,18 @@ public class DataTableModel<WbsT extends WBSModel> extends AbstractTableModel {
                 beginChange();
 
                 while (!dirtyColumns.isEmpty()) {
-                    // recalculate a single column.
-                    waitingColumns.clear();
-                    CalculatedDataColumn c =
-                        (CalculatedDataColumn) dirtyColumns.iterator().next();
-                    recalcColumn(c, waitingColumns);
+                    List<CalculatedDataColumn> ready = getColumnsReadyForRecalc();
+                    if (!ready.isEmpty()) {
+                        recalcReadyColumns(ready, times);
+                    } else {
+                        // the remaining columns have a circular dependency.
+                        // recalculate a single column; the recursive logic
+                        // will report the cycle and break it.
+                        waitingColumns.clear();
+                        CalculatedDataColumn c = (CalculatedDataColumn)
+                                dirtyColumns.iterator().next();
+                        recalcColumn(c, waitingColumns, times);
+                    }
                 }
 
             } catch (Exception e) {
@@ -501,11 +528,111 @@ public class DataTableModel<WbsT extends WBSModel> extends AbstractTableModel {
                 // loop of recalculating and retriggering the exception)
                 dirtyColumns.clear();
             } finally {
+                lastRecalcTimes = Collections.unmodifiableMap(times);
+                if (logger.isLoggable(Level.FINE))
+                    logRecalcTimes(times, System.nanoTime() - start);
                 endChange();
             }
         }
     }
 
+    /** Find the dirty columns that do not depend upon any other dirty
+     * columns. */
+    private List<CalculatedDataColumn> getColumnsReadyForRecalc() {
+        List<CalculatedDataColumn> result = new ArrayList();
+        for (Iterator i = dirtyColumns.iterator(); i.hasNext();) {
+            CalculatedDataColumn c = (CalculatedDataColumn) i.next();
+            if (!dependsOnDirtyColumn(findIndexOfColumn(c)))
+                result.add(c);
+        }
+        return result;
+    }
+
+    private boolean dependsOnDirtyColumn(int columnPos) {
+        if (columnPos == -1)
+            return false;
+        for (int j = columns.size();   j-- > 0; )
+            if (dependencies[columnPos][j]
+                    && dirtyColumns.contains(getColumn(j)))
+                return true;
+        return false;
+    }
+
+    /** Recalculate a list of columns that do not depend upon each other.
+     */
+    private void recalcReadyColumns(List<CalculatedDataColumn> ready,
+            Map<String, Long> times) {
+        List<CalculatedDataColumn> concurrent = new ArrayList();
+        List<CalculatedDataColumn> serial = new ArrayList();
+        for (CalculatedDataColumn c : ready) {
+            if (c instanceof ConcurrentCalculatedDataColumn)
+                concurrent.add(c);
+            else
+                serial.add(c);
+        }
+        if (concurrent.size() > 1 && numRecalcThreads > 1)
+            recalcConcurrently(concurrent, times);
+        else
+            serial.addAll(0, concurrent);
+
+        for (CalculatedDataColumn c : serial) {
+            // a column recalculated earlier in this pass could have marked
+            // one of our dependencies as dirty.  If so, wait for a later pass.
+            int columnPos = findIndexOfColumn(c);
+            if (dirtyColumns.contains(c) && !dependsOnDirtyColumn(columnPos))
+                recalcColumnNow(c, columnPos, times);
+        }
+    }
+
+    /** Recalculate several columns at once, on the current thread and on
+     * background threads.  When this method returns, all of the columns have
+     * been recalculated, and table model events have been fired for the
+     * columns whose data changed.
+     */
+    private void recalcConcurrently(final List<CalculatedDataColumn> cols,
+            Map<String, Long> times) {
+        // make sure the WBS structure will be read, not written, by the
+        // columns we are about to recalculate
+        wbsModel.prepareForConcurrentReads();
+
+        final boolean[] changed = new boolean[cols.size()];
+        final long[] elapsed = new long[cols.size()];
+        final AtomicInteger nextPos = new AtomicInteger(0);
+        Runnable worker = new Runnable() {
+            public void run() {
+                int pos;
+                while ((pos = nextPos.getAndIncrement()) < cols.size()) {
+                    long start = System.nanoTime();
+                    try {
+                        changed[pos] = cols.get(pos).recalculate();
+                    } catch (RuntimeException re) {
+                        // stop the other threads from starting new columns
+                        nextPos.set(cols.size());
+                        throw re;
+                    }
+                    elapsed[pos] = System.nanoTime() - start;
+                }
+            }};
+
+        // have the nodes synchronize attribute access until we finish
+        WBSNode.beginConcurrentAccess();
+        try {
+            WorkerPool.runAll(worker, Math.min(numRecalcThreads, cols.size()));
+        } finally {
+            WBSNode.endConcurrentAccess();
+        }
+
+        // publish the results from the calling thread, now that all of the
+        // columns are complete.
+        for (int i = 0; i < cols.size(); i++) {
+            CalculatedDataColumn c = cols.get(i);
+            times.put(c.getColumnID(), elapsed[i]);
+            if (changed[i])
+                fireColumnDataChanged(findIndexOfColumn(c));
+            dirtyColumns.remove(c);
+        }
+    }
+
     /** Recalculate a column.
      *
      * If the column depends upon any other dirty columns, they will be
@@ -515,9 +642,10 @@ public class DataTableModel<WbsT extends WBSModel> extends AbstractTableModel {
      * @param column the column to recalculate.
      * @param waitingColumns a list of columns that are waiting on this
      * column before they can recalculate.
+     * @param times a map for recording the recalculation time of each column
      */
     private void recalcColumn(CalculatedDataColumn column,
-                              Set waitingColumns)
+                              Set waitingColumns, Map<String, Long> times)
     {
         // if this column somehow isn't dirty anymore, do nothing.
         if (dirtyColumns.contains(column) == false) return;
@@ -539,25 +667,77 @@ public class DataTableModel<WbsT extends WBSModel> extends AbstractTableModel {
                     DataColumn dependentColumn = getColumn(j);
                     if (dependentColumn instanceof CalculatedDataColumn)
                         recalcColumn((CalculatedDataColumn) dependentColumn,
-                                     waitingColumns);
+                                     waitingColumns, times);
                 }
 
         } finally {
             waitingColumns.remove(column);
         }
 
+        recalcColumnNow(column, columnPos, times);
+    }
+
+    /** Recalculate a single column, without regard to its dependencies */
+    private void recalcColumnNow(CalculatedDataColumn column, int columnPos,
+            Map<String, Long> times) {
         // recalculate the column
-        if (column.recalculate()) {
-            // if data changed, fire an appropriate table model event.
-            TableModelEvent e = new TableModelEvent
-                (this, 0, getRowCount()-1, columnPos, TableModelEvent.UPDATE);
-            fireTableChanged(e);
-        }
+        long start = System.nanoTime();
+        boolean changed = column.recalculate();
+        times.put(column.getColumnID(), System.nanoTime() - start);
+
+        // if data changed, fire an appropriate table model event.
+        if (changed)
+            fireColumnDataChanged(columnPos);
 
         // remove this column from the "dirty" list.
         dirtyColumns.remove(column);
     }
 
+    private void fireColumnDataChanged(int columnPos) {
+        TableModelEvent e = new TableModelEvent
+            (this, 0, getRowCount()-1, columnPos, TableModelEvent.UPDATE);
+        fireTableChanged(e);
+    }
+
+    /** Return the time, in nanoseconds, that was spent recalculating each
+     * column during the most recent recalculation.  The map is keyed by
+     * column ID. */
+    public Map<String, Long> getLastRecalcTimes() {
+        return lastRecalcTimes;
+    }
+
+    /** Set the number of threads to use for concurrent column recalculation.
+     * A value of 1 recalculates all columns on the calling thread. */
+    public void setRecalcThreadCount(int numThreads) {
+        this.numRecalcThreads = Math.max(1, numThreads);
+    }
+
+    private void logRecalcTimes(Map<String, Long> times, long totalTime) {
+        List<Entry<String, Long>> entries =
+            new ArrayList<Entry<String, Long>>(times.entrySet());
+        Collections.sort(entries, new Comparator<Entry<String, Long>>() {
+            public int compare(Entry<String, Long> a, Entry<String, Long> b) {
+                return b.getValue().compareTo(a.getValue());
+            }});
+        StringBuilder msg = new StringBuilder();
+        msg.append("Recalculated ").append(times.size())
+                .append(" columns in ").append(totalTime / 1000000)
+                .append(" ms");
+        for (Entry<String, Long> e : entries)
+            msg.append("\n    ").append(e.getKey()).append(": ")
+                    .append(e.getValue() / 1000).append(" us");
+        logger.fine(msg.toString());
+    }
+
+    private static final Logger logger = Logger
+            .getLogger(DataTableModel.class.getName());
+
+    private static int getDefaultThreadCount() {
+        int result = Integer.getInteger("teamdash.wbs.columnRecalcThreads",
+            WorkerPool.getDefaultThreadCount(8));
+        return Math.max(1, result);
+    }
+
 
     /**
      * Customize the behavior and appearance of the columns in a table which is
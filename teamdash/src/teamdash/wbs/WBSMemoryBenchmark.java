@@ -0,0 +1,145 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Team Functionality Add-ons for the Process Dashboard
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+
+package teamdash.wbs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the memory used by HashMap and CompactAttributeMap attribute
+ * storage, over a generated WBS whose nodes carry the kinds of attributes
+ * found in large team projects: per-member estimates, calculated values,
+ * and a handful of rarely used text attributes.
+ *
+ * Usage: WBSMemoryBenchmark [numNodes [numMembers]]
+ */
+public class WBSMemoryBenchmark {
+
+    public static void main(String[] args) {
+        int numNodes = (args.length > 0 ? Integer.parseInt(args[0]) : 30000);
+        int numMembers = (args.length > 1 ? Integer.parseInt(args[1]) : 12);
+
+        String[] memberAttrs = new String[numMembers];
+        String[] calcAttrs = new String[numMembers];
+        for (int i = 0; i < numMembers; i++) {
+            memberAttrs[i] = "m" + i + "-Time";
+            calcAttrs[i] = "_m" + i + "-Remaining_Time";
+        }
+
+        System.out.println("Generating a WBS with " + numNodes
+                + " nodes and " + numMembers + " team members");
+        for (int pass = 0; pass < 2; pass++) {
+            run(false, numNodes, memberAttrs, calcAttrs, pass == 1);
+            run(true, numNodes, memberAttrs, calcAttrs, pass == 1);
+        }
+    }
+
+    private static void run(boolean compact, int numNodes,
+            String[] memberAttrs, String[] calcAttrs, boolean print) {
+        WBSNode.COMPACT_ATTRIBUTES = compact;
+        long before = usedMemory();
+        WBSModel model = buildModel(numNodes, memberAttrs, calcAttrs);
+        long after = usedMemory();
+        int numAttrs = 0;
+        for (WBSNode node : model.getWbsNodes())
+            numAttrs += node.listAttributeNames().size();
+
+        // time a typical calculation pass over the numeric attributes
+        long start = System.nanoTime();
+        double total = 0;
+        for (int i = 0; i < 20; i++)
+            total += sumTimes(model, memberAttrs, calcAttrs);
+        long elapsed = System.nanoTime() - start;
+
+        if (print) {
+            String label = (compact ? "Compact: " : "HashMap: ");
+            System.out.println(label + ((after - before) / 1024) + " KB for "
+                    + numAttrs + " attributes ("
+                    + ((after - before) / numAttrs) + " bytes/attr), "
+                    + (elapsed / 20000000) + " ms/calc pass [" + total + "]");
+        }
+        if (model.size() == 0)
+            System.out.println();  // keep the model reachable until here
+    }
+
+    private static WBSModel buildModel(int numNodes, String[] memberAttrs,
+            String[] calcAttrs) {
+        WBSModel model = new WBSModel("Benchmark", false);
+        List<WBSNode> nodes = new ArrayList<WBSNode>(numNodes);
+        for (int i = 1; i < numNodes; i++) {
+            int indent = 1 + (i % 4);
+            String type = (indent < 4 ? TeamProcess.COMPONENT_TYPE : "Task");
+            WBSNode node = new WBSNode(model, "Node " + i, type, indent, true);
+            node.setUniqueID(i);
+            node.setAttribute("Task ID", "B:" + i);
+            node.setNumericAttribute("Filtered_Time", i % 50);
+            node.setNumericAttribute("Time (Top Down)", i % 70);
+            node.setNumericAttribute("Actual_Team_Time", i % 30);
+            for (int m = 0; m < memberAttrs.length; m++) {
+                if ((i + m) % 3 == 0) {
+                    node.setNumericAttribute(memberAttrs[m], (i * m) % 40);
+                    node.setNumericAttribute(calcAttrs[m], (i + m) % 20);
+                }
+            }
+            if (i % 10 == 0)
+                node.setAttribute("Labels", "label" + (i % 7));
+            if (i % 100 == 0)
+                node.setAttribute("Notes", "Note for node " + i);
+            nodes.add(node);
+        }
+        for (WBSNode node : nodes)
+            model.addImpl(node);
+        model.recalcRows(false);
+        return model;
+    }
+
+    private static double sumTimes(WBSModel model, String[] memberAttrs,
+            String[] calcAttrs) {
+        double result = 0;
+        for (WBSNode node : model.getWbsNodes()) {
+            for (int m = 0; m < memberAttrs.length; m++) {
+                double t = node.getNumericAttribute(memberAttrs[m]);
+                if (!Double.isNaN(t)) {
+                    result += t;
+                    node.setNumericAttribute(calcAttrs[m], t / 2);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+}
@@ -127,7 +127,17 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
     public static final String WBS_MODEL_TAG = "wbsModel";
 
     /** The flat list of nodes in this work breakdown structure */
-    private ArrayList<WBSNode> wbsNodes;
+    private IndexedNodeList wbsNodes;
+
+    /** A number that is incremented each time the structure index is rebuilt.
+     * A node's NodeStructure is only current if it has the same version.
+     * This is written after the rebuilt index is complete, so a reader that
+     * sees a matching version also sees the fully built structure. */
+    private volatile int structureVersion = 0;
+
+    /** The modification count of the wbsNodes list when the structure index
+     * was last rebuilt */
+    private volatile int structureModCount = -1;
 
     /** An object which can check the WBS for errors. */
     private WBSModelValidator validator;
@@ -154,7 +164,7 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
     }
 
     public WBSModel(String rootNodeName, String defaultNodeName) {
-        wbsNodes = new ArrayList();
+        wbsNodes = new IndexedNodeList();
         if (rootNodeName == null || rootNodeName.trim().length() == 0)
             rootNodeName = "Team Project";
         add(new WBSNode(this, rootNodeName, "Project", 0, true));
@@ -168,7 +178,7 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
     /** Load a work breakdown structure from the data in the given XML element.
      */
     public WBSModel(Element e) {
-        wbsNodes = new ArrayList();
+        wbsNodes = new IndexedNodeList();
         loadXML(e);
         validator = new WBSModelValidator(this);
         validator.recalc();
@@ -178,7 +188,7 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
      */
     public WBSModel(SAXParser p, InputSource in)
             throws IOException, SAXException {
-        wbsNodes = new ArrayList();
+        wbsNodes = new IndexedNodeList();
         loadXML(p, in);
         validator = new WBSModelValidator(this);
         validator.recalc();
@@ -293,14 +303,8 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
         if (!(n instanceof WBSNode))
             return -1;
 
-        // get the structure data and return the cached pos if it is correct.
-        NodeStructure s = getStructure((WBSNode) n);
-        if (s.pos >= 0 && s.pos < wbsNodes.size() && wbsNodes.get(s.pos) == n)
-            return s.pos;
-
-        // find the node in the list, cache the result, and return it.
-        s.pos = wbsNodes.indexOf(n);
-        return s.pos;
+        NodeStructure s = getIndexedStructure((WBSNode) n);
+        return (s == null ? -1 : s.pos);
     }
 
     protected WBSNode getNodeForPos(int pos) {
@@ -332,8 +336,8 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
     public WBSNode[] getReorderableChildren(Object n) {
         if (!(n instanceof WBSNode)) return EMPTY_NODE_LIST;
 
-        WBSNode node = (WBSNode) n;
-        NodeStructure s = getStructure(node);
+        NodeStructure s = getIndexedStructure((WBSNode) n);
+        if (s == null) return EMPTY_NODE_LIST;
         WBSNode[] result = s.reorderableChildren;
         if (result != null) return result;
 
@@ -347,13 +351,13 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
     public WBSNode[] getChildren(Object n) {
         if (!(n instanceof WBSNode)) return EMPTY_NODE_LIST;
 
-        WBSNode node = (WBSNode) n;
-        NodeStructure s = getStructure(node);
+        NodeStructure s = getIndexedStructure((WBSNode) n);
+        if (s == null) return EMPTY_NODE_LIST;
         WBSNode[] result = s.children;
         if (result != null) return result;
 
-        IntList childIndexes = getChildIndexes(n);
-        if (childIndexes == null || childIndexes.size() == 0)
+        IntList childIndexes = s.childIndexes;
+        if (childIndexes.size() == 0)
             result = EMPTY_NODE_LIST;
         else {
             result = new WBSNode[childIndexes.size()];
@@ -368,34 +372,42 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
 
     public WBSNode getParent(WBSNode n) {
         if (n == null) return null;
-        NodeStructure s = getStructure(n);
-        if (s.parent != null) return s.parent;
+        NodeStructure s = getIndexedStructure(n);
+        return (s == null ? null : s.parent);
+    }
 
-        int pos = getIndexOfNode(n);
-        if (pos == -1) return null;
-
-        int nodeIndentLevel = n.getIndentLevel();
-        WBSNode possibleParent;
-        while (pos-- > 0) {
-            possibleParent = (WBSNode) wbsNodes.get(pos);
-            if (possibleParent.getIndentLevel() < nodeIndentLevel) {
-                s.parent = possibleParent;
-                return possibleParent;
-            }
-        }
+    /** Return the depth of a node within the tree (0 for the root node), or
+     * -1 if the node is not in this model. */
+    public int getDepth(WBSNode n) {
+        NodeStructure s = (n == null ? null : getIndexedStructure(n));
+        return (s == null ? -1 : s.depth);
+    }
 
-        return null;
+    /** Return true if <tt>ancestor</tt> is a proper ancestor of <tt>n</tt>
+     * in this model. */
+    public boolean isAncestor(WBSNode ancestor, WBSNode n) {
+        if (ancestor == null || n == null)
+            return false;
+        NodeStructure a = getIndexedStructure(ancestor);
+        NodeStructure s = getIndexedStructure(n);
+        return (a != null && s != null && a.pos < s.pos && s.pos < a.end);
     }
 
     public String getFullName(WBSNode n) {
-        WBSNode parent = getParent(n);
-        if (parent != null)
-            return getFullName(parent) + "/" + n.getName();
-        else if (n == getRoot())
-            return "/" + n.getName();
-        else
+        NodeStructure s = (n == null ? null : getIndexedStructure(n));
+        if (s == null)
             // the given node doesn't exist in our node list.
             return null;
+
+        String[] names = new String[s.depth + 1];
+        for (int i = s.depth;  i >= 0;  i--) {
+            names[i] = n.getName();
+            n = n.structure.parent;
+        }
+        StringBuilder result = new StringBuilder();
+        for (String name : names)
+            result.append('/').append(name);
+        return result.toString();
     }
 
     public WBSNode getDescendantByName(WBSNode parent, String descName) {
@@ -421,47 +433,23 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
         if (!(n instanceof WBSNode))
             return null;
 
-        WBSNode node = (WBSNode) n;
-        NodeStructure s = getStructure(node);
-        IntList result = s.childIndexes;
-        if (result != null) return result;
-
-        int pos = getIndexOfNode(n);
-        if (pos == -1) return null;
-
-        int parentIndentLevel = node.getIndentLevel();
-        int minChildIndentLevel = Integer.MAX_VALUE;
-        result = new IntList();
-
-        while (++pos < wbsNodes.size()) {
-            WBSNode possibleChildNode = (WBSNode) wbsNodes.get(pos);
-            int nodeIndentLevel = possibleChildNode.getIndentLevel();
-
-            // if this node is at the same indentation level as the
-            // parent, or if it is further left than the parent, then
-            // it is impossible for the parent to have any more children
-            if (nodeIndentLevel <= parentIndentLevel)
-                break;
-
-            // if this node is indented more deeply than the current
-            // child indentation level, then it is not a direct child
-            // of the parent.
-            if (nodeIndentLevel > minChildIndentLevel)
-                continue;
-
-            // this node is a direct child of the parent.  Store it
-            // in our result list.
-            result.add(pos);
-            minChildIndentLevel = nodeIndentLevel;
-        }
-
-        s.childIndexes = result;
-        return result;
+        NodeStructure s = getIndexedStructure((WBSNode) n);
+        return (s == null ? null : s.childIndexes);
     }
 
     protected IntList getDescendantIndexes(WBSNode node, int pos) {
         if (node == null)
             node = (WBSNode) wbsNodes.get(pos);
+
+        // use the preorder range from the structure index if possible
+        NodeStructure s = getIndexedStructure(node);
+        if (s != null && s.pos == pos) {
+            IntList result = new IntList(s.end - pos);
+            for (int i = pos + 1;  i < s.end;  i++)
+                result.add(i);
+            return result;
+        }
+
         int parentIndentLevel = node.getIndentLevel();
 
         WBSNode possibleDescendantNode;
@@ -602,8 +590,9 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
         IntList resultList = new IntList(wbsNodes.size());
         if (isExpansionOnly)
             recalcRows(resultList, 0);
-        else
+        else synchronized (this) {
             recalcStructureAndRows(resultList);
+        }
         int[] oldRows = rows;
         rows = resultList.getAsArray();
         if (notify)
@@ -636,46 +625,94 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
     // In a single pass through the list of WBS nodes, calculate the parents,
     // the child indexes, and the nodes which are visible on each row.
     private void recalcStructureAndRows(IntList rows) {
+        // build new structures for every node, leaving the current ones
+        // untouched for any threads that are reading them.
+        int newVersion = structureVersion + 1;
+
         // add an entry for the root node
-        rows.add(0);
-        StructureData sd = new StructureData(0);
+        if (rows != null)
+            rows.add(0);
+        StructureData sd = new StructureData(0, newVersion);
 
         // iterate over other nodes, calculate their structure, and add them
         // to the row list if applicable
         for (int i = 1;  i < wbsNodes.size();  i++) {
             sd = sd.appendNextRow(i);
-            if (sd.visible)
+            if (sd.visible && rows != null)
                 rows.add(i);
         }
+
+        // the subtrees that are still open extend to the end of the list
+        for (;  sd != null;  sd = sd.parent)
+            sd.node.structure.end = wbsNodes.size();
+
+        // publish the new index
+        structureModCount = wbsNodes.getModCount();
+        structureVersion = newVersion;
+    }
+
+    /** Return the structure of a node, rebuilding the structure index first
+     * if the list of nodes has changed.
+     * 
+     * @return the current structure of the node, or null if the node is not
+     *     in this model.
+     */
+    private NodeStructure getIndexedStructure(WBSNode node) {
+        if (structureModCount != wbsNodes.getModCount())
+            recalcStructure();
+
+        // read the version before the structure, so a matching structure is
+        // guaranteed to be fully built
+        int version = structureVersion;
+        NodeStructure s = node.structure;
+        if (s != null && s.model == this && s.version == version)
+            return s;
+
+        // this node is either foreign to our model, or its structure was
+        // discarded.  In the latter case, rebuild the index to restore it.
+        if (wbsNodes.indexOf(node) == -1)
+            return null;
+        recalcStructure();
+        return node.structure;
+    }
+
+    /** Bring the structure index up to date and fill in its lazily computed
+     * children arrays, so the structure can be read by several threads at
+     * once without being written to. */
+    synchronized void prepareForConcurrentReads() {
+        if (structureModCount != wbsNodes.getModCount())
+            recalcStructure();
+        for (WBSNode node : wbsNodes)
+            getReorderableChildren(node);
+    }
+
+    private synchronized void recalcStructure() {
+        if (!wbsNodes.isEmpty())
+            recalcStructureAndRows(null);
     }
 
     class NodeStructure {
         private WBSModel model;
+        private int version;
         private WBSNode parent;
         private WBSNode[] children;
         private WBSNode[] reorderableChildren;
         private IntList childIndexes;
+        /** the position of this node in the wbsNodes list */
         private int pos;
-
-        private NodeStructure() {
-            model = WBSModel.this;
-            pos = -1;
-        }
-
-        private void reset(int newPos) {
-            parent = null;
-            children = reorderableChildren = null;
-            childIndexes = new IntList();
-            pos = newPos;
+        /** the position just past the last descendant of this node */
+        private int end;
+        /** the depth of this node in the tree */
+        private int depth;
+
+        private NodeStructure(int version, int pos) {
+            this.model = WBSModel.this;
+            this.version = version;
+            this.childIndexes = new IntList();
+            this.pos = this.end = pos;
         }
     }
 
-    private NodeStructure getStructure(WBSNode node) {
-        if (node.structure == null || node.structure.model != this)
-            node.structure = new NodeStructure();
-        return node.structure;
-    }
-
     private class StructureData {
         StructureData parent;
         int nodePos;
@@ -683,20 +720,25 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
         boolean visible;
         boolean expanded;
 
-        public StructureData(int nodePos) {
+        public StructureData(int nodePos, int version) {
             this.nodePos = nodePos;
             this.node = wbsNodes.get(nodePos);
             this.expanded = (nodePos == 0 || node.isExpanded());
             this.visible = (nodePos == 0 || !node.isHidden());
-            getStructure(this.node).reset(nodePos);
+            this.node.structure = new NodeStructure(version, nodePos);
         }
 
         public StructureData appendNextRow(int nodePos) {
-            StructureData result = new StructureData(nodePos);
+            StructureData result = new StructureData(nodePos,
+                    node.structure.version);
 
+            // the subtrees of nodes at the same or deeper indentation end
+            // here
             StructureData parent = this;
-            while (parent.node.getIndentLevel() >= result.node.getIndentLevel())
+            while (parent.node.getIndentLevel() >= result.node.getIndentLevel()) {
+                parent.node.structure.end = nodePos;
                 parent = parent.parent;
+            }
             result.setParent(parent);
 
             return result;
@@ -705,6 +747,7 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
         private void setParent(StructureData parent) {
             this.parent = parent;
             this.node.structure.parent = parent.node;
+            this.node.structure.depth = parent.node.structure.depth + 1;
             this.visible = this.visible && parent.visible && parent.expanded;
             parent.node.structure.childIndexes.add(this.nodePos);
         }
@@ -1524,7 +1567,7 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
      */
     public void copyFrom(WBSModel w) {
         if (w != this) {
-            wbsNodes = (ArrayList) WBSNode.cloneNodeList(w.wbsNodes, this);
+            wbsNodes = new IndexedNodeList(WBSNode.cloneNodeList(w.wbsNodes, this));
             recalcRows(false);
             fireTableDataChanged();
         }
@@ -1612,7 +1655,7 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
             synchronized (WBSModel.this) {
                 Set expandedNodeIDs = getExpandedNodeIDs();
                 Set<Integer> hiddenNodeIDs = getHiddenNodeIDs();
-                wbsNodes = (ArrayList) WBSNode.cloneNodeList(wbsNodeList);
+                wbsNodes = new IndexedNodeList(WBSNode.cloneNodeList(wbsNodeList));
                 setExpandedNodeIDs(expandedNodeIDs, false);
                 setHiddenNodeIDs(hiddenNodeIDs, false);
                 recalcRows(false);
@@ -1763,6 +1806,9 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
      * types of WBSModels. */
     void sortAllNonRootNodes(Comparator<WBSNode> c) {
         Collections.sort(wbsNodes.subList(1, wbsNodes.size()), c);
+        // sorting a sublist does not change the modification count of the
+        // node list, so the structure index must be rebuilt explicitly
+        recalcRows(false);
         fireTableDataChanged();
     }
 
@@ -1868,4 +1914,13 @@ public class WBSModel extends AbstractTableModel implements SnapshotSource {
 
     public static final String CREATED_WITH_ATTR = "createdWithVersion";
 
+
+    /** A list of WBS nodes which exposes its modification count, so the
+     * structure index can tell when it is out of date. */
+    private static class IndexedNodeList extends ArrayList<WBSNode> {
+        IndexedNodeList() {}
+        IndexedNodeList(Collection c) { super(c); }
+        int getModCount() { return modCount; }
+    }
+
 }
@@ -0,0 +1,74 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Team Functionality Add-ons for the Process Dashboard
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package teamdash.wbs;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import junit.framework.TestCase;
+
+public class WBSModelTest extends TestCase {
+
+    private WBSModel model;
+
+    private WBSNode a, b, c, c1;
+
+    protected void setUp() throws Exception {
+        model = new WBSModel("Root", false);
+        model.add(c = new WBSNode(model, "C", "Component", 1, true));
+        model.add(c1 = new WBSNode(model, "C1", "Component", 2, true));
+        model.add(b = new WBSNode(model, "B", "Component", 1, true));
+        model.add(a = new WBSNode(model, "A", "Component", 1, true));
+    }
+
+    public void testStructure() {
+        WBSNode root = model.getRoot();
+        assertEquals(3, model.getIndexOfNode(b));
+        assertSame(c, model.getParent(c1));
+        assertSame(root, model.getParent(a));
+        assertEquals(Arrays.asList(c, b, a),
+            Arrays.asList(model.getChildren(root)));
+        assertEquals(Arrays.asList(c1), Arrays.asList(model.getDescendants(c)));
+    }
+
+    public void testSortAllNonRootNodes() {
+        // build the structure index, then sort the nodes
+        assertEquals(4, model.getIndexOfNode(a));
+        model.sortAllNonRootNodes(new Comparator<WBSNode>() {
+            public int compare(WBSNode x, WBSNode y) {
+                return x.getName().compareTo(y.getName());
+            }});
+
+        // the index must reflect the new order of the nodes
+        assertEquals(1, model.getIndexOfNode(a));
+        assertEquals(2, model.getIndexOfNode(b));
+        assertEquals(3, model.getIndexOfNode(c));
+        assertEquals(4, model.getIndexOfNode(c1));
+        assertSame(c, model.getParent(c1));
+        assertEquals(Arrays.asList(a, b, c),
+            Arrays.asList(model.getChildren(model.getRoot())));
+        assertSame(c1, model.getNodeForRow(4));
+    }
+
+}
@@ -68,7 +68,7 @@ public class WBSNode implements Cloneable {
     /** True if this node is read only */
     private boolean readOnly;
     /** A collection of attributes containing the data for this node */
-    private Map attributes = new HashMap();
+    private Map attributes = newAttributeMap();
     /** A object to track structural characteristics of this node */
     WBSModel.NodeStructure structure;
 
@@ -187,7 +187,12 @@ public class WBSNode implements Cloneable {
 
     /** Set the indentation level of this node.
      * @param newLevel the new indentation level for this node.  */
-    public void setIndentLevel(int newLevel) { this.indentLevel = newLevel; }
+    public void setIndentLevel(int newLevel) {
+        if (newLevel != indentLevel)
+            // our position in the model's structure index is no longer valid
+            structure = null;
+        this.indentLevel = newLevel;
+    }
 
 
     /** Returns true if this node is currently expanded.
@@ -221,15 +226,43 @@ public class WBSNode implements Cloneable {
 
 
 
-    // Methods to get/set data attributes of the node
+    // Methods to get/set data attributes of the node.  While columns are
+    // being recalculated concurrently, the basic accessors synchronize on
+    // the node, since those columns store their data on the same nodes.
 
+    /** The number of concurrent recalculations currently in progress */
+    private static volatile int concurrentAccessCount = 0;
+
+    static synchronized void beginConcurrentAccess() {
+        concurrentAccessCount++;
+    }
+
+    static synchronized void endConcurrentAccess() {
+        concurrentAccessCount--;
+    }
 
     /** Get an attribute of type <code>Object</code> */
     public Object getAttribute(String attrName) {
+        if (concurrentAccessCount == 0)
+            return getAttributeImpl(attrName);
+        synchronized (this) {
+            return getAttributeImpl(attrName);
+        }
+    }
+    private Object getAttributeImpl(String attrName) {
         return attributes.get(attrName);
     }
     /** Set an attribute of type <code>Object</code> */
     public void setAttribute(String attrName, Object value) {
+        if (concurrentAccessCount == 0) {
+            setAttributeImpl(attrName, value);
+            return;
+        }
+        synchronized (this) {
+            setAttributeImpl(attrName, value);
+        }
+    }
+    private void setAttributeImpl(String attrName, Object value) {
         if (value == null)
             attributes.remove(attrName);
         else
@@ -249,6 +282,13 @@ public class WBSNode implements Cloneable {
     }
     /** Remove an attribute and return its previous value */
     public Object removeAttribute(String attrName) {
+        if (concurrentAccessCount == 0)
+            return removeAttributeImpl(attrName);
+        synchronized (this) {
+            return removeAttributeImpl(attrName);
+        }
+    }
+    private Object removeAttributeImpl(String attrName) {
         return attributes.remove(attrName);
     }
     /** Remove a number of attributes that match a given pattern */
@@ -286,6 +326,20 @@ public class WBSNode implements Cloneable {
      * @return <code>Double.NaN</code> if the named attribute is not set,
      *   or is not a numeric attribute. */
     public double getNumericAttribute(String attrName) {
+        if (concurrentAccessCount == 0)
+            return getNumericAttributeImpl(attrName);
+        synchronized (this) {
+            return getNumericAttributeImpl(attrName);
+        }
+    }
+    private double getNumericAttributeImpl(String attrName) {
+        if (attributes instanceof CompactAttributeMap) {
+            double result = ((CompactAttributeMap) attributes)
+                    .getDouble(attrName);
+            if (!Double.isNaN(result))
+                return result;
+        }
+
         Object value = getAttribute(attrName);
         if (value instanceof Number) {
             return ((Number) value).doubleValue();
@@ -303,7 +357,19 @@ public class WBSNode implements Cloneable {
     }
     /** Set a numeric attribute */
     public void setNumericAttribute(String attrName, double value) {
-        setAttribute(attrName, new Double(value));
+        if (concurrentAccessCount == 0) {
+            setNumericAttributeImpl(attrName, value);
+            return;
+        }
+        synchronized (this) {
+            setNumericAttributeImpl(attrName, value);
+        }
+    }
+    private void setNumericAttributeImpl(String attrName, double value) {
+        if (attributes instanceof CompactAttributeMap)
+            ((CompactAttributeMap) attributes).putDouble(attrName, value);
+        else
+            setAttribute(attrName, new Double(value));
     }
 
 
@@ -439,7 +505,7 @@ public class WBSNode implements Cloneable {
             WBSNode result = (WBSNode) super.clone();
 
             // clone the attributes Map
-            Map newAttributes = new HashMap(attributes.size());
+            Map newAttributes = newAttributeMap();
             for (Iterator i = attributes.entrySet().iterator(); i.hasNext();) {
                 Map.Entry e = (Map.Entry) i.next();
                 String name = (String) e.getKey();
@@ -592,6 +658,19 @@ public class WBSNode implements Cloneable {
         return result;
     }
 
+    /** Create an empty map for holding node attributes */
+    private static Map newAttributeMap() {
+        if (COMPACT_ATTRIBUTES)
+            return new CompactAttributeMap();
+        else
+            return new HashMap();
+    }
+
+    /** True if node attributes should be held in a CompactAttributeMap,
+     * false to use a HashMap */
+    static boolean COMPACT_ATTRIBUTES = !Boolean
+            .getBoolean("teamdash.wbs.hashAttributes");
+
     private static final int NON_TRANSIENT_ATTR = 0;
     private static final int TRANSIENT_ATTR = 1;
     private static final int ACTUAL_DATA_ATTR = 2;
@@ -31,6 +31,7 @@ import javax.swing.table.TableCellRenderer;
 
 import teamdash.merge.ui.MergeConflictNotification;
 import teamdash.team.TeamMember;
+import teamdash.wbs.ConcurrentCalculatedDataColumn;
 import teamdash.wbs.CustomRenderedColumn;
 import teamdash.wbs.DataTableModel;
 import teamdash.wbs.NumericDataValue;
@@ -47,7 +48,8 @@ import teamdash.wbs.columns.TeamMemberColumnManager.TeamMemberColumn;
  * This inherits "top-down-bottom-up" column editing behaviors.
  */
 public class TeamMemberTimeColumn extends TopDownBottomUpColumn
-    implements CustomRenderedColumn, TeamMemberColumn
+    implements CustomRenderedColumn, TeamMemberColumn,
+    ConcurrentCalculatedDataColumn
 {
 
     public static final String ATTR_SUFFIX = "-Time";
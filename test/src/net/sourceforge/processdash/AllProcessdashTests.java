@@ -1,7 +1,21 @@
 package net.sourceforge.processdash;
 
+import net.sourceforge.processdash.data.compiler.CompiledScriptTest;
+import net.sourceforge.processdash.data.repository.DataDependencyGraphTest;
+import net.sourceforge.processdash.data.repository.DataNameIndexTest;
+import net.sourceforge.processdash.data.repository.DataNotifierTest;
+import net.sourceforge.processdash.data.repository.DatafileSnapshotTest;
+import net.sourceforge.processdash.ev.EVCalculatorRollupTest;
+import net.sourceforge.processdash.ev.EVScheduleTest;
+import net.sourceforge.processdash.ev.ci.EVScheduleConfidenceIntervalsTest;
+import net.sourceforge.processdash.ev.ci.P2QuantileEstimatorTest;
 import net.sourceforge.processdash.log.time.AllTimeLogTests;
+import net.sourceforge.processdash.net.cache.FileObjectCacheTest;
+import net.sourceforge.processdash.net.http.HTMLPreprocessorTest;
 import net.sourceforge.processdash.templates.DashPackageTest;
+import net.sourceforge.processdash.templates.TemplateDiscoveryIndexTest;
+import net.sourceforge.processdash.tool.export.DataImporterTest;
+import net.sourceforge.processdash.tool.export.DirectoryWatcherTest;
 import net.sourceforge.processdash.tool.export.mgr.AllExportMgrTests;
 import net.sourceforge.processdash.util.AllUtilTests;
 import junit.framework.Test;
@@ -16,6 +30,20 @@ public class AllProcessdashTests {
 		suite.addTest(AllTimeLogTests.suite());
                 suite.addTestSuite(DashPackageTest.class);
 		suite.addTest(AllExportMgrTests.suite());
+		suite.addTestSuite(DataNameIndexTest.class);
+		suite.addTestSuite(CompiledScriptTest.class);
+		suite.addTestSuite(DataDependencyGraphTest.class);
+		suite.addTestSuite(DataNotifierTest.class);
+		suite.addTestSuite(DatafileSnapshotTest.class);
+		suite.addTestSuite(EVCalculatorRollupTest.class);
+		suite.addTestSuite(EVScheduleTest.class);
+		suite.addTestSuite(FileObjectCacheTest.class);
+		suite.addTestSuite(HTMLPreprocessorTest.class);
+		suite.addTestSuite(TemplateDiscoveryIndexTest.class);
+		suite.addTestSuite(EVScheduleConfidenceIntervalsTest.class);
+		suite.addTestSuite(P2QuantileEstimatorTest.class);
+		suite.addTestSuite(DirectoryWatcherTest.class);
+		suite.addTestSuite(DataImporterTest.class);
 		//$JUnit-END$
 		return suite;
 	}
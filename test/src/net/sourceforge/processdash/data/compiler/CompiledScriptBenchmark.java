@@ -0,0 +1,147 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.data.compiler;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import net.sourceforge.processdash.data.ImmutableDoubleData;
+import net.sourceforge.processdash.data.SimpleData;
+import net.sourceforge.processdash.data.StringData;
+
+/**
+ * Compares the interpreted and optimized execution paths of CompiledScript,
+ * using the calculations found in the datafiles of a Templates directory.
+ *
+ * Usage: CompiledScriptBenchmark [templatesDir [iterations]]
+ */
+public class CompiledScriptBenchmark {
+
+    private static final Pattern DEFINITION = Pattern
+            .compile("^\\s*\\[[^\\]]+\\]\\s*==?\\s*(.+);\\s*$");
+
+    public static void main(String[] args) throws Exception {
+        File dir = new File(args.length > 0 ? args[0] : "Templates");
+        int iterations = (args.length > 1 ? Integer.parseInt(args[1]) : 200);
+
+        List<CompiledScript> scripts = new ArrayList<CompiledScript>();
+        collectScripts(dir, scripts);
+        System.out.println("Loaded " + scripts.size() + " expressions from "
+                + dir);
+        if (scripts.isEmpty())
+            return;
+
+        int plan = 0, orig = 0;
+        for (CompiledScript s : scripts) {
+            plan += s.getPlanLength();
+            orig += s.toString().split("\n").length;
+        }
+        System.out.println("Instructions: " + orig + " compiled, " + plan
+                + " after folding");
+
+        // warm up both paths before measuring
+        for (int i = 0; i < 3; i++) {
+            run(scripts, iterations / 4 + 1, false);
+            run(scripts, iterations / 4 + 1, true);
+        }
+        long interpreted = run(scripts, iterations, false);
+        long optimized = run(scripts, iterations, true);
+
+        long evals = (long) scripts.size() * iterations;
+        System.out.println("Interpreted: " + nanosPer(interpreted, evals)
+                + " ns/eval");
+        System.out.println("Optimized:   " + nanosPer(optimized, evals)
+                + " ns/eval");
+    }
+
+    private static long run(List<CompiledScript> scripts, int iterations,
+            boolean optimized) {
+        BenchmarkContext context = new BenchmarkContext();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (CompiledScript s : scripts) {
+                try {
+                    if (optimized)
+                        s.runOptimized(new ArrayStack(), context);
+                    else
+                        s.runInterpreted(new ListStack(), context);
+                } catch (ExecutionException e) {
+                }
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long nanosPer(long total, long count) {
+        return total / count;
+    }
+
+    private static void collectScripts(File f, List<CompiledScript> dest)
+            throws IOException {
+        if (f.isDirectory()) {
+            File[] children = f.listFiles();
+            if (children != null)
+                for (File child : children)
+                    collectScripts(child, dest);
+
+        } else if (f.getName().startsWith("dataFile")
+                && f.getName().endsWith(".txt")) {
+            BufferedReader in = new BufferedReader(new FileReader(f));
+            String line;
+            while ((line = in.readLine()) != null) {
+                Matcher m = DEFINITION.matcher(line);
+                if (m.matches()) {
+                    try {
+                        dest.add(Compiler.compile(m.group(1)));
+                    } catch (Exception e) {
+                        // not a standalone expression; skip it
+                    }
+                }
+            }
+            in.close();
+        }
+    }
+
+    /** Supplies a stable, arbitrary number for every data element. */
+    private static class BenchmarkContext implements ExpressionContext {
+
+        public SimpleData get(String dataName) {
+            if (PREFIXVAR_NAME.equals(dataName))
+                return StringData.create("/Project");
+            int hash = resolveName(dataName).hashCode() & 0xff;
+            return new ImmutableDoubleData(hash, false, true);
+        }
+
+        public String resolveName(String dataName) {
+            return "/Project/" + dataName;
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.data.compiler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import net.sourceforge.processdash.data.DoubleData;
+import net.sourceforge.processdash.data.SimpleData;
+import net.sourceforge.processdash.data.StringData;
+
+public class CompiledScriptTest extends TestCase {
+
+    private static final String[] EXPRESSIONS = { "1 + 2 * 3",
+            "[a] + 2 * 3", "-(4 / 2) + [b]", "[a] / 0", "\"x\" & \"y\"",
+            "[a] > 3 && 1 < 2", "!0 || [c]", "max([a], 1 + 1, [b])",
+            "iff([a] > 1, 2 * 3, [b])", "nvl([c], 3 - 1)" };
+
+    private TestContext context;
+
+    protected void setUp() throws Exception {
+        context = new TestContext();
+        context.values.put("/Project/a", new DoubleData(5));
+        context.values.put("/Project/b", new DoubleData(7));
+    }
+
+    public void testFolding() throws Exception {
+        assertPlanLength(1, "1 + 2 * 3");
+        assertPlanLength(3, "[a] + 2 * 3");
+        assertPlanLength(3, "-(4 / 2) + [b]");
+        // function calls are never folded, but their arguments may be
+        assertPlanLength(4, "max(1 + 1, 2)");
+    }
+
+    public void testConsistentResults() throws Exception {
+        for (String expr : EXPRESSIONS) {
+            CompiledScript script = Compiler.compile(expr);
+
+            ListStack listStack = new ListStack();
+            script.runInterpreted(listStack, context);
+            ArrayStack arrayStack = new ArrayStack(1);
+            script.runOptimized(arrayStack, context);
+
+            assertEquals(expr, listStack.peekDescriptor(),
+                arrayStack.peekDescriptor());
+            assertEquals(expr, format(listStack.pop()),
+                format(arrayStack.pop()));
+            assertTrue(listStack.empty());
+            assertTrue(arrayStack.empty());
+        }
+    }
+
+    public void testConstantScriptsStayEditable() throws Exception {
+        CompiledScript script = Compiler.compile("2 * 3");
+        assertFalse(script.isConstant());
+        assertEquals(1, script.getPlanLength());
+    }
+
+    public void testArrayStack() {
+        ArrayStack stack = new ArrayStack(1);
+        assertTrue(stack.empty());
+        for (int i = 0; i < 20; i++)
+            stack.push(new Integer(i), "d" + i);
+        assertEquals(new Integer(19), stack.peek());
+        assertEquals("d19", stack.peekDescriptor());
+        for (int i = 19; i >= 10; i--)
+            assertEquals(new Integer(i), stack.pop());
+        stack.push("x");
+        assertNull(stack.peekDescriptor());
+        stack.clear();
+        assertTrue(stack.empty());
+        try {
+            stack.pop();
+            fail("expected exception");
+        } catch (RuntimeException e) {}
+    }
+
+    private void assertPlanLength(int expected, String expr)
+            throws Exception {
+        assertEquals(expr, expected, Compiler.compile(expr).getPlanLength());
+    }
+
+    private String format(Object value) {
+        if (value == null)
+            return null;
+        SimpleData d = (SimpleData) value;
+        return d.format() + "/" + d.isEditable() + "/" + d.isDefined();
+    }
+
+    private class TestContext implements ExpressionContext {
+        Map<String, SimpleData> values = new HashMap<String, SimpleData>();
+
+        public SimpleData get(String dataName) {
+            if (PREFIXVAR_NAME.equals(dataName))
+                return StringData.create("/Project");
+            return values.get(resolveName(dataName));
+        }
+
+        public String resolveName(String dataName) {
+            return "/Project/" + dataName;
+        }
+    }
+
+}
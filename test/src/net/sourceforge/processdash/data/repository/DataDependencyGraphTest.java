@@ -0,0 +1,180 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.data.repository;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import net.sourceforge.processdash.data.compiler.Compiler;
+
+public class DataDependencyGraphTest extends TestCase {
+
+    private DataDependencyGraph graph;
+
+    protected void setUp() throws Exception {
+        graph = new DataDependencyGraph();
+    }
+
+    public void testDiamond() throws Exception {
+        CompiledFunction b = calc("/B", "/A");
+        CompiledFunction c = calc("/C", "/A");
+        CompiledFunction d = calc("/D", "/B", "/C");
+        CompiledFunction e = calc("/E", "/D", "/A");
+
+        Map<CompiledFunction, Set<String>> affected = graph.getAffected("/A");
+        List<CompiledFunction> order = new ArrayList<CompiledFunction>(
+                affected.keySet());
+        assertEquals(4, order.size());
+        assertTrue(order.indexOf(b) < order.indexOf(d));
+        assertTrue(order.indexOf(c) < order.indexOf(d));
+        assertTrue(order.indexOf(d) < order.indexOf(e));
+        assertEquals(set("/A"), affected.get(b));
+        assertEquals(set("/B", "/C"), affected.get(d));
+        assertEquals(set("/D", "/A"), affected.get(e));
+
+        affected = graph.getAffected("/C");
+        assertEquals(Arrays.asList(d, e),
+            new ArrayList<CompiledFunction>(affected.keySet()));
+        assertEquals(set("/C"), affected.get(d));
+        assertEquals(set("/D"), affected.get(e));
+
+        assertTrue(graph.getAffected("/E").isEmpty());
+        assertTrue(graph.getAffected("/Unrelated").isEmpty());
+    }
+
+    public void testRemoval() throws Exception {
+        CompiledFunction b = calc("/B", "/A");
+        CompiledFunction d = calc("/D", "/B");
+        assertEquals(2, graph.getAffected("/A").size());
+
+        graph.removeDependency("/B", d);
+        assertEquals(set(b), graph.getAffected("/A").keySet());
+
+        graph.removeCalculation(b);
+        assertTrue(graph.getAffected("/A").isEmpty());
+        assertEquals(1, graph.size());
+    }
+
+    public void testCycle() throws Exception {
+        CompiledFunction x = calc("/X", "/A", "/Y");
+        CompiledFunction y = calc("/Y", "/X");
+        CompiledFunction z = calc("/Z", "/A");
+        Map<CompiledFunction, Set<String>> affected = graph.getAffected("/A");
+        assertEquals(3, affected.size());
+        assertSame(z, affected.keySet().iterator().next());
+        assertTrue(affected.containsKey(x));
+        assertTrue(affected.containsKey(y));
+
+        StringWriter out = new StringWriter();
+        graph.dump(out);
+        String dump = out.toString();
+        assertTrue(dump, dump.startsWith("# 3 calculations, 4 dependencies"));
+        assertTrue(dump, dump.indexOf("/X [depth=circular]") != -1);
+        assertTrue(dump, dump.indexOf("/Z [depth=1]\n    <- /A\n") != -1);
+    }
+
+    public void testExpectedChanges() throws Exception {
+        CompiledFunction b = calc("/B", "/A");
+        CompiledFunction d = calc("/D", "/B");
+
+        // simulate a calculation that has completed
+        int count = d.extChanges.getUnhandledChangeCount();
+        assertTrue(d.extChanges.maybeClearDirty(count, null, null));
+        assertFalse(d.extChanges.isDirty());
+
+        // changing /A should mark /D as dirty, and anticipate the event for /B
+        assertEquals(2, graph.invalidate("/A"));
+        assertTrue(d.extChanges.isDirty());
+        assertTrue(expected(d, "/B"));
+        assertFalse(expected(b, "/B"));
+        assertTrue(expected(b, "/A"));
+
+        // the same change may be reported more than once
+        assertTrue(expected(d, "/B"));
+    }
+
+    public void testDroppedNotification() throws Exception {
+        CompiledFunction b = calc("/B", "/A");
+        CompiledFunction d = calc("/D", "/B");
+
+        // change /A, but never deliver the resulting notifications
+        graph.invalidate("/A");
+        int count = d.extChanges.getUnhandledChangeCount();
+        assertTrue(d.extChanges.maybeClearDirty(count, null, null));
+
+        // /B now changes for a reason the graph did not anticipate.  /D must
+        // treat the notification as a real change and recalculate.
+        graph.changed("/B");
+        assertFalse(expected(d, "/B"));
+        assertFalse(expected(d, "/B"));
+
+        // a later anticipated change is recognized again
+        graph.invalidate("/A");
+        assertTrue(expected(d, "/B"));
+        assertTrue(expected(b, "/A"));
+    }
+
+    public void testResubscribedInput() throws Exception {
+        CompiledFunction b = calc("/B", "/A");
+        graph.invalidate("/A");
+
+        // if /A loses its dependents and gains them again, the old
+        // expectation must not match the new subscription
+        graph.removeDependency("/A", b);
+        graph.addDependency("/A", b, "/B");
+        assertFalse(expected(b, "/A"));
+    }
+
+    public void testUnrelatedChangeSkipsGraph() throws Exception {
+        calc("/B", "/A");
+        assertEquals(0, graph.invalidate("/Unrelated"));
+        graph.changed("/Unrelated");
+        assertEquals(1, graph.invalidate("/A"));
+    }
+
+    private boolean expected(CompiledFunction f, String inputName) {
+        return f.extChanges.consumeExpectedChange(inputName, graph);
+    }
+
+    private CompiledFunction calc(String name, String... inputs)
+            throws Exception {
+        CompiledFunction result = new CompiledFunction(name,
+                Compiler.compile("0"), null, "");
+        for (String input : inputs)
+            graph.addDependency(input, result, name);
+        return result;
+    }
+
+    private Set set(Object... items) {
+        return new HashSet(Arrays.asList(items));
+    }
+
+}
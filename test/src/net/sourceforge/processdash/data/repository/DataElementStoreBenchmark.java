@@ -0,0 +1,98 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.data.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the heap used by the hashtable and concurrent data element
+ * stores, over a generated set of names shaped like those found in a large
+ * dashboard dataset: many projects and tasks sharing the same local data
+ * names.  The memory reported excludes the name strings themselves, which
+ * the repository holds regardless of the storage engine.
+ *
+ * Usage: DataElementStoreBenchmark [numNames]
+ */
+public class DataElementStoreBenchmark {
+
+    private static final String[] LOCAL_NAMES = { "Time", "Estimated Time",
+            "Orig_Time", "Defects Injected", "Defects Removed", "Started",
+            "Completed", "Node", "Rollup_Tag", "Estimated Size",
+            "Actual Size", "Task Dependencies", "EV_Task_IDs", "Labels",
+            "Notes", "Planned Value", "Earned Value", "Workflow_Source_ID",
+            "Phase_Type", "Timer_Start" };
+
+    public static void main(String[] args) {
+        int numNames = (args.length > 0 ? Integer.parseInt(args[0])
+                : 500000);
+        List<String> names = generateNames(numNames);
+        Object value = new Object();
+
+        System.out.println("Storing " + names.size() + " data names");
+        for (int pass = 0; pass < 2; pass++) {
+            for (String type : new String[] {
+                    DataElementStore.STORAGE_HASHTABLE,
+                    DataElementStore.STORAGE_CONCURRENT }) {
+                long before = usedMemory();
+                DataElementStore<Object> store = DataElementStore.create(
+                    type, 1000);
+                for (String name : names)
+                    store.putIfAbsent(name, value);
+                long after = usedMemory();
+                if (pass == 1)
+                    System.out.println(type + ": " + ((after - before) / 1024)
+                            + " KB (" + ((after - before) / names.size())
+                            + " bytes/name)");
+                if (store.size() != names.size())
+                    System.out.println("Unexpected size " + store.size());
+            }
+        }
+    }
+
+    private static List<String> generateNames(int numNames) {
+        List<String> result = new ArrayList<String>(numNames);
+        int perTask = LOCAL_NAMES.length;
+        for (int i = 0; result.size() < numNames; i++) {
+            String task = "/Project/Team Project " + (i / 500)
+                    + "/Component " + ((i / 25) % 20) + "/Task " + (i % 25);
+            for (int j = 0; j < perTask && result.size() < numNames; j++)
+                result.add(task + "/" + LOCAL_NAMES[j]);
+        }
+        return result;
+    }
+
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+}
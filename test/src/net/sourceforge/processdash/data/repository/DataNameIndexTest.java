@@ -0,0 +1,175 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.data.repository;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+public class DataNameIndexTest extends TestCase {
+
+    private static final String[] NAMES = { "/Project/Foo/Time",
+            "/Project/Foo/Design/Time", "/Project/Foo//Bar",
+            "/Project/Food/Time", "/Project/Foo", "/Global", "/", "" };
+
+    private DataNameIndex<String> index;
+
+    protected void setUp() throws Exception {
+        index = new DataNameIndex<String>();
+        for (String name : NAMES)
+            index.put(name, "value " + name);
+    }
+
+    public void testGet() {
+        assertEquals(NAMES.length, index.size());
+        for (String name : NAMES)
+            assertEquals("value " + name, index.get(name));
+        assertNull(index.get("/Project"));
+        assertNull(index.get("/Project/Foo/Design"));
+        assertNull(index.get("/Nonexistent/Name"));
+    }
+
+    public void testPrefixQueries() {
+        for (String prefix : new String[] { null, "", "/", "/Project",
+                "/Project/", "/Project/Foo", "/Project/Foo/",
+                "/Project/Foo//", "/Project/Fo", "/Glo", "/Missing/" })
+            assertPrefixMatches(prefix);
+    }
+
+    public void testRemove() {
+        assertFalse(index.remove("/Project/Foo/Time", "wrong value"));
+        assertTrue(index.remove("/Project/Foo/Time",
+            "value /Project/Foo/Time"));
+        assertFalse(index.remove("/Project/Foo/Time",
+            "value /Project/Foo/Time"));
+        assertNull(index.get("/Project/Foo/Time"));
+        assertEquals(NAMES.length - 1, index.size());
+
+        assertTrue(index.remove("/Project/Foo/Design/Time",
+            "value /Project/Foo/Design/Time"));
+        assertEquals(set("/Project/Foo//Bar", "/Project/Foo",
+            "/Project/Food/Time"), new HashSet(index.getNames("/Project/Foo")));
+        assertEquals(set("value /Project/Foo//Bar"),
+            new HashSet(index.getValues("/Project/Foo/")));
+    }
+
+    public void testRandomNames() {
+        Random r = new Random(42);
+        String[] segments = { "a", "ab", "b", "", "Time", "Design" };
+        Set<String> names = new HashSet<String>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuffer name = new StringBuffer();
+            int len = r.nextInt(5) + 1;
+            while (len-- > 0)
+                name.append("/").append(segments[r.nextInt(segments.length)]);
+            names.add(name.toString());
+        }
+
+        index = new DataNameIndex<String>();
+        for (String name : names)
+            index.put(name, name);
+        Set<String> expected = new HashSet<String>(names);
+        for (String name : names)
+            if (r.nextBoolean()) {
+                assertTrue(index.remove(name, name));
+                expected.remove(name);
+            }
+        assertEquals(expected, new HashSet(index.getNames(null)));
+        for (String prefix : new String[] { "/a", "/a/", "/ab/Time",
+                "/Design/", "//", "/T" }) {
+            Set<String> expectedMatches = new HashSet<String>();
+            for (String name : expected)
+                if (name.startsWith(prefix))
+                    expectedMatches.add(name);
+            assertEquals(expectedMatches, new HashSet(index.getNames(prefix)));
+        }
+    }
+
+    public void testConcurrentChanges() throws Exception {
+        index = new DataNameIndex<String>();
+        final String[] segments = { "a", "b", "Time" };
+        final Throwable[] error = new Throwable[1];
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+            threads[t] = new Thread() {
+                public void run() {
+                    try {
+                        // each thread adds and removes its own names, which
+                        // share their leading segments with other threads
+                        Random r = new Random(id);
+                        for (int i = 0; i < 20000; i++) {
+                            String name = "/" + segments[r.nextInt(3)] + "/"
+                                    + segments[r.nextInt(3)] + "/" + id;
+                            if (r.nextBoolean())
+                                index.put(name, name);
+                            else
+                                index.remove(name, name);
+                            index.getNames("/" + segments[r.nextInt(3)]);
+                        }
+                        // finish with one name per thread under each path
+                        for (String x : segments)
+                            for (String y : segments)
+                                index.put("/" + x + "/" + y + "/" + id, "x");
+                    } catch (Throwable e) {
+                        error[0] = e;
+                    }
+                }};
+            threads[t].start();
+        }
+        for (Thread t : threads)
+            t.join();
+        if (error[0] != null)
+            throw new Exception(error[0]);
+
+        Set<String> expected = new HashSet<String>();
+        for (String x : segments)
+            for (String y : segments)
+                for (int id = 0; id < threads.length; id++)
+                    expected.add("/" + x + "/" + y + "/" + id);
+        assertEquals(expected.size(), index.size());
+        assertEquals(expected, new HashSet(index.getNames(null)));
+        for (String name : expected)
+            assertEquals("x", index.get(name));
+    }
+
+    private void assertPrefixMatches(String prefix) {
+        Set<String> expected = new HashSet<String>();
+        for (String name : NAMES)
+            if (prefix == null || name.startsWith(prefix))
+                expected.add(name);
+        assertEquals("prefix " + prefix, expected,
+            new HashSet(index.getNames(prefix)));
+    }
+
+    private Set<String> set(String... items) {
+        Set<String> result = new HashSet<String>();
+        for (String s : items)
+            result.add(s);
+        return result;
+    }
+
+}
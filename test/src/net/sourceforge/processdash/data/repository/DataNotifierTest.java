@@ -0,0 +1,168 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.data.repository;
+
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import net.sourceforge.processdash.Settings;
+import net.sourceforge.processdash.data.DoubleData;
+
+public class DataNotifierTest extends TestCase {
+
+    private static final String THREADS_PROP = Settings.SYS_PROP_PREFIX
+            + DataRepository.NOTIFIER_THREADS_SETTING;
+
+    private DataRepository data;
+
+    protected void tearDown() throws Exception {
+        System.clearProperty(THREADS_PROP);
+        if (data != null)
+            data.shutDown();
+    }
+
+    public void testSerialDelivery() throws Exception {
+        checkDelivery(1);
+    }
+
+    public void testParallelDelivery() throws Exception {
+        checkDelivery(3);
+    }
+
+    private void checkDelivery(int numThreads) throws Exception {
+        createRepository(numThreads);
+        CountingListener[] listeners = new CountingListener[5];
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i] = new CountingListener(20);
+            data.addDataListener("/value" + i, listeners[i], false);
+        }
+
+        for (int i = 0; i < listeners.length; i++)
+            data.putValue("/value" + i, new DoubleData(i));
+        data.waitForCalculations();
+
+        // each listener has been notified by the time the flush returns, and
+        // no listener was ever notified by two threads at once
+        for (int i = 0; i < listeners.length; i++) {
+            assertEquals(1, listeners[i].calls.get());
+            assertEquals(1, listeners[i].maxConcurrent.get());
+        }
+    }
+
+    public void testFlushFromNotifierThreadSkipsBusyListeners()
+            throws Exception {
+        createRepository(3);
+        final CountDownLatch slowStarted = new CountDownLatch(1);
+        final CountDownLatch releaseSlow = new CountDownLatch(1);
+        final CountingListener slow = new CountingListener(0) {
+            protected void work() throws InterruptedException {
+                slowStarted.countDown();
+                releaseSlow.await(10, TimeUnit.SECONDS);
+            }
+        };
+        final long[] flushTime = new long[1];
+        DataListener flusher = new CountingListener(0) {
+            protected void work() {
+                // give the busy listener a new pending event, then flush
+                data.putValue("/slow", new DoubleData(2));
+                long start = System.currentTimeMillis();
+                data.waitForCalculations();
+                flushTime[0] = System.currentTimeMillis() - start;
+            }
+        };
+        data.addDataListener("/slow", slow, false);
+        data.addDataListener("/flusher", flusher, false);
+
+        data.putValue("/slow", new DoubleData(1));
+        assertTrue(slowStarted.await(10, TimeUnit.SECONDS));
+        data.putValue("/flusher", new DoubleData(1));
+
+        // wait for the flush to finish before the slow listener is released.
+        // It must not wait for (or steal from) the worker that owns the slow
+        // listener.
+        long deadline = System.currentTimeMillis() + 10000;
+        while (((CountingListener) flusher).calls.get() == 0
+                && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertEquals(1, ((CountingListener) flusher).calls.get());
+        assertTrue("flush took " + flushTime[0] + " ms", flushTime[0] < 500);
+        assertEquals(1, slow.maxConcurrent.get());
+
+        // once released, the slow listener receives its pending event
+        releaseSlow.countDown();
+        data.waitForCalculations();
+        assertEquals(2, slow.calls.get());
+        assertEquals(1, slow.maxConcurrent.get());
+    }
+
+    private void createRepository(int numThreads) {
+        System.setProperty(THREADS_PROP, Integer.toString(numThreads));
+        data = new DataRepository();
+    }
+
+    private static class CountingListener implements DataListener {
+
+        private int delay;
+
+        private AtomicInteger active = new AtomicInteger();
+
+        AtomicInteger calls = new AtomicInteger();
+
+        AtomicInteger maxConcurrent = new AtomicInteger();
+
+        CountingListener(int delay) {
+            this.delay = delay;
+        }
+
+        public void dataValueChanged(DataEvent e) {
+            notified();
+        }
+
+        public void dataValuesChanged(Vector v) {
+            notified();
+        }
+
+        private void notified() {
+            int nowActive = active.incrementAndGet();
+            if (nowActive > maxConcurrent.get())
+                maxConcurrent.set(nowActive);
+            try {
+                work();
+            } catch (InterruptedException ie) {
+            } finally {
+                active.decrementAndGet();
+                calls.incrementAndGet();
+            }
+        }
+
+        protected void work() throws InterruptedException {
+            Thread.sleep(delay);
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.data.repository;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import net.sourceforge.processdash.util.FileUtils;
+
+public class DatafileSnapshotTest extends TestCase {
+
+    private File dir;
+
+    private File snapshotFile;
+
+    private File datafile;
+
+    private byte[] content;
+
+    protected void setUp() throws Exception {
+        dir = File.createTempFile("snapshot", ".tmp");
+        dir.delete();
+        dir.mkdirs();
+        snapshotFile = new File(dir, "datafiles.snapshot");
+        datafile = new File(dir, "1.dat");
+        content = write(datafile, "#include <foo/dataFile.txt>\nTime=3\n");
+    }
+
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(dir, true);
+    }
+
+    public void testRoundTrip() throws Exception {
+        DatafileSnapshot snap = new DatafileSnapshot(snapshotFile);
+        assertNull(snap.get(datafile, content, "key"));
+        snap.put(datafile, content, "key", "<foo/dataFile.txt>",
+            values("Time", "3", "Name", "\u00e9t\u00e9", "Empty", ""));
+        assertContents(snap.get(datafile, content, "key"));
+        snap.save();
+        assertTrue(snapshotFile.isFile());
+
+        snap = new DatafileSnapshot(snapshotFile);
+        assertEquals(1, snap.size());
+        assertContents(snap.get(datafile, content, "key"));
+        assertNull(snap.get(datafile, content, "other key"));
+    }
+
+    public void testStaleEntries() throws Exception {
+        DatafileSnapshot snap = new DatafileSnapshot(snapshotFile);
+        snap.put(datafile, content, "key", null, values("Time", "3"));
+        snap.save();
+
+        byte[] newContent = write(datafile, "Time=4\n");
+        snap = new DatafileSnapshot(snapshotFile);
+        assertNull(snap.get(datafile, newContent, "key"));
+        assertEquals(0, snap.size());
+    }
+
+    public void testUnusedEntriesDiscarded() throws Exception {
+        File other = new File(dir, "2.dat");
+        byte[] otherContent = write(other, "Size=1\n");
+        DatafileSnapshot snap = new DatafileSnapshot(snapshotFile);
+        snap.put(datafile, content, "key", null, values("Time", "3"));
+        snap.put(other, otherContent, "key", null, values("Size", "1"));
+        snap.save();
+
+        snap = new DatafileSnapshot(snapshotFile);
+        assertNotNull(snap.get(datafile, content, "key"));
+        snap.save();
+        snap = new DatafileSnapshot(snapshotFile);
+        assertEquals(1, snap.size());
+        assertNull(snap.get(other, otherContent, "key"));
+    }
+
+    public void testKeysCompared() throws Exception {
+        // these keys have the same hash code, but must not match
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        File other = new File(dir, "2.dat");
+        byte[] otherContent = write(other, "Size=1\n");
+        DatafileSnapshot snap = new DatafileSnapshot(snapshotFile);
+        snap.put(datafile, content, "Aa", null, values("Time", "3"));
+        snap.put(other, otherContent, "key", null, values("Size", "1"));
+        snap.save();
+
+        snap = new DatafileSnapshot(snapshotFile);
+        assertNotNull(snap.get(other, otherContent, "key"));
+        assertNull(snap.get(datafile, content, "BB"));
+    }
+
+    public void testNonStringValuesIgnored() throws Exception {
+        DatafileSnapshot snap = new DatafileSnapshot(snapshotFile);
+        Map values = values("Time", "3");
+        values.put("Script", new Object());
+        snap.put(datafile, content, "key", null, values);
+        assertEquals(0, snap.size());
+    }
+
+    public void testCorruptSnapshot() throws Exception {
+        write(snapshotFile, "not a snapshot");
+        DatafileSnapshot snap = new DatafileSnapshot(snapshotFile);
+        assertEquals(0, snap.size());
+        snap.put(datafile, content, "key", null, values("Time", "3"));
+        snap.save();
+        assertEquals(1, new DatafileSnapshot(snapshotFile).size());
+    }
+
+    private void assertContents(DatafileSnapshot.Contents c) {
+        assertNotNull(c);
+        assertEquals("<foo/dataFile.txt>", c.inheritsFrom);
+        assertEquals(values("Time", "3", "Name", "\u00e9t\u00e9", "Empty", ""),
+            c.values);
+        assertTrue(c.values instanceof Hashtable);
+    }
+
+    private Map values(String... pairs) {
+        Map result = new HashMap();
+        for (int i = 0; i < pairs.length; i += 2)
+            result.put(pairs[i], pairs[i + 1]);
+        return result;
+    }
+
+    private byte[] write(File f, String text) throws Exception {
+        byte[] bytes = text.getBytes("UTF-8");
+        FileOutputStream out = new FileOutputStream(f);
+        out.write(bytes);
+        out.close();
+        return bytes;
+    }
+
+}
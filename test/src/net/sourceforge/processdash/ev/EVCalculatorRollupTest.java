@@ -0,0 +1,221 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+
+package net.sourceforge.processdash.ev;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EventObject;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the thread-safety contract for concurrent recalculation of the
+ * task lists in a rollup.
+ */
+public class EVCalculatorRollupTest extends TestCase {
+
+    private static final int NUM_LISTS = 12;
+
+    private static final int NUM_TASKS = 200;
+
+
+    public void testConcurrentRecalcMatchesSerial() throws Exception {
+        EVTaskListRollup serial = makeRollup(makeLists(), 1);
+        EVTaskListRollup concurrent = makeRollup(makeLists(), 4);
+        serial.recalc();
+        concurrent.recalc();
+        assertEquals(serial.getAsXML(), concurrent.getAsXML());
+
+        // recalculating again must produce the same results
+        concurrent.recalc();
+        assertEquals(serial.getAsXML(), concurrent.getAsXML());
+    }
+
+    public void testMergeOrderIsPreserved() throws Exception {
+        List<SyntheticTaskList> lists = makeLists();
+        EVTaskListRollup rollup = makeRollup(lists, 4);
+        for (int i = 0; i < 5; i++) {
+            for (SyntheticTaskList tl : lists)
+                tl.touch();
+            rollup.recalc();
+
+            EVTask root = rollup.getTaskRoot();
+            assertEquals(lists.size(), root.getNumChildren());
+            for (int j = 0; j < lists.size(); j++)
+                assertSame(lists.get(j).getRoot(), root.getChild(j));
+        }
+    }
+
+    public void testSupportsConcurrentRecalc() throws Exception {
+        SyntheticTaskList tl = new SyntheticTaskList(0, 10);
+        assertTrue(tl.supportsConcurrentRecalc());
+
+        // a task list whose recalc may open and calculate other task lists
+        // must be recalculated on the calling thread
+        tl.setDependencyCalculator(new EVDependencyCalculator(null, null,
+                null));
+        assertFalse(tl.supportsConcurrentRecalc());
+        tl.setDependencyCalculator(null);
+        assertTrue(tl.supportsConcurrentRecalc());
+
+        // listeners expect to be notified on the calling thread
+        TreeModelListener l = new NullTreeModelListener();
+        tl.addTreeModelListener(l);
+        assertFalse(tl.supportsConcurrentRecalc());
+        tl.removeTreeModelListener(l);
+        assertTrue(tl.supportsConcurrentRecalc());
+
+        tl.setNodeListener(new EVTask.Listener() {
+            public void evNodeChanged(EVTask node, boolean needsRecalc) {}
+        });
+        assertFalse(tl.supportsConcurrentRecalc());
+        tl.setNodeListener(null);
+
+        // rollups recalculate other task lists, so they are never eligible
+        List<SyntheticTaskList> lists = makeLists();
+        assertFalse(makeRollup(lists, 4).supportsConcurrentRecalc());
+    }
+
+    public void testRollupRepeaterIsIgnored() throws Exception {
+        SyntheticTaskList tl = new SyntheticTaskList(0, 10);
+        tl.recalcListeners = Collections.synchronizedSet(new HashSet());
+        EVTaskList.RecalcListener repeater = new NullRecalcListener();
+        tl.addRecalcListener(repeater);
+        assertFalse(tl.supportsConcurrentRecalc());
+        assertTrue(tl.supportsConcurrentRecalc(repeater));
+
+        // other listeners still expect notification on the calling thread
+        tl.addRecalcListener(new NullRecalcListener());
+        assertFalse(tl.supportsConcurrentRecalc(repeater));
+    }
+
+    public void testSharedLabelerIsSerialized() throws Exception {
+        List<SyntheticTaskList> lists = makeLists();
+        EVTaskListRollup rollup = makeRollup(lists, 4);
+        CheckingLabeler labeler = new CheckingLabeler();
+        rollup.setTaskLabeler(labeler);
+
+        rollup.recalc();
+        assertEquals(NUM_LISTS + 1, labeler.recalcCount.get());
+        assertEquals(1, labeler.maxActive);
+    }
+
+    public void testExceptionsArePropagated() throws Exception {
+        List<SyntheticTaskList> lists = makeLists();
+        lists.set(7, new SyntheticTaskList(7, NUM_TASKS) {
+            public void recalc() {
+                throw new IllegalStateException("failed");
+            }
+        });
+        EVTaskListRollup rollup = makeRollup(lists, 4);
+        try {
+            rollup.recalc();
+            fail("Expected exception");
+        } catch (IllegalStateException ise) {
+            assertEquals("failed", ise.getMessage());
+        }
+    }
+
+
+    private List<SyntheticTaskList> makeLists() throws Exception {
+        List<SyntheticTaskList> result = new ArrayList<SyntheticTaskList>();
+        for (int i = 0; i < NUM_LISTS; i++)
+            result.add(new SyntheticTaskList(i, NUM_TASKS));
+        return result;
+    }
+
+    private EVTaskListRollup makeRollup(List<SyntheticTaskList> lists,
+            int numThreads) {
+        EVTaskListRollup result = new EVTaskListRollup("Rollup", lists);
+        ((EVCalculatorRollup) result.calculator).setThreadCount(numThreads);
+        return result;
+    }
+
+    private static class NullRecalcListener implements
+            EVTaskList.RecalcListener {
+        public void evRecalculated(EventObject e) {}
+    }
+
+    private static class NullTreeModelListener implements TreeModelListener {
+        public void treeNodesChanged(TreeModelEvent e) {}
+        public void treeNodesInserted(TreeModelEvent e) {}
+        public void treeNodesRemoved(TreeModelEvent e) {}
+        public void treeStructureChanged(TreeModelEvent e) {}
+    }
+
+    /** A labeler that records how many threads are using it at once. */
+    private static class CheckingLabeler implements TaskLabeler {
+
+        AtomicInteger recalcCount = new AtomicInteger();
+
+        AtomicInteger active = new AtomicInteger();
+
+        volatile int maxActive = 0;
+
+        public void recalculate() {
+            recalcCount.incrementAndGet();
+            enter();
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+            }
+            exit();
+        }
+
+        public List<String> getLabelsForTask(EVTask t) {
+            enter();
+            exit();
+            return null;
+        }
+
+        private void enter() {
+            int numActive = active.incrementAndGet();
+            if (numActive > maxActive)
+                maxActive = numActive;
+        }
+
+        private void exit() {
+            active.decrementAndGet();
+        }
+
+        public Set<String> getHiddenLabels() {
+            return Collections.EMPTY_SET;
+        }
+
+        public int compare(String labelA, String labelB) {
+            return labelA.compareTo(labelB);
+        }
+
+        public void dispose() {}
+    }
+
+}
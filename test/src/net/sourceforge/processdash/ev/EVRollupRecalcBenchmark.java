@@ -0,0 +1,113 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+
+package net.sourceforge.processdash.ev;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares full and incremental recalculation of a large synthetic rollup.
+ * Each round simulates a change to a single task in one of the rolled up
+ * task lists (or, for a full recalc, to all of them), then recalculates
+ * the rollup.  Full recalcs are measured both serially and on several
+ * threads.
+ *
+ * Usage: EVRollupRecalcBenchmark
+ *     [taskLists [tasksPerList [rounds [threads]]]]
+ */
+public class EVRollupRecalcBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int numLists = (args.length > 0 ? Integer.parseInt(args[0]) : 20);
+        int numTasks = (args.length > 1 ? Integer.parseInt(args[1]) : 1000);
+        int rounds = (args.length > 2 ? Integer.parseInt(args[2]) : 20);
+
+        List<SyntheticTaskList> lists = new ArrayList<SyntheticTaskList>();
+        for (int i = 0; i < numLists; i++)
+            lists.add(new SyntheticTaskList(i, numTasks));
+        EVTaskListRollup rollup = new EVTaskListRollup("Benchmark", lists);
+        rollup.recalc();
+        System.out.println("Rollup of " + numLists + " task lists with "
+                + (numLists * numTasks) + " tasks");
+
+        EVCalculatorRollup calc = (EVCalculatorRollup) rollup.calculator;
+        int numThreads = (args.length > 3 ? Integer.parseInt(args[3])
+                : Math.min(Runtime.getRuntime().availableProcessors(), 8));
+
+        // warm up each path before measuring
+        calc.setThreadCount(1);
+        run(rollup, lists, 3, false);
+        String serialResult = describe(rollup);
+        long serial = run(rollup, lists, rounds, false);
+
+        calc.setThreadCount(numThreads);
+        run(rollup, lists, 3, false);
+        String fullResult = describe(rollup);
+        long full = run(rollup, lists, rounds, false);
+
+        run(rollup, lists, 3, true);
+        long incremental = run(rollup, lists, rounds, true);
+        String incrResult = describe(rollup);
+
+        System.out.println("Full, serial:      " + millisPer(serial, rounds)
+                + " ms/recalc");
+        System.out.println("Full, " + numThreads + " threads:   "
+                + millisPer(full, rounds) + " ms/recalc");
+        System.out.println("Incremental:       "
+                + millisPer(incremental, rounds) + " ms/recalc");
+        if (!serialResult.equals(fullResult))
+            System.out.println("Results differ: " + serialResult + " vs. "
+                    + fullResult);
+        if (!fullResult.equals(incrResult))
+            System.out.println("Results differ: " + fullResult + " vs. "
+                    + incrResult);
+    }
+
+    private static long run(EVTaskListRollup rollup,
+            List<SyntheticTaskList> lists, int rounds, boolean incremental) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            if (incremental)
+                lists.get(i % lists.size()).touch();
+            else
+                for (SyntheticTaskList tl : lists)
+                    tl.touch();
+            rollup.recalc();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static String describe(EVTaskListRollup rollup) {
+        EVTask root = rollup.getTaskRoot();
+        return root.getPlanValue() + "/" + root.getActualTime() + "/"
+                + rollup.getSchedule().getMetrics().planDate() + "/"
+                + rollup.getSchedule().getMetrics().independentForecastDate();
+    }
+
+    private static long millisPer(long totalNanos, int count) {
+        return totalNanos / count / 1000000;
+    }
+
+}
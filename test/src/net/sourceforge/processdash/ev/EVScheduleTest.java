@@ -0,0 +1,93 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+
+package net.sourceforge.processdash.ev;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+public class EVScheduleTest extends TestCase {
+
+    private static final double[] MULTIPLIERS = { 1.0, 0.75, 1.6 };
+
+    private EVSchedule schedule;
+
+    protected void setUp() throws Exception {
+        Map exceptions = new HashMap();
+        exceptions.put(2, 4.0);
+        exceptions.put(3, 0.0);
+        schedule = new EVSchedule(new Date(1262322000000L), 10, -1,
+                exceptions, 0.1, false);
+    }
+
+    public void testHypotheticalDateMatchesCopy() {
+        assertHypotheticalDatesMatch();
+    }
+
+    public void testHypotheticalDateAfterGrowth() {
+        // add automatic periods, which extends the index incrementally
+        double total = schedule.getLast().cumPlanDirectTime;
+        schedule.getPlannedCompletionDate(total * 3, total * 3);
+        assertTrue(schedule.getLast().automatic);
+        assertHypotheticalDatesMatch();
+    }
+
+    public void testIncrementalIndexMatchesRebuild() {
+        double total = schedule.getLast().cumPlanDirectTime;
+        Date[] incremental = new Date[20];
+        for (int i = 0; i < incremental.length; i++) {
+            double target = total * (1 + i / 4.0);
+            incremental[i] = schedule.getPlannedCompletionDate(target, target);
+        }
+
+        // discard the index, and make sure it reaches the same conclusions
+        schedule.periodsChanged();
+        for (int i = 0; i < incremental.length; i++) {
+            double target = total * (1 + i / 4.0);
+            assertEquals(incremental[i],
+                schedule.getPlannedCompletionDate(target, target));
+            assertEquals(incremental[i], schedule.get(new Date(
+                incremental[i].getTime() - 1)).getEndDate());
+        }
+    }
+
+    private void assertHypotheticalDatesMatch() {
+        double total = schedule.getLast().cumPlanDirectTime;
+        for (double multiplier : MULTIPLIERS) {
+            for (int i = -1; i <= 40; i++) {
+                double target = total * i / 10.0;
+                Date fromIndex = schedule.getHypotheticalDateFromIndex(target,
+                    multiplier);
+                assertNotNull(fromIndex);
+                assertEquals("target " + target + ", multiplier "
+                        + multiplier, schedule.getHypotheticalDateFromCopy(
+                    target, multiplier), fromIndex);
+            }
+        }
+    }
+
+}
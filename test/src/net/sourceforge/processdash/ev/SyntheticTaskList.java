@@ -0,0 +1,87 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+
+package net.sourceforge.processdash.ev;
+
+import java.util.Date;
+
+import net.sourceforge.processdash.util.XMLUtils;
+
+/**
+ * An imported task list with generated tasks and a fixed effective date,
+ * which reports its own changes like a monitored EVTaskListData.
+ */
+class SyntheticTaskList extends EVTaskListXML {
+
+    SyntheticTaskList(int num, int numTasks) throws Exception {
+        super("List " + num, XMLUtils.parse(makeXml(num, numTasks))
+                .getDocumentElement());
+    }
+
+    /** Simulate a change to one of the tasks in this list. */
+    void touch() {
+        scheduleRecalc();
+    }
+
+    @Override
+    protected boolean tracksOwnChanges() {
+        return true;
+    }
+
+    private static String makeXml(int num, int numTasks) {
+        StringBuffer xml = new StringBuffer();
+        xml.append("<EVModel tlid='synthetic").append(num).append("'>");
+        xml.append("<task name='List ").append(num).append("'>");
+        for (int i = 0; i < numTasks; i++) {
+            int size = 30 + (i * 7 + num) % 180;
+            xml.append("<task name='Task ").append(i).append("' pt='")
+                    .append(size).append("'");
+            if (i < numTasks / 3)
+                xml.append(" at='").append(size + (i % 5) * 10 - 20)
+                        .append("' cd='@").append(dayStart(i / 4 - 100))
+                        .append("'");
+            xml.append("/>");
+        }
+        xml.append("</task>");
+
+        EVSchedule schedule = new EVSchedule(new Date(dayStart(-110)),
+                new Date(dayStart(-103)), 1200 + num * 60);
+        for (int i = 0; i < 250; i++)
+            schedule.add(schedule.new Period(new Date(
+                    dayStart(-103 + 7 * (i + 1))), 1200 + num * 60));
+        Date now = new Date(dayStart(0));
+        schedule.setEffectiveDate(now);
+        schedule.getMetrics().reset(new Date(dayStart(-110)), now, null, null);
+        schedule.saveToXML(xml);
+        xml.append("</EVModel>");
+        return xml.toString();
+    }
+
+    private static long dayStart(int day) {
+        return BASE_TIME + day * 24L * 60 * 60 * 1000;
+    }
+
+    private static final long BASE_TIME = 1767225600000L;
+
+}
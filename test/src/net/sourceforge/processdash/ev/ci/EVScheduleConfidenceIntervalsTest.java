@@ -0,0 +1,105 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+package net.sourceforge.processdash.ev.ci;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import net.sourceforge.processdash.ev.EVMetrics;
+import net.sourceforge.processdash.ev.EVSchedule;
+import net.sourceforge.processdash.ev.ci.EVScheduleConfidenceIntervals.SimpleModel;
+import net.sourceforge.processdash.ev.ci.EVScheduleConfidenceIntervals.SimulationModel;
+import net.sourceforge.processdash.ev.ci.EVScheduleConfidenceIntervals.SimulationModelFactory;
+
+import cern.jet.random.engine.RandomEngine;
+
+public class EVScheduleConfidenceIntervalsTest extends TestCase {
+
+    public void testSameSeedGivesSameSamplesForAnyThreadCount() {
+        EVScheduleConfidenceIntervals serial = simulate(1, 4357);
+        assertEquals(BOOTSTRAP_SAMPLES, serial.cost.samples.size());
+
+        for (int numThreads = 2; numThreads <= 5; numThreads++) {
+            EVScheduleConfidenceIntervals parallel = simulate(numThreads, 4357);
+            assertSameSamples(serial.cost.samples, parallel.cost.samples);
+            assertSameSamples(serial.date.samples, parallel.date.samples);
+        }
+    }
+
+    public void testDifferentSeedGivesDifferentSamples() {
+        EVScheduleConfidenceIntervals a = simulate(2, 4357);
+        EVScheduleConfidenceIntervals b = simulate(2, 1234);
+        assertFalse(a.cost.samples.get(0) == b.cost.samples.get(0)
+                && a.cost.samples.get(1) == b.cost.samples.get(1));
+    }
+
+    private EVScheduleConfidenceIntervals simulate(int numThreads, int seed) {
+        return new EVScheduleConfidenceIntervals(new SimulationModelFactory() {
+            public SimulationModel createModel() {
+                RandomCost cost = new RandomCost();
+                return new SimpleModel(new StubSchedule(cost), Collections
+                        .singletonList(cost));
+            }}, false, numThreads, seed);
+    }
+
+    private void assertSameSamples(DoubleList expected, DoubleList actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++)
+            assertEquals(expected.get(i), actual.get(i), 0.0);
+    }
+
+    /** The default simulation size, for a model with one random object */
+    private static final int BOOTSTRAP_SAMPLES = 1000;
+
+    private static class RandomCost implements
+            EVScheduleConfidenceIntervals.Randomizable {
+        double value;
+        public void randomize(RandomEngine u) {
+            value = 100 + 50 * u.nextDouble();
+        }
+    }
+
+    private static class StubSchedule extends EVSchedule {
+        private EVMetrics metrics;
+        StubSchedule(final RandomCost cost) {
+            metrics = new EVMetrics() {
+                public double independentForecastCost() {
+                    return cost.value;
+                }
+                public Date independentForecastDate() {
+                    return new Date(1767225600000L
+                            + (long) (cost.value * 3600000));
+                }
+                public double actual() {
+                    return 40;
+                }};
+        }
+        public EVMetrics getMetrics() {
+            return metrics;
+        }
+    }
+
+}
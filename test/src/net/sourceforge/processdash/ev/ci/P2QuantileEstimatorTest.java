@@ -0,0 +1,128 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.ev.ci;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class P2QuantileEstimatorTest extends TestCase {
+
+    private static final int NUM_SAMPLES = 20000;
+
+    private static final double[] QUANTILES = { 0.15, 0.5, 0.85 };
+
+    public void testEmpty() {
+        P2QuantileEstimator est = new P2QuantileEstimator(0.5);
+        assertTrue(Double.isNaN(est.getQuantile()));
+        est.add(Double.NaN);
+        assertEquals(0, est.getCount());
+        assertTrue(Double.isNaN(est.getQuantile()));
+    }
+
+    public void testFewValuesAreExact() {
+        double[] values = { 7, 3, 9, 1 };
+        for (double p : QUANTILES) {
+            P2QuantileEstimator est = new P2QuantileEstimator(p);
+            for (int i = 0; i < values.length; i++) {
+                est.add(values[i]);
+                double[] sorted = Arrays.copyOf(values, i + 1);
+                Arrays.sort(sorted);
+                assertEquals(exactQuantile(sorted, p), est.getQuantile(),
+                    0.000001);
+            }
+        }
+    }
+
+    public void testUniform() {
+        Random r = new Random(4357);
+        double[] values = new double[NUM_SAMPLES];
+        for (int i = 0; i < values.length; i++)
+            values[i] = r.nextDouble() * 100;
+        checkEstimates(values);
+    }
+
+    public void testNormal() {
+        Random r = new Random(4357);
+        double[] values = new double[NUM_SAMPLES];
+        for (int i = 0; i < values.length; i++)
+            values[i] = 50 + 10 * r.nextGaussian();
+        checkEstimates(values);
+    }
+
+    public void testLognormal() {
+        // a skewed distribution, similar in shape to the cost and date
+        // samples produced by the confidence interval simulations
+        Random r = new Random(4357);
+        double[] values = new double[NUM_SAMPLES];
+        for (int i = 0; i < values.length; i++)
+            values[i] = Math.exp(r.nextGaussian());
+        checkEstimates(values);
+    }
+
+    public void testSortedInput() {
+        double[] values = new double[NUM_SAMPLES];
+        for (int i = 0; i < values.length; i++)
+            values[i] = i;
+        checkEstimates(values);
+    }
+
+    private void checkEstimates(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        for (double p : QUANTILES) {
+            P2QuantileEstimator est = new P2QuantileEstimator(p);
+            for (double v : values)
+                est.add(v);
+            assertEquals(values.length, est.getCount());
+
+            // the estimate should fall within one percentile of the exact
+            // answer, whatever the scale of the distribution
+            double estimate = est.getQuantile();
+            double exact = exactQuantile(sorted, p);
+            double rank = rankOf(sorted, estimate);
+            assertEquals("p=" + p + ", exact=" + exact + ", estimate="
+                    + estimate, p, rank, 0.01);
+        }
+    }
+
+    /** Compute a quantile the same way MonteCarloConfidenceInterval does */
+    private double exactQuantile(double[] sorted, double p) {
+        double pos = p * (sorted.length - 1);
+        int posL = (int) Math.floor(pos);
+        int posR = (int) Math.ceil(pos);
+        return sorted[posL] + (pos - posL) * (sorted[posR] - sorted[posL]);
+    }
+
+    /** @return the fraction of the sorted values that are less than x */
+    private double rankOf(double[] sorted, double x) {
+        int pos = Arrays.binarySearch(sorted, x);
+        if (pos < 0)
+            pos = -pos - 1;
+        return pos / (double) sorted.length;
+    }
+
+}
@@ -0,0 +1,124 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.log.time;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Date;
+import java.util.Iterator;
+
+import net.sourceforge.processdash.util.FileUtils;
+
+public class TimeLogIndexTest extends AbstractTimeLogTest {
+
+    File tempDir, xmlFile, indexFile;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        tempDir = createTempDir();
+        xmlFile = new File(tempDir, WorkingTimeLog.TIME_LOG_FILENAME);
+        indexFile = new File(tempDir, WorkingTimeLog.TIME_LOG_INDEX_FILENAME);
+        copyFile(tempDir, TIMELOG1_XML, WorkingTimeLog.TIME_LOG_FILENAME);
+    }
+
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(tempDir);
+        super.tearDown();
+    }
+
+    public void testUnfiltered() throws Exception {
+        TimeLogIndex index = TimeLogIndex.open(xmlFile, null);
+        assertEquals(TIMELOG1_CONTENTS.length, index.size());
+        assertTimeLogHashcodes(TIMELOG1_CONTENTS, index.filter(null, null,
+            null));
+    }
+
+    public void testFilters() throws Exception {
+        TimeLogIndex index = TimeLogIndex.open(xmlFile, null);
+        assertFilteredContents(index.filter("/Non Project/BCS-M", null, null),
+            new int[] { 3, 7, 12, 13 }, TIMELOG1_CONTENTS);
+        assertFalse(index.filter("/Project/EFV", null, null).hasNext());
+        assertFilteredContents(index.filter("/Project/EFV Gap Analysis",
+            new Date(1093377260000L), new Date(1093907142000L)), new int[] {
+                19, 20, 21, 22, 23, 24 }, TIMELOG1_CONTENTS);
+        assertFilteredContents(index.filter(null, new Date(1093377260000L),
+            new Date(1093907142000L)), new int[] { 15, 16, 17, 18, 19, 20, 21,
+                22, 23, 24 }, TIMELOG1_CONTENTS);
+    }
+
+    public void testMatchesIteratorFilter() throws Exception {
+        TimeLogIndex index = TimeLogIndex.open(xmlFile, null);
+        String[] paths = { null, "/", "/Project", "/Non Project",
+                "/Non Project/BCS-M", "/Project/EFV" };
+        Date[] dates = { null, new Date(1093377260000L),
+                new Date(1093907142000L), new Date(1100000000000L) };
+        for (String path : paths)
+            for (Date from : dates)
+                for (Date to : dates)
+                    assertSameEntries(new TimeLogIteratorFilter(
+                            new TimeLogReader(xmlFile), path, from, to),
+                        index.filter(path, from, to));
+    }
+
+    public void testSidecarFile() throws Exception {
+        TimeLogIndex index = TimeLogIndex.open(xmlFile, indexFile);
+        assertTrue(indexFile.isFile());
+        assertTrue(index.isCurrent());
+
+        // a second index should be loaded from the sidecar file
+        index = TimeLogIndex.open(xmlFile, indexFile);
+        assertTimeLogHashcodes(TIMELOG1_CONTENTS, index.filter(null, null,
+            null));
+
+        // if the XML file changes, the index should be rebuilt
+        copyFile(tempDir, TIMELOG3_XML, WorkingTimeLog.TIME_LOG_FILENAME);
+        xmlFile.setLastModified(xmlFile.lastModified() + 2000);
+        assertFalse(index.isCurrent());
+        index = TimeLogIndex.open(xmlFile, indexFile);
+        assertEquals(TIMELOG3_CONTENTS.length, index.size());
+
+        // a corrupt sidecar file should be ignored
+        FileOutputStream out = new FileOutputStream(indexFile);
+        out.write(new byte[] { 1, 2, 3 });
+        out.close();
+        index = TimeLogIndex.open(xmlFile, indexFile);
+        assertEquals(TIMELOG3_CONTENTS.length, index.size());
+    }
+
+    public void testBaseTimeLog() throws Exception {
+        BaseTimeLog timeLog = new BaseTimeLog(xmlFile, indexFile);
+        assertTimeLogHashcodes(TIMELOG1_CONTENTS, timeLog.filter(null, null,
+            null));
+        assertTrue(indexFile.isFile());
+    }
+
+    private void assertSameEntries(Iterator expected, Iterator actual) {
+        while (expected.hasNext()) {
+            assertTrue(actual.hasNext());
+            assertEquals(expected.next().hashCode(), actual.next().hashCode());
+        }
+        assertFalse(actual.hasNext());
+    }
+
+}
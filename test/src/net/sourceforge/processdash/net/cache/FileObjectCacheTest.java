@@ -0,0 +1,189 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.net.cache;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.w3c.dom.Element;
+
+import junit.framework.TestCase;
+
+import net.sourceforge.processdash.util.FileUtils;
+
+public class FileObjectCacheTest extends TestCase {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private File dir;
+
+    private FileObjectCache cache;
+
+    protected void setUp() throws Exception {
+        dir = File.createTempFile("objectCacheTest", "");
+        dir.delete();
+        dir.mkdir();
+        cache = new FileObjectCache(dir, ".obj");
+    }
+
+    protected void tearDown() throws Exception {
+        cache.flush();
+        FileUtils.deleteDirectory(dir, true);
+    }
+
+    public void testStoreAndReload() throws Exception {
+        int a = store(cache, "typeA", "alpha", new Date());
+        int b = store(cache, "typeB", "beta", new Date());
+
+        // objects that are waiting to be written are served from memory
+        assertEquals("alpha", cache.getCachedObject(a, -1).getString());
+        assertEquals("beta", cache.getCachedObject(b, -1).getString());
+
+        cache.flush();
+        assertTrue(new File(dir, a + ".obj").isFile());
+        assertTrue(new File(dir, a + "d.obj").isFile());
+        assertTrue(new File(dir, "cacheIndex.objx").isFile());
+
+        FileObjectCache reloaded = new FileObjectCache(dir, ".obj");
+        assertIDs(reloaded.getObjectIDs("typeA"), a);
+        assertIDs(reloaded.getObjectIDs("typeB"), b);
+        assertIDs(reloaded.getObjectIDs(), a, b);
+        assertEquals("alpha", reloaded.getCachedObject(a, -1).getString());
+        assertEquals(1, reloaded.getObjects("typeB").length);
+        assertEquals(cache.getTotalSize(), reloaded.getTotalSize());
+        assertTrue(reloaded.getNextID() > Math.max(a, b));
+    }
+
+    public void testDelete() throws Exception {
+        int a = store(cache, "typeA", "alpha", new Date());
+        int b = store(cache, "typeA", "beta", new Date());
+        cache.flush();
+
+        cache.deleteCachedObject(a);
+        assertNull(cache.getCachedObject(a, -1));
+        assertIDs(cache.getObjectIDs("typeA"), b);
+
+        cache.flush();
+        assertFalse(new File(dir, a + ".obj").exists());
+        assertFalse(new File(dir, a + "d.obj").exists());
+        FileObjectCache reloaded = new FileObjectCache(dir, ".obj");
+        assertIDs(reloaded.getObjectIDs("typeA"), b);
+    }
+
+    public void testLatestWriteWins() throws Exception {
+        TestObject obj = new TestObject(cache, "typeA", new Date());
+        obj.store("one".getBytes("UTF-8"));
+        obj.store("two".getBytes("UTF-8"));
+        obj.setLocalAttr("attr", "value");
+        cache.flush();
+
+        FileObjectCache reloaded = new FileObjectCache(dir, ".obj");
+        CachedObject copy = reloaded.getCachedObject(obj.getID(), -1);
+        assertEquals("two", copy.getString());
+        assertEquals("value", copy.getLocalAttr("attr"));
+    }
+
+    public void testExpiryQuery() throws Exception {
+        long now = System.currentTimeMillis();
+        int old = store(cache, "typeA", "old", new Date(now - 10 * DAY));
+        int recent = store(cache, "typeA", "recent", new Date(now - DAY / 2));
+        int never = store(cache, "typeA", "never", null);
+        store(cache, "typeB", "other", new Date(now - 10 * DAY));
+
+        assertIDs(cache.getObjectIDs("typeA", 5), old, never);
+        assertIDs(cache.getObjectIDs("typeA", -1), old, recent, never);
+
+        // the same answers come from the saved index after a restart
+        cache.flush();
+        FileObjectCache reloaded = new FileObjectCache(dir, ".obj");
+        assertIDs(reloaded.getObjectIDs("typeA", 5), old, never);
+    }
+
+    public void testIndexIsReconciledWithObjectFiles() throws Exception {
+        int a = store(cache, "typeA", "alpha", new Date());
+        int b = store(cache, "typeA", "beta", new Date());
+        cache.flush();
+
+        // change one object file behind the index's back, and delete another
+        File f = new File(dir, a + ".obj");
+        String xml = new String(FileUtils.slurpContents(
+            new FileInputStream(f), true), "UTF-8");
+        FileOutputStream out = new FileOutputStream(f);
+        out.write(xml.replace("'typeA'", "'typeC'").getBytes("UTF-8"));
+        out.close();
+        f.setLastModified(f.lastModified() + 5000);
+        new File(dir, b + ".obj").delete();
+
+        FileObjectCache reloaded = new FileObjectCache(dir, ".obj");
+        assertIDs(reloaded.getObjectIDs("typeA"));
+        assertIDs(reloaded.getObjectIDs("typeC"), a);
+    }
+
+    public void testMissingIndexIsRebuilt() throws Exception {
+        int a = store(cache, "typeA", "alpha", new Date());
+        cache.flush();
+        assertTrue(new File(dir, "cacheIndex.objx").delete());
+
+        FileObjectCache reloaded = new FileObjectCache(dir, ".obj");
+        assertIDs(reloaded.getObjectIDs("typeA"), a);
+        assertEquals("alpha", reloaded.getCachedObject(a, -1).getString());
+    }
+
+    private int store(FileObjectCache c, String type, String data,
+            Date refreshDate) throws Exception {
+        TestObject obj = new TestObject(c, type, refreshDate);
+        obj.store(data.getBytes("UTF-8"));
+        return obj.getID();
+    }
+
+    private void assertIDs(int[] actual, int... expected) {
+        int[] sortedActual = actual.clone();
+        Arrays.sort(sortedActual);
+        int[] sortedExpected = expected.clone();
+        Arrays.sort(sortedExpected);
+        assertEquals(Arrays.toString(sortedExpected),
+            Arrays.toString(sortedActual));
+    }
+
+    public static class TestObject extends CachedObject {
+
+        public TestObject(ObjectCache c, String type, Date refreshDate) {
+            super(c, type);
+            this.refreshDate = refreshDate;
+        }
+
+        public TestObject(ObjectCache c, int id, Element xml,
+                CachedDataProvider dataProvider) {
+            super(c, id, xml, dataProvider);
+        }
+
+        public boolean refresh() {
+            return false;
+        }
+    }
+
+}
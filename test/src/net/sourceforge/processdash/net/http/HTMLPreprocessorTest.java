@@ -0,0 +1,98 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.net.http;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+public class HTMLPreprocessorTest extends TestCase {
+
+    private static final String PAGE = //
+        "<html><!--#set var='greeting' value='Hello' -->"
+            + "<!--#echo var='greeting' -->\n"
+            + "<!--#foreach name=ITEM values=',a,b,c,' #-->"
+            + "[ITEM<!--#if 'ITEM' eq 'b' --> is b"
+            + "<!--#elif 'ITEM' eq 'c' --> is c"
+            + "<!--#else --> other<!--#endif -->]<!--#endfor-->\n"
+            + "<!--#replace token='XYZ' value='replaced' -->"
+            + "XYZ XYZ<!--#endreplace-->\n"
+            + "<!--#incr count --><!--#echo count -->\n"
+            + "<!--#include file='inc.txt' cutToken='part' parse='t' -->\n"
+            + "<!--#include file='inc.txt' cutToken='part' -->\n"
+            + "</html>";
+
+    private static final String INCLUDED = //
+        "ignored<!--cutStart:part-->included "
+            + "<!--#echo var='greeting' --><!--cutEnd:part-->ignored";
+
+    private static final String EXPECTED = //
+        "<html>Hello\n" //
+            + "[a other][b is b][c is c]\n" //
+            + "replaced replaced\n" //
+            + "0\n" //
+            + "included Hello\n" //
+            + "included <!--#echo var='greeting' -->\n" //
+            + "</html>";
+
+    public void testPreprocessString() throws IOException {
+        assertEquals(EXPECTED, newPreprocessor(null).preprocess(PAGE));
+    }
+
+    public void testCompiledTemplate() throws IOException {
+        HTMLPreprocessor.Template template = HTMLPreprocessor.compile(PAGE);
+
+        // a template can be reused for many requests
+        for (int i = 0; i < 3; i++)
+            assertEquals(EXPECTED, newPreprocessor(null).preprocess(template));
+    }
+
+    public void testCompiledTemplateWithEagerReplacements() throws IOException {
+        Map replacements = new HashMap();
+        replacements.put("XYZ XYZ", "XYZ");
+        HTMLPreprocessor.Template template = HTMLPreprocessor.compile(PAGE);
+
+        String expected = EXPECTED.replace("replaced replaced", "replaced");
+        assertEquals(expected, newPreprocessor(replacements).preprocess(PAGE));
+        assertEquals(expected, newPreprocessor(replacements).preprocess(
+            template));
+    }
+
+    private HTMLPreprocessor newPreprocessor(Map replacements) {
+        Map env = new HashMap();
+        env.put("REQUEST_URI", "/test/page.shtm");
+        if (replacements != null)
+            env.put(HTMLPreprocessor.REPLACEMENTS_PARAM, replacements);
+        return new HTMLPreprocessor(new ContentSource() {
+            public byte[] getContent(String context, String uri, boolean raw)
+                    throws IOException {
+                assertEquals("inc.txt", uri);
+                return INCLUDED.getBytes("UTF-8");
+            }
+        }, null, null, "/test", env, new HashMap());
+    }
+
+}
@@ -0,0 +1,128 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.templates;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import net.sourceforge.processdash.util.FileUtils;
+
+public class TemplateDiscoveryIndexTest extends TestCase {
+
+    private File dir, jar, indexFile;
+
+    protected void setUp() throws Exception {
+        dir = File.createTempFile("templateIndex", "");
+        dir.delete();
+        dir.mkdir();
+        jar = new File(dir, "addon.jar");
+        writeFile(jar, "abc");
+        indexFile = new File(dir, "templateIndex.ini");
+    }
+
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(dir, true);
+    }
+
+    public void testGetAndPut() {
+        TemplateDiscoveryIndex index = new TemplateDiscoveryIndex(indexFile);
+        assertNull(index.get(jar, TemplateDiscoveryIndex.DASH_PACKAGE));
+
+        index.put(jar, TemplateDiscoveryIndex.DASH_PACKAGE, false);
+        assertEquals(Boolean.FALSE,
+            index.get(jar, TemplateDiscoveryIndex.DASH_PACKAGE));
+        assertNull(index.get(jar, TemplateDiscoveryIndex.DASHBOARD_JAR));
+
+        index.put(jar, TemplateDiscoveryIndex.DASHBOARD_JAR, true);
+        assertEquals(Boolean.TRUE,
+            index.get(jar, TemplateDiscoveryIndex.DASHBOARD_JAR));
+        assertNull(index.get(null, TemplateDiscoveryIndex.DASHBOARD_JAR));
+    }
+
+    public void testChangedFileIsForgotten() throws IOException {
+        TemplateDiscoveryIndex index = new TemplateDiscoveryIndex(indexFile);
+        index.put(jar, TemplateDiscoveryIndex.TEMPLATE_CONTENT, false);
+
+        writeFile(jar, "abcdef");
+        assertNull(index.get(jar, TemplateDiscoveryIndex.TEMPLATE_CONTENT));
+    }
+
+    public void testSaveAndReload() throws IOException {
+        File other = new File(dir, "other.zip");
+        writeFile(other, "xyz");
+
+        TemplateDiscoveryIndex index = new TemplateDiscoveryIndex(indexFile);
+        index.put(jar, TemplateDiscoveryIndex.TEMPLATE_CONTENT, false);
+        index.put(other, TemplateDiscoveryIndex.DASH_PACKAGE, false);
+        other.delete();
+        index.save();
+        assertTrue(indexFile.isFile());
+
+        writeFile(other, "xyz");
+        index = new TemplateDiscoveryIndex(indexFile);
+        assertEquals(Boolean.FALSE,
+            index.get(jar, TemplateDiscoveryIndex.TEMPLATE_CONTENT));
+        assertNull(index.get(other, TemplateDiscoveryIndex.DASH_PACKAGE));
+    }
+
+    public void testObsoleteFactsAreDiscarded() throws IOException {
+        // write an entry for the "content" fact, which was recorded without
+        // regard to executable content and must no longer be trusted
+        String stamp = jar.length() + "," + jar.lastModified() + ",";
+        writeFile(indexFile, "content\\:" + jar.getAbsolutePath()
+                .replace("\\", "\\\\").replace(":", "\\:")
+                + "=" + stamp + "false\n");
+
+        TemplateDiscoveryIndex index = new TemplateDiscoveryIndex(indexFile);
+        assertNull(index.get(jar, TemplateDiscoveryIndex.TEMPLATE_CONTENT));
+        index.put(jar, TemplateDiscoveryIndex.DASH_PACKAGE, false);
+        index.save();
+
+        String saved = new String(FileUtils.slurpContents(
+            new FileInputStream(indexFile), true), "ISO-8859-1");
+        assertTrue(saved, saved.indexOf("package") != -1);
+        assertTrue(saved, saved.indexOf("content") == -1);
+    }
+
+    public void testGetLocalFile() {
+        String url = jar.toURI().toString();
+        assertEquals(jar.getAbsoluteFile(),
+            TemplateDiscoveryIndex.getLocalFile(url));
+        assertEquals(jar.getAbsoluteFile(), TemplateDiscoveryIndex
+                .getLocalFile("jar:" + url + "!/Templates/"));
+        assertNull(TemplateDiscoveryIndex
+                .getLocalFile("jar:http://example.com/a.jar!/Templates/"));
+    }
+
+    private void writeFile(File f, String contents) throws IOException {
+        FileOutputStream out = new FileOutputStream(f);
+        out.write(contents.getBytes("UTF-8"));
+        out.close();
+    }
+
+}
@@ -0,0 +1,120 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+package net.sourceforge.processdash.tool.export;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import net.sourceforge.processdash.data.repository.DataRepository;
+import net.sourceforge.processdash.tool.bridge.client.LocalImportDirectory;
+import net.sourceforge.processdash.util.FileUtils;
+
+public class DataImporterTest extends TestCase {
+
+    private static final String PREFIX = "/DataImporterTest";
+
+    private File tempDir;
+
+    private BlockingQueue<String> imported;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        tempDir = File.createTempFile("import", ".tmp");
+        tempDir.delete();
+        tempDir.mkdir();
+        imported = new LinkedBlockingQueue<String>();
+    }
+
+    protected void tearDown() throws Exception {
+        DataImporter.removeImport(PREFIX, tempDir.getPath());
+        FileUtils.deleteDirectory(tempDir, true);
+        super.tearDown();
+    }
+
+    public void testInitialFilesAreImported() throws Exception {
+        writeExport("a.txt");
+        addImport();
+        assertEquals("a.txt", imported.poll(10, TimeUnit.SECONDS));
+    }
+
+    public void testWatchedChangesAreImportedPromptly() throws Exception {
+        addImport();
+        DataImporter.waitForAllInitialized();
+
+        // without a directory watcher, this change would not be seen until
+        // the next periodic check, ten minutes from now
+        writeExport("b.txt");
+        assertEquals("b.txt", imported.poll(10, TimeUnit.SECONDS));
+
+        // unrelated files do not trigger an import
+        new File(tempDir, "notes.doc").createNewFile();
+        writeExport("c.txt");
+        assertEquals("c.txt", imported.poll(10, TimeUnit.SECONDS));
+        assertNull(imported.poll(2, TimeUnit.SECONDS));
+    }
+
+    public void testRelevantChanges() {
+        assertTrue(isRelevant("a.pdash"));
+        assertTrue(isRelevant("A.TXT"));
+        assertTrue(isRelevant("messages.xml"));
+        assertTrue(isRelevant("notes.doc", "team.xml"));
+        assertFalse(isRelevant("notes.doc"));
+        assertFalse(isRelevant(".a.pdash"));
+        assertFalse(isRelevant("tttt_a.pdash"));
+
+        // markers of a migrated directory must also trigger a check
+        assertTrue(isRelevant("teamServer.xml"));
+        assertTrue(isRelevant("bundles"));
+        assertTrue(isRelevant("heads"));
+    }
+
+    private boolean isRelevant(String... filenames) {
+        return DataImporter.containsRelevantFile(Arrays.asList(filenames));
+    }
+
+    private void addImport() {
+        DataImporter.addImport(new DataRepository(), PREFIX, tempDir
+                .getPath(), new LocalImportDirectory(tempDir) {}, null,
+            new ActionListener() {
+                public void actionPerformed(ActionEvent e) {
+                    imported.add(new File(e.getActionCommand()).getName());
+                }});
+    }
+
+    private void writeExport(String filename) throws Exception {
+        // an empty text export file, which imports no data
+        FileOutputStream out = new FileOutputStream(new File(tempDir,
+                filename));
+        out.write("!\n".getBytes("UTF-8"));
+        out.close();
+    }
+
+}
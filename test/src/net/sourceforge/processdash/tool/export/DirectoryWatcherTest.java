@@ -0,0 +1,143 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+package net.sourceforge.processdash.tool.export;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import net.sourceforge.processdash.util.FileUtils;
+
+public class DirectoryWatcherTest extends TestCase {
+
+    private File tempDir;
+
+    private DirectoryWatcher watcher;
+
+    private RecordingListener listener;
+
+    protected void setUp() throws Exception {
+        super.setUp();
+        tempDir = File.createTempFile("watch", ".tmp");
+        tempDir.delete();
+        tempDir.mkdir();
+        watcher = new DirectoryWatcher("DirectoryWatcherTest");
+        listener = new RecordingListener();
+    }
+
+    protected void tearDown() throws Exception {
+        if (tempDir.exists())
+            FileUtils.deleteDirectory(tempDir, true);
+        super.tearDown();
+    }
+
+    public void testCreateAndModifyEvents() throws Exception {
+        assertTrue(watcher.watch(tempDir, listener));
+        touch(new File(tempDir, "a.pdash"));
+        assertTrue(listener.awaitFile("a.pdash"));
+
+        touch(new File(tempDir, "b.txt"));
+        assertTrue(listener.awaitFile("b.txt"));
+    }
+
+    public void testUnwatchStopsEvents() throws Exception {
+        assertTrue(watcher.watch(tempDir, listener));
+        watcher.unwatch(tempDir, listener);
+        touch(new File(tempDir, "a.pdash"));
+        assertNull(listener.events.poll(1500, TimeUnit.MILLISECONDS));
+    }
+
+    public void testSharedDirectoryNotifiesEachListener() throws Exception {
+        RecordingListener other = new RecordingListener();
+        assertTrue(watcher.watch(tempDir, listener));
+        assertTrue(watcher.watch(tempDir, other));
+
+        // unwatching one listener must leave the other registered
+        watcher.unwatch(tempDir, listener);
+        touch(new File(tempDir, "a.pdash"));
+        assertTrue(other.awaitFile("a.pdash"));
+        assertNull(listener.events.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    public void testMissingDirectoryIsRefused() throws Exception {
+        assertFalse(watcher.watch(new File(tempDir, "missing"), listener));
+        File file = new File(tempDir, "file");
+        touch(file);
+        assertFalse(watcher.watch(file, listener));
+    }
+
+    public void testDeletedDirectoryCancelsWatch() throws Exception {
+        File subdir = new File(tempDir, "sub");
+        subdir.mkdir();
+        assertTrue(watcher.watch(subdir, listener));
+        FileUtils.deleteDirectory(subdir, true);
+
+        long timeout = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < timeout) {
+            Object e = listener.events.poll(500, TimeUnit.MILLISECONDS);
+            if (e == CANCELLED)
+                return;
+        }
+        fail("watch was not cancelled");
+    }
+
+    private void touch(File f) throws Exception {
+        FileOutputStream out = new FileOutputStream(f);
+        out.write('!');
+        out.close();
+    }
+
+    private static final Object CANCELLED = new Object();
+
+    private static class RecordingListener implements DirectoryChangeListener {
+
+        BlockingQueue<Object> events = new LinkedBlockingQueue<Object>();
+
+        public void directoryChanged(File dir, List<String> filenames) {
+            if (filenames == null)
+                events.add("<overflow>");
+            else
+                events.addAll(filenames);
+        }
+
+        public void watchCancelled(File dir) {
+            events.add(CANCELLED);
+        }
+
+        boolean awaitFile(String filename) throws InterruptedException {
+            long timeout = System.currentTimeMillis() + 10000;
+            while (System.currentTimeMillis() < timeout) {
+                Object e = events.poll(500, TimeUnit.MILLISECONDS);
+                if (filename.equals(e) || "<overflow>".equals(e))
+                    return true;
+            }
+            return false;
+        }
+    }
+
+}
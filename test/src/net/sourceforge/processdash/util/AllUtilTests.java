@@ -22,6 +22,9 @@ public class AllUtilTests {
         suite.addTestSuite(OrderedListMergerTest.class);
         suite.addTestSuite(FallbackObjectFactoryTest.class);
         suite.addTestSuite(RuntimeUtilsTest.class);
+        suite.addTestSuite(LRUCacheTest.class);
+        suite.addTestSuite(WorkerPoolTest.class);
+        suite.addTestSuite(BinaryFileUtilsTest.class);
         //$JUnit-END$
         return suite;
     }
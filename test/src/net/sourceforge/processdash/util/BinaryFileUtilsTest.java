@@ -0,0 +1,83 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+
+package net.sourceforge.processdash.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+public class BinaryFileUtilsTest extends TestCase {
+
+    public void testStringRoundTrip() throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buf);
+        BinaryFileUtils.writeString(out, "plain");
+        BinaryFileUtils.writeString(out, null);
+        BinaryFileUtils.writeString(out, "");
+        BinaryFileUtils.writeString(out, "\u00fcnic\u00f8de \u20ac");
+        out.close();
+
+        ByteBuffer in = ByteBuffer.wrap(buf.toByteArray());
+        assertEquals("plain", BinaryFileUtils.readString(in));
+        assertNull(BinaryFileUtils.readString(in));
+        assertEquals("", BinaryFileUtils.readString(in));
+        assertEquals("\u00fcnic\u00f8de \u20ac", BinaryFileUtils.readString(in));
+        assertFalse(in.hasRemaining());
+    }
+
+    public void testTruncatedString() throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        BinaryFileUtils.writeString(new DataOutputStream(buf), "truncated");
+        byte[] bytes = buf.toByteArray();
+        ByteBuffer in = ByteBuffer.wrap(bytes, 0, bytes.length - 1);
+        try {
+            BinaryFileUtils.readString(in);
+            fail("Expected IOException");
+        } catch (IOException ioe) {
+        }
+    }
+
+    public void testReadFile() throws IOException {
+        File f = File.createTempFile("binaryFileUtils", ".bin");
+        try {
+            byte[] contents = new byte[10000];
+            for (int i = 0; i < contents.length; i++)
+                contents[i] = (byte) i;
+            FileOutputStream out = new FileOutputStream(f);
+            out.write(contents);
+            out.close();
+            assertTrue(Arrays.equals(contents, BinaryFileUtils.readFile(f)));
+        } finally {
+            f.delete();
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+
+package net.sourceforge.processdash.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class LRUCacheTest extends TestCase {
+
+    public void testGetAndPut() {
+        LRUCache<String, String> cache = new LRUCache<String, String>(10);
+        assertNull(cache.get("a"));
+        assertNull(cache.put("a", "1"));
+        assertEquals("1", cache.put("a", "2"));
+        assertEquals("2", cache.get("a"));
+        assertEquals("2", cache.putIfAbsent("a", "3"));
+        assertEquals("2", cache.get("a"));
+        assertNull(cache.putIfAbsent("b", "4"));
+        assertEquals(2, cache.size());
+        assertEquals("4", cache.remove("b"));
+        assertNull(cache.remove("b"));
+        assertEquals(1, cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeightedSize());
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2.0 / 3, cache.getHitRate(), 0.0001);
+    }
+
+    public void testLeastRecentlyUsedEviction() {
+        LRUCache<Integer, Integer> cache = new LRUCache<Integer, Integer>(5);
+        for (int i = 0; i < 5; i++)
+            cache.put(i, i);
+        cache.get(0);
+        cache.put(5, 5);
+        assertEquals(5, cache.size());
+        assertEquals(Integer.valueOf(0), cache.get(0));
+        assertNull(cache.get(1));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    public void testWeigher() {
+        LRUCache.Weigher<String, String> w = new LRUCache.Weigher<String, String>() {
+            public int weigh(String key, String value) {
+                return value.length();
+            }};
+        LRUCache<String, String> cache = new LRUCache<String, String>(10, w, 0);
+        cache.put("a", "xxxx");
+        cache.put("b", "xxxx");
+        assertEquals(8, cache.getWeightedSize());
+        cache.put("c", "xxxx");
+        assertEquals(8, cache.getWeightedSize());
+        assertNull(cache.get("a"));
+
+        // an entry heavier than the entire cache is not stored
+        cache.put("d", "xxxxxxxxxxxx");
+        assertNull(cache.get("d"));
+        assertEquals(8, cache.getWeightedSize());
+        assertEquals(1, cache.getRejectionCount());
+    }
+
+    public void testHeavyEntries() {
+        LRUCache.Weigher<Integer, String> w = new LRUCache.Weigher<Integer, String>() {
+            public int weigh(Integer key, String value) {
+                return value.length();
+            }};
+        // a large weighted cache can hold entries up to a quarter of its
+        // maximum weight, regardless of the segment they land in
+        LRUCache<Integer, String> cache = new LRUCache<Integer, String>(
+                4000, w, 0);
+        String heavy = new String(new char[1000]);
+        for (int i = 0; i < 16; i++) {
+            cache.clear();
+            assertNull(cache.put(i, heavy));
+            assertSame(heavy, cache.get(i));
+        }
+        assertEquals(0, cache.getRejectionCount());
+
+        String tooHeavy = new String(new char[1001]);
+        boolean rejected = false;
+        for (int i = 0; i < 16; i++) {
+            cache.put(i, tooHeavy);
+            if (cache.get(i) == null)
+                rejected = true;
+        }
+        assertTrue(rejected);
+        assertTrue(cache.getRejectionCount() > 0);
+        assertTrue(cache.getWeightedSize() <= 4000);
+    }
+
+    public void testExpiration() throws Exception {
+        LRUCache<String, String> cache = new LRUCache<String, String>(10,
+                null, 50);
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+        Thread.sleep(100);
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getExpirationCount());
+        assertEquals(0, cache.size());
+    }
+
+    public void testConcurrentAccess() throws Exception {
+        final LRUCache<Integer, Integer> cache = new LRUCache<Integer, Integer>(
+                1000);
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = new Thread() {
+                public void run() {
+                    try {
+                        Random r = new Random(seed);
+                        for (int i = 0; i < 20000; i++) {
+                            Integer key = r.nextInt(3000);
+                            Integer val = cache.get(key);
+                            if (val == null)
+                                cache.put(key, key);
+                            else
+                                assertEquals(key, val);
+                        }
+                    } catch (Throwable th) {
+                        synchronized (errors) {
+                            errors.add(th);
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread t : threads)
+            t.join();
+        assertTrue(errors.toString(), errors.isEmpty());
+        assertTrue(cache.size() <= 1000);
+        assertEquals(cache.size(), cache.getWeightedSize());
+        assertEquals(8 * 20000, cache.getHitCount() + cache.getMissCount());
+    }
+
+}
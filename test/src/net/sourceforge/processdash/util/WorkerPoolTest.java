@@ -0,0 +1,88 @@
+// Copyright (C) 2026 Tuma Solutions, LLC
+// Process Dashboard - Data Automation Tool for high-maturity processes
+//
+// This program is free software; you can redistribute it and/or
+// modify it under the terms of the GNU General Public License
+// as published by the Free Software Foundation; either version 3
+// of the License, or (at your option) any later version.
+//
+// Additional permissions also apply; see the README-license.txt
+// file in the project root directory for more information.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program; if not, see <http://www.gnu.org/licenses/>.
+//
+// The author(s) may be contacted at:
+//     processdash@tuma-solutions.com
+//     processdash-devel@lists.sourceforge.net
+package net.sourceforge.processdash.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import junit.framework.TestCase;
+
+public class WorkerPoolTest extends TestCase {
+
+    public void testRunAllProcessesEveryItemOnce() {
+        final AtomicIntegerArray counts = new AtomicIntegerArray(500);
+        final AtomicInteger next = new AtomicInteger();
+        WorkerPool.runAll(new Runnable() {
+            public void run() {
+                int pos;
+                while ((pos = next.getAndIncrement()) < counts.length())
+                    counts.incrementAndGet(pos);
+            }}, 4);
+        for (int i = 0; i < counts.length(); i++)
+            assertEquals(1, counts.get(i));
+        assertFalse(WorkerPool.isWorkerThread());
+    }
+
+    public void testNestedWorkRunsSerially() {
+        final AtomicInteger nestedCopies = new AtomicInteger();
+        final AtomicInteger outerItems = new AtomicInteger(8);
+        WorkerPool.runAll(new Runnable() {
+            public void run() {
+                while (outerItems.getAndDecrement() > 0) {
+                    assertTrue(WorkerPool.isWorkerThread());
+                    final AtomicInteger count = new AtomicInteger();
+                    WorkerPool.runAll(new Runnable() {
+                        public void run() {
+                            count.incrementAndGet();
+                        }}, 4);
+                    nestedCopies.addAndGet(count.get());
+                }
+            }}, 4);
+        assertEquals(8, nestedCopies.get());
+    }
+
+    public void testErrorsAreRethrown() {
+        final AtomicInteger next = new AtomicInteger();
+        try {
+            WorkerPool.runAll(new Runnable() {
+                public void run() {
+                    if (next.getAndIncrement() == 0)
+                        throw new IllegalStateException("boom");
+                }}, 3);
+            fail("Expected exception");
+        } catch (IllegalStateException ise) {
+            assertEquals("boom", ise.getMessage());
+        }
+    }
+
+    public void testGetRunsUnstartedTaskOnCaller() throws Exception {
+        Future<Boolean> f = WorkerPool.submit(new Callable<Boolean>() {
+            public Boolean call() {
+                return WorkerPool.isWorkerThread();
+            }});
+        assertEquals(Boolean.TRUE, WorkerPool.get(f));
+    }
+
+}